@@ -32,6 +32,8 @@ public enum Group
     TASK_SCHEDULER( "Scheduler", ExecutorServiceFactory.unschedulable() ),
     /* Background page cache worker. */
     PAGE_CACHE( "PageCacheWorker" ),
+    /** Vectored reads and writes that the async page swapper keeps in flight at the same time. */
+    PAGE_SWAPPER_IO( "PageSwapperIO" ),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER( "FileWatcher" ),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
@@ -50,6 +52,8 @@ public enum Group
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
+    /** Applies recovered transactions in parallel. */
+    RECOVERY_APPLIER( "RecoveryApplier" ),
     /** Thread pool for anyone who want some help doing file IO in parallel. */
     FILE_IO_HELPER( "FileIOHelper" ),
     NATIVE_SECURITY( "NativeSecurity" ),
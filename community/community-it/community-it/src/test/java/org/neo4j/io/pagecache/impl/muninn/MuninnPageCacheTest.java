@@ -26,9 +26,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.function.IntSupplier;
@@ -39,12 +41,16 @@ import org.neo4j.io.fs.DelegatingFileSystemAbstraction;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
@@ -53,22 +59,28 @@ import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.memory.LocalMemoryTracker;
 
 import static java.time.Duration.ofMillis;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
@@ -128,6 +140,327 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void readAheadCursorMustFaultInPagesAheadOfItInTheBackground() throws IOException
+    {
+        File file = file( "a" );
+        writePageIds( file, 32 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file, 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+            {
+                assertTrue( cursor.next() );
+                assertTimeoutPreemptively( ofMillis( 10_000 ), () ->
+                {
+                    for ( long pageId = 1; pageId <= 4; pageId++ )
+                    {
+                        try ( PageCursor noFault = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+                        {
+                            while ( true )
+                            {
+                                assertTrue( noFault.next( pageId ) );
+                                if ( noFault.getCurrentPageId() == pageId )
+                                {
+                                    long value;
+                                    do
+                                    {
+                                        value = noFault.getLong();
+                                    }
+                                    while ( noFault.shouldRetry() );
+                                    assertEquals( pageId, value );
+                                    break;
+                                }
+                                Thread.sleep( 1 );
+                            }
+                        }
+                    }
+                } );
+            }
+        }
+    }
+
+    @Test
+    void prefetchMustFaultInTheGivenPagesInTheBackground() throws IOException
+    {
+        File file = file( "a" );
+        writePageIds( file, 32 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file, 8 ) )
+        {
+            long[] pageIds = {3, 4, 9, 20, 0};
+            pagedFile.prefetch( pageIds, 4 );
+            assertTimeoutPreemptively( ofMillis( 10_000 ), () ->
+            {
+                for ( int i = 0; i < 4; i++ )
+                {
+                    assertEquals( pageIds[i], awaitPageInMemory( pagedFile, pageIds[i] ) );
+                }
+            } );
+            // Only the given pages were prefetched.
+            try ( PageCursor noFault = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( noFault.next( 0 ) );
+                assertEquals( PageCursor.UNBOUND_PAGE_ID, noFault.getCurrentPageId() );
+            }
+        }
+    }
+
+    @Test
+    void prefetchOfManyPagesMustFaultInAllOfThemOverSeveralReadAheads() throws IOException
+    {
+        File file = file( "a" );
+        writePageIds( file, 200 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 220, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file, 8 ) )
+        {
+            // Every third page, with a long run in the middle that must not be split between read-aheads.
+            long[] pageIds = new long[100];
+            int count = 0;
+            for ( long pageId = 0; pageId < 200 && count < pageIds.length; pageId += pageId >= 60 && pageId < 100 ? 1 : 3 )
+            {
+                pageIds[count++] = pageId;
+            }
+            pagedFile.prefetch( pageIds, count );
+            int prefetched = count;
+            assertTimeoutPreemptively( ofMillis( 10_000 ), () ->
+            {
+                for ( int i = 0; i < prefetched; i++ )
+                {
+                    assertEquals( pageIds[i], awaitPageInMemory( pagedFile, pageIds[i] ) );
+                }
+            } );
+        }
+    }
+
+    @Test
+    void failedPrefetchReadMustReturnItsPagesToTheCache()
+    {
+        assertTimeoutPreemptively( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            MutableBoolean throwException = new MutableBoolean( false );
+            FileSystemAbstraction fs = new DelegatingFileSystemAbstraction( this.fs )
+            {
+                @Override
+                public StoreChannel open( File fileName, Set<OpenOption> options ) throws IOException
+                {
+                    return new DelegatingStoreChannel( super.open( fileName, options ) )
+                    {
+                        @Override
+                        public int read( ByteBuffer dst, long position ) throws IOException
+                        {
+                            if ( throwException.booleanValue() )
+                            {
+                                throw new IOException( "uh-oh..." );
+                            }
+                            return super.read( dst, position );
+                        }
+                    };
+                }
+            };
+            File file = file( "a" );
+            writePageIds( file, 2 );
+            DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+
+            try ( MuninnPageCache pageCache = createPageCache( fs, 2, tracer, DefaultPageCursorTracerSupplier.INSTANCE ) )
+            {
+                throwException.setTrue();
+                try ( PagedFile pagedFile = map( pageCache, file, 8 ) )
+                {
+                    prefetchAndAwaitFaults( pagedFile, tracer, 0, 1 );
+                }
+                throwException.setFalse();
+
+                try ( PagedFile pagedFile = map( pageCache, file, 8 );
+                        PageCursor first = pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+                        PageCursor second = pagedFile.io( 1, PF_SHARED_WRITE_LOCK ) )
+                {
+                    assertTrue( first.next() );
+                    assertEquals( 0, first.getLong() );
+                    assertTrue( second.next() );
+                    assertEquals( 1, second.getLong() );
+                }
+            }
+        } );
+    }
+
+    @Test
+    void prefetchFailingToGetFreePagesMustReturnThePagesItGotToTheCache()
+    {
+        assertTimeoutPreemptively( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            int maxPages = 6;
+            File file = file( "a" );
+            File pinnedFile = file( "b" );
+            writePageIds( file, 3 );
+            writePageIds( pinnedFile, maxPages - 2 );
+            DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+
+            try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, tracer, DefaultPageCursorTracerSupplier.INSTANCE );
+                    PagedFile pinnedPagedFile = map( pageCache, pinnedFile, 8 ) )
+            {
+                // Keep all but two pages write locked, so the prefetch gets two free pages and then can't evict anything for the third.
+                List<PageCursor> pins = new ArrayList<>();
+                try
+                {
+                    for ( int i = 0; i < maxPages - 2; i++ )
+                    {
+                        PageCursor pin = pinnedPagedFile.io( i, PF_SHARED_WRITE_LOCK );
+                        pins.add( pin );
+                        assertTrue( pin.next() );
+                    }
+                    try ( PagedFile pagedFile = map( pageCache, file, 8 ) )
+                    {
+                        prefetchAndAwaitFaults( pagedFile, tracer, 0, 1, 2 );
+                    }
+
+                    // The two pages the prefetch got must be free again, or these would not be able to get any.
+                    try ( PagedFile pagedFile = map( pageCache, file, 8 );
+                            PageCursor first = pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+                            PageCursor second = pagedFile.io( 1, PF_SHARED_WRITE_LOCK ) )
+                    {
+                        assertTrue( first.next() );
+                        assertEquals( 0, first.getLong() );
+                        assertTrue( second.next() );
+                        assertEquals( 1, second.getLong() );
+                    }
+                }
+                finally
+                {
+                    IOUtils.closeAll( pins );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Prefetch the given pages, and wait for the prefetch to be done with them, since unmapping the file cancels prefetches that
+     * have not started yet.
+     */
+    private static void prefetchAndAwaitFaults( PagedFile pagedFile, DefaultPageCacheTracer tracer, long... pageIds )
+            throws InterruptedException
+    {
+        long faultsBefore = tracer.faults();
+        pagedFile.prefetch( pageIds, pageIds.length );
+        while ( tracer.faults() < faultsBefore + pageIds.length )
+        {
+            Thread.sleep( 1 );
+        }
+    }
+
+    private void writePageIds( File file, int pageCount ) throws IOException
+    {
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            ByteBuffer buf = ByteBuffers.allocate( 8 * pageCount );
+            for ( long pageId = 0; pageId < pageCount; pageId++ )
+            {
+                buf.putLong( pageId );
+            }
+            buf.flip();
+            channel.writeAll( buf );
+        }
+    }
+
+    private static long awaitPageInMemory( PagedFile pagedFile, long pageId ) throws Exception
+    {
+        try ( PageCursor noFault = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            while ( true )
+            {
+                assertTrue( noFault.next( pageId ) );
+                if ( noFault.getCurrentPageId() == pageId )
+                {
+                    long value;
+                    do
+                    {
+                        value = noFault.getLong();
+                    }
+                    while ( noFault.shouldRetry() );
+                    return value;
+                }
+                Thread.sleep( 1 );
+            }
+        }
+    }
+
+    @Test
+    void noFaultReadsMustNotCountAsPageAccesses() throws IOException
+    {
+        File file = file( "a" );
+        writePageIds( file, 2 );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs );
+        MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( MuninnPageCache.memoryRequiredForPages( 10 ) ),
+                new LocalMemoryTracker() );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, allocator, tracer, PageCursorTracerSupplier.NULL,
+                EmptyVersionContextSupplier.EMPTY, jobScheduler, EvictionPolicy.SCAN_RESISTANT );
+                PagedFile pagedFile = map( pageCache, file, 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            for ( int i = 0; i < 5; i++ )
+            {
+                try ( PageCursor noFault = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+                {
+                    assertTrue( noFault.next() );
+                    assertEquals( 0, noFault.getCurrentPageId() );
+                }
+            }
+            assertEquals( 0, tracer.promotions() );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            assertEquals( 1, tracer.promotions() );
+        }
+        finally
+        {
+            swapperFactory.close();
+        }
+    }
+
+    @Test
+    void numaPartitionedPageCacheMustPreferFaultingIntoTheLocalPartition() throws IOException
+    {
+        RecordingNumaTopology numaTopology = new RecordingNumaTopology( 2 );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs );
+        MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( MuninnPageCache.memoryRequiredForPages( 40 ) ),
+                new LocalMemoryTracker() );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, allocator, tracer, PageCursorTracerSupplier.NULL,
+                EmptyVersionContextSupplier.EMPTY, jobScheduler, EvictionPolicy.CLOCK, numaTopology );
+                PagedFile pagedFile = map( pageCache, file( "a" ), PageCache.PAGE_SIZE, StandardOpenOption.CREATE );
+                PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            numaTopology.currentNode = 1;
+            for ( long pageId = 0; pageId < 5; pageId++ )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+            assertEquals( 0, tracer.numaFaults( 0 ) );
+            assertEquals( 5, tracer.numaFaults( 1 ) );
+            assertThat( numaTopology.boundNodes, contains( 1, 1, 1, 1, 1 ) );
+
+            numaTopology.currentNode = 0;
+            for ( long pageId = 5; pageId < 8; pageId++ )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+            assertEquals( 3, tracer.numaFaults( 0 ) );
+            assertEquals( 5, tracer.numaFaults( 1 ) );
+        }
+        finally
+        {
+            allocator.close();
+        }
+    }
+
     @Test
     void ableToEvictAllPageInAPageCache() throws IOException
     {
@@ -150,6 +483,131 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void backgroundFlusherMustWriteOutColdDirtyPages() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.enableBackgroundFlushing( IOLimiter.UNLIMITED, e -> {} );
+            try ( PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0L );
+                }
+                long pageRef = pageCache.pages.deref( 0 );
+                assertTimeoutPreemptively( ofMillis( 10_000 ), () ->
+                {
+                    while ( pageCache.pages.isModified( pageRef ) )
+                    {
+                        Thread.sleep( 10 );
+                    }
+                } );
+                assertThat( tracer.flushes(), is( 1L ) );
+                ByteBuffer buf = readIntoBuffer( "a" );
+                assertThat( buf.getLong(), is( 0L ) );
+                assertThat( buf.getLong(), is( y ) );
+            }
+        }
+    }
+
+    @Test
+    void backgroundFlusherMustReportTheFirstOfRepeatedWriteFailures() throws Exception
+    {
+        MutableBoolean throwException = new MutableBoolean( false );
+        FileSystemAbstraction fs = new DelegatingFileSystemAbstraction( this.fs )
+        {
+            @Override
+            public StoreChannel write( File fileName ) throws IOException
+            {
+                return new DelegatingStoreChannel( super.write( fileName ) )
+                {
+                    @Override
+                    public void writeAll( ByteBuffer src, long position ) throws IOException
+                    {
+                        if ( throwException.booleanValue() )
+                        {
+                            throw new IOException( "uh-oh..." );
+                        }
+                        super.writeAll( src, position );
+                    }
+                };
+            }
+        };
+        writeInitialDataTo( file( "a" ) );
+        List<IOException> failures = new CopyOnWriteArrayList<>();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.enableBackgroundFlushing( IOLimiter.UNLIMITED, failures::add );
+            try ( PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+            {
+                throwException.setTrue();
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0L );
+                }
+                assertTimeoutPreemptively( ofMillis( 10_000 ), () ->
+                {
+                    while ( failures.isEmpty() )
+                    {
+                        Thread.sleep( 10 );
+                    }
+                } );
+                // Give the flusher a few more attempts at the page.
+                Thread.sleep( 500 );
+                assertThat( failures.size(), is( 1 ) );
+                assertThat( failures.get( 0 ).getMessage(), is( "uh-oh..." ) );
+                throwException.setFalse();
+            }
+        }
+    }
+
+    @Test
+    void flushWithDirtyPagesSnapshotMustOnlyWritePagesThatWereDirtyWhenTheSnapshotWasTaken() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( 0L );
+            }
+            IOLimiter limiter = pageCache.snapshotDirtyPages( IOLimiter.UNLIMITED );
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( 0L );
+            }
+
+            pagedFile.flushAndForce( limiter );
+
+            ByteBuffer buf = readIntoBuffer( "a" );
+            assertThat( buf.getLong(), is( 0L ) );
+            assertThat( buf.getLong(), is( y ) );
+            pagedFile.flushAndForce();
+            buf = readIntoBuffer( "a" );
+            assertThat( buf.getLong(), is( 0L ) );
+            assertThat( buf.getLong(), is( 0L ) );
+        }
+    }
+
+    @Test
+    void mustNotEnableBackgroundFlushingAfterFilesHaveBeenMapped() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 2, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile ignore = map( pageCache, file( "a" ), 8 ) )
+        {
+            assertThrows( IllegalStateException.class, () -> pageCache.enableBackgroundFlushing( IOLimiter.UNLIMITED, e -> {} ) );
+        }
+    }
+
     @Test
     void mustEvictCleanPageWithoutFlushing() throws Exception
     {
@@ -735,6 +1193,36 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         } );
     }
 
+    private static class RecordingNumaTopology implements NumaTopology
+    {
+        private final int nodeCount;
+        private final List<Integer> boundNodes = new CopyOnWriteArrayList<>();
+        private volatile int currentNode;
+
+        RecordingNumaTopology( int nodeCount )
+        {
+            this.nodeCount = nodeCount;
+        }
+
+        @Override
+        public int nodeCount()
+        {
+            return nodeCount;
+        }
+
+        @Override
+        public int currentNode()
+        {
+            return currentNode;
+        }
+
+        @Override
+        public void bindToNode( long address, long bytes, int node )
+        {
+            boundNodes.add( node );
+        }
+    }
+
     private static class FlushRendezvousTracer extends DefaultPageCacheTracer
     {
         private final CountDownLatch latch;
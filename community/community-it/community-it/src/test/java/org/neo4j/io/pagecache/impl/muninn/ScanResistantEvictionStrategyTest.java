@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanResistantEvictionStrategyTest
+{
+    private static final int PAGE_COUNT = 10;
+    private static final int ALIGNMENT = 8;
+
+    private MemoryAllocator mman;
+    private PageList pageList;
+    private DefaultPageCacheTracer tracer;
+    private ScanResistantEvictionStrategy strategy;
+
+    @BeforeEach
+    void setUp()
+    {
+        int pageSize = UnsafeUtil.pageSize();
+        mman = MemoryAllocator.createAllocator( "1 MiB", EmptyMemoryTracker.INSTANCE );
+        pageList = new PageList( PAGE_COUNT, pageSize, mman, new SwapperSet(), VictimPageReference.getVictimPage( pageSize ), ALIGNMENT );
+        tracer = new DefaultPageCacheTracer();
+        strategy = (ScanResistantEvictionStrategy) EvictionPolicy.SCAN_RESISTANT.createStrategy( pageList, tracer );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        mman.close();
+    }
+
+    @Test
+    void pageAccessedOnceMustBeEvictedOnFirstSweep()
+    {
+        long pageRef = pageList.deref( 0 );
+        strategy.pageAccessed( pageRef );
+
+        assertTrue( strategy.shouldEvict( pageRef ) );
+        assertEquals( 0, strategy.protectedPages() );
+        assertEquals( 0, tracer.probationHits() );
+    }
+
+    @Test
+    void pageAccessedTwiceMustBePromotedToProtectedSegment()
+    {
+        long pageRef = pageList.deref( 0 );
+        strategy.pageAccessed( pageRef );
+        strategy.pageAccessed( pageRef );
+
+        assertEquals( 1, strategy.protectedPages() );
+        assertEquals( 1, tracer.probationHits() );
+        assertEquals( 1, tracer.promotions() );
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertFalse( strategy.shouldEvict( pageRef ) );
+        }
+    }
+
+    @Test
+    void protectedHitsMustBeCounted()
+    {
+        long pageRef = pageList.deref( 0 );
+        strategy.pageAccessed( pageRef );
+        strategy.pageAccessed( pageRef );
+        strategy.pageAccessed( pageRef );
+        strategy.pageAccessed( pageRef );
+
+        assertEquals( 1, tracer.probationHits() );
+        assertEquals( 2, tracer.protectedHits() );
+    }
+
+    @Test
+    void protectedPagesMustBeDemotedWhenProtectedSegmentIsFull()
+    {
+        for ( int i = 0; i < PAGE_COUNT; i++ )
+        {
+            long pageRef = pageList.deref( i );
+            strategy.pageAccessed( pageRef );
+            strategy.pageAccessed( pageRef );
+        }
+        assertEquals( PAGE_COUNT, strategy.protectedPages() );
+
+        // The protected segment is over its limit, so the pages must age, get demoted, and then finally be evicted.
+        long pageRef = pageList.deref( 0 );
+        assertFalse( strategy.shouldEvict( pageRef ) );
+        assertFalse( strategy.shouldEvict( pageRef ) );
+        assertEquals( PAGE_COUNT - 1, strategy.protectedPages() );
+        assertEquals( 1, tracer.demotions() );
+        assertTrue( strategy.shouldEvict( pageRef ) );
+    }
+
+    @Test
+    void demotedPageMustBePromotedAgainIfAccessedBeforeEviction()
+    {
+        for ( int i = 0; i < PAGE_COUNT; i++ )
+        {
+            long pageRef = pageList.deref( i );
+            strategy.pageAccessed( pageRef );
+            strategy.pageAccessed( pageRef );
+        }
+        long pageRef = pageList.deref( 0 );
+        assertFalse( strategy.shouldEvict( pageRef ) );
+        assertFalse( strategy.shouldEvict( pageRef ) ); // demoted
+
+        strategy.pageAccessed( pageRef );
+
+        assertEquals( PAGE_COUNT, strategy.protectedPages() );
+        assertEquals( PAGE_COUNT + 1, tracer.promotions() );
+    }
+
+    @Test
+    void completedSweepMustRecountProtectedPages()
+    {
+        long pageRef = pageList.deref( 3 );
+        strategy.pageAccessed( pageRef );
+        strategy.pageAccessed( pageRef );
+        pageList.compareAndSetUsage( pageRef, pageList.getUsage( pageRef ), 0 ); // as if evicted behind our back
+        assertEquals( 1, strategy.protectedPages() );
+
+        strategy.sweepCompleted();
+
+        assertEquals( 0, strategy.protectedPages() );
+    }
+}
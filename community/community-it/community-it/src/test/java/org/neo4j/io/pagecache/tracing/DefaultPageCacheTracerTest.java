@@ -27,6 +27,7 @@ import java.io.IOException;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
@@ -113,6 +114,33 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 0, 0, 6, 0, 0, 0, 0, 0d );
     }
 
+    @Test
+    void mustAttributeFlushesToMappedFiles()
+    {
+        tracer.mappedFile( swapper.file() );
+        try ( MajorFlushEvent fileFlush = tracer.beginFileFlush( swapper ) )
+        {
+            FlushEvent flushEvent = fileFlush.flushEventOpportunity().beginFlush( 0, 0, swapper );
+            flushEvent.addBytesWritten( 12 );
+            flushEvent.done();
+        }
+        tracer.fileEvents( swapper.file(), 3, 2, 16, 0 );
+
+        assertCounts( 0, 0, 0, 0, 0, 0, 1, 0, 12, 1, 0, 0d );
+        PageFileCounters fileCounters = tracer.fileCounters().get( 0 );
+        assertThat( fileCounters.file(), is( swapper.file() ) );
+        assertThat( fileCounters.hits(), is( 3L ) );
+        assertThat( fileCounters.faults(), is( 2L ) );
+        assertThat( fileCounters.bytesRead(), is( 16L ) );
+        assertThat( fileCounters.bytesWritten(), is( 12L ) );
+
+        tracer.unmappedFile( swapper.file() );
+        assertThat( tracer.fileCounters().isEmpty(), is( true ) );
+        // Events for files that are no longer mapped are ignored.
+        tracer.fileEvents( swapper.file(), 1, 1, 8, 0 );
+        assertThat( tracer.fileCounters().isEmpty(), is( true ) );
+    }
+
     @Test
     void shouldCalculateHitRatio()
     {
@@ -22,10 +22,12 @@ package org.neo4j.io.pagecache.tracing;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
@@ -199,6 +201,61 @@ class DefaultPageCursorTracerTest
         assertEquals( 450, cacheTracer.bytesRead() );
     }
 
+    @Test
+    void reportFileCountersToPageCacheTracer()
+    {
+        PageSwapper otherSwapper = new DummyPageSwapper( "otherfile", (int) ByteUnit.kibiBytes( 8 ) );
+        cacheTracer.mappedFile( swapper.file() );
+        cacheTracer.mappedFile( otherSwapper.file() );
+
+        generateEventSet();
+        pinAndHit();
+        PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, otherSwapper );
+        pinEvent.hit();
+        pinEvent.done();
+        pageCursorTracer.reportEvents();
+
+        PageFileCounters file = fileCounters( swapper.file() );
+        assertEquals( 1, file.hits() );
+        assertEquals( 1, file.faults() );
+        assertEquals( 150, file.bytesRead() );
+        assertEquals( 10, file.bytesWritten() );
+        PageFileCounters otherFile = fileCounters( otherSwapper.file() );
+        assertEquals( 1, otherFile.hits() );
+        assertEquals( 0, otherFile.faults() );
+    }
+
+    @Test
+    void reportFileCountersForMoreFilesThanFitInTheTracer()
+    {
+        int fileCount = 20;
+        PageSwapper[] swappers = new PageSwapper[fileCount];
+        for ( int i = 0; i < fileCount; i++ )
+        {
+            swappers[i] = new DummyPageSwapper( "file" + i, (int) ByteUnit.kibiBytes( 8 ) );
+            cacheTracer.mappedFile( swappers[i].file() );
+        }
+
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( int i = 0; i < fileCount; i++ )
+            {
+                for ( int j = 0; j <= i; j++ )
+                {
+                    PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, swappers[i] );
+                    pinEvent.hit();
+                    pinEvent.done();
+                }
+            }
+        }
+        pageCursorTracer.reportEvents();
+
+        for ( int i = 0; i < fileCount; i++ )
+        {
+            assertEquals( 3 * (i + 1), fileCounters( swappers[i].file() ).hits() );
+        }
+    }
+
     @Test
     void shouldCalculateHitRatio()
     {
@@ -247,6 +304,11 @@ class DefaultPageCursorTracerTest
         pinEvent.done();
     }
 
+    private PageFileCounters fileCounters( File file )
+    {
+        return cacheTracer.fileCounters().stream().filter( counters -> counters.file().equals( file ) ).findFirst().orElseThrow();
+    }
+
     private PageCursorTracer createTracer()
     {
         DefaultPageCursorTracer pageCursorTracer = new DefaultPageCursorTracer();
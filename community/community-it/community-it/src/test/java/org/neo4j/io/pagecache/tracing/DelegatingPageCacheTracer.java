@@ -20,8 +20,10 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
  * A PageCacheTracer that delegates all calls to a wrapped instance.
@@ -109,6 +111,48 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long probationHits()
+    {
+        return delegate.probationHits();
+    }
+
+    @Override
+    public long protectedHits()
+    {
+        return delegate.protectedHits();
+    }
+
+    @Override
+    public long promotions()
+    {
+        return delegate.promotions();
+    }
+
+    @Override
+    public long demotions()
+    {
+        return delegate.demotions();
+    }
+
+    @Override
+    public long numaFaults( int node )
+    {
+        return delegate.numaFaults( node );
+    }
+
+    @Override
+    public long numaEvictions( int node )
+    {
+        return delegate.numaEvictions( node );
+    }
+
+    @Override
+    public List<PageFileCounters> fileCounters()
+    {
+        return delegate.fileCounters();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -145,6 +189,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.faults( faults );
     }
 
+    @Override
+    public void faultNanos( long nanos )
+    {
+        delegate.faultNanos( nanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -175,6 +225,54 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.flushes( flushes );
     }
 
+    @Override
+    public void probationHits( long hits )
+    {
+        delegate.probationHits( hits );
+    }
+
+    @Override
+    public void protectedHits( long hits )
+    {
+        delegate.protectedHits( hits );
+    }
+
+    @Override
+    public void promotions( long promotions )
+    {
+        delegate.promotions( promotions );
+    }
+
+    @Override
+    public void demotions( long demotions )
+    {
+        delegate.demotions( demotions );
+    }
+
+    @Override
+    public void numaNodes( int nodeCount )
+    {
+        delegate.numaNodes( nodeCount );
+    }
+
+    @Override
+    public void numaFaults( int node, long faults )
+    {
+        delegate.numaFaults( node, faults );
+    }
+
+    @Override
+    public void numaEvictions( int node, long evictions )
+    {
+        delegate.numaEvictions( node, evictions );
+    }
+
+    @Override
+    public void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten )
+    {
+        delegate.fileEvents( file, hits, faults, bytesRead, bytesWritten );
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -199,6 +297,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.faults();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return delegate.faultNanos();
+    }
+
     @Override
     public long evictions()
     {
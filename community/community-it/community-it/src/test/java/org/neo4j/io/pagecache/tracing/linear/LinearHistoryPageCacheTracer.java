@@ -20,8 +20,10 @@
 package org.neo4j.io.pagecache.tracing.linear;
 
 import java.io.File;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -84,6 +86,12 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
     @Override
     public long evictions()
     {
@@ -144,6 +152,48 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long probationHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long protectedHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long promotions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long demotions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long numaFaults( int node )
+    {
+        return 0;
+    }
+
+    @Override
+    public long numaEvictions( int node )
+    {
+        return 0;
+    }
+
+    @Override
+    public List<PageFileCounters> fileCounters()
+    {
+        return List.of();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -176,6 +226,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void faultNanos( long nanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -201,6 +256,46 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void probationHits( long hits )
+    {
+    }
+
+    @Override
+    public void protectedHits( long hits )
+    {
+    }
+
+    @Override
+    public void promotions( long promotions )
+    {
+    }
+
+    @Override
+    public void demotions( long demotions )
+    {
+    }
+
+    @Override
+    public void numaNodes( int nodeCount )
+    {
+    }
+
+    @Override
+    public void numaFaults( int node, long faults )
+    {
+    }
+
+    @Override
+    public void numaEvictions( int node, long evictions )
+    {
+    }
+
+    @Override
+    public void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten )
+    {
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -21,9 +21,11 @@ package org.neo4j.io.pagecache.tracing.recording;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
@@ -89,6 +91,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return faults.get();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
     @Override
     public long pins()
     {
@@ -149,6 +157,48 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long probationHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long protectedHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long promotions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long demotions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long numaFaults( int node )
+    {
+        return 0;
+    }
+
+    @Override
+    public long numaEvictions( int node )
+    {
+        return 0;
+    }
+
+    @Override
+    public List<PageFileCounters> fileCounters()
+    {
+        return List.of();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -183,6 +233,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         this.faults.getAndAdd( faults );
     }
 
+    @Override
+    public void faultNanos( long nanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -209,6 +264,46 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void probationHits( long hits )
+    {
+    }
+
+    @Override
+    public void protectedHits( long hits )
+    {
+    }
+
+    @Override
+    public void promotions( long promotions )
+    {
+    }
+
+    @Override
+    public void demotions( long demotions )
+    {
+    }
+
+    @Override
+    public void numaNodes( int nodeCount )
+    {
+    }
+
+    @Override
+    public void numaFaults( int node, long faults )
+    {
+    }
+
+    @Override
+    public void numaEvictions( int node, long evictions )
+    {
+    }
+
+    @Override
+    public void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten )
+    {
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
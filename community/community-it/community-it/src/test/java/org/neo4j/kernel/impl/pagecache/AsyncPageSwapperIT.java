@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.internal.nativeimpl.LinuxVectoredIO;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PageSwapperTest;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class AsyncPageSwapperIT extends PageSwapperTest
+{
+    private final DefaultFileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction();
+    private final JobScheduler scheduler = JobSchedulerFactory.createInitialisedScheduler();
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        IOUtils.closeAll( scheduler, fileSystem );
+    }
+
+    @Override
+    protected PageSwapperFactory swapperFactory()
+    {
+        AsyncPageSwapperFactory factory = new AsyncPageSwapperFactory();
+        factory.configure( scheduler, 4 );
+        factory.open( fileSystem );
+        return factory;
+    }
+
+    @Override
+    protected void mkdirs( File dir ) throws IOException
+    {
+        fileSystem.mkdirs( dir );
+    }
+
+    @Test
+    void mustCreateAsyncPageSwappersWhenVectoredIOIsAvailable() throws IOException
+    {
+        assumeTrue( LinuxVectoredIO.isAvailable() );
+        PageSwapper swapper = createSwapper( createSwapperFactory(), testDir.file( "file" ), 32, NO_CALLBACK, true, false );
+        assertThat( swapper, instanceOf( AsyncPageSwapper.class ) );
+    }
+
+    @Test
+    void mustTransferNothingForEmptyVectors() throws IOException
+    {
+        assumeTrue( LinuxVectoredIO.isAvailable() );
+        PageSwapper swapper = createSwapper( createSwapperFactory(), testDir.file( "file" ), 32, NO_CALLBACK, true, false );
+        long[] bufferAddresses = new long[0];
+        assertEquals( 0, swapper.write( 0, bufferAddresses, 0, 0 ) );
+        assertEquals( 0, swapper.read( 0, bufferAddresses, 0, 0 ) );
+    }
+}
@@ -46,6 +46,9 @@ public interface ProcedureITBase
                         stringArray( "reader", "editor", "publisher", "architect", "admin" ), "DBMS", true ),
                 proc( "dbms.listConfig", "(searchString =  :: STRING?) :: (name :: STRING?, description :: STRING?, value :: STRING?, dynamic :: BOOLEAN?)",
                         "List the currently active config of Neo4j.", stringArray( "admin" ), "DBMS" ),
+                proc( "dbms.pagecache.fileStatistics", "() :: (file :: STRING?, hits :: INTEGER?, faults :: INTEGER?, bytesRead :: INTEGER?, " +
+                                "bytesWritten :: INTEGER?, hitRatio :: FLOAT?)",
+                        "List the page cache hits, faults, and bytes read and written for each mapped file.", stringArray( "admin" ), "DBMS" ),
                 proc( "db.constraints", "() :: (name :: STRING?, description :: STRING?)", "List all constraints in the database.",
                         stringArray( "reader", "editor", "publisher", "architect", "admin" ), "READ" ),
                 proc( "db.indexes",
@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
@@ -99,6 +100,14 @@ public class ManagedTestCursors implements CursorFactory
         return n;
     }
 
+    @Override
+    public RelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        RelationshipBatchCursor n = cursors.allocateRelationshipBatchCursor();
+        allCursors.add( n );
+        return n;
+    }
+
     @Override
     public PropertyCursor allocatePropertyCursor()
     {
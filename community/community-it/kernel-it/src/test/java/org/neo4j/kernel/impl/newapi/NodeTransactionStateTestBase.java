@@ -34,13 +34,16 @@ import org.neo4j.internal.kernel.api.security.AuthSubject;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.kernel.api.security.TestAccessMode;
 import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.values.storable.Values.NO_VALUE;
@@ -898,6 +901,86 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    void shouldSeeTransactionStateInNodesProperties() throws Exception
+    {
+        long unchanged, changed, removed, deleted;
+        int prop1, prop2;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            prop1 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop1" );
+            prop2 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop2" );
+            unchanged = write.nodeCreate();
+            write.nodeSetProperty( unchanged, prop1, longValue( 1 ) );
+            changed = write.nodeCreate();
+            write.nodeSetProperty( changed, prop1, longValue( 2 ) );
+            write.nodeSetProperty( changed, prop2, stringValue( "two" ) );
+            removed = write.nodeCreate();
+            write.nodeSetProperty( removed, prop1, longValue( 3 ) );
+            deleted = write.nodeCreate();
+            write.nodeSetProperty( deleted, prop1, longValue( 4 ) );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            write.nodeSetProperty( changed, prop1, longValue( 20 ) );
+            write.nodeRemoveProperty( removed, prop1 );
+            write.nodeDelete( deleted );
+            long created = write.nodeCreate();
+            write.nodeSetProperty( created, prop2, stringValue( "five" ) );
+
+            Value[][] values = tx.dataRead().nodesProperties(
+                    new long[]{unchanged, changed, removed, deleted, created, created + 1000, unchanged}, new int[]{prop1, prop2} );
+
+            assertArrayEquals( new Value[]{longValue( 1 ), NO_VALUE}, values[0] );
+            assertArrayEquals( new Value[]{longValue( 20 ), stringValue( "two" )}, values[1] );
+            assertArrayEquals( new Value[]{NO_VALUE, NO_VALUE}, values[2] );
+            assertNull( values[3], "deleted node should not be found" );
+            assertArrayEquals( new Value[]{NO_VALUE, stringValue( "five" )}, values[4] );
+            assertNull( values[5], "non-existing node should not be found" );
+            assertArrayEquals( new Value[]{longValue( 1 ), NO_VALUE}, values[6] );
+        }
+    }
+
+    @Test
+    void shouldApplySecurityInNodesProperties() throws Exception
+    {
+        long first, second;
+        int prop;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            prop = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop" );
+            first = write.nodeCreate();
+            write.nodeSetProperty( first, prop, longValue( 1 ) );
+            second = write.nodeCreate();
+            write.nodeSetProperty( second, prop, longValue( 2 ) );
+            tx.commit();
+        }
+
+        // A restricted user gets the properties read one node at a time, checking each of them
+        SecurityContext restricted = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( true, false, false, false ) );
+        try ( KernelTransaction tx = beginTransaction( restricted ) )
+        {
+            Value[][] values = tx.dataRead().nodesProperties( new long[]{first, second}, new int[]{prop} );
+
+            assertArrayEquals( new Value[]{longValue( 1 )}, values[0] );
+            assertArrayEquals( new Value[]{longValue( 2 )}, values[1] );
+        }
+
+        SecurityContext denied = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( false, false, false, false ) );
+        try ( KernelTransaction tx = beginTransaction( denied ) )
+        {
+            Value[][] values = tx.dataRead().nodesProperties( new long[]{first, second}, new int[]{prop} );
+
+            assertNull( values[0] );
+            assertNull( values[1] );
+        }
+    }
+
     private void assertLabels( LabelSet labels, int... expected )
     {
         assertEquals( expected.length, labels.numberOfLabels() );
@@ -42,12 +42,15 @@ import org.neo4j.internal.kernel.api.security.AuthSubject;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.kernel.api.security.TestAccessMode;
 import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.neo4j.graphdb.Direction.BOTH;
@@ -197,6 +200,42 @@ public abstract class RelationshipTransactionStateTestBase<G extends KernelAPIWr
         }
     }
 
+    @Test
+    void shouldScanRelationshipsOfTypeInTransaction() throws Exception
+    {
+        int type, otherType;
+        long n1, n2, deleted;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            n1 = tx.dataWrite().nodeCreate();
+            n2 = tx.dataWrite().nodeCreate();
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            otherType = tx.tokenWrite().relationshipTypeGetOrCreateForName( "S" );
+
+            relateNTimes( 3, type, n1, n2, tx );
+            deleted = tx.dataWrite().relationshipCreate( n1, type, n2 );
+            relateNTimes( 2, otherType, n1, n2, tx );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // relationships of both types added in this transaction, of which only one must be seen
+            tx.dataWrite().relationshipCreate( n1, type, n2 );
+            tx.dataWrite().relationshipCreate( n1, otherType, n2 );
+            assertTrue( tx.dataWrite().relationshipDelete( deleted ), "should delete relationship" );
+            try ( RelationshipScanCursor relationship = tx.cursors().allocateRelationshipScanCursor() )
+            {
+                tx.dataRead().relationshipTypeScan( type, relationship );
+                assertCountRelationships( relationship, 3 + 1, n1, type, n2 );
+
+                tx.dataRead().relationshipTypeScan( otherType, relationship );
+                assertCountRelationships( relationship, 2 + 1, n1, otherType, n2 );
+            }
+            tx.commit();
+        }
+    }
+
     @Test
     void shouldSeeRelationshipInTransaction() throws Exception
     {
@@ -1486,6 +1525,90 @@ public abstract class RelationshipTransactionStateTestBase<G extends KernelAPIWr
         assertEquals( expectedCount, count );
     }
 
+    @Test
+    void shouldSeeTransactionStateInRelationshipsProperties() throws Exception
+    {
+        long unchanged, changed, removed, deleted;
+        int prop1, prop2;
+        int type;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            prop1 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop1" );
+            prop2 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop2" );
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            unchanged = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( unchanged, prop1, longValue( 1 ) );
+            changed = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( changed, prop1, longValue( 2 ) );
+            write.relationshipSetProperty( changed, prop2, stringValue( "two" ) );
+            removed = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( removed, prop1, longValue( 3 ) );
+            deleted = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( deleted, prop1, longValue( 4 ) );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            write.relationshipSetProperty( changed, prop1, longValue( 20 ) );
+            write.relationshipRemoveProperty( removed, prop1 );
+            write.relationshipDelete( deleted );
+            long created = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( created, prop2, stringValue( "five" ) );
+
+            Value[][] values = tx.dataRead().relationshipsProperties(
+                    new long[]{unchanged, changed, removed, deleted, created, created + 1000, unchanged}, new int[]{prop1, prop2} );
+
+            assertArrayEquals( new Value[]{longValue( 1 ), NO_VALUE}, values[0] );
+            assertArrayEquals( new Value[]{longValue( 20 ), stringValue( "two" )}, values[1] );
+            assertArrayEquals( new Value[]{NO_VALUE, NO_VALUE}, values[2] );
+            assertNull( values[3], "deleted relationship should not be found" );
+            assertArrayEquals( new Value[]{NO_VALUE, stringValue( "five" )}, values[4] );
+            assertNull( values[5], "non-existing relationship should not be found" );
+            assertArrayEquals( new Value[]{longValue( 1 ), NO_VALUE}, values[6] );
+        }
+    }
+
+    @Test
+    void shouldApplySecurityInRelationshipsProperties() throws Exception
+    {
+        long first, second;
+        int prop;
+        int type;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            prop = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop" );
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            first = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( first, prop, longValue( 1 ) );
+            second = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+            write.relationshipSetProperty( second, prop, longValue( 2 ) );
+            tx.commit();
+        }
+
+        // A restricted user gets the properties read one relationship at a time, checking each of them
+        SecurityContext restricted = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( true, false, false, false ) );
+        try ( KernelTransaction tx = beginTransaction( restricted ) )
+        {
+            Value[][] values = tx.dataRead().relationshipsProperties( new long[]{first, second}, new int[]{prop} );
+
+            assertArrayEquals( new Value[]{longValue( 1 )}, values[0] );
+            assertArrayEquals( new Value[]{longValue( 2 )}, values[1] );
+        }
+
+        SecurityContext denied = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( false, false, false, false ) );
+        try ( KernelTransaction tx = beginTransaction( denied ) )
+        {
+            Value[][] values = tx.dataRead().relationshipsProperties( new long[]{first, second}, new int[]{prop} );
+
+            assertNull( values[0] );
+            assertNull( values[1] );
+        }
+    }
+
     enum RelationshipDirection
     {
         OUT,
@@ -356,8 +356,8 @@ class CountsComputerTest
             int highLabelId = (int) neoStores.getLabelTokenStore().getHighId();
             int highRelationshipTypeId = (int) neoStores.getRelationshipTypeTokenStore().getHighId();
             CountsComputer countsComputer = new CountsComputer(
-                    lastCommittedTransactionId, nodeStore, relationshipStore, highLabelId, highRelationshipTypeId, NumberArrayFactory.AUTO_WITHOUT_PAGECACHE,
-                    progressReporter );
+                    lastCommittedTransactionId, nodeStore, relationshipStore, neoStores.getRelationshipGroupStore(), highLabelId,
+                    highRelationshipTypeId, NumberArrayFactory.AUTO_WITHOUT_PAGECACHE, progressReporter );
             try ( GBPTreeCountsStore countsStore = createCountsStore( countsComputer ) )
             {
                 countsStore.start();
@@ -47,9 +47,12 @@ import org.neo4j.test.matchers.NestedThrowableMatcher;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.configuration.GraphDatabaseSettings.allow_upgrade;
+import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_compression;
 import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.CHECK_POINT;
 
@@ -79,6 +82,39 @@ class LogVersionUpgradeCheckerIT
         managementService.shutdown();
     }
 
+    @Test
+    void startFromVersion4_0TransactionLogsWithCompressionDisabledWhenUpgradeIsNotAllowed() throws Exception
+    {
+        createGraphDbAndKillIt();
+        assertEquals( LogEntryVersion.V4_0, tailLogEntryVersion() );
+
+        // Try to start with upgrading disabled, and the default of no transaction log compression
+        DatabaseManagementService managementService = new TestDatabaseManagementServiceBuilder( databaseLayout )
+                .setFileSystem( fileSystem )
+                .impermanent()
+                .setConfig( allow_upgrade, false )
+                .setConfig( transaction_log_compression, false )
+                .build();
+        GraphDatabaseAPI db = (GraphDatabaseAPI) managementService.database( DEFAULT_DATABASE_NAME );
+        try
+        {
+            DatabaseStateService dbStateService = db.getDependencyResolver().resolveDependency( DatabaseStateService.class );
+            assertFalse( dbStateService.causeOfFailure( db.databaseId() ).isPresent() );
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.createNode( label( "BAZ" ) );
+                tx.commit();
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+
+        // The logs are still readable by the release that wrote them
+        assertEquals( LogEntryVersion.V4_0, tailLogEntryVersion() );
+    }
+
     @Test
     void failToStartFromOlderTransactionLogsIfNotAllowed() throws Exception
     {
@@ -144,6 +180,14 @@ class LogVersionUpgradeCheckerIT
         appendCheckpoint( logEntryVersion );
     }
 
+    private LogEntryVersion tailLogEntryVersion() throws IOException
+    {
+        VersionAwareLogEntryReader logEntryReader = new VersionAwareLogEntryReader();
+        LogFiles logFiles =
+                LogFilesBuilder.activeFilesBuilder( databaseLayout, fileSystem, pageCache ).withLogEntryReader( logEntryReader ).build();
+        return new LogTailScanner( logFiles, logEntryReader, new Monitors() ).getTailInformation().latestLogEntryVersion;
+    }
+
     private void appendCheckpoint( LogEntryVersion logVersion ) throws IOException
     {
         VersionAwareLogEntryReader logEntryReader = new VersionAwareLogEntryReader();
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.configuration.GraphDatabaseSettings.TransactionLogAppendMode;
 import org.neo4j.internal.nativeimpl.NativeAccessProvider;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -111,6 +112,7 @@ class TransactionLogChannelAllocatorIT
                 new VersionAwareLogEntryReader(), () -> 1L,
                 () -> 1L, () -> new LogPosition( 0, 1 ),
                 SimpleLogVersionRepository::new, fileSystem,
-                NullLogProvider.getInstance(), DatabaseTracer.NULL, () -> StoreId.UNKNOWN, NativeAccessProvider.getNativeAccess() );
+                NullLogProvider.getInstance(), DatabaseTracer.NULL, () -> StoreId.UNKNOWN, NativeAccessProvider.getNativeAccess(),
+                TransactionLogAppendMode.BUFFERED );
     }
 }
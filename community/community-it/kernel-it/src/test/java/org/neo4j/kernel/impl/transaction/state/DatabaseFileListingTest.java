@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -37,9 +39,12 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.index.label.LabelScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.kernel.database.Database;
 import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.pagecache.CompressingPageSwapperFactory;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -67,6 +72,8 @@ class DatabaseFileListingTest
     private GraphDatabaseAPI db;
     @Inject
     private TestDirectory testDirectory;
+    @Inject
+    private FileSystemAbstraction fs;
 
     private Database database;
     private static final String[] STANDARD_STORE_DIR_FILES = new String[]{
@@ -99,6 +106,7 @@ class DatabaseFileListingTest
             "neostore.relationshipgroupstore.db.id",
             "neostore.relationshipstore.db",
             "neostore.relationshipstore.db.id",
+            "neostore.relationshiptypescanstore.db",
             "neostore.relationshiptypestore.db",
             "neostore.relationshiptypestore.db.id",
             "neostore.relationshiptypestore.db.names",
@@ -124,6 +132,7 @@ class DatabaseFileListingTest
     {
         // Given
         LabelScanStore labelScanStore = mock( LabelScanStore.class );
+        RelationshipTypeScanStore relationshipTypeScanStore = mock( RelationshipTypeScanStore.class );
         IndexingService indexingService = mock( IndexingService.class );
         DatabaseLayout databaseLayout = mock( DatabaseLayout.class );
         when( databaseLayout.metadataStore() ).thenReturn( mock( File.class ) );
@@ -131,11 +140,12 @@ class DatabaseFileListingTest
         filesInStoreDirAre( databaseLayout, STANDARD_STORE_DIR_FILES, STANDARD_STORE_DIR_DIRECTORIES );
         StorageEngine storageEngine = mock( StorageEngine.class );
         IdGeneratorFactory idGeneratorFactory = mock( IdGeneratorFactory.class );
-        DatabaseFileListing fileListing = new DatabaseFileListing( databaseLayout, logFiles, labelScanStore,
+        DatabaseFileListing fileListing = new DatabaseFileListing( databaseLayout, fs, logFiles, labelScanStore, relationshipTypeScanStore,
                 indexingService, storageEngine, idGeneratorFactory );
 
         ResourceIterator<File> scanSnapshot = scanStoreFilesAre( labelScanStore,
                 new String[]{"blah/scan.store", "scan.more"} );
+        ResourceIterator<File> typeScanSnapshot = typeScanStoreFilesAre( relationshipTypeScanStore, new String[]{"type.scan.store"} );
         ResourceIterator<File> indexSnapshot = indexFilesAre( indexingService, new String[]{"schema/index/my.index"} );
 
         ResourceIterator<StoreFileMetadata> result = fileListing.builder().excludeLogFiles().build();
@@ -145,9 +155,44 @@ class DatabaseFileListingTest
 
         // Then
         verify( scanSnapshot ).close();
+        verify( typeScanSnapshot ).close();
         verify( indexSnapshot ).close();
     }
 
+    @Test
+    void shouldListPageMappingFilesOfCompressedStoreFiles() throws Exception
+    {
+        // Given
+        LabelScanStore labelScanStore = mock( LabelScanStore.class );
+        RelationshipTypeScanStore relationshipTypeScanStore = mock( RelationshipTypeScanStore.class );
+        IndexingService indexingService = mock( IndexingService.class );
+        DatabaseLayout databaseLayout = mock( DatabaseLayout.class );
+        when( databaseLayout.metadataStore() ).thenReturn( mock( File.class ) );
+        filesInStoreDirAre( databaseLayout, new String[0], new String[0] );
+        scanStoreFilesAre( labelScanStore, new String[0] );
+        typeScanStoreFilesAre( relationshipTypeScanStore, new String[0] );
+        indexFilesAre( indexingService, new String[0] );
+        File compressedStore = testDirectory.createFile( "compressed.store.db" );
+        File compressedStoreMapping = CompressingPageSwapperFactory.mappingFile( compressedStore );
+        fs.write( compressedStoreMapping ).close();
+        File plainStore = testDirectory.createFile( "plain.store.db" );
+        StorageEngine storageEngine = mock( StorageEngine.class );
+        when( storageEngine.listStorageFiles() ).thenReturn(
+                List.of( new StoreFileMetadata( compressedStore, 1 ), new StoreFileMetadata( plainStore, 1 ) ) );
+        DatabaseFileListing fileListing = new DatabaseFileListing( databaseLayout, fs, mock( LogFiles.class ), labelScanStore,
+                relationshipTypeScanStore, indexingService, storageEngine, mock( IdGeneratorFactory.class ) );
+
+        // When
+        Set<File> listedFiles;
+        try ( ResourceIterator<StoreFileMetadata> files = fileListing.builder().excludeLogFiles().build() )
+        {
+            listedFiles = files.stream().map( StoreFileMetadata::file ).collect( Collectors.toSet() );
+        }
+
+        // Then
+        assertEquals( Set.of( compressedStore, compressedStoreMapping, plainStore ), listedFiles );
+    }
+
     @Test
     void shouldListMetaDataStoreLast() throws Exception
     {
@@ -189,7 +234,9 @@ class DatabaseFileListingTest
     void shouldListNeostoreFiles() throws Exception
     {
         DatabaseLayout layout = database.getDatabaseLayout();
-        Set<File> expectedFiles = layout.storeFiles();
+        Set<File> expectedFiles = new HashSet<>( layout.storeFiles() );
+        // the relationship adjacency store is only kept by stores of the adjacency record format
+        expectedFiles.remove( layout.relationshipAdjacencyStore() );
         // there was no rotation
         ResourceIterator<StoreFileMetadata> storeFiles = database.listStoreFiles( false );
         Set<File> listedStoreFiles = storeFiles.stream()
@@ -240,6 +287,15 @@ class DatabaseFileListingTest
         return snapshot;
     }
 
+    private static ResourceIterator<File> typeScanStoreFilesAre( RelationshipTypeScanStore relationshipTypeScanStore, String[] fileNames )
+    {
+        ArrayList<File> files = new ArrayList<>();
+        mockFiles( fileNames, files, false );
+        ResourceIterator<File> snapshot = spy( asResourceIterator( files.iterator() ) );
+        when( relationshipTypeScanStore.snapshotStoreFiles() ).thenReturn( snapshot );
+        return snapshot;
+    }
+
     private static ResourceIterator<File> indexFilesAre( IndexingService indexingService, String[] fileNames )
             throws IOException
     {
@@ -141,7 +141,7 @@ class KernelDiagnosticsIT
                 manuallyCountTotalMappedFileSize( file, result, nativeIndexFilter );
             }
             else if ( storeFiles.contains( file.getName() ) || file.getName().equals( DatabaseFile.LABEL_SCAN_STORE.getName() ) ||
-                    nativeIndexFilter.accept( file ) )
+                    file.getName().equals( DatabaseFile.RELATIONSHIP_TYPE_SCAN_STORE.getName() ) || nativeIndexFilter.accept( file ) )
             {
                 result.add( file.length() );
             }
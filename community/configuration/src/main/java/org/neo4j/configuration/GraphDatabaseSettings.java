@@ -482,6 +482,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> max_concurrent_transactions =
             newBuilder( "dbms.transaction.concurrent.maximum", INT, 1000 ).dynamic().build();
 
+    @Description( "Group concurrently committing transactions, so they are appended to the transaction log and applied to the store " +
+            "as one batch. This amortizes the fixed cost of each commit over many small concurrent transactions. " +
+            "If committing a group fails, all the transactions in the group fail, so this is disabled by default. " +
+            "Not used with snapshot queries." )
+    public static final Setting<Boolean> transaction_group_commit =
+            newBuilder( "dbms.transaction.group_commit", BOOL, false ).build();
+
     public enum TransactionTracingLevel
     {
         DISABLED, SAMPLE, ALL
@@ -570,7 +577,7 @@ public class GraphDatabaseSettings implements SettingsDeclaration
 
     public enum CheckpointPolicy
     {
-        PERIODIC, CONTINUOUS, VOLUMETRIC
+        PERIODIC, CONTINUOUS, VOLUMETRIC, RECOVERY_TIME
     }
     @Description( "Configures the general policy for when check-points should occur. The default policy is the " +
             "'periodic' check-point policy, as specified by the 'dbms.checkpoint.interval.tx' and " +
@@ -580,7 +587,10 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             "check-point process all the time. " +
             "The second is the 'volumetric' check-point policy, which makes a best-effort at check-pointing " +
             "often enough so that the database doesn't get too far behind on deleting old transaction logs in " +
-            "accordance with the 'dbms.tx_log.rotation.retention_policy' setting." )
+            "accordance with the 'dbms.tx_log.rotation.retention_policy' setting. " +
+            "The 'recovery_time' check-point policy estimates how long recovery would take from the transaction log " +
+            "written since the last check-point, and check-points often enough to keep that estimate below " +
+            "'dbms.checkpoint.recovery.time'." )
     public static final Setting<CheckpointPolicy> check_point_policy =
             newBuilder( "dbms.checkpoint", ofEnum( CheckpointPolicy.class ), CheckpointPolicy.PERIODIC ).build();
 
@@ -606,9 +616,19 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Duration> check_point_interval_time =
             newBuilder( "dbms.checkpoint.interval.time", DURATION, ofMinutes( 15 ) ).build();
 
+    @Description( "Configures the longest recovery time the 'recovery_time' check-point policy aims for. The policy " +
+            "estimates the recovery time from the amount of transaction log written since the last check-point and " +
+            "the log apply throughput measured by earlier recoveries, and check-points before the estimate exceeds " +
+            "this duration. A shorter target means more frequent check-points when the write load is high, but no " +
+            "extra check-points when it is light. The measured throughput is a moving average, where each recovery counts " +
+            "for half, and is kept between restarts in the 'recovery-throughput' file in the database directory. " +
+            "Deleting that file makes the policy start over from a conservative default throughput." )
+    public static final Setting<Duration> check_point_recovery_time =
+            newBuilder( "dbms.checkpoint.recovery.time", DURATION, ofMinutes( 5 ) ).addConstraint( min( ofSeconds( 1 ) ) ).build();
+
     @Description( "Limit the number of IOs the background checkpoint process will consume per second. " +
-            "This setting is advisory, is ignored in Neo4j Community Edition, and is followed to " +
-            "best effort in Enterprise Edition. " +
+            "This setting is advisory, and is followed to best effort. In Neo4j Community Edition it is only used " +
+            "as the starting rate of the adaptive IO limit, when 'dbms.checkpoint.iops.target_fault_latency' is set. " +
             "An IO is in this case a 8 KiB (mostly sequential) write. Limiting the write IO in " +
             "this way will leave more bandwidth in the IO subsystem to service random-read IOs, " +
             "which is important for the response time of queries when the database cannot fit " +
@@ -621,6 +641,19 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> check_point_iops_limit =
             newBuilder( "dbms.checkpoint.iops.limit", INT, 300 ).dynamic().build();
 
+    @Description( "Let the background checkpoint process adapt its IO limit to keep the average latency of the page " +
+            "faults below this target. The checkpoint starts out at the 'dbms.checkpoint.iops.limit' rate, slows down " +
+            "when the page faults of the queries take longer than the target, and speeds up again when they do not. " +
+            "Set this to 0, the default, to disable the adaptive IO limit." )
+    public static final Setting<Duration> check_point_iops_target_fault_latency =
+            newBuilder( "dbms.checkpoint.iops.target_fault_latency", DURATION, Duration.ZERO ).build();
+
+    @Description( "Only flush the pages that are dirty when a checkpoint starts. Pages that are first modified while the " +
+            "checkpoint is flushing are left for the next checkpoint, so that a checkpoint under a heavy write load does " +
+            "not keep chasing the writers. The checkpoint still covers every transaction committed before it started." )
+    public static final Setting<Boolean> check_point_snapshot_dirty_pages =
+            newBuilder( "dbms.checkpoint.snapshot_dirty_pages", BOOL, false ).build();
+
     // Index sampling
     @Description( "Enable or disable background index sampling" )
     public static final Setting<Boolean> index_background_sampling_enabled =
@@ -743,6 +776,24 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     @Description( "Specify if Neo4j should try to preallocate logical log file in advance." )
     public static final Setting<Boolean> preallocate_logical_logs = newBuilder( "dbms.tx_log.preallocate", BOOL, true ).dynamic().build();
 
+    public enum TransactionLogAppendMode
+    {
+        BUFFERED, MEMORY_MAPPED
+    }
+
+    @Description( "How transactions are appended to the transaction log. `BUFFERED` serializes transactions into a buffer that is " +
+            "written to the log file when full or on commit. `MEMORY_MAPPED` serializes transactions directly into a memory mapped " +
+            "region of the log file, which saves copying every transaction into the file, and only forces the pages that changed on commit. " +
+            "Memory mapped appending is not available on Windows or when the log file cannot be mapped, `BUFFERED` is used instead." )
+    public static final Setting<TransactionLogAppendMode> transaction_log_append_mode =
+            newBuilder( "dbms.tx_log.append_mode", ofEnum( TransactionLogAppendMode.class ), TransactionLogAppendMode.BUFFERED ).build();
+
+    @Description( "Compress the commands of each transaction written to the transaction log. This makes transaction logs smaller, " +
+            "at the cost of compressing every commit and decompressing when the log is read, e.g. by recovery or backups. " +
+            "Small transactions, and transactions that don't get smaller, are written uncompressed. " +
+            "Transaction logs with compressed transactions can not be read by versions of Neo4j that do not support it." )
+    public static final Setting<Boolean> transaction_log_compression = newBuilder( "dbms.tx_log.compression", BOOL, false ).build();
+
     @Description( "If `true`, Neo4j will abort recovery if any errors are encountered in the logical log. Setting " +
             "this to `false` will allow Neo4j to restore as much as possible from the corrupted log files and ignore " +
             "the rest, but, the integrity of the database might be compromised." )
@@ -755,6 +806,12 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             "the integrity of the database might be compromised." )
     public static final Setting<Boolean> fail_on_missing_files = newBuilder( "dbms.recovery.fail_on_missing_files", BOOL, true ).build();
 
+    @Description( "The number of threads that apply recovered transactions to the store. With more than one thread, transactions that " +
+            "change different records and entities are applied concurrently, while changes to the same records and entities are still " +
+            "applied in order. Schema and token changes are always applied on their own." )
+    public static final Setting<Integer> recovery_parallelism =
+            newBuilder( "dbms.recovery.parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
     @Description( "Specifies if engine should run cypher query based on a snapshot of accessed data. " +
             "Query will be restarted in case if concurrent modification of data will be detected." )
     @Internal
@@ -775,19 +832,69 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<String> pagecache_memory = newBuilder( "dbms.memory.pagecache.size", STRING, null ).build();
 
     @Description( "Specify which page swapper to use for doing paged IO. " +
-            "This is only used when integrating with proprietary storage technology." )
+            "Set to `async` to have vectored reads and writes split up and kept in flight concurrently using native IO on Linux, " +
+            "which can help keep fast storage devices with deep queues busy. " +
+            "Set to `compressed` to have newly created relationship and property store files compressed with zstd, " +
+            "trading CPU time on page faults and evictions for less disk space and IO. " +
+            "Compressed store files have a `.pagemap` file next to them, and must not be copied or replaced while the database is running. " +
+            "Otherwise this is only used when integrating with proprietary storage technology." )
     public static final Setting<String> pagecache_swapper = newBuilder( "dbms.memory.pagecache.swapper", STRING, null ).build();
 
+    @Description( "The number of IO threads of the `async` page swapper, and thereby the number of vectored read and write requests " +
+            "that can be in flight at the same time. The threads are shared by all files mapped by the page cache." )
+    public static final Setting<Integer> pagecache_swapper_queue_depth =
+            newBuilder( "dbms.memory.pagecache.swapper.queue_depth", INT, 32 ).addConstraint( min( 1 ) ).build();
+
+    public enum PageCacheEvictionPolicy
+    {
+        CLOCK, SCAN_RESISTANT
+    }
+
+    @Description( "Specify which policy the page cache uses for choosing the pages to evict, when it needs room for " +
+            "new pages. The default 'clock' policy evicts the pages that have been used the least recently, which " +
+            "means that large scans, such as full graph analytics, can push the entire working set out of the page " +
+            "cache. The 'scan_resistant' policy only protects pages that have been accessed more than once, so pages " +
+            "that are only read once by a large scan are evicted before the frequently used pages." )
+    public static final Setting<PageCacheEvictionPolicy> pagecache_eviction_policy =
+            newBuilder( "dbms.memory.pagecache.eviction_policy", ofEnum( PageCacheEvictionPolicy.class ), PageCacheEvictionPolicy.CLOCK ).build();
+
+    @Description( "Partition the page cache memory into one pool per NUMA node, and make page faults prefer the pool " +
+            "that is local to the faulting thread. This reduces the number of memory accesses that cross the " +
+            "interconnect between the CPU sockets on NUMA systems. Only has an effect on Linux systems with more " +
+            "than one NUMA node." )
+    public static final Setting<Boolean> pagecache_numa_partitioning =
+            newBuilder( "dbms.memory.pagecache.numa_partitioning", BOOL, false ).build();
+
+    public enum PageCacheHugePages
+    {
+        DISABLED, TRANSPARENT, EXPLICIT_2MB, EXPLICIT_1GB
+    }
+
+    @Description( "Specify whether the page cache memory should be backed by huge pages, which reduces the number of TLB " +
+            "misses for large page caches. The 'transparent' option advises the operating system to use transparent huge " +
+            "pages for the page cache memory. The 'explicit_2mb' and 'explicit_1gb' options reserve huge pages of the " +
+            "given size from the pool that has been configured in the operating system, for instance with " +
+            "`vm.nr_hugepages`. If the explicit huge pages cannot be reserved, the page cache falls back to transparent " +
+            "huge pages, and otherwise to normal memory. Only has an effect on Linux." )
+    public static final Setting<PageCacheHugePages> pagecache_huge_pages =
+            newBuilder( "dbms.memory.pagecache.huge_pages", ofEnum( PageCacheHugePages.class ), PageCacheHugePages.DISABLED ).build();
+
+    @Description( "Limit the number of IOs per second that the page cache background flusher will use to write out " +
+            "modified pages that are about to be evicted. Writing these pages out ahead of time means that page faults " +
+            "rarely have to wait for an evicted page to be written, and that checkpoints have fewer pages left to flush. " +
+            "An IO is in this case a 8 KiB write. Set this to 0, the default, to disable the background flusher, or " +
+            "to -1 to let the background flusher write as fast as the hardware will go." )
+    public static final Setting<Integer> pagecache_background_flush_iops_limit =
+            newBuilder( "dbms.memory.pagecache.background_flush.iops.limit", INT, 0 ).addConstraint( min( -1 ) ).build();
+
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
-            "warmup after a restart, reducing the mean time to performance. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "warmup after a restart, reducing the mean time to performance." )
     public static final Setting<Duration> pagecache_warmup_profiling_interval =
             newBuilder( "dbms.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes( 1 ) ).build();
 
     @Description( "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. " +
             "According to that profile pages can be reloaded on the restart, replication, etc. " +
-            "This setting allows disabling that behavior. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "This setting allows disabling that behavior." )
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder( "dbms.memory.pagecache.warmup.enable", BOOL, true ).build();
 
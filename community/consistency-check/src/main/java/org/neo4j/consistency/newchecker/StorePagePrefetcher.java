@@ -87,7 +87,7 @@ class StorePagePrefetcher
 
     private void forwards( LongSupplier currentReadingPage ) throws IOException
     {
-        try ( PageCursor cursor = store.openPageCursorForReading( 0 ) )
+        try ( PageCursor cursor = store.openPageCursorForSequentialReading( 0 ) )
         {
             // Simply read ahead
             long currentPageId;
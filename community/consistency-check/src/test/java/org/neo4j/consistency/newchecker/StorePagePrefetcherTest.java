@@ -210,6 +210,7 @@ class StorePagePrefetcherTest
         when( store.getRecordsPerPage() ).thenReturn( recordsPerPage );
         when( store.getHighId() ).thenReturn( highId );
         when( store.openPageCursorForReading( anyLong() ) ).thenReturn( cursor );
+        when( store.openPageCursorForSequentialReading( anyLong() ) ).thenReturn( cursor );
         return store;
     }
 
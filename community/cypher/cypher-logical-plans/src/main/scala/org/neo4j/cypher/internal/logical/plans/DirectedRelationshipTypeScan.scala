@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.logical.plans
+
+import org.neo4j.cypher.internal.v4_0.expressions.RelTypeName
+import org.neo4j.cypher.internal.v4_0.util.attribution.IdGen
+
+/**
+  * Produce one row for every relationship in the graph of type 'typ'. Each row contains:
+  *   - argument
+  *   - the relationship as 'idName'
+  *   - the start node as 'startNode'
+  *   - the end node as 'endNode'
+  */
+case class DirectedRelationshipTypeScan(idName: String,
+                                        startNode: String,
+                                        typ: RelTypeName,
+                                        endNode: String,
+                                        argumentIds: Set[String])(implicit idGen: IdGen)
+  extends LogicalLeafPlan(idGen) {
+
+  val availableSymbols: Set[String] = argumentIds ++ Set(idName, startNode, endNode)
+}
@@ -60,7 +60,9 @@ case class CardinalityCostModel(config: CypherPlannerConfiguration) extends Cost
     => 1.2
 
     case _: Expand |
-         _: VarExpand
+         _: VarExpand |
+         _: DirectedRelationshipTypeScan |
+         _: UndirectedRelationshipTypeScan
     => 1.5
 
     case _: NodeUniqueIndexSeek |
@@ -47,6 +47,9 @@ object QueryPlannerConfiguration {
     // MATCH (n) RETURN n
     allNodesLeafPlanner,
 
+    // MATCH (a)-[r:T]->(b) RETURN r
+    relationshipTypeScanLeafPlanner,
+
     // Handles OR between other leaf planners
     OrLeafPlanner(leafPlanFromExpressions))
 
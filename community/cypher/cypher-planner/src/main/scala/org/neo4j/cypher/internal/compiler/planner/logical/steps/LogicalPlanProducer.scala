@@ -182,6 +182,34 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     solver.rewriteLeafPlan(leafPlan)
   }
 
+  def planDirectedRelationshipTypeScan(idName: String,
+                                       typ: RelTypeName,
+                                       startNode: String,
+                                       endNode: String,
+                                       pattern: PatternRelationship,
+                                       argumentIds: Set[String],
+                                       context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularSinglePlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternRelationship(pattern)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    annotate(DirectedRelationshipTypeScan(idName, startNode, typ, endNode, argumentIds), solved, ProvidedOrder.empty, context)
+  }
+
+  def planUndirectedRelationshipTypeScan(idName: String,
+                                         typ: RelTypeName,
+                                         leftNode: String,
+                                         rightNode: String,
+                                         pattern: PatternRelationship,
+                                         argumentIds: Set[String],
+                                         context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularSinglePlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternRelationship(pattern)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    annotate(UndirectedRelationshipTypeScan(idName, leftNode, typ, rightNode, argumentIds), solved, ProvidedOrder.empty, context)
+  }
+
   def planSimpleExpand(left: LogicalPlan,
                        from: String,
                        dir: SemanticDirection,
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.planner.logical.{LeafPlanner, LogicalPlanningContext}
+import org.neo4j.cypher.internal.ir.{InterestingOrder, PatternRelationship, QueryGraph, SimplePatternLength}
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.v4_0.expressions.SemanticDirection.{BOTH, INCOMING, OUTGOING}
+
+/*
+ * MATCH (a)-[r:T]->(b) RETURN r
+ *
+ * Plans a scan of the relationship type scan store for pattern relationships of a single type whose nodes are not
+ * yet bound, such that only the relationships of that type are read.
+ */
+object relationshipTypeScanLeafPlanner extends LeafPlanner {
+  def apply(queryGraph: QueryGraph, interestingOrder: InterestingOrder, context: LogicalPlanningContext): Seq[LogicalPlan] =
+    queryGraph.patternRelationships.toIndexedSeq.collect {
+      case relationship@PatternRelationship(name, (left, right), dir, Seq(typ), SimplePatternLength)
+        if left != right && !Set(name, left, right).exists(queryGraph.argumentIds) =>
+        val producer = context.logicalPlanProducer
+        dir match {
+          case BOTH     => producer.planUndirectedRelationshipTypeScan(name, typ, left, right, relationship, queryGraph.argumentIds, context)
+          case INCOMING => producer.planDirectedRelationshipTypeScan(name, typ, right, left, relationship, queryGraph.argumentIds, context)
+          case OUTGOING => producer.planDirectedRelationshipTypeScan(name, typ, left, right, relationship, queryGraph.argumentIds, context)
+        }
+    }
+}
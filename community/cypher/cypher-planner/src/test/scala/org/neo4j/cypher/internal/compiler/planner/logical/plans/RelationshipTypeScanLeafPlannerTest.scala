@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.plans
+
+import org.neo4j.cypher.internal.compiler.planner._
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.relationshipTypeScanLeafPlanner
+import org.neo4j.cypher.internal.ir._
+import org.neo4j.cypher.internal.logical.plans.{DirectedRelationshipTypeScan, UndirectedRelationshipTypeScan}
+import org.neo4j.cypher.internal.v4_0.expressions.{RelTypeName, SemanticDirection}
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+
+class RelationshipTypeScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  private val relTypeT = RelTypeName("T")(pos)
+  private val relTypeU = RelTypeName("U")(pos)
+
+  test("outgoing relationship of a single type is planned as a directed relationship type scan") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeT), SimplePatternLength))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should equal(Seq(DirectedRelationshipTypeScan("r", "a", relTypeT, "b", Set.empty)))
+  }
+
+  test("incoming relationship of a single type is planned as a directed relationship type scan with swapped nodes") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.INCOMING, Seq(relTypeT), SimplePatternLength))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should equal(Seq(DirectedRelationshipTypeScan("r", "b", relTypeT, "a", Set.empty)))
+  }
+
+  test("undirected relationship of a single type is planned as an undirected relationship type scan") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.BOTH, Seq(relTypeT), SimplePatternLength))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should equal(Seq(UndirectedRelationshipTypeScan("r", "a", relTypeT, "b", Set.empty)))
+  }
+
+  test("should not plan relationship type scan when a node is already bound") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeT), SimplePatternLength))
+      .addArgumentIds(Seq("a"))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should be(empty)
+  }
+
+  test("should not plan relationship type scan for more than one relationship type") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeT, relTypeU), SimplePatternLength))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should be(empty)
+  }
+
+  test("should not plan relationship type scan for variable length relationships") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeT), VarPatternLength(1, None)))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should be(empty)
+  }
+
+  test("should not plan relationship type scan for self loops") {
+    // given
+    val qg = queryGraph(PatternRelationship("r", ("a", "a"), SemanticDirection.OUTGOING, Seq(relTypeT), SimplePatternLength))
+
+    // when
+    val resultPlans = relationshipTypeScanLeafPlanner(qg, InterestingOrder.empty, newContext())
+
+    // then
+    resultPlans should be(empty)
+  }
+
+  private def queryGraph(relationship: PatternRelationship): QueryGraph =
+    QueryGraph(
+      patternNodes = Set(relationship.nodes._1, relationship.nodes._2),
+      patternRelationships = Set(relationship))
+
+  private def newContext() =
+    newMockedLogicalPlanningContext(planContext = newMockedPlanContext())
+}
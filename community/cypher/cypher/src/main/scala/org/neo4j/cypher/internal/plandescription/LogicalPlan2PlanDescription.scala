@@ -26,7 +26,7 @@ import org.neo4j.cypher.internal.plandescription.Arguments._
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.{Cardinalities, ProvidedOrders}
 import org.neo4j.cypher.internal.v4_0.ast.prettifier.Prettifier
 import org.neo4j.cypher.internal.v4_0.expressions.functions.Point
-import org.neo4j.cypher.internal.v4_0.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyToken, Expression => ASTExpression}
+import org.neo4j.cypher.internal.v4_0.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyToken, SemanticDirection, Expression => ASTExpression}
 import org.neo4j.cypher.internal.v4_0.frontend.PlannerName
 import org.neo4j.exceptions.InternalException
 
@@ -90,6 +90,14 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val entityByIdRhs = EntityByIdRhs(relIds)
         PlanDescriptionImpl(id, "DirectedRelationshipByIdSeek", NoChildren, Seq(entityByIdRhs), variables)
 
+      case DirectedRelationshipTypeScan(idName, start, typ, end, _) =>
+        val expression = ExpandExpression(start, idName, Seq(typ.name), end, SemanticDirection.OUTGOING, 1, Some(1))
+        PlanDescriptionImpl(id, "DirectedRelationshipTypeScan", NoChildren, Seq(expression), variables)
+
+      case UndirectedRelationshipTypeScan(idName, start, typ, end, _) =>
+        val expression = ExpandExpression(start, idName, Seq(typ.name), end, SemanticDirection.BOTH, 1, Some(1))
+        PlanDescriptionImpl(id, "UndirectedRelationshipTypeScan", NoChildren, Seq(expression), variables)
+
       case _: LoadCSV =>
         PlanDescriptionImpl(id, "LoadCSV", NoChildren, Seq.empty, variables)
 
@@ -121,6 +121,9 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getNodesByLabelPrimitive(id: Int): LongIterator =
     translateException(inner.getNodesByLabelPrimitive(id))
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] =
+    translateException(inner.getRelationshipsByType(id))
+
 
   override def nodeAsMap(id: Long, nodeCursor: NodeCursor, propertyCursor: PropertyCursor): MapValue =
     translateException(inner.nodeAsMap(id, nodeCursor, propertyCursor))
@@ -299,6 +302,9 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
     override def getProperty(id: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value =
       translateException(inner.getProperty(id, propertyKeyId, cursor, propertyCursor, throwOnDeleted))
 
+    override def getProperties(ids: Array[Long], propertyKeyIds: Array[Int]): Array[Array[Value]] =
+      translateException(inner.getProperties(ids, propertyKeyIds))
+
     override def hasProperty(id: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean =
       translateException(inner.hasProperty(id, propertyKeyId, cursor, propertyCursor))
 
@@ -151,6 +151,8 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def getNodesByLabelPrimitive(id: Int): LongIterator = manyDbHits(inner.getNodesByLabelPrimitive(id))
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = manyDbHits(inner.getRelationshipsByType(id))
+
   override def nodeAsMap(id: Long, nodeCursor: NodeCursor, propertyCursor: PropertyCursor): MapValue = {
     val map = inner.nodeAsMap(id, nodeCursor, propertyCursor)
     //one hit finding the node, then finding the properies
@@ -296,6 +298,9 @@ class DelegatingOperations[T, CURSOR](protected val inner: Operations[T, CURSOR]
   override def getProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value =
     singleDbHit(inner.getProperty(obj, propertyKeyId, cursor, propertyCursor, throwOnDeleted))
 
+  override def getProperties(ids: Array[Long], propertyKeyIds: Array[Int]): Array[Array[Value]] =
+    inner.getProperties(ids, propertyKeyIds).map(singleDbHit)
+
   override def getTxStateProperty(obj: Long, propertyKeyId: Int): Value = inner.getTxStateProperty(obj, propertyKeyId)
 
   override def hasProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean =
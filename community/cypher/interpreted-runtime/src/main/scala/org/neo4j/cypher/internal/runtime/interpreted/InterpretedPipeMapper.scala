@@ -84,6 +84,12 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case UndirectedRelationshipByIdSeek(ident, relIdExpr, fromNode, toNode, _) =>
         UndirectedRelationshipByIdSeekPipe(ident, expressionConverters.toCommandSeekArgs(id, relIdExpr), toNode, fromNode)(id = id)
 
+      case DirectedRelationshipTypeScan(ident, fromNode, typ, toNode, _) =>
+        DirectedRelationshipTypeScanPipe(ident, fromNode, typ.name, toNode)(id = id)
+
+      case UndirectedRelationshipTypeScan(ident, fromNode, typ, toNode, _) =>
+        UndirectedRelationshipTypeScanPipe(ident, fromNode, typ.name, toNode)(id = id)
+
       case NodeIndexSeek(ident, label, properties, valueExpr, _, indexOrder) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
         NodeIndexSeekPipe(ident, label, properties.toArray, indexRegistrator.registerQueryIndex(label, properties),
@@ -355,6 +355,22 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = {
+    val relCursor = allocateAndTraceRelationshipScanCursor()
+    reads().relationshipTypeScan(id, relCursor)
+    new CursorIterator[RelationshipValue] {
+      override protected def fetchNext(): RelationshipValue = {
+        if (relCursor.next())
+          fromRelationshipEntity(entityAccessor.newRelationshipEntity(relCursor.relationshipReference(),
+                                                                    relCursor.sourceNodeReference(), relCursor.`type`(),
+                                                                    relCursor.targetNodeReference()))
+        else null
+      }
+
+      override protected def close(): Unit = relCursor.close()
+    }
+  }
+
   override def nodeGetOutgoingDegree(node: Long, nodeCursor: NodeCursor): Int = {
       reads().singleNode(node, nodeCursor)
       if (!nodeCursor.next()) 0
@@ -373,23 +389,14 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
       else Nodes.countAll(nodeCursor, transactionalContext.cursors, accessMode())
   }
 
-  override def nodeGetOutgoingDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int = {
-    reads().singleNode(node, nodeCursor)
-    if (!nodeCursor.next()) 0
-    else Nodes.countOutgoing(nodeCursor, transactionalContext.cursors, relationship, accessMode())
-  }
+  override def nodeGetOutgoingDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int =
+    reads().nodeDegree(node, relationship, Direction.OUTGOING)
 
-  override def nodeGetIncomingDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int = {
-    reads().singleNode(node, nodeCursor)
-    if (!nodeCursor.next()) 0
-    else Nodes.countIncoming(nodeCursor, transactionalContext.cursors, relationship, accessMode())
-  }
+  override def nodeGetIncomingDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int =
+    reads().nodeDegree(node, relationship, Direction.INCOMING)
 
-  override def nodeGetTotalDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int = {
-    reads().singleNode(node, nodeCursor)
-    if (!nodeCursor.next()) 0
-    else Nodes.countAll(nodeCursor, transactionalContext.cursors, relationship, accessMode())
-  }
+  override def nodeGetTotalDegree(node: Long, relationship: Int, nodeCursor: NodeCursor): Int =
+    reads().nodeDegree(node, relationship, Direction.BOTH)
 
   override def nodeIsDense(node: Long, nodeCursor: NodeCursor): Boolean = {
     reads().singleNode(node, nodeCursor)
@@ -444,6 +451,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
      CursorUtils.nodeGetProperty(reads(), nodeCursor, id, propertyCursor, propertyKeyId, throwOnDeleted)
     }
 
+    override def getProperties(ids: Array[Long], propertyKeyIds: Array[Int]): Array[Array[Value]] =
+      reads().nodesProperties(ids, propertyKeyIds)
+
     override def getTxStateProperty(nodeId: Long, propertyKeyId: Int): Value =
       getTxStateNodePropertyOrNull(nodeId, propertyKeyId)
 
@@ -556,6 +566,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
      CursorUtils.relationshipGetProperty(reads(), relationshipCursor, id, propertyCursor, propertyKeyId, throwOnDeleted)
     }
 
+    override def getProperties(ids: Array[Long], propertyKeyIds: Array[Int]): Array[Array[Value]] =
+      reads().relationshipsProperties(ids, propertyKeyIds)
+
     override def hasProperty(id: Long, propertyKey: Int, relationshipCursor: RelationshipScanCursor, propertyCursor: PropertyCursor): Boolean = {
       reads().singleRelationship(id, relationshipCursor)
       if (!relationshipCursor.next()) false
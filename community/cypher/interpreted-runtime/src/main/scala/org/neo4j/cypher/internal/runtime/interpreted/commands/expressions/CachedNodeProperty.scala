@@ -31,6 +31,8 @@ import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.{Value, Values}
 import org.neo4j.values.virtual.{VirtualNodeValue, VirtualRelationshipValue}
 
+import scala.collection.mutable.ArrayBuffer
+
 abstract class AbstractCachedProperty extends Expression {
 
   // abstract stuff
@@ -42,6 +44,8 @@ abstract class AbstractCachedProperty extends Expression {
 
   def getTxStateProperty(state: QueryState, id: Long, propId: Int): Value
   def property(state: QueryState, id: Long, propId: Int): Value
+  // the value of the property for each of the ids, or null for entities that don't exist
+  def properties(state: QueryState, ids: Array[Long], propId: Int): Array[Value]
 
   // encapsulated cached-property logic
 
@@ -72,6 +76,36 @@ abstract class AbstractCachedProperty extends Expression {
     }
   }
 
+  /**
+    * Caches this property in all of the given rows. Rows where the property isn't already cached or changed in this transaction
+    * get their values read from the store in one go, rather than one row at a time.
+    */
+  def cacheAll(rows: Seq[ExecutionContext], state: QueryState): Unit = {
+    val propId = getPropertyKey(state.query)
+    if (propId != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+      val uncached = new ArrayBuffer[ExecutionContext](rows.size)
+      val ids = new ArrayBuffer[Long](rows.size)
+      rows.foreach {
+        ctx =>
+          val id = getId(ctx)
+          if (id != StatementConstants.NO_SUCH_ENTITY && getTxStateProperty(state, id, propId) == null && getCachedProperty(ctx) == null) {
+            uncached += ctx
+            ids += id
+          }
+      }
+      if (ids.nonEmpty) {
+        val values = properties(state, ids.toArray, propId)
+        var i = 0
+        while (i < values.length) {
+          // entities that are gone are read one by one, which fails for entities deleted in this transaction
+          val value = if (values(i) == null) property(state, ids(i), propId) else values(i)
+          setCachedProperty(uncached(i), value)
+          i += 1
+        }
+      }
+    }
+  }
+
   override def rewrite(f: Expression => Expression): Expression = f(this)
 
   override def arguments: Seq[Expression] = Seq()
@@ -83,6 +117,9 @@ abstract class AbstractCachedNodeProperty extends AbstractCachedProperty {
   override def property(state: QueryState,
                         id: Long,
                         propId: Int): Value = state.query.nodeProperty(id, propId, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+
+  override def properties(state: QueryState, ids: Array[Long], propId: Int): Array[Value] =
+    state.query.nodeOps.getProperties(ids, Array(propId)).map(values => if (values == null) null else values(0))
 }
 
 abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty {
@@ -91,6 +128,9 @@ abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty
   override def property(state: QueryState,
                         id: Long,
                         propId: Int): Value = state.query.relationshipProperty(id, propId, state.cursors.relationshipScanCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+
+  override def properties(state: QueryState, ids: Array[Long], propId: Int): Array[Value] =
+    state.query.relationshipOps.getProperties(ids, Array(propId)).map(values => if (values == null) null else values(0))
 }
 
 case class CachedNodeProperty(nodeName: String, propertyKey: KeyToken, key: ASTCachedProperty)
@@ -20,26 +20,64 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.ExecutionContext
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{AbstractCachedProperty, Expression}
 import org.neo4j.cypher.internal.v4_0.util.attribution.Id
 
+import scala.collection.mutable.ArrayBuffer
+
 case class CachePropertiesPipe(source: Pipe, properties: Array[Expression])
                               (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
   properties.foreach(_.registerOwningPipe(this))
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    input.map {
-      ctx =>
-        var i = 0
-        while (i < properties.length) {
-          // we evaluate the cached property, which has the side effect of caching it in the row
-          properties(i).apply(ctx, state)
-          i += 1
+    // rows are cached a batch at a time so that the store can read the properties of many entities in one go. The batches start
+    // small and double up to BATCH_SIZE for as long as rows keep being asked for, so that a query which only wants a few rows,
+    // like one with a LIMIT, doesn't pull many more than that from its source.
+    new Iterator[ExecutionContext] {
+      private val batch = new ArrayBuffer[ExecutionContext]()
+      private var batchSize = 1
+      private var position = 0
+
+      override def hasNext: Boolean = position < batch.size || input.hasNext
+
+      override def next(): ExecutionContext = {
+        if (position >= batch.size) {
+          batch.clear()
+          position = 0
+          while (batch.size < batchSize && input.hasNext) {
+            batch += input.next()
+          }
+          if (batch.isEmpty) {
+            return Iterator.empty.next()
+          }
+          cacheProperties(batch, state)
+          batchSize = math.min(batchSize * 2, CachePropertiesPipe.BATCH_SIZE)
         }
-        ctx
+        val row = batch(position)
+        position += 1
+        row
+      }
+    }
+  }
+
+  private def cacheProperties(rows: Seq[ExecutionContext], state: QueryState): Unit = {
+    var i = 0
+    while (i < properties.length) {
+      properties(i) match {
+        case cachedProperty: AbstractCachedProperty =>
+          cachedProperty.cacheAll(rows, state)
+        case property =>
+          // we evaluate the cached property, which has the side effect of caching it in the row
+          rows.foreach(property.apply(_, state))
+      }
+      i += 1
     }
   }
 }
 
+object CachePropertiesPipe {
+  val BATCH_SIZE = 1024
+}
+
 
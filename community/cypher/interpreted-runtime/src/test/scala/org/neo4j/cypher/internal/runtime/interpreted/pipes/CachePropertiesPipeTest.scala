@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Literal}
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.intValue
+
+class CachePropertiesPipeTest extends CypherFunSuite {
+
+  test("should only pull as many rows as have been asked for, in batches that grow") {
+    // Given
+    var pulled = 0
+    val input = Iterator.tabulate(10000) { i => pulled += 1; ExecutionContext.from("x" -> intValue(i)) }
+    val pipe = CachePropertiesPipe(new DummyPipe(input), Array[Expression](Literal(1)))()
+
+    // When
+    val results = pipe.createResults(QueryStateHelper.empty)
+
+    // Then
+    pulled should equal(0)
+    results.next()
+    pulled should equal(1)
+    results.next()
+    pulled should equal(3)
+    results.next()
+    pulled should equal(3)
+    results.next()
+    pulled should equal(7)
+  }
+
+  test("should return all rows in order") {
+    // Given
+    val rows = (0 until 5000).map(i => ExecutionContext.from("x" -> intValue(i)))
+    val pipe = CachePropertiesPipe(new DummyPipe(rows.iterator), Array[Expression](Literal(1)))()
+
+    // When
+    val results = pipe.createResults(QueryStateHelper.empty).toList
+
+    // Then
+    results should equal(rows.toList)
+  }
+
+  test("should return nothing for no rows") {
+    // Given
+    val pipe = CachePropertiesPipe(new DummyPipe(Iterator.empty), Array[Expression](Literal(1)))()
+
+    // Then
+    pipe.createResults(QueryStateHelper.empty).hasNext should be(false)
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.Mockito
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper._
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.v4_0.util.test_helpers.CypherFunSuite
+import org.neo4j.values.virtual.{NodeValue, RelationshipValue}
+
+class UndirectedRelationshipTypeScanPipeTest extends CypherFunSuite {
+
+  import Mockito.{never, verify, when}
+
+  test("should produce a row for each direction of every relationship of the type") {
+    // given
+    val (s1, r1, e1) = getRelWithNodes
+    val (s2, r2, e2) = getRelWithNodes
+    val queryContext = mock[QueryContext]
+    when(queryContext.getOptRelTypeId("T")).thenReturn(Some(12))
+    when(queryContext.getRelationshipsByType(12)).thenReturn(Iterator(r1, r2))
+    val queryState = QueryStateHelper.emptyWith(query = queryContext)
+
+    // when
+    val result = UndirectedRelationshipTypeScanPipe("r", "from", "T", "to")().createResults(queryState)
+
+    // then
+    result.toList should beEquivalentTo(List(
+      Map("r" -> r1, "from" -> s1, "to" -> e1),
+      Map("r" -> r1, "from" -> e1, "to" -> s1),
+      Map("r" -> r2, "from" -> s2, "to" -> e2),
+      Map("r" -> r2, "from" -> e2, "to" -> s2)
+    ))
+  }
+
+  test("should produce no rows for an unknown relationship type") {
+    // given
+    val queryContext = mock[QueryContext]
+    when(queryContext.getOptRelTypeId("T")).thenReturn(None)
+    val queryState = QueryStateHelper.emptyWith(query = queryContext)
+
+    // when
+    val result = UndirectedRelationshipTypeScanPipe("r", "from", "T", "to")().createResults(queryState)
+
+    // then
+    result.toList should be(empty)
+    verify(queryContext, never()).getRelationshipsByType(anyInt())
+  }
+
+  private def getRelWithNodes: (NodeValue, RelationshipValue, NodeValue) = {
+    val rel = mock[RelationshipValue]
+    val startNode = mock[NodeValue]
+    val endNode = mock[NodeValue]
+    when(rel.startNode()).thenReturn(startNode)
+    when(rel.endNode()).thenReturn(endNode)
+    (startNode, rel, endNode)
+  }
+}
@@ -310,6 +310,16 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
     appendAtCurrentIndent(LeafOperator(NodeByLabelScan(n, labelName(label), args.toSet)(_)))
   }
 
+  def directedRelationshipTypeScan(relationship: String, from: String, typ: String, to: String, args: String*): IMPL = {
+    newRelationship(varFor(relationship))
+    appendAtCurrentIndent(LeafOperator(DirectedRelationshipTypeScan(relationship, from, relTypeName(typ), to, args.toSet)(_)))
+  }
+
+  def undirectedRelationshipTypeScan(relationship: String, from: String, typ: String, to: String, args: String*): IMPL = {
+    newRelationship(varFor(relationship))
+    appendAtCurrentIndent(LeafOperator(UndirectedRelationshipTypeScan(relationship, from, relTypeName(typ), to, args.toSet)(_)))
+  }
+
   def nodeByIdSeek(node: String, ids: AnyVal*): IMPL = {
     val n = VariableParser.unescaped(node)
     newNode(varFor(n))
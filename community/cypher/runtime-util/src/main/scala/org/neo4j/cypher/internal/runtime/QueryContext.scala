@@ -124,6 +124,8 @@ trait QueryContext extends TokenContext with DbAccess {
 
   def getNodesByLabelPrimitive(id: Int): LongIterator
 
+  def getRelationshipsByType(id: Int): Iterator[RelationshipValue]
+
   /* return true if the constraint was created, false if preexisting, throws if failed */
   def createNodeKeyConstraint(labelId: Int, propertyKeyIds: Seq[Int], name: Option[String]): Unit
 
@@ -269,6 +271,14 @@ trait Operations[T, CURSOR] {
 
   def hasProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean
 
+  /**
+    * Reads the given properties of many entities at once, which lets the store read them in the order they're laid out on disk.
+    *
+    * @return for each id, in the order of `ids`, the values of the properties in the order of `propertyKeyIds`, or `null` for
+    *         entities that don't exist. `NO_VALUE` for properties an entity doesn't have.
+    */
+  def getProperties(ids: Array[Long], propertyKeyIds: Array[Int]): Array[Array[Value]]
+
   /**
     * @return `null` if there are no changes.
     *         `NO_VALUE` if the property was deleted.
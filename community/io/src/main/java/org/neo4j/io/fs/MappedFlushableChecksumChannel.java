@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.fs;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.zip.Checksum;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.ByteUnit;
+
+import static java.lang.Math.min;
+import static org.neo4j.io.fs.PhysicalFlushableChecksumChannel.DISABLE_WAL_CHECKSUM;
+
+/**
+ * A {@link FlushableChecksumChannel} that appends directly into a memory mapped window of the file behind a {@link StoreChannel},
+ * instead of buffering into a separate buffer that is then copied into the file with a write call.
+ * The window starts at the position of the channel and is moved further along the file when it is full. Mapping a window
+ * extends the file to cover it, so the file is followed by zeros up to the end of the current window, in the same way as a
+ * preallocated file is.
+ * <p>
+ * {@link #prepareForFlush()} only moves the position of the underlying channel up to what has been appended, and the returned
+ * {@link Flushable} forces the mapped window, which only writes back the data pages that have changed. The returned flushable
+ * may be called outside of any lock, concurrently with appending, moving to a new window or switching to a new channel.
+ */
+public class MappedFlushableChecksumChannel implements FlushableChecksumChannel
+{
+    public static final int DEFAULT_WINDOW_SIZE = (int) ByteUnit.mebiBytes( 8 );
+
+    private final int windowSize;
+    private final Checksum checksum;
+    private volatile boolean closed;
+
+    private StoreChannel channel;
+    private Mapping mapping;
+    private MappedByteBuffer window;
+    private ByteBuffer checksumView;
+    private long windowStart;
+
+    public MappedFlushableChecksumChannel( StoreChannel channel ) throws IOException
+    {
+        this( channel, DEFAULT_WINDOW_SIZE );
+    }
+
+    public MappedFlushableChecksumChannel( StoreChannel channel, int windowSize ) throws IOException
+    {
+        this.windowSize = windowSize;
+        this.checksum = CHECKSUM_FACTORY.get();
+        setChannel( channel );
+    }
+
+    /**
+     * Start appending to the given channel, from its current position. Anything appended to the previous channel
+     * must have been flushed before, since its window is released without being forced.
+     *
+     * @param channel channel to append to from now on.
+     * @throws IOException if the file of the channel could not be mapped.
+     */
+    public void setChannel( StoreChannel channel ) throws IOException
+    {
+        releaseWindow();
+        this.channel = channel;
+        mapWindow( channel.position() );
+    }
+
+    /**
+     * External synchronization between this method and close is required so that they aren't called concurrently.
+     * Currently that's done by acquiring the PhysicalLogFile monitor.
+     */
+    @Override
+    public Flushable prepareForFlush() throws IOException
+    {
+        assertMapped();
+        consumeChecksum();
+        checksumView.limit( checksumView.capacity() );
+        try
+        {
+            channel.position( position() );
+        }
+        catch ( ClosedChannelException e )
+        {
+            handleClosedChannelException( e );
+        }
+        return mapping;
+    }
+
+    @Override
+    public int putChecksum() throws IOException
+    {
+        ByteBuffer buffer = windowWithGuaranteedSpace( 4 );
+
+        if ( DISABLE_WAL_CHECKSUM )
+        {
+            buffer.putInt( 0xDEAD5EED );
+            return 0xDEAD5EED;
+        }
+
+        consumeChecksum();
+        int checksum = (int) this.checksum.getValue();
+        buffer.putInt( checksum );
+        return checksum;
+    }
+
+    @Override
+    public void beginChecksum()
+    {
+        if ( DISABLE_WAL_CHECKSUM )
+        {
+            return;
+        }
+        checksum.reset();
+        checksumView.limit( checksumView.capacity() );
+        checksumView.position( window.position() );
+    }
+
+    @Override
+    public FlushableChecksumChannel put( byte value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 1 ).put( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel putShort( short value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 2 ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel putInt( int value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 4 ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel putLong( long value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 8 ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel putFloat( float value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 4 ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel putDouble( double value ) throws IOException
+    {
+        windowWithGuaranteedSpace( 8 ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChecksumChannel put( byte[] value, int length ) throws IOException
+    {
+        int offset = 0;
+        while ( offset < length )
+        {
+            ByteBuffer buffer = windowWithGuaranteedSpace( 1 );
+            int chunkSize = min( length - offset, buffer.remaining() );
+            buffer.put( value, offset, chunkSize );
+            offset += chunkSize;
+        }
+        return this;
+    }
+
+    /**
+     * @return the position of the channel, also taking into account what has been appended to the mapped window.
+     */
+    public long position()
+    {
+        return windowStart + window.position();
+    }
+
+    /**
+     * External synchronization between this method and prepareForFlush is required so that they
+     * aren't called concurrently. Currently that's done by acquiring the PhysicalLogFile monitor.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        prepareForFlush().flush();
+        this.closed = true;
+        releaseWindow();
+        this.channel.close();
+    }
+
+    private ByteBuffer windowWithGuaranteedSpace( int spaceInBytes ) throws IOException
+    {
+        if ( window == null || window.remaining() < spaceInBytes )
+        {
+            moveWindow();
+        }
+        return window;
+    }
+
+    /**
+     * Continue in a new window starting where the current one is filled up to. The current window is forced before it
+     * is released, since forcing the next window will not cover it.
+     */
+    private void moveWindow() throws IOException
+    {
+        assertMapped();
+        consumeChecksum();
+        long position = position();
+        mapping.flush();
+        releaseWindow();
+        channel.position( position );
+        mapWindow( position );
+    }
+
+    private void mapWindow( long position ) throws IOException
+    {
+        FileChannel fileChannel = channel.fileChannel();
+        if ( fileChannel == null )
+        {
+            throw new IOException( "Channel " + channel + " is not backed by a file that can be mapped." );
+        }
+        try
+        {
+            mapping = new Mapping( fileChannel.map( FileChannel.MapMode.READ_WRITE, position, windowSize ) );
+        }
+        catch ( ClosedChannelException e )
+        {
+            handleClosedChannelException( e );
+        }
+        window = mapping.buffer;
+        windowStart = position;
+        checksumView = window.duplicate();
+    }
+
+    private void releaseWindow()
+    {
+        if ( mapping != null )
+        {
+            mapping.release();
+            mapping = null;
+            window = null;
+            checksumView = null;
+        }
+    }
+
+    private void consumeChecksum()
+    {
+        if ( !DISABLE_WAL_CHECKSUM )
+        {
+            checksumView.limit( window.position() );
+            checksum.update( checksumView );
+        }
+    }
+
+    private void assertMapped()
+    {
+        // The window is only released when closing, or moving to a new window or channel failed to map it
+        if ( mapping == null )
+        {
+            throw new IllegalStateException( "This log channel has been closed" );
+        }
+    }
+
+    private void handleClosedChannelException( ClosedChannelException e ) throws ClosedChannelException
+    {
+        // See PhysicalFlushableChannel, a deliberately closed channel is not something callers should treat as a kernel panic.
+        if ( closed )
+        {
+            throw new IllegalStateException( "This log channel has been closed", e );
+        }
+        throw e;
+    }
+
+    /**
+     * A mapped window, forced by flushes that may run concurrently with releasing it. A released window has already
+     * been forced, or its contents have been flushed by whoever switched channel, so forcing it is then skipped.
+     */
+    private static class Mapping implements Flushable
+    {
+        private final MappedByteBuffer buffer;
+        private boolean released;
+
+        Mapping( MappedByteBuffer buffer )
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public synchronized void flush()
+        {
+            if ( !released )
+            {
+                buffer.force();
+            }
+        }
+
+        synchronized void release()
+        {
+            released = true;
+            UnsafeUtil.invokeCleaner( buffer );
+        }
+    }
+}
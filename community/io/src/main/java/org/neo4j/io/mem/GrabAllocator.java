@@ -25,11 +25,16 @@ import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryAllocationTracker;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * With a {@link HugePageMode} other than {@link HugePageMode#DISABLED}, the grabs are made in multiples of the huge page
+ * size, and are mapped through a {@link HugePageMapper}, such that they can be backed by huge pages. If explicit huge
+ * pages cannot be reserved, the allocator falls back to transparent huge pages, and then to normal memory.
  */
 public final class GrabAllocator implements MemoryAllocator
 {
@@ -48,7 +53,20 @@ public final class GrabAllocator implements MemoryAllocator
      */
     GrabAllocator( long expectedMaxMemory, MemoryAllocationTracker memoryTracker )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this( expectedMaxMemory, memoryTracker, HugePageMode.DISABLED, HugePageMapper.UNAVAILABLE );
+    }
+
+    /**
+     * Create a new GrabAllocator that will try to back the memory it allocates with huge pages.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate.
+     * @param memoryTracker memory usage tracker
+     * @param hugePageMode how to use huge pages
+     * @param hugePageMapper used for mapping the memory, when huge pages are enabled
+     */
+    GrabAllocator( long expectedMaxMemory, MemoryAllocationTracker memoryTracker, HugePageMode hugePageMode, HugePageMapper hugePageMapper )
+    {
+        this.grabs = new Grabs( expectedMaxMemory, memoryTracker, hugePageMode, hugePageMapper );
         this.cleanable = globalCleaner.register( this, new GrabsDeallocator( grabs ) );
     }
 
@@ -70,6 +88,18 @@ public final class GrabAllocator implements MemoryAllocator
         return grabs.allocateAligned( bytes, alignment );
     }
 
+    @Override
+    public synchronized long explicitHugePageMemory()
+    {
+        return grabs.explicitHugePageMemory;
+    }
+
+    @Override
+    public synchronized long transparentHugePageMemory()
+    {
+        return grabs.transparentHugePageMemory;
+    }
+
     @Override
     public void close()
     {
@@ -82,6 +112,10 @@ public final class GrabAllocator implements MemoryAllocator
         private final long address;
         private final long limit;
         private final MemoryAllocationTracker memoryTracker;
+        // If the grab was mapped by a huge page mapper, then this is that mapper and the size of the mapping, which can
+        // be bigger than the grab itself since mappings are made in whole huge pages. Otherwise the mapper is null.
+        private final HugePageMapper mapper;
+        private final long mappedSize;
         private long nextPointer;
 
         Grab( Grab next, long size, MemoryAllocationTracker memoryTracker )
@@ -90,15 +124,26 @@ public final class GrabAllocator implements MemoryAllocator
             this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
             this.limit = address + size;
             this.memoryTracker = memoryTracker;
+            this.mapper = null;
+            this.mappedSize = 0;
             nextPointer = address;
         }
 
-        Grab( Grab next, long address, long limit, long nextPointer, MemoryAllocationTracker memoryTracker )
+        Grab( Grab next, long address, long size, HugePageMapper mapper, long mappedSize, MemoryAllocationTracker memoryTracker )
+        {
+            this( next, address, address + size, address, mapper, mappedSize, memoryTracker );
+            memoryTracker.allocated( mappedSize );
+        }
+
+        Grab( Grab next, long address, long limit, long nextPointer, HugePageMapper mapper, long mappedSize,
+                MemoryAllocationTracker memoryTracker )
         {
             this.next = next;
             this.address = address;
             this.limit = limit;
             this.nextPointer = nextPointer;
+            this.mapper = mapper;
+            this.mappedSize = mappedSize;
             this.memoryTracker = memoryTracker;
         }
 
@@ -125,7 +170,15 @@ public final class GrabAllocator implements MemoryAllocator
 
         void free()
         {
-            UnsafeUtil.free( address, limit - address, memoryTracker );
+            if ( mapper != null )
+            {
+                mapper.unmap( address, mappedSize );
+                memoryTracker.deallocated( mappedSize );
+            }
+            else
+            {
+                UnsafeUtil.free( address, limit - address, memoryTracker );
+            }
         }
 
         boolean canAllocate( long bytes, long alignment )
@@ -135,7 +188,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         Grab setNext( Grab grab )
         {
-            return new Grab( grab, address, limit, nextPointer, memoryTracker );
+            return new Grab( grab, address, limit, nextPointer, mapper, mappedSize, memoryTracker );
         }
 
         @Override
@@ -155,14 +208,28 @@ public final class GrabAllocator implements MemoryAllocator
          */
         private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
 
+        /**
+         * The amount of memory, in bytes, to grab in each Grab when using huge pages. This is rounded up to a multiple
+         * of the huge page size.
+         */
+        private static final long HUGE_PAGE_GRAB_SIZE = getInteger( GrabAllocator.class, "HUGE_PAGE_GRAB_SIZE", (int) mebiBytes( 64 ) );
+
         private final MemoryAllocationTracker memoryTracker;
+        private final HugePageMode hugePageMode;
+        private final HugePageMapper hugePageMapper;
+        private final long grabSize;
         private long expectedMaxMemory;
         private Grab head;
+        long explicitHugePageMemory;
+        long transparentHugePageMemory;
 
-        Grabs( long expectedMaxMemory, MemoryAllocationTracker memoryTracker )
+        Grabs( long expectedMaxMemory, MemoryAllocationTracker memoryTracker, HugePageMode hugePageMode, HugePageMapper hugePageMapper )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.hugePageMode = hugePageMode;
+            this.hugePageMapper = hugePageMapper;
+            this.grabSize = hugePageMode == HugePageMode.DISABLED ? GRAB_SIZE : roundUp( HUGE_PAGE_GRAB_SIZE, hugePageMode.hugePageSize() );
         }
 
         long usedMemory()
@@ -206,18 +273,18 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
-            if ( bytes > GRAB_SIZE )
+            long grabSize = Math.min( this.grabSize, expectedMaxMemory );
+            if ( bytes > this.grabSize )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = newGrab( nextGrab, grabSize );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = bytes + alignment;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = newGrab( nextGrab, grabSize );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
@@ -230,7 +297,7 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < bytes )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = newGrab( head, grabSize );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
                         expectedMaxMemory -= grabSize;
@@ -240,11 +307,47 @@ public final class GrabAllocator implements MemoryAllocator
                     grab.free();
                     grabSize = bytes + alignment;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
+                head = newGrab( head, grabSize );
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate( bytes, alignment );
         }
+
+        private Grab newGrab( Grab next, long size )
+        {
+            if ( hugePageMode == HugePageMode.DISABLED )
+            {
+                return new Grab( next, size, memoryTracker );
+            }
+            if ( hugePageMode.isExplicit() )
+            {
+                long mappedSize = roundUp( size, hugePageMode.hugePageSize() );
+                long address = hugePageMapper.mapHugeTlb( mappedSize, hugePageMode.hugePageSize() );
+                if ( address != 0 )
+                {
+                    explicitHugePageMemory += mappedSize;
+                    return new Grab( next, address, size, hugePageMapper, mappedSize, memoryTracker );
+                }
+            }
+            // Transparent huge pages are always of the smallest huge page size.
+            long transparentHugePageSize = HugePageMode.TRANSPARENT.hugePageSize();
+            long mappedSize = roundUp( size, transparentHugePageSize );
+            long address = hugePageMapper.mapAligned( mappedSize, transparentHugePageSize );
+            if ( address != 0 )
+            {
+                if ( hugePageMapper.adviseHugePages( address, mappedSize ) )
+                {
+                    transparentHugePageMemory += mappedSize;
+                }
+                return new Grab( next, address, size, hugePageMapper, mappedSize, memoryTracker );
+            }
+            return new Grab( next, size, memoryTracker );
+        }
+
+        private static long roundUp( long size, long unit )
+        {
+            return ((size + unit - 1) / unit) * unit;
+        }
     }
 
     private static Cleaner globalCleaner()
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+/**
+ * Maps anonymous memory that can be backed by huge pages. The mappings are done natively, outside of this module.
+ *
+ * @see HugePageMode
+ */
+public interface HugePageMapper
+{
+    /**
+     * A mapper for platforms without huge page support. All mappings fail, so the allocator uses normal memory.
+     */
+    HugePageMapper UNAVAILABLE = new HugePageMapper()
+    {
+        @Override
+        public long mapHugeTlb( long bytes, long hugePageSize )
+        {
+            return 0;
+        }
+
+        @Override
+        public long mapAligned( long bytes, long alignment )
+        {
+            return 0;
+        }
+
+        @Override
+        public boolean adviseHugePages( long address, long bytes )
+        {
+            return false;
+        }
+
+        @Override
+        public void unmap( long address, long bytes )
+        {
+        }
+    };
+
+    /**
+     * Map memory backed by explicitly reserved huge pages.
+     * @param bytes the size of the mapping, a multiple of the huge page size.
+     * @param hugePageSize the size of the huge pages.
+     * @return the address of the mapping, or 0 if the huge pages could not be reserved.
+     */
+    long mapHugeTlb( long bytes, long hugePageSize );
+
+    /**
+     * Map normal memory, aligned to the given alignment.
+     * @param bytes the size of the mapping.
+     * @param alignment the alignment of the mapping, a power of two.
+     * @return the address of the mapping, or 0 if the memory could not be mapped.
+     */
+    long mapAligned( long bytes, long alignment );
+
+    /**
+     * Advise the operating system to back the given memory with transparent huge pages.
+     * @return {@code true} if the advice was accepted.
+     */
+    boolean adviseHugePages( long address, long bytes );
+
+    /**
+     * Unmap memory mapped by this mapper.
+     */
+    void unmap( long address, long bytes );
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import static org.neo4j.io.ByteUnit.gibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * How a {@link MemoryAllocator} should try to back its memory with huge pages.
+ * <p>
+ * Huge pages reduce the number of TLB entries needed to cover the memory, which matters for large memory regions that
+ * are accessed randomly, such as the page cache. If explicit huge pages cannot be reserved, the allocator falls back to
+ * transparent huge pages, and if those are not available either, to normal memory.
+ */
+public enum HugePageMode
+{
+    /**
+     * Use normal memory. This is the default.
+     */
+    DISABLED( 0, false ),
+    /**
+     * Map memory aligned to 2 MiB, and advise the operating system to back it with transparent huge pages.
+     */
+    TRANSPARENT( mebiBytes( 2 ), false ),
+    /**
+     * Reserve explicit 2 MiB huge pages from the huge page pool of the operating system.
+     */
+    EXPLICIT_2MB( mebiBytes( 2 ), true ),
+    /**
+     * Reserve explicit 1 GiB huge pages from the huge page pool of the operating system.
+     */
+    EXPLICIT_1GB( gibiBytes( 1 ), true );
+
+    private final long hugePageSize;
+    private final boolean explicit;
+
+    HugePageMode( long hugePageSize, boolean explicit )
+    {
+        this.hugePageSize = hugePageSize;
+        this.explicit = explicit;
+    }
+
+    /**
+     * @return the size of the huge pages, or 0 if huge pages are disabled.
+     */
+    public long hugePageSize()
+    {
+        return hugePageSize;
+    }
+
+    /**
+     * @return {@code true} if the huge pages should be explicitly reserved, rather than transparent.
+     */
+    public boolean isExplicit()
+    {
+        return explicit;
+    }
+}
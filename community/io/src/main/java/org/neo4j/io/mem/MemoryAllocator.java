@@ -32,6 +32,17 @@ public interface MemoryAllocator
         return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker );
     }
 
+    /**
+     * Create an allocator that tries to back its memory with huge pages, as described by the given mode.
+     * The {@link #explicitHugePageMemory()} and {@link #transparentHugePageMemory()} methods tell how much of the
+     * memory actually ended up in huge pages.
+     */
+    static MemoryAllocator createAllocator( String expectedMemory, MemoryAllocationTracker memoryTracker, HugePageMode hugePageMode,
+            HugePageMapper hugePageMapper )
+    {
+        return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker, hugePageMode, hugePageMapper );
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -51,6 +62,17 @@ public interface MemoryAllocator
      */
     long allocateAligned( long bytes, long alignment );
 
+    /**
+     * @return The amount of memory, in bytes, that is backed by explicitly reserved huge pages.
+     */
+    long explicitHugePageMemory();
+
+    /**
+     * @return The amount of memory, in bytes, that the operating system has been advised to back by transparent huge
+     * pages. Whether it actually does so depends on the availability of contiguous physical memory.
+     */
+    long transparentHugePageMemory();
+
     /**
      * Close all allocated resources and free all allocated memory.
      * Closing can happen by calling close explicitly or by GC as soon as allocator will become phantom reachable.
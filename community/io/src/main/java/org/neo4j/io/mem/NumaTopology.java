@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+/**
+ * Describes the NUMA nodes of the system, and allows memory to be placed on a particular node.
+ * <p>
+ * The page cache uses this to partition its memory into per-node pools, and to prefer the pool that is local to the
+ * thread that is faulting in a page.
+ */
+public interface NumaTopology
+{
+    /**
+     * Topology of a system where all memory is equally close to all CPUs. This is the default.
+     */
+    NumaTopology SINGLE_NODE = new NumaTopology()
+    {
+        @Override
+        public int nodeCount()
+        {
+            return 1;
+        }
+
+        @Override
+        public int currentNode()
+        {
+            return 0;
+        }
+
+        @Override
+        public void bindToNode( long address, long bytes, int node )
+        {
+        }
+    };
+
+    /**
+     * @return the number of NUMA nodes, always at least 1.
+     */
+    int nodeCount();
+
+    /**
+     * @return the node of the CPU that the calling thread is currently running on, in the range from 0 to
+     * {@link #nodeCount()} (exclusive).
+     */
+    int currentNode();
+
+    /**
+     * Ask for the given memory to be allocated on the given node when it is first touched. This is a best effort
+     * request; memory will still be allocated elsewhere if the node is out of memory.
+     *
+     * @param address the start of the memory range, aligned to the operating system page size.
+     * @param bytes the length of the memory range.
+     * @param node the node that should hold the memory.
+     */
+    void bindToNode( long address, long bytes, int node );
+}
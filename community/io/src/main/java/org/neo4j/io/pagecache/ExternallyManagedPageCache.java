@@ -84,6 +84,12 @@ public class ExternallyManagedPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        return delegate.snapshotDirtyPages( limiter );
+    }
+
     @Override
     public int pageSize()
     {
@@ -103,6 +103,16 @@ public interface IOLimiter
         // Same as for disableLimit().
     }
 
+    /**
+     * A checkpoint is about to flush the page cache through this limiter. Limiters that adapt to what they observe
+     * while flushing can take this as the start of a new observation, rather than carry over what happened in between
+     * checkpoints.
+     */
+    default void checkpointStarted()
+    {
+        // By default this method does nothing, assuming the implementation does not adapt its limit.
+    }
+
     /**
      * An IOPSLimiter implementation that does not restrict the rate of IO. Use this implementation if you want the
      * flush to go as fast as possible.
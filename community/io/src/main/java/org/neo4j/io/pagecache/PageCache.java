@@ -138,6 +138,24 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Take a snapshot of the pages that are dirty right now, for a flush that only needs to write out the changes made so far.
+     * <p>
+     * The returned limiter limits the rate of IO like the given one. When it is passed to {@link #flushAndForce(IOLimiter)}, or to
+     * {@link PagedFile#flushAndForce(IOLimiter)} of a file mapped by this page cache, only the pages in the snapshot are written out.
+     * Pages that are first dirtied after the snapshot was taken are left for a later flush. Every change made before the snapshot
+     * was taken is still written out and forced by such a flush.
+     * <p>
+     * Page caches that cannot take snapshots return the given limiter, and then every dirty page is flushed.
+     *
+     * @param limiter The {@link IOLimiter} to limit the rate of IO with.
+     * @return a limiter to pass to the flushes that should only write out the pages that are dirty now.
+     */
+    default IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        return limiter;
+    }
+
     /**
      * Close the page cache to prevent any future mapping of files.
      * This also releases any internal resources, including the {@link PageSwapperFactory} through its
@@ -59,9 +59,11 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_GROW = 1 << 2;
     /**
-     * Read-ahead hint for sequential forward scanning.
+     * Read-ahead hint for sequential forward scanning. When a read cursor with this flag is observed to be moving
+     * sequentially forward through the file, the pages ahead of it will be faulted in the background, in batches of
+     * increasing size. This has no effect on write cursors, or together with {@link #PF_NO_FAULT}.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -70,6 +72,9 @@ public interface PagedFile extends AutoCloseable
      * iteration, in case it (for a read cursor) was evicted concurrently with the page access.
      * <p>
      * {@link #PF_NO_FAULT} implies {@link #PF_NO_GROW}, since a page fault is necessary to be able to extend a file.
+     * <p>
+     * Pages pinned by a read cursor with this flag are not counted as accessed by the eviction policy, so that
+     * inspecting which pages are in memory doesn't change which pages are kept there.
      */
     int PF_NO_FAULT = 1 << 4;
     /**
@@ -136,6 +141,20 @@ public interface PagedFile extends AutoCloseable
      */
     PageCursor io( long pageId, int pf_flags ) throws IOException;
 
+    /**
+     * Hint that the given pages are about to be read, in no particular order, so that those of them that are not
+     * already in memory can be faulted in ahead of time, in the background. This lets a reader that knows a set of
+     * scattered pages it needs have them read in parallel, rather than one page fault at a time.
+     * <p>
+     * This is only a hint, and implementations are free to ignore it, or any part of it.
+     *
+     * @param filePageIds the file page ids of the pages, in ascending order.
+     * @param count the number of page ids to use from the start of the {@code filePageIds} array.
+     */
+    default void prefetch( long[] filePageIds, int count )
+    {
+    }
+
     /**
      * Get the size of the file-pages, in bytes.
      */
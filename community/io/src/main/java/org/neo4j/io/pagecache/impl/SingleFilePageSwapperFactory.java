@@ -21,10 +21,12 @@ package org.neo4j.io.pagecache.impl;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
 
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.PageEvictionCallback;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
@@ -37,6 +39,12 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 @ServiceProvider
 public class SingleFilePageSwapperFactory implements PageSwapperFactory
 {
+    /**
+     * The first eight bytes, "NEOZPAGE", of the data files written by the {@code compressed} page swapper. The pages in those files are
+     * compressed, and are found through a page mapping file, so any other swapper would read them as garbage.
+     */
+    public static final long COMPRESSED_FILE_MAGIC = 0x4e454f5a50414745L;
+
     private FileSystemAbstraction fs;
 
     @Override
@@ -53,6 +61,21 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
             boolean createIfNotExist,
             boolean noChannelStriping,
             boolean useDirectIO ) throws IOException
+    {
+        if ( fs.fileExists( file ) && isCompressedFile( fs, file ) )
+        {
+            throw new IOException( "The file " + file + " holds pages compressed by the 'compressed' page swapper, " +
+                    "and can only be mapped with dbms.memory.pagecache.swapper=compressed." );
+        }
+        return createSingleFilePageSwapper( file, filePageSize, onEviction, createIfNotExist, noChannelStriping, useDirectIO );
+    }
+
+    /**
+     * Create a {@link SingleFilePageSwapper} for the file, without looking at what is in it, for swappers that wrap it and read the file
+     * in a format of their own.
+     */
+    protected PageSwapper createSingleFilePageSwapper( File file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist,
+            boolean noChannelStriping, boolean useDirectIO ) throws IOException
     {
         if ( !fs.fileExists( file ) )
         {
@@ -68,6 +91,18 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
         return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, noChannelStriping, useDirectIO );
     }
 
+    /**
+     * @return {@code true} if the file starts with the {@link #COMPRESSED_FILE_MAGIC header} of a compressed data file.
+     */
+    public static boolean isCompressedFile( FileSystemAbstraction fs, File file ) throws IOException
+    {
+        try ( StoreChannel channel = fs.read( file ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate( Long.BYTES );
+            return channel.read( header, 0 ) == Long.BYTES && header.getLong( 0 ) == COMPRESSED_FILE_MAGIC;
+        }
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The strategy for the {@link EvictionPolicy#CLOCK} policy, where the usage bits of a page is a counter that goes from
+ * zero to four.
+ */
+final class ClockEvictionStrategy extends EvictionStrategy
+{
+    ClockEvictionStrategy( PageList pages )
+    {
+        super( pages );
+    }
+
+    @Override
+    void pageAccessed( long pageRef )
+    {
+        pages.incrementUsage( pageRef );
+    }
+
+    @Override
+    boolean shouldEvict( long pageRef )
+    {
+        return pages.decrementUsage( pageRef );
+    }
+}
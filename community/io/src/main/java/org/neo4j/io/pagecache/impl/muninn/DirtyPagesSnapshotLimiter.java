@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.Flushable;
+
+import org.neo4j.io.pagecache.IOLimiter;
+
+/**
+ * The {@link IOLimiter} returned by {@link MuninnPageCache#snapshotDirtyPages(IOLimiter)}. It limits the IO like the limiter it wraps,
+ * and carries the snapshot of dirty pages through the per-file flushes that the limiter is passed to.
+ */
+final class DirtyPagesSnapshotLimiter implements IOLimiter
+{
+    private final MuninnPageCache pageCache;
+    private final long[] dirtyPages;
+    private final IOLimiter limiter;
+
+    DirtyPagesSnapshotLimiter( MuninnPageCache pageCache, long[] dirtyPages, IOLimiter limiter )
+    {
+        this.pageCache = pageCache;
+        this.dirtyPages = dirtyPages;
+        this.limiter = limiter;
+    }
+
+    /**
+     * @return the bit set, indexed by page id, of the pages that a flush of the given page cache with the given limiter should write out,
+     * or {@code null} if it should write out every dirty page.
+     */
+    static long[] dirtyPages( MuninnPageCache pageCache, IOLimiter limiter )
+    {
+        if ( limiter instanceof DirtyPagesSnapshotLimiter )
+        {
+            DirtyPagesSnapshotLimiter snapshot = (DirtyPagesSnapshotLimiter) limiter;
+            // Page ids only mean something in the cache that took the snapshot
+            return snapshot.pageCache == pageCache ? snapshot.dirtyPages : null;
+        }
+        return null;
+    }
+
+    @Override
+    public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+    {
+        return limiter.maybeLimitIO( previousStamp, recentlyCompletedIOs, flushable );
+    }
+
+    @Override
+    public void disableLimit()
+    {
+        limiter.disableLimit();
+    }
+
+    @Override
+    public void enableLimit()
+    {
+        limiter.enableLimit();
+    }
+
+    @Override
+    public void checkpointStarted()
+    {
+        limiter.checkpointStarted();
+    }
+
+    @Override
+    public boolean isLimited()
+    {
+        return limiter.isLimited();
+    }
+}
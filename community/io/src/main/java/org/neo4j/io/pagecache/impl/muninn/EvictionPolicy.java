@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * The policies that the {@link MuninnPageCache} can use for deciding which pages to evict, when it needs free pages
+ * for page faulting.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * The classic clock sweep. Every page has a small usage counter that is incremented on every pin, and decremented
+     * by the sweeping clock arm. A page is evicted when its usage counter reaches zero.
+     * <p>
+     * This policy has no notion of one-shot sequential access, so large scans will age out the entire working set.
+     */
+    CLOCK
+            {
+                @Override
+                EvictionStrategy createStrategy( PageList pages, PageCacheTracer tracer )
+                {
+                    return new ClockEvictionStrategy( pages );
+                }
+            },
+    /**
+     * A scan resistant variation of the clock sweep, that splits the cache into a <em>probation</em> and a
+     * <em>protected</em> segment. Pages enter the cache in the probation segment, and are only promoted to the
+     * protected segment if they are accessed again while they are still cached. The clock arm will evict pages from
+     * the probation segment, and will only age pages in the protected segment when it has grown beyond its allotted
+     * share of the cache.
+     * <p>
+     * Pages that are only touched once, such as those read by large sequential scans, will therefore not push the
+     * frequently accessed pages out of the cache.
+     */
+    SCAN_RESISTANT
+            {
+                @Override
+                EvictionStrategy createStrategy( PageList pages, PageCacheTracer tracer )
+                {
+                    return new ScanResistantEvictionStrategy( pages, tracer );
+                }
+            };
+
+    abstract EvictionStrategy createStrategy( PageList pages, PageCacheTracer tracer );
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The implementation of an {@link EvictionPolicy}. An eviction strategy is in charge of the usage bits of the pages
+ * in the {@link PageList}, and is consulted by the clock sweep when it looks for pages to evict.
+ * <p>
+ * All methods must be thread-safe, and are expected to be benignly racy for performance, like
+ * {@link PageList#incrementUsage(long)} and {@link PageList#decrementUsage(long)}.
+ */
+abstract class EvictionStrategy
+{
+    final PageList pages;
+
+    EvictionStrategy( PageList pages )
+    {
+        this.pages = pages;
+    }
+
+    /**
+     * The given page has been pinned by a page cursor, either because it was found in the cache, or because it has
+     * just been faulted in.
+     *
+     * @param pageRef the page that was pinned.
+     */
+    abstract void pageAccessed( long pageRef );
+
+    /**
+     * The clock arm has arrived at the given loaded page, and wants to know if the page should be evicted.
+     * The strategy is expected to age the page, if the page is not evicted.
+     *
+     * @param pageRef the page the clock arm is pointing at.
+     * @return {@code true} if the page is a candidate for eviction.
+     */
+    abstract boolean shouldEvict( long pageRef );
+
+    /**
+     * The background flusher wants to know if the given loaded page is likely to be evicted soon, in which case it is
+     * worth writing out ahead of time. Unlike {@link #shouldEvict(long)}, this must not age the page.
+     * <p>
+     * A page is cold when its usage is down to at most one, so the clock arm will evict it on its next visit, unless it
+     * is accessed again. The protected pages of the {@link ScanResistantEvictionStrategy} are never cold, since their
+     * protected bit keeps their usage above one until they are demoted.
+     *
+     * @param pageRef the page the background flusher is looking at.
+     * @return {@code true} if the page is close to being evicted.
+     */
+    boolean isCold( long pageRef )
+    {
+        return pages.getUsage( pageRef ) <= 1;
+    }
+
+    /**
+     * The clock arm has completed a full revolution over all of the pages in the cache.
+     */
+    void sweepCompleted()
+    {
+    }
+}
@@ -33,12 +33,15 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
@@ -126,14 +129,22 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The background flusher wakes up this often, to look for cold dirty pages to write out.
+    private static final int backgroundFlushIntervalMillis = getInteger(
+            MuninnPageCache.class, "backgroundFlushIntervalMillis", 100 );
+
+    // The background flusher looks at this many pages every time it wakes up, unless the cache has fewer pages.
+    private static final int backgroundFlushScanPages = getInteger(
+            MuninnPageCache.class, "backgroundFlushScanPages", 8192 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
+    // The base offset and element size to unsafely access the elements of the freelists array.
+    private static final long freelistsBase = UnsafeUtil.arrayBaseOffset( Object[].class );
+    private static final long freelistsScale = UnsafeUtil.arrayIndexScale( Object[].class );
 
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
@@ -161,19 +172,22 @@ public class MuninnPageCache implements PageCache
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final VersionContextSupplier versionContextSupplier;
     final PageList pages;
+    final EvictionStrategy evictionStrategy;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
+    // There is a freelist for each partition of the page list. Unless the page cache is NUMA aware, there is only one.
+    // A freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the freelist is an AtomicInteger that counts from the first to the last page of its partition, at
+    // which point all of those pages have been put in use. Once this happens, the freelist is set to null to allow the
+    // background eviction thread to start its work. From that point on, the freelist will operate as a concurrent stack
+    // of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack of the partition the
+    // page belongs to, and page faulting threads pops FreePage objects from the stacks, preferring the partition that
+    // is local to them. The FreePage objects are single-use, to avoid running into the ABA-problem.
+    // The elements of this array are accessed via Unsafe.
+    private final Object[] freelists;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
@@ -189,6 +203,13 @@ public class MuninnPageCache implements PageCache
     private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
+    // The limiter that paces the background flusher, or null if background flushing is not enabled.
+    private volatile IOLimiter backgroundFlushLimiter;
+    // Told about the first of every run of failures of the background flusher.
+    private volatile Consumer<IOException> backgroundFlushFailureHandler;
+    // The thread that runs the background flusher, if it is enabled.
+    private volatile Thread backgroundFlushThread;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -254,7 +275,58 @@ public class MuninnPageCache implements PageCache
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler );
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler,
+                EvictionPolicy.CLOCK );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide
+     *        access to thread local version context
+     * @param evictionPolicy the policy for choosing which pages to evict
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler,
+                evictionPolicy, NumaTopology.SINGLE_NODE );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide
+     *        access to thread local version context
+     * @param evictionPolicy the policy for choosing which pages to evict
+     * @param numaTopology the NUMA nodes to partition the pages over
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy,
+            NumaTopology numaTopology )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler,
+                evictionPolicy, numaTopology );
     }
 
     /**
@@ -271,6 +343,43 @@ public class MuninnPageCache implements PageCache
             PageCursorTracerSupplier pageCursorTracerSupplier,
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler,
+                EvictionPolicy.CLOCK );
+    }
+
+    /**
+     * Constructor variant that allows setting a non-standard cache page size, along with the eviction policy.
+     * Only ever use this for testing.
+     */
+    MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler,
+                evictionPolicy, NumaTopology.SINGLE_NODE );
+    }
+
+    /**
+     * Constructor variant that allows setting a non-standard cache page size, along with the eviction policy and NUMA
+     * topology. Only ever use this for testing.
+     */
+    MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy,
+            NumaTopology numaTopology )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -289,10 +398,20 @@ public class MuninnPageCache implements PageCache
         this.printExceptionsOnClose = true;
         long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize );
-        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment );
+        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment, numaTopology );
+        this.evictionStrategy = evictionPolicy.createStrategy( pages, pageCacheTracer );
         this.scheduler = jobScheduler;
 
-        setFreelistHead( new AtomicInteger() );
+        int partitionCount = pages.getPartitionCount();
+        if ( partitionCount > 1 )
+        {
+            pageCacheTracer.numaNodes( partitionCount );
+        }
+        this.freelists = new Object[partitionCount];
+        for ( int partition = 0; partition < partitionCount; partition++ )
+        {
+            setFreelistHead( partition, new AtomicInteger( pages.partitionStart( partition ) ) );
+        }
     }
 
     private static void verifyHacks()
@@ -495,6 +614,10 @@ public class MuninnPageCache implements PageCache
         try
         {
             scheduler.schedule( Group.PAGE_CACHE, new EvictionTask( this ) );
+            if ( backgroundFlushLimiter != null )
+            {
+                scheduler.schedule( Group.PAGE_CACHE, new BackgroundFlushTask( this ) );
+            }
         }
         catch ( Exception e )
         {
@@ -591,30 +714,55 @@ public class MuninnPageCache implements PageCache
             throw new IllegalArgumentException( "IOLimiter cannot be null" );
         }
         List<PagedFile> files = listExistingMappings();
+        long[] dirtyPages = DirtyPagesSnapshotLimiter.dirtyPages( this, limiter );
 
         try ( MajorFlushEvent ignored = pageCacheTracer.beginCacheFlush() )
         {
             if ( limiter.isLimited() )
             {
-                flushAllPages( files, limiter );
+                flushAllPages( files, limiter, dirtyPages );
             }
             else
             {
-                flushAllPagesParallel( files, limiter );
+                flushAllPagesParallel( files, limiter, dirtyPages );
             }
         }
         clearEvictorException();
     }
 
-    private void flushAllPages( List<PagedFile> files, IOLimiter limiter ) throws IOException
+    @Override
+    public IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        // Every change made before this call is on a page that is dirty now, or that has already been written out.
+        return new DirtyPagesSnapshotLimiter( this, dirtyPagesSnapshot(), limiter );
+    }
+
+    /**
+     * @return a bit set, indexed by page id, of the pages that are currently modified.
+     */
+    private long[] dirtyPagesSnapshot()
+    {
+        int pageCount = pages.getPageCount();
+        long[] dirtyPages = new long[(pageCount + Long.SIZE - 1) / Long.SIZE];
+        for ( int pageId = 0; pageId < pageCount; pageId++ )
+        {
+            if ( pages.isModified( pages.deref( pageId ) ) )
+            {
+                dirtyPages[pageId >>> 6] |= 1L << pageId;
+            }
+        }
+        return dirtyPages;
+    }
+
+    private void flushAllPages( List<PagedFile> files, IOLimiter limiter, long[] dirtyPages ) throws IOException
     {
         for ( PagedFile file : files )
         {
-            flushFile( (MuninnPagedFile) file, limiter );
+            flushFile( (MuninnPagedFile) file, limiter, dirtyPages );
         }
     }
 
-    private void flushAllPagesParallel( List<PagedFile> files, IOLimiter limiter ) throws IOException
+    private void flushAllPagesParallel( List<PagedFile> files, IOLimiter limiter, long[] dirtyPages ) throws IOException
     {
         List<JobHandle> flushes = new ArrayList<>( files.size() );
 
@@ -625,7 +773,7 @@ public class MuninnPageCache implements PageCache
             {
                 try
                 {
-                    flushFile( (MuninnPagedFile) file, limiter );
+                    flushFile( (MuninnPagedFile) file, limiter, dirtyPages );
                 }
                 catch ( IOException e )
                 {
@@ -648,12 +796,12 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private void flushFile( MuninnPagedFile muninnPagedFile,  IOLimiter limiter ) throws IOException
+    private void flushFile( MuninnPagedFile muninnPagedFile, IOLimiter limiter, long[] dirtyPages ) throws IOException
     {
         try ( MajorFlushEvent fileFlush = pageCacheTracer.beginFileFlush( muninnPagedFile.swapper ) )
         {
             FlushEventOpportunity flushOpportunity = fileFlush.flushEventOpportunity();
-            muninnPagedFile.flushAndForceInternal( flushOpportunity, false, limiter );
+            muninnPagedFile.flushAndForceInternal( flushOpportunity, false, limiter, dirtyPages );
         }
     }
 
@@ -686,6 +834,8 @@ public class MuninnPageCache implements PageCache
 
         interrupt( evictionThread );
         evictionThread = null;
+        interrupt( backgroundFlushThread );
+        backgroundFlushThread = null;
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -775,32 +925,55 @@ public class MuninnPageCache implements PageCache
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        // If the pages are partitioned over NUMA nodes, then we look at the freelist of the local partition first, and
+        // only take pages from the other partitions if the local freelist is empty. Likewise, cooperative eviction
+        // starts its search for a page to evict in the local partition.
+        int partitionCount = freelists.length;
+        int localPartition = pages.currentPartition();
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
-            if ( current == null )
+            for ( int i = 0; i < partitionCount; i++ )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
+                int partition = localPartition + i < partitionCount ? localPartition + i : localPartition + i - partitionCount;
+                long pageRef = grabFreePage( partition );
                 if ( pageRef != 0 )
                 {
+                    reportNumaFault( partition );
                     return pageRef;
                 }
             }
+            unparkEvictor();
+            long pageRef = cooperativelyEvict( faultEvent, localPartition );
+            if ( pageRef != 0 )
+            {
+                reportNumaFault( pages.partitionOf( pageRef ) );
+                return pageRef;
+            }
+        }
+    }
+
+    private long grabFreePage( int partition )
+    {
+        for (;;)
+        {
+            Object current = getFreelistHead( partition );
+            if ( current == null )
+            {
+                return 0;
+            }
             else if ( current instanceof AtomicInteger )
             {
-                int pageCount = pages.getPageCount();
+                int partitionEnd = pages.partitionEnd( partition );
                 AtomicInteger counter = (AtomicInteger) current;
                 int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                if ( pageId < partitionEnd && counter.compareAndSet( pageId, pageId + 1 ) )
                 {
                     return pages.deref( pageId );
                 }
-                if ( pageId >= pageCount )
+                if ( pageId >= partitionEnd )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    compareAndSetFreelistHead( partition, current, null );
                 }
             }
             else if ( current instanceof FreePage )
@@ -811,7 +984,7 @@ public class MuninnPageCache implements PageCache
                     throw new IllegalStateException( "The PageCache has been shut down." );
                 }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                if ( compareAndSetFreelistHead( partition, freePage, freePage.next ) )
                 {
                     return freePage.pageRef;
                 }
@@ -819,17 +992,18 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    private long cooperativelyEvict( PageFaultEvent faultEvent, int localPartition ) throws IOException
     {
         int iterations = 0;
         int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
+        int partitionStart = pages.partitionStart( localPartition );
+        int clockArm = partitionStart + ThreadLocalRandom.current().nextInt( pages.partitionEnd( localPartition ) - partitionStart );
         boolean evicted = false;
         long pageRef;
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( hasFreePages() )
             {
                 return 0;
             }
@@ -840,21 +1014,69 @@ public class MuninnPageCache implements PageCache
                 {
                     throw cooperativeEvictionLiveLock();
                 }
+                if ( iterations > 0 )
+                {
+                    evictionStrategy.sweepCompleted();
+                }
                 iterations++;
                 clockArm = 0;
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && evictionStrategy.shouldEvict( pageRef ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
             clockArm++;
         }
         while ( !evicted );
+        reportNumaEviction( pageRef );
         return pageRef;
     }
 
+    private boolean hasFreePages()
+    {
+        for ( int partition = 0; partition < freelists.length; partition++ )
+        {
+            if ( getFreelistHead( partition ) != null )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the freelist of every NUMA node still hands out pages that have never been used.
+     */
+    private boolean hasNeverUsedPagesInEveryPartition()
+    {
+        for ( int partition = 0; partition < freelists.length; partition++ )
+        {
+            if ( !(getFreelistHead( partition ) instanceof AtomicInteger) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reportNumaFault( int partition )
+    {
+        if ( freelists.length > 1 )
+        {
+            pageCacheTracer.numaFaults( partition, 1 );
+        }
+    }
+
+    private void reportNumaEviction( long pageRef )
+    {
+        if ( freelists.length > 1 )
+        {
+            pageCacheTracer.numaEvictions( pages.partitionOf( pageRef ), 1 );
+        }
+    }
+
     private CacheLiveLockException cooperativeEvictionLiveLock()
     {
         return new CacheLiveLockException(
@@ -887,26 +1109,31 @@ public class MuninnPageCache implements PageCache
         evictorParked = false;
     }
 
-    private Object getFreelistHead()
+    private static long freelistOffset( int partition )
+    {
+        return freelistsBase + partition * freelistsScale;
+    }
+
+    private Object getFreelistHead( int partition )
     {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+        return UnsafeUtil.getObjectVolatile( freelists, freelistOffset( partition ) );
     }
 
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
+    private boolean compareAndSetFreelistHead( int partition, Object expected, Object update )
     {
         return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
+                freelists, freelistOffset( partition ), expected, update );
     }
 
-    private void setFreelistHead( Object newFreelistHead )
+    private void setFreelistHead( int partition, Object newFreelistHead )
     {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+        UnsafeUtil.putObjectVolatile( freelists, freelistOffset( partition ), newFreelistHead );
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
-     * we evict the page. If we don't, we move on to the next page.
+     * Scan through all the pages, one by one, and ask the eviction strategy if they should be evicted, which will
+     * typically decrement their usage stamps. If a usage reaches zero, we try-write-locking it, and if we get that
+     * lock, we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
@@ -925,8 +1152,88 @@ public class MuninnPageCache implements PageCache
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        // the freelists. This signal is looked out for in grabFreePage.
+        for ( int partition = 0; partition < freelists.length; partition++ )
+        {
+            setFreelistHead( partition, shutdownSignal );
+        }
+    }
+
+    /**
+     * Enable the background flusher, which continuously writes out modified pages that are about to be evicted, such
+     * that page faults rarely have to wait for an eviction to write out a page, and such that checkpoints have fewer
+     * pages left to flush. The given limiter is consulted after every page written by the background flusher.
+     * <p>
+     * This must be called before any files are mapped.
+     *
+     * @param limiter the {@link IOLimiter} that paces the background flusher.
+     * @param failureHandler told about the exception when writing out a page fails, which is only once for as long as
+     * the background flusher keeps failing.
+     */
+    public synchronized void enableBackgroundFlushing( IOLimiter limiter, Consumer<IOException> failureHandler )
+    {
+        if ( threadsInitialised )
+        {
+            throw new IllegalStateException( "Background flushing must be enabled before any files are mapped." );
+        }
+        backgroundFlushLimiter = limiter;
+        backgroundFlushFailureHandler = failureHandler;
+    }
+
+    /**
+     * Continuously scan through the pages with a clock arm of our own, and write out the pages that are modified and
+     * cold, according to the eviction strategy. This does not age the pages, so it does not interfere with the
+     * eviction. The pages are flushed under a flush lock, so readers and writers are not blocked, and a page that is
+     * modified while it is being written out, stays modified.
+     */
+    void continuouslyFlushPages()
+    {
+        backgroundFlushThread = Thread.currentThread();
+        IOLimiter limiter = backgroundFlushLimiter;
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos( backgroundFlushIntervalMillis );
+        long stamp = IOLimiter.INITIAL_STAMP;
+        int clockArm = 0;
+        boolean failing = false;
+
+        while ( !closed )
+        {
+            LockSupport.parkNanos( this, parkNanos );
+            if ( Thread.interrupted() || closed )
+            {
+                return;
+            }
+
+            try ( MajorFlushEvent cacheFlush = pageCacheTracer.beginCacheFlush() )
+            {
+                FlushEventOpportunity flushOpportunity = cacheFlush.flushEventOpportunity();
+                int pageCount = pages.getPageCount();
+                int pagesToScan = Math.min( pageCount, backgroundFlushScanPages );
+                for ( int i = 0; i < pagesToScan && !closed; i++ )
+                {
+                    long pageRef = pages.deref( clockArm );
+                    clockArm = clockArm + 1 == pageCount ? 0 : clockArm + 1;
+                    if ( pages.isModified( pageRef ) && pages.isLoaded( pageRef ) && evictionStrategy.isCold( pageRef ) )
+                    {
+                        PageSwapper swapper = pages.tryFlush( pageRef, flushOpportunity );
+                        if ( swapper != null )
+                        {
+                            stamp = limiter.maybeLimitIO( stamp, 1, swapper::force );
+                        }
+                    }
+                }
+                failing = false;
+            }
+            catch ( IOException e )
+            {
+                // The page is still modified, so it will be written out by the eviction or the next checkpoint. Only
+                // report the first failure, rather than every time the flusher wakes up for as long as the problem persists.
+                if ( !failing )
+                {
+                    failing = true;
+                    backgroundFlushFailureHandler.accept( e );
+                }
+            }
+        }
     }
 
     private int parkUntilEvictionRequired( int keepFree )
@@ -952,39 +1259,73 @@ public class MuninnPageCache implements PageCache
 
     private int tryGetNumberOfAvailablePages( int keepFree )
     {
-        Object freelistHead = getFreelistHead();
+        // Every partition should have its share of the free pages, such that page faults rarely have to fall back to
+        // taking pages from the freelists of other NUMA nodes.
+        int partitionCount = freelists.length;
+        int keepFreePerPartition = (keepFree + partitionCount - 1) / partitionCount;
+        int pagesToEvict = 0;
+        for ( int partition = 0; partition < partitionCount; partition++ )
+        {
+            long availablePages = availablePages( partition );
+            if ( availablePages < keepFreePerPartition )
+            {
+                pagesToEvict += keepFreePerPartition - availablePages;
+            }
+        }
+        return pagesToEvict > 0 ? pagesToEvict : UNKNOWN_AVAILABLE_PAGES;
+    }
+
+    private long availablePages( int partition )
+    {
+        Object freelistHead = getFreelistHead( partition );
 
         if ( freelistHead == null )
         {
-            return keepFree;
+            return 0;
         }
         else if ( freelistHead.getClass() == FreePage.class )
         {
-            int availablePages = ((FreePage) freelistHead).count;
-            if ( availablePages < keepFree )
-            {
-                return keepFree - availablePages;
-            }
+            return ((FreePage) freelistHead).count;
         }
         else if ( freelistHead.getClass() == AtomicInteger.class )
         {
             AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
-            if ( count < keepFree )
-            {
-                return count < 0 ? keepFree : (int) (keepFree - count);
-            }
+            return Math.max( 0, pages.partitionEnd( partition ) - counter.get() );
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return which partitions need more free pages, or {@code null} if there is only one partition, or if no
+     * partition in particular needs free pages.
+     */
+    private boolean[] partitionsToRefill()
+    {
+        int partitionCount = freelists.length;
+        if ( partitionCount == 1 )
+        {
+            return null;
         }
-        return UNKNOWN_AVAILABLE_PAGES;
+        int keepFreePerPartition = (keepFree + partitionCount - 1) / partitionCount;
+        boolean[] partitionsToRefill = new boolean[partitionCount];
+        boolean anyToRefill = false;
+        for ( int partition = 0; partition < partitionCount; partition++ )
+        {
+            partitionsToRefill[partition] = availablePages( partition ) < keepFreePerPartition;
+            anyToRefill |= partitionsToRefill[partition];
+        }
+        return anyToRefill ? partitionsToRefill : null;
     }
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        boolean[] partitionsToRefill = partitionsToRefill();
         while ( pageCountToEvict > 0 && !closed )
         {
             if ( clockArm == pages.getPageCount() )
             {
                 clockArm = 0;
+                evictionStrategy.sweepCompleted();
             }
 
             if ( closed )
@@ -994,7 +1335,13 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( partitionsToRefill != null && !partitionsToRefill[pages.partitionOf( pageRef )] )
+            {
+                // This partition has enough free pages. Skip ahead to the next one.
+                clockArm = pages.partitionEnd( pages.partitionOf( pageRef ) );
+                continue;
+            }
+            if ( pages.isLoaded( pageRef ) && evictionStrategy.shouldEvict( pageRef ) )
             {
                 try
                 {
@@ -1002,6 +1349,7 @@ public class MuninnPageCache implements PageCache
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
                         clearEvictorException();
+                        reportNumaEviction( pageRef );
                         addFreePageToFreelist( pageRef );
                     }
                 }
@@ -1030,16 +1378,17 @@ public class MuninnPageCache implements PageCache
     {
         Object current;
         FreePage freePage = new FreePage( pageRef );
+        int partition = pages.partitionOf( pageRef );
         do
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            current = getFreelistHead( partition );
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.partitionEnd( partition ) )
             {
                 current = null;
             }
             freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !compareAndSetFreelistHead( partition, current, freePage ) );
     }
 
     void clearEvictorException()
@@ -1050,6 +1399,14 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    /**
+     * Run the given read-ahead of a paged file in the background.
+     */
+    void scheduleReadAhead( Runnable readAhead )
+    {
+        scheduler.schedule( Group.PAGE_CACHE, readAhead );
+    }
+
     @Override
     public String toString()
     {
@@ -1060,7 +1417,7 @@ public class MuninnPageCache implements PageCache
 
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger && swappers.countAvailableIds() > 200 )
+        if ( hasNeverUsedPagesInEveryPartition() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
@@ -24,6 +24,8 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -38,15 +40,21 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
     static final int UNMAPPED_TTE = -1;
     private static final boolean USE_DIRECT_IO = flag( MuninnPagedFile.class, "useDirectIO", false );
+    // The maximum number of background read-aheads that can be queued or running for a single file at any one time.
+    private static final int MAX_READ_AHEADS_IN_FLIGHT = getInteger( MuninnPagedFile.class, "maxReadAheadsInFlight", 4 );
+    private static final int MIN_PREFETCH_PAGES_PER_READ_AHEAD = getInteger( MuninnPagedFile.class, "minPrefetchPagesPerReadAhead", 8 );
     private static final int translationTableChunkSizePower = Integer.getInteger(
             "org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.translationTableChunkSizePower", 12 );
     private static final int translationTableChunkSize = 1 << translationTableChunkSizePower;
@@ -63,6 +71,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private static final int PF_LOCK_MASK = PF_SHARED_WRITE_LOCK | PF_SHARED_READ_LOCK;
 
     final MuninnPageCache pageCache;
+    final EvictionStrategy evictionStrategy;
     final int filePageSize;
     private final PageCacheTracer pageCacheTracer;
     final LatchMap pageFaultLatches;
@@ -85,6 +94,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     @SuppressWarnings( "unused" ) // accessed using unsafe
     private volatile long highestEvictedTransactionId;
 
+    // Read-aheads are not allowed to run concurrently with, or after, the closing of the swapper.
+    private final AtomicInteger readAheadsInFlight = new AtomicInteger();
+    private volatile boolean readAheadClosed;
+
     /**
      * The header state includes both the reference count of the PagedFile – 15 bits – and the ID of the last page in
      * the file – 48 bits, plus an empty file marker bit. Because our pages are usually 2^13 bytes, this means that we
@@ -126,6 +139,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     {
         super( pageCache.pages );
         this.pageCache = pageCache;
+        this.evictionStrategy = pageCache.evictionStrategy;
         this.filePageSize = filePageSize;
         this.cursorFactory = new CursorFactory( this, pageCursorTracerSupplier, pageCacheTracer, versionContextSupplier );
         this.pageCacheTracer = pageCacheTracer;
@@ -243,6 +257,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         // We don't set closeStackTrace in close(), because the reference count may keep the file open.
         // But if we get here, to close the swapper, then we are definitely unmapping!
         closeStackTrace = new Exception( "tracing paged file closing" );
+        awaitReadAheadsAndStopAcceptingNew();
 
         if ( !deleteOnClose )
         {
@@ -286,7 +301,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
         try ( MajorFlushEvent flushEvent = pageCacheTracer.beginFileFlush( swapper ) )
         {
-            flushAndForceInternal( flushEvent.flushEventOpportunity(), false, limiter );
+            flushAndForceInternal( flushEvent.flushEventOpportunity(), false, limiter, DirtyPagesSnapshotLimiter.dirtyPages( pageCache, limiter ) );
         }
         pageCache.clearEvictorException();
     }
@@ -357,10 +372,19 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
     void flushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter )
             throws IOException
+    {
+        flushAndForceInternal( flushes, forClosing, limiter, null );
+    }
+
+    /**
+     * @param dirtyPages if not {@code null}, a bit set indexed by page id, and only the pages that are set in it are written out.
+     */
+    void flushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter, long[] dirtyPages )
+            throws IOException
     {
         try
         {
-            doFlushAndForceInternal( flushes, forClosing, limiter );
+            doFlushAndForceInternal( flushes, forClosing, limiter, dirtyPages );
         }
         catch ( ClosedChannelException e )
         {
@@ -378,7 +402,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
     }
 
-    private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter )
+    private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter, long[] dirtyPages )
             throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
@@ -407,6 +431,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                     int pageId = UnsafeUtil.getIntVolatile( chunk, offset );
                     if ( pageId != UNMAPPED_TTE )
                     {
+                        if ( dirtyPages != null && (dirtyPages[pageId >>> 6] & (1L << pageId)) == 0 )
+                        {
+                            // The page was clean when the flush started, so any changes on it were made after that.
+                            break;
+                        }
                         long pageRef = deref( pageId );
                         long stamp = tryOptimisticReadLock( pageRef );
                         if ( (!isModified( pageRef )) && validateReadLock( pageRef, stamp ) )
@@ -685,6 +714,229 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Fault in up to {@code count} pages, starting at {@code startFilePageId}, in the background. Pages that are already
+     * in memory, or being faulted in by someone else, are skipped, and the rest are read in runs of consecutive pages
+     * with vectored reads.
+     * <p>
+     * This is only ever a hint: the read-ahead is silently dropped if too many are already in flight for this file, and
+     * any failure in the background is ignored, since the cursors will redo the page faults if it matters.
+     */
+    void readAhead( long startFilePageId, int count )
+    {
+        scheduleReadAhead( () -> doReadAhead( startFilePageId, count ) );
+    }
+
+    /**
+     * Fault in the given pages in the background, reading each run of consecutive page ids with a vectored read, just
+     * like {@link #readAhead(long, int)} does for a single run.
+     * <p>
+     * The pages are split over as many read-aheads as may be in flight for this file, so that they are faulted in
+     * parallel, but never so many that a read-ahead gets fewer than a handful of pages, and never splitting a run.
+     */
+    @Override
+    public void prefetch( long[] filePageIds, int count )
+    {
+        if ( count <= 0 )
+        {
+            return;
+        }
+        long[] pageIds = Arrays.copyOf( filePageIds, count );
+        int readAheads = Math.max( 1, Math.min( MAX_READ_AHEADS_IN_FLIGHT, count / MIN_PREFETCH_PAGES_PER_READ_AHEAD ) );
+        int pagesPerReadAhead = (count + readAheads - 1) / readAheads;
+        int start = 0;
+        while ( start < count )
+        {
+            int end = Math.min( count, start + pagesPerReadAhead );
+            while ( end < count && pageIds[end] == pageIds[end - 1] + 1 )
+            {
+                end++;
+            }
+            int from = start;
+            int to = end;
+            scheduleReadAhead( () -> prefetchRuns( pageIds, from, to ) );
+            start = end;
+        }
+    }
+
+    private void prefetchRuns( long[] pageIds, int from, int to )
+    {
+        int runStart = from;
+        for ( int i = from + 1; i <= to; i++ )
+        {
+            if ( i == to || pageIds[i] != pageIds[i - 1] + 1 )
+            {
+                doReadAhead( pageIds[runStart], i - runStart );
+                runStart = i;
+            }
+        }
+    }
+
+    private void scheduleReadAhead( Runnable readAhead )
+    {
+        if ( readAheadsInFlight.incrementAndGet() > MAX_READ_AHEADS_IN_FLIGHT || readAheadClosed )
+        {
+            readAheadsInFlight.decrementAndGet();
+            return;
+        }
+        try
+        {
+            pageCache.scheduleReadAhead( () ->
+            {
+                try
+                {
+                    readAhead.run();
+                }
+                finally
+                {
+                    readAheadsInFlight.decrementAndGet();
+                }
+            } );
+        }
+        catch ( Throwable e )
+        {
+            readAheadsInFlight.decrementAndGet();
+        }
+    }
+
+    private void doReadAhead( long startFilePageId, int count )
+    {
+        if ( readAheadClosed )
+        {
+            return;
+        }
+        PageCursorTracer tracer = cursorFactory.getPageCursorTracer();
+        try
+        {
+            long endFilePageId = Math.min( startFilePageId + count, getLastPageId() + 1 );
+            int maxRunLength = (int) Math.max( 0, endFilePageId - startFilePageId );
+            long[] pageRefs = new long[maxRunLength];
+            long[] bufferAddresses = new long[maxRunLength];
+            LatchMap.Latch[] latches = new LatchMap.Latch[maxRunLength];
+            PinEvent[] pinEvents = new PinEvent[maxRunLength];
+            PageFaultEvent[] faultEvents = new PageFaultEvent[maxRunLength];
+            int runLength = 0;
+            for ( long filePageId = startFilePageId; filePageId < endFilePageId; filePageId++ )
+            {
+                int chunkId = computeChunkId( filePageId );
+                long chunkOffset = computeChunkOffset( filePageId );
+                int[][] tt = translationTable;
+                if ( tt.length <= chunkId )
+                {
+                    tt = expandCapacity( chunkId );
+                }
+                int[] chunk = tt[chunkId];
+                LatchMap.Latch latch = null;
+                if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) == UNMAPPED_TTE )
+                {
+                    latch = pageFaultLatches.tryTakeLatch( filePageId );
+                    if ( latch != null && UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+                    {
+                        // Raced with a page fault that completed just before we got the latch.
+                        latch.release();
+                        latch = null;
+                    }
+                }
+                if ( latch == null )
+                {
+                    // This page is either already in memory, or someone else is faulting it in. End the current run.
+                    faultRun( filePageId - runLength, runLength, pageRefs, bufferAddresses, latches, pinEvents, faultEvents );
+                    runLength = 0;
+                    continue;
+                }
+                latches[runLength] = latch;
+                pinEvents[runLength] = tracer.beginPin( false, filePageId, swapper );
+                faultEvents[runLength] = pinEvents[runLength].beginPageFault();
+                try
+                {
+                    pageRefs[runLength] = grabFreeAndExclusivelyLockedPage( faultEvents[runLength] );
+                }
+                catch ( Throwable e )
+                {
+                    abortRun( runLength, pageRefs, latches, pinEvents, faultEvents, e );
+                    // We got no page for the latch we just took, so that latch must be released separately.
+                    latch.release();
+                    faultEvents[runLength].done( e );
+                    pinEvents[runLength].done();
+                    return;
+                }
+                runLength++;
+            }
+            faultRun( endFilePageId - runLength, runLength, pageRefs, bufferAddresses, latches, pinEvents, faultEvents );
+        }
+        catch ( Throwable ignore )
+        {
+            // Read-ahead is only a hint, and any actual problems will surface in the page cursors.
+        }
+        finally
+        {
+            tracer.reportEvents();
+        }
+    }
+
+    private void faultRun( long startFilePageId, int length, long[] pageRefs, long[] bufferAddresses, LatchMap.Latch[] latches,
+            PinEvent[] pinEvents, PageFaultEvent[] faultEvents ) throws IOException
+    {
+        if ( length == 0 )
+        {
+            return;
+        }
+        long bytesRead;
+        try
+        {
+            // Check if we're racing with unmapping, just like a cursor page fault does.
+            getLastPageId();
+            for ( int i = 0; i < length; i++ )
+            {
+                initBuffer( pageRefs[i] );
+            }
+            bytesRead = faultVectored( pageRefs, bufferAddresses, length, swapper, swapperId, startFilePageId );
+        }
+        catch ( Throwable e )
+        {
+            abortRun( length, pageRefs, latches, pinEvents, faultEvents, e );
+            throw e;
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            UnsafeUtil.putIntVolatile( translationTable[computeChunkId( filePageId )], computeChunkOffset( filePageId ), toId( pageRef ) );
+            unlockExclusive( pageRef );
+            latches[i].release();
+            latches[i] = null;
+            faultEvents[i].addBytesRead( Math.min( Math.max( 0, bytesRead - ((long) i) * filePageSize ), filePageSize ) );
+            faultEvents[i].setCachePageId( toId( pageRef ) );
+            faultEvents[i].done();
+            pinEvents[i].done();
+        }
+    }
+
+    private void abortRun( int length, long[] pageRefs, LatchMap.Latch[] latches, PinEvent[] pinEvents, PageFaultEvent[] faultEvents,
+            Throwable cause )
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            // The page never made it into the translation table, and is still exclusively locked, so it can go straight back
+            // on the freelist. Just unlocking it would leak it, if the read had not bound it yet, since eviction skips unbound pages.
+            clearBinding( pageRefs[i] );
+            pageCache.addFreePageToFreelist( pageRefs[i] );
+            latches[i].release();
+            latches[i] = null;
+            faultEvents[i].done( cause );
+            pinEvents[i].done();
+        }
+    }
+
+    private void awaitReadAheadsAndStopAcceptingNew()
+    {
+        readAheadClosed = true;
+        while ( readAheadsInFlight.get() > 0 )
+        {
+            LockSupport.parkNanos( 100_000 );
+        }
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
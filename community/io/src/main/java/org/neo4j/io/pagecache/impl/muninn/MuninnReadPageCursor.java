@@ -25,9 +25,18 @@ import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 
+import static org.neo4j.util.FeatureToggles.getInteger;
+
 final class MuninnReadPageCursor extends MuninnPageCursor
 {
+    private static final int READ_AHEAD_INITIAL_WINDOW = getInteger( MuninnReadPageCursor.class, "readAheadInitialWindow", 4 );
+    private static final int READ_AHEAD_MAX_WINDOW = getInteger( MuninnReadPageCursor.class, "readAheadMaxWindow", 64 );
+
     private long lockStamp;
+    // Read-ahead state, only used when the cursor was opened with PF_READ_AHEAD.
+    private long readAheadPreviousPageId = UNBOUND_PAGE_ID;
+    private long readAheadEnd;
+    private int readAheadWindow;
 
     MuninnReadPageCursor( long victimPage, PageCursorTracer pageCursorTracer,
             VersionContextSupplier versionContextSupplier )
@@ -57,11 +66,48 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         }
         currentPageId = nextPageId;
         nextPageId++;
+        if ( readAhead )
+        {
+            readAhead( currentPageId, lastPageId );
+        }
         pin( currentPageId, false );
         verifyContext();
         return true;
     }
 
+    /**
+     * Detect sequential progress of this cursor, and keep the pages ahead of it faulted in by background read-aheads.
+     * The read-ahead window starts out small, and doubles every time the cursor catches up to the middle of the pages
+     * that have been read ahead, up to a maximum. Any jump breaks the sequence, and resets the window.
+     */
+    private void readAhead( long pageId, long lastPageId )
+    {
+        boolean sequential = pageId == readAheadPreviousPageId + 1;
+        readAheadPreviousPageId = pageId;
+        if ( !sequential )
+        {
+            readAheadWindow = 0;
+            readAheadEnd = pageId + 1;
+            return;
+        }
+        if ( readAheadWindow == 0 )
+        {
+            readAheadWindow = READ_AHEAD_INITIAL_WINDOW;
+        }
+        else if ( readAheadEnd - pageId > readAheadWindow / 2 )
+        {
+            return;
+        }
+        long start = Math.max( readAheadEnd, pageId + 1 );
+        int count = (int) Math.min( readAheadWindow, lastPageId - start + 1 );
+        if ( count > 0 )
+        {
+            pagedFile.readAhead( start, count );
+            readAheadEnd = start + count;
+        }
+        readAheadWindow = Math.min( readAheadWindow * 2, READ_AHEAD_MAX_WINDOW );
+    }
+
     @Override
     protected boolean tryLockPage( long pageRef )
     {
@@ -78,7 +124,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( long pageRef, long filePageId, PageSwapper swapper )
     {
         reset( pageRef );
-        pagedFile.incrementUsage( pageRef );
+        if ( !noFault )
+        {
+            // No-fault cursors only look at what is in memory, and must not make those pages look recently used
+            pagedFile.evictionStrategy.pageAccessed( pageRef );
+        }
     }
 
     @Override
@@ -23,11 +23,13 @@ import java.io.IOException;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
+import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import static java.lang.String.format;
@@ -45,8 +47,12 @@ import static org.neo4j.util.FeatureToggles.flag;
  * <tr><td>8</td><td>Last modified transaction id.</td></tr>
  * <tr><td>8</td><td>Page binding. The first 40 bits (5 bytes) are the file page id.
  * The following (low order) 21 bits (2 bytes and 5 bits) are the swapper id.
- * The last (lowest order) 3 bits are the page usage counter.</td></tr>
+ * The last (lowest order) 3 bits are the page usage counter, which is managed by the {@link EvictionStrategy}.</td></tr>
  * </table>
+ * <p>
+ * On NUMA systems, the pages can be divided into one contiguous partition per node. The meta-data and memory pages of
+ * each partition are then placed in the memory of its node, such that a thread can prefer to fault into pages that
+ * are local to it.
  */
 class PageList
 {
@@ -84,18 +90,37 @@ class PageList
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final NumaTopology numaTopology;
+    private final int partitionCount;
+    private final int pagesPerPartition;
+    private final boolean bindBuffers;
 
     PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
               long victimPageAddress, long bufferAlignment )
+    {
+        this( pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment, NumaTopology.SINGLE_NODE );
+    }
+
+    PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
+              long victimPageAddress, long bufferAlignment, NumaTopology numaTopology )
     {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
         this.memoryAllocator = memoryAllocator;
         this.swappers = swappers;
         this.victimPageAddress = victimPageAddress;
+        this.numaTopology = numaTopology;
+        int nodes = Math.max( 1, Math.min( numaTopology.nodeCount(), pageCount ) );
+        this.pagesPerPartition = (pageCount + nodes - 1) / nodes;
+        this.partitionCount = pagesPerPartition == 0 ? 1 : (pageCount + pagesPerPartition - 1) / pagesPerPartition;
+        long osPageSize = UnsafeUtil.pageSize();
+        // Memory can only be bound to a node in whole operating system pages, so a partitioned page list aligns its
+        // buffers to those, when the buffers are made up of whole operating system pages.
+        this.bindBuffers = partitionCount > 1 && cachePageSize % osPageSize == 0;
+        this.bufferAlignment = bindBuffers ? Math.max( bufferAlignment, osPageSize ) : bufferAlignment;
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned( bytes, Long.BYTES );
-        this.bufferAlignment = bufferAlignment;
+        bindMetaDataToNodes( osPageSize );
         clearMemory( baseAddress, pageCount );
     }
 
@@ -116,6 +141,31 @@ class PageList
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.numaTopology = pageList.numaTopology;
+        this.partitionCount = pageList.partitionCount;
+        this.pagesPerPartition = pageList.pagesPerPartition;
+        this.bindBuffers = pageList.bindBuffers;
+    }
+
+    private void bindMetaDataToNodes( long osPageSize )
+    {
+        if ( partitionCount == 1 )
+        {
+            return;
+        }
+        // This must happen before the meta-data is cleared, since memory is placed when it is first touched.
+        // The operating system pages that straddle two partitions are left wherever they end up.
+        for ( int partition = 0; partition < partitionCount; partition++ )
+        {
+            long start = deref( partitionStart( partition ) );
+            long end = deref( partitionEnd( partition ) );
+            long alignedStart = (start + osPageSize - 1) & -osPageSize;
+            long alignedEnd = end & -osPageSize;
+            if ( alignedEnd > alignedStart )
+            {
+                numaTopology.bindToNode( alignedStart, alignedEnd - alignedStart, partition );
+            }
+        }
     }
 
     private void clearMemory( long baseAddress, long pageCount )
@@ -176,6 +226,46 @@ class PageList
         return swappers;
     }
 
+    /**
+     * @return The number of partitions the pages are divided into. This is 1, unless the page list is NUMA aware.
+     */
+    int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    /**
+     * @return The id of the first page in the given partition.
+     */
+    int partitionStart( int partition )
+    {
+        return partition * pagesPerPartition;
+    }
+
+    /**
+     * @return The id one past the last page in the given partition.
+     */
+    int partitionEnd( int partition )
+    {
+        return (int) Math.min( pageCount, ((long) partition + 1) * pagesPerPartition );
+    }
+
+    /**
+     * @return The partition that the given page belongs to. Partition {@code n} is placed on NUMA node {@code n}.
+     */
+    int partitionOf( long pageRef )
+    {
+        return partitionCount == 1 ? 0 : toId( pageRef ) / pagesPerPartition;
+    }
+
+    /**
+     * @return The partition that is local to the NUMA node that the calling thread is currently running on.
+     */
+    int currentPartition()
+    {
+        return partitionCount == 1 ? 0 : numaTopology.currentNode() % partitionCount;
+    }
+
     /**
      * Turn a {@code pageId} into a {@code pageRef} that can be used for accessing and manipulating the given page
      * using the other methods in this class.
@@ -297,6 +387,10 @@ class PageList
         if ( getAddress( pageRef ) == 0L )
         {
             long addr = memoryAllocator.allocateAligned( getCachePageSize(), bufferAlignment );
+            if ( bindBuffers )
+            {
+                numaTopology.bindToNode( addr, getCachePageSize(), partitionOf( pageRef ) );
+            }
             UnsafeUtil.putLong( offAddress( pageRef ), addr );
         }
     }
@@ -345,6 +439,32 @@ class PageList
         return usage <= 1;
     }
 
+    /**
+     * Get the raw 3 usage bits of the page binding. How these bits are interpreted is up to the
+     * {@link EvictionStrategy} in use.
+     */
+    int getUsage( long pageRef )
+    {
+        return getUsageCounter( pageRef );
+    }
+
+    /**
+     * Replace the raw usage bits of the page binding, but only if they are currently equal to the {@code expected}
+     * bits, and nothing else in the page binding changed concurrently.
+     * @return {@code true} if the usage bits were updated.
+     */
+    boolean compareAndSetUsage( long pageRef, int expected, int update )
+    {
+        long address = offPageBinding( pageRef );
+        long value = UnsafeUtil.getLongVolatile( address );
+        if ( (value & MASK_USAGE_COUNT) != expected )
+        {
+            return false;
+        }
+        // See `incrementUsage` about why we use `compareAndSwapLong`.
+        return UnsafeUtil.compareAndSwapLong( null, address, value, (value & ~MASK_USAGE_COUNT) | (update & MASK_USAGE_COUNT) );
+    }
+
     long getFilePageId( long pageRef )
     {
         long filePageId = UnsafeUtil.getLong( offPageBinding( pageRef ) ) >>> SHIFT_FILE_PAGE_ID;
@@ -437,6 +557,42 @@ class PageList
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault a run of consecutive file pages into the given cache pages with a single vectored read. All of the given
+     * pages must be exclusively locked and unbound, just like for {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}.
+     *
+     * @param bufferAddresses an array of at least {@code length} elements, used for passing the page buffers to the swapper.
+     * @return the number of bytes read.
+     */
+    long faultVectored( long[] pageRefs, long[] bufferAddresses, int length, PageSwapper swapper, int swapperId, long startFilePageId )
+            throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+            // See fault() for why the filePageId is assigned before, and the swapper after, the swapping in.
+            setFilePageId( pageRef, filePageId );
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, 0, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -498,6 +654,60 @@ class PageList
         clearBinding( pageRef );
     }
 
+    /**
+     * Write out the given page if it is modified, without preventing concurrent readers and writers from accessing it.
+     * The page is only marked as unmodified if no writer overlapped with the flush.
+     *
+     * @param pageRef the page to flush.
+     * @param flushOpportunity the event opportunity to report the flush to.
+     * @return the swapper the page was written to, or {@code null} if the page was not flushed, because it was not
+     * modified, or because it was locked, or because the file it belongs to has been unmapped.
+     * @throws IOException if the page could not be written.
+     */
+    PageSwapper tryFlush( long pageRef, FlushEventOpportunity flushOpportunity ) throws IOException
+    {
+        long stamp = tryFlushLock( pageRef );
+        if ( stamp == 0 )
+        {
+            return null;
+        }
+        boolean success = false;
+        try
+        {
+            int swapperId = getSwapperId( pageRef );
+            if ( swapperId == 0 || !isModified( pageRef ) )
+            {
+                return null;
+            }
+            SwapperSet.SwapperMapping swapperMapping = swappers.getAllocation( swapperId );
+            if ( swapperMapping == null )
+            {
+                return null;
+            }
+            PageSwapper swapper = swapperMapping.swapper;
+            long filePageId = getFilePageId( pageRef );
+            FlushEvent flushEvent = flushOpportunity.beginFlush( filePageId, toId( pageRef ), swapper );
+            try
+            {
+                long bytesWritten = swapper.write( filePageId, getAddress( pageRef ) );
+                flushEvent.addBytesWritten( bytesWritten );
+                flushEvent.addPagesFlushed( 1 );
+                flushEvent.done();
+                success = true;
+                return swapper;
+            }
+            catch ( IOException e )
+            {
+                flushEvent.done( e );
+                throw e;
+            }
+        }
+        finally
+        {
+            unlockFlush( pageRef, stamp, success );
+        }
+    }
+
     private void flushModifiedPage( long pageRef, EvictionEvent evictionEvent, long filePageId, PageSwapper swapper )
             throws IOException
     {
@@ -520,7 +730,7 @@ class PageList
         }
     }
 
-    private void clearBinding( long pageRef )
+    void clearBinding( long pageRef )
     {
         UnsafeUtil.putLong( offPageBinding( pageRef ), UNBOUND_PAGE_BINDING );
     }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * The strategy for the {@link EvictionPolicy#SCAN_RESISTANT} policy.
+ * <p>
+ * The highest of the three usage bits tells if the page is in the <em>protected</em> segment, and the two lower bits
+ * are a usage counter that goes from zero to three:
+ *
+ * <table>
+ * <tr><th>Usage bits</th><th>Meaning</th></tr>
+ * <tr><td>0b000</td><td>Probation page that has not been accessed since it was faulted in, or was aged out.</td></tr>
+ * <tr><td>0b0xx</td><td>Probation page with a usage count of xx.</td></tr>
+ * <tr><td>0b1xx</td><td>Protected page with a usage count of xx.</td></tr>
+ * </table>
+ *
+ * A probation page is promoted to the protected segment when it is accessed a second time. The clock arm only evicts
+ * probation pages. Protected pages are left alone until the protected segment grows beyond its allotted share of the
+ * cache, at which point the clock arm ages them and eventually demotes them back to probation, where they get one
+ * more revolution to prove their worth before they are evicted.
+ * <p>
+ * The size of the protected segment is tracked with a counter that is updated on every promotion and demotion. The
+ * counter can drift a little, since pages can be evicted or promoted concurrently with the decisions of the clock arm,
+ * so it is recomputed from scratch every time the clock arm completes a revolution.
+ */
+final class ScanResistantEvictionStrategy extends EvictionStrategy
+{
+    // The percentage of the cache pages that may be in the protected segment, before protected pages start to age.
+    private static final int protectedPercentage = getInteger(
+            ScanResistantEvictionStrategy.class, "protectedPercentage", 80 );
+
+    static final int PROTECTED = 0b100;
+    static final int MASK_USAGE_COUNT = 0b011;
+    static final int MAX_USAGE_COUNT = 3;
+
+    private final PageCacheTracer tracer;
+    private final long maxProtectedPages;
+    private final AtomicLong protectedPages = new AtomicLong();
+
+    ScanResistantEvictionStrategy( PageList pages, PageCacheTracer tracer )
+    {
+        super( pages );
+        this.tracer = tracer;
+        this.maxProtectedPages = Math.max( 1, (long) pages.getPageCount() * protectedPercentage / 100 );
+    }
+
+    @Override
+    void pageAccessed( long pageRef )
+    {
+        // This is intentionally left benignly racy for performance.
+        int usage = pages.getUsage( pageRef );
+        if ( (usage & PROTECTED) != 0 )
+        {
+            tracer.protectedHits( 1 );
+            if ( (usage & MASK_USAGE_COUNT) < MAX_USAGE_COUNT ) // avoid cache sloshing by not writing maxed out counters
+            {
+                pages.compareAndSetUsage( pageRef, usage, usage + 1 );
+            }
+        }
+        else if ( usage == 0 )
+        {
+            // The first access after the page fault, or after the page was aged out. The page stays on probation.
+            pages.compareAndSetUsage( pageRef, 0, 1 );
+        }
+        else
+        {
+            // A repeated access to a probation page promotes it to the protected segment.
+            tracer.probationHits( 1 );
+            if ( pages.compareAndSetUsage( pageRef, usage, PROTECTED | 1 ) )
+            {
+                protectedPages.incrementAndGet();
+                tracer.promotions( 1 );
+            }
+        }
+    }
+
+    @Override
+    boolean shouldEvict( long pageRef )
+    {
+        int usage = pages.getUsage( pageRef );
+        int count = usage & MASK_USAGE_COUNT;
+        if ( (usage & PROTECTED) == 0 )
+        {
+            if ( count > 0 )
+            {
+                pages.compareAndSetUsage( pageRef, usage, usage - 1 );
+            }
+            return count <= 1;
+        }
+
+        if ( protectedPages.get() > maxProtectedPages )
+        {
+            if ( count > 0 )
+            {
+                pages.compareAndSetUsage( pageRef, usage, usage - 1 );
+            }
+            else if ( pages.compareAndSetUsage( pageRef, usage, 1 ) )
+            {
+                // Demoted pages get one more revolution on probation before they become eviction candidates.
+                protectedPages.decrementAndGet();
+                tracer.demotions( 1 );
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void sweepCompleted()
+    {
+        long count = 0;
+        int pageCount = pages.getPageCount();
+        for ( int i = 0; i < pageCount; i++ )
+        {
+            if ( (pages.getUsage( pages.deref( i ) ) & PROTECTED) != 0 )
+            {
+                count++;
+            }
+        }
+        protectedPages.set( count );
+    }
+
+    long protectedPages()
+    {
+        return protectedPages.get();
+    }
+
+    long maxProtectedPages()
+    {
+        return maxProtectedPages;
+    }
+}
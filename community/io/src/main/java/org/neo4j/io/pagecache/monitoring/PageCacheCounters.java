@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.util.List;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -30,6 +32,12 @@ public interface PageCacheCounters
      */
     long faults();
 
+    /**
+     * @return The sum total of nanoseconds spent in page faults thus far. Together with {@link #faults()}, this gives
+     * the average page fault latency over a period of time.
+     */
+    long faultNanos();
+
     /**
      * @return The number of page evictions observed thus far.
      */
@@ -80,6 +88,45 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of page hits on pages in the probation segment of a scan resistant page cache thus far.
+     */
+    long probationHits();
+
+    /**
+     * @return The number of page hits on pages in the protected segment of a scan resistant page cache thus far.
+     */
+    long protectedHits();
+
+    /**
+     * @return The number of pages promoted from the probation segment to the protected segment thus far.
+     */
+    long promotions();
+
+    /**
+     * @return The number of pages demoted from the protected segment to the probation segment thus far.
+     */
+    long demotions();
+
+    /**
+     * @param node a NUMA node
+     * @return The number of page faults into pages from the pool of the given NUMA node thus far, or {@code 0} if the
+     * page cache is not partitioned over NUMA nodes.
+     */
+    long numaFaults( int node );
+
+    /**
+     * @param node a NUMA node
+     * @return The number of evictions of pages from the pool of the given NUMA node thus far, or {@code 0} if the
+     * page cache is not partitioned over NUMA nodes.
+     */
+    long numaEvictions( int node );
+
+    /**
+     * @return The counters for each of the currently mapped files.
+     */
+    List<PageFileCounters> fileCounters();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.io.File;
+
+/**
+ * The PageFileCounters exposes the page cache counters that are attributed to a single mapped file.
+ * The data for these counters is sourced through the PageCacheTracer API, so they only count events that have been
+ * reported to the page cache tracer, and they are reset when the file is unmapped.
+ */
+public interface PageFileCounters
+{
+    /**
+     * @return The file these counters are for.
+     */
+    File file();
+
+    /**
+     * @return The number of page cache hits in this file so far.
+     */
+    long hits();
+
+    /**
+     * @return The number of page faults in this file observed thus far.
+     */
+    long faults();
+
+    /**
+     * @return The sum total of bytes read in from this file through page faults thus far.
+     */
+    long bytesRead();
+
+    /**
+     * @return The sum total of bytes written to this file through flushes thus far.
+     */
+    long bytesWritten();
+}
@@ -21,11 +21,16 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.internal.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
  * The default PageCacheTracer implementation, that just increments counters.
@@ -33,6 +38,7 @@ import org.neo4j.io.pagecache.PageSwapper;
 public class DefaultPageCacheTracer implements PageCacheTracer
 {
     protected final LongAdder faults = new LongAdder();
+    protected final LongAdder faultNanos = new LongAdder();
     protected final LongAdder evictions = new LongAdder();
     protected final LongAdder pins = new LongAdder();
     protected final LongAdder unpins = new LongAdder();
@@ -43,7 +49,14 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder probationHits = new LongAdder();
+    protected final LongAdder protectedHits = new LongAdder();
+    protected final LongAdder promotions = new LongAdder();
+    protected final LongAdder demotions = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected volatile LongAdder[] numaFaults = new LongAdder[0];
+    protected volatile LongAdder[] numaEvictions = new LongAdder[0];
+    protected final ConcurrentMap<File,FileCounters> files = new ConcurrentHashMap<>();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -71,7 +84,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
-    private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) -> flushEvent;
+    private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) ->
+    {
+        // Attribute the flush to the file, if it is still mapped.
+        FileCounters fileCounters = swapper == null ? null : files.get( swapper.file() );
+        return fileCounters == null ? flushEvent : fileCounters;
+    };
 
     private final EvictionEvent evictionEvent = new EvictionEvent()
     {
@@ -141,12 +159,14 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     public void mappedFile( File file )
     {
         filesMapped.increment();
+        files.put( file, new FileCounters( file ) );
     }
 
     @Override
     public void unmappedFile( File file )
     {
         filesUnmapped.increment();
+        files.remove( file );
     }
 
     @Override
@@ -173,6 +193,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return faults.sum();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return faultNanos.sum();
+    }
+
     @Override
     public long evictions()
     {
@@ -233,6 +259,50 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long probationHits()
+    {
+        return probationHits.sum();
+    }
+
+    @Override
+    public long protectedHits()
+    {
+        return protectedHits.sum();
+    }
+
+    @Override
+    public long promotions()
+    {
+        return promotions.sum();
+    }
+
+    @Override
+    public long demotions()
+    {
+        return demotions.sum();
+    }
+
+    @Override
+    public long numaFaults( int node )
+    {
+        LongAdder[] counters = numaFaults;
+        return node < counters.length ? counters[node].sum() : 0;
+    }
+
+    @Override
+    public long numaEvictions( int node )
+    {
+        LongAdder[] counters = numaEvictions;
+        return node < counters.length ? counters[node].sum() : 0;
+    }
+
+    @Override
+    public List<PageFileCounters> fileCounters()
+    {
+        return new ArrayList<>( files.values() );
+    }
+
     @Override
     public double hitRatio()
     {
@@ -274,6 +344,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.faults.add( faults );
     }
 
+    @Override
+    public void faultNanos( long nanos )
+    {
+        this.faultNanos.add( nanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -304,9 +380,156 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.flushes.add( flushes );
     }
 
+    @Override
+    public void probationHits( long hits )
+    {
+        this.probationHits.add( hits );
+    }
+
+    @Override
+    public void protectedHits( long hits )
+    {
+        this.protectedHits.add( hits );
+    }
+
+    @Override
+    public void promotions( long promotions )
+    {
+        this.promotions.add( promotions );
+    }
+
+    @Override
+    public void demotions( long demotions )
+    {
+        this.demotions.add( demotions );
+    }
+
+    @Override
+    public void numaNodes( int nodeCount )
+    {
+        this.numaFaults = newCounters( nodeCount );
+        this.numaEvictions = newCounters( nodeCount );
+    }
+
+    @Override
+    public void numaFaults( int node, long faults )
+    {
+        LongAdder[] counters = numaFaults;
+        if ( node < counters.length )
+        {
+            counters[node].add( faults );
+        }
+    }
+
+    @Override
+    public void numaEvictions( int node, long evictions )
+    {
+        LongAdder[] counters = numaEvictions;
+        if ( node < counters.length )
+        {
+            counters[node].add( evictions );
+        }
+    }
+
+    private static LongAdder[] newCounters( int count )
+    {
+        LongAdder[] counters = new LongAdder[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    @Override
+    public void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten )
+    {
+        FileCounters fileCounters = files.get( file );
+        if ( fileCounters != null )
+        {
+            fileCounters.hits.add( hits );
+            fileCounters.faults.add( faults );
+            fileCounters.bytesRead.add( bytesRead );
+            fileCounters.bytesWritten.add( bytesWritten );
+        }
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
         this.maxPages.set( maxPages );
     }
+
+    /**
+     * The counters for a mapped file. Also the flush event for flushes of pages in that file, which counts the flush
+     * both for the file and for the page cache as a whole.
+     */
+    protected class FileCounters implements PageFileCounters, FlushEvent
+    {
+        private final File file;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder faults = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+
+        FileCounters( File file )
+        {
+            this.file = file;
+        }
+
+        @Override
+        public File file()
+        {
+            return file;
+        }
+
+        @Override
+        public long hits()
+        {
+            return hits.sum();
+        }
+
+        @Override
+        public long faults()
+        {
+            return faults.sum();
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return bytesRead.sum();
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return bytesWritten.sum();
+        }
+
+        @Override
+        public void addBytesWritten( long bytes )
+        {
+            bytesWritten.add( bytes );
+            flushEvent.addBytesWritten( bytes );
+        }
+
+        @Override
+        public void done()
+        {
+            flushEvent.done();
+        }
+
+        @Override
+        public void done( IOException exception )
+        {
+            flushEvent.done( exception );
+        }
+
+        @Override
+        public void addPagesFlushed( int pageCount )
+        {
+            flushEvent.addPagesFlushed( pageCount );
+        }
+    }
 }
@@ -20,9 +20,11 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
  * A PageCacheTracer receives a steady stream of events and data about what
@@ -70,6 +72,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long faultNanos()
+        {
+            return 0;
+        }
+
         @Override
         public long evictions()
         {
@@ -130,6 +138,48 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long probationHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long protectedHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long promotions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long demotions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numaFaults( int node )
+        {
+            return 0;
+        }
+
+        @Override
+        public long numaEvictions( int node )
+        {
+            return 0;
+        }
+
+        @Override
+        public List<PageFileCounters> fileCounters()
+        {
+            return List.of();
+        }
+
         @Override
         public double hitRatio()
         {
@@ -162,6 +212,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void faultNanos( long nanos )
+        {
+        }
+
         @Override
         public void bytesRead( long bytesRead )
         {
@@ -187,6 +242,46 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void probationHits( long hits )
+        {
+        }
+
+        @Override
+        public void protectedHits( long hits )
+        {
+        }
+
+        @Override
+        public void promotions( long promotions )
+        {
+        }
+
+        @Override
+        public void demotions( long demotions )
+        {
+        }
+
+        @Override
+        public void numaNodes( int nodeCount )
+        {
+        }
+
+        @Override
+        public void numaFaults( int node, long faults )
+        {
+        }
+
+        @Override
+        public void numaEvictions( int node, long evictions )
+        {
+        }
+
+        @Override
+        public void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten )
+        {
+        }
+
         @Override
         public void maxPages( long maxPages )
         {
@@ -252,6 +347,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void faults( long faults );
 
+    /**
+     * Report time spent in page faults
+     * @param nanos number of nanoseconds spent in page faults
+     */
+    void faultNanos( long nanos );
+
     /**
      * Report number of bytes read
      * @param bytesRead number of read bytes
@@ -282,6 +383,60 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void flushes( long flushes );
 
+    /**
+     * Report number of hits on pages in the probation segment
+     * @param hits number of probation segment hits
+     */
+    void probationHits( long hits );
+
+    /**
+     * Report number of hits on pages in the protected segment
+     * @param hits number of protected segment hits
+     */
+    void protectedHits( long hits );
+
+    /**
+     * Report number of pages promoted from the probation segment to the protected segment
+     * @param promotions number of promotions
+     */
+    void promotions( long promotions );
+
+    /**
+     * Report number of pages demoted from the protected segment to the probation segment
+     * @param demotions number of demotions
+     */
+    void demotions( long demotions );
+
+    /**
+     * Sets the number of NUMA nodes the page cache is partitioned over. Only called if there is more than one.
+     * @param nodeCount the number of NUMA nodes.
+     */
+    void numaNodes( int nodeCount );
+
+    /**
+     * Report number of page faults into pages from the pool of the given NUMA node
+     * @param node the NUMA node
+     * @param faults number of faults
+     */
+    void numaFaults( int node, long faults );
+
+    /**
+     * Report number of pages evicted from the pool of the given NUMA node
+     * @param node the NUMA node
+     * @param evictions number of evictions
+     */
+    void numaEvictions( int node, long evictions );
+
+    /**
+     * Report page cache events that have been attributed to the given file.
+     * @param file the mapped file the events happened in.
+     * @param hits number of hits
+     * @param faults number of faults
+     * @param bytesRead number of bytes read by the faults
+     * @param bytesWritten number of bytes written by flushes
+     */
+    void fileEvents( File file, long hits, long faults, long bytesRead, long bytesWritten );
+
     /**
      * Sets the number of available pages.
      * @param maxPages the total number of available pages.
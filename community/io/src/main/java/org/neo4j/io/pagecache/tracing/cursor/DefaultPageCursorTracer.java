@@ -32,16 +32,37 @@ import org.neo4j.io.pagecache.tracing.PinEvent;
 
 public class DefaultPageCursorTracer implements PageCursorTracer
 {
+    /**
+     * The number of files that we keep separate counters for, between reports. A cursor tracer is thread local, and
+     * usually only sees a few different files at a time, so the counters are looked up by a linear scan.
+     */
+    private static final int FILE_SLOTS = 8;
+    /**
+     * The slot that counts events for pins without a swapper. It is never reported.
+     */
+    private static final int NO_FILE = FILE_SLOTS;
+
     private long pins;
     private long unpins;
     private long hits;
     private long faults;
+    private long faultNanos;
+    private long faultStartNanos;
     private long bytesRead;
     private long bytesWritten;
     private long evictions;
     private long evictionExceptions;
     private long flushes;
 
+    private final PageSwapper[] fileSwappers = new PageSwapper[FILE_SLOTS + 1];
+    private final long[] fileHits = new long[FILE_SLOTS + 1];
+    private final long[] fileFaults = new long[FILE_SLOTS + 1];
+    private final long[] fileBytesRead = new long[FILE_SLOTS + 1];
+    private final long[] fileBytesWritten = new long[FILE_SLOTS + 1];
+    private int pinFile = NO_FILE;
+    private int flushFile = NO_FILE;
+    private int nextFileSlotToReplace;
+
     private PageCacheTracer pageCacheTracer = PageCacheTracer.NULL;
     private DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
 
@@ -69,6 +90,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         if ( faults > 0 )
         {
             pageCacheTracer.faults( faults );
+            pageCacheTracer.faultNanos( faultNanos );
         }
         if ( bytesRead > 0 )
         {
@@ -90,15 +112,74 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.flushes( flushes );
         }
+        for ( int slot = 0; slot < FILE_SLOTS; slot++ )
+        {
+            reportFileEvents( slot );
+            fileSwappers[slot] = null;
+        }
+        pinFile = NO_FILE;
+        flushFile = NO_FILE;
         reset();
     }
 
+    private void reportFileEvents( int slot )
+    {
+        PageSwapper swapper = fileSwappers[slot];
+        if ( swapper != null && (fileHits[slot] > 0 || fileFaults[slot] > 0 || fileBytesWritten[slot] > 0) )
+        {
+            pageCacheTracer.fileEvents( swapper.file(), fileHits[slot], fileFaults[slot], fileBytesRead[slot], fileBytesWritten[slot] );
+        }
+        fileHits[slot] = 0;
+        fileFaults[slot] = 0;
+        fileBytesRead[slot] = 0;
+        fileBytesWritten[slot] = 0;
+    }
+
+    /**
+     * Find the slot that counts the events for the given swapper, claiming a slot for it if it has none.
+     * If all the slots are taken, the events counted in one of them are reported to the page cache tracer so that it
+     * can be reused. The slot of the pin in progress is never reused, because its fault is counted after any
+     * eviction flushes it caused.
+     */
+    private int fileSlot( PageSwapper swapper )
+    {
+        if ( swapper == null )
+        {
+            return NO_FILE;
+        }
+        for ( int slot = 0; slot < FILE_SLOTS; slot++ )
+        {
+            if ( fileSwappers[slot] == swapper )
+            {
+                return slot;
+            }
+        }
+        for ( int slot = 0; slot < FILE_SLOTS; slot++ )
+        {
+            if ( fileSwappers[slot] == null )
+            {
+                fileSwappers[slot] = swapper;
+                return slot;
+            }
+        }
+        int slot = nextFileSlotToReplace;
+        if ( slot == pinFile )
+        {
+            slot = (slot + 1) % FILE_SLOTS;
+        }
+        nextFileSlotToReplace = (slot + 1) % FILE_SLOTS;
+        reportFileEvents( slot );
+        fileSwappers[slot] = swapper;
+        return slot;
+    }
+
     private void reset()
     {
         pins = 0;
         unpins = 0;
         hits = 0;
         faults = 0;
+        faultNanos = 0;
         bytesRead = 0;
         bytesWritten = 0;
         evictions = 0;
@@ -170,6 +251,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
     {
         pins++;
+        if ( fileSwappers[pinFile] != swapper )
+        {
+            pinFile = fileSlot( swapper );
+        }
         pinTracingEvent.eventHits = 1;
         return pinTracingEvent;
     }
@@ -216,12 +301,15 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesRead( long bytes )
         {
             bytesRead += bytes;
+            fileBytesRead[pinFile] += bytes;
         }
 
         @Override
         public void done()
         {
             faults++;
+            faultNanos += System.nanoTime() - faultStartNanos;
+            fileFaults[pinFile]++;
         }
 
         @Override
@@ -247,6 +335,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public FlushEvent beginFlush( long filePageId, long cachePageId, PageSwapper swapper )
         {
+            flushFile = fileSlot( swapper );
             return flushEvent;
         }
     };
@@ -257,6 +346,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesWritten( long bytes )
         {
             bytesWritten += bytes;
+            fileBytesWritten[flushFile] += bytes;
         }
 
         @Override
@@ -290,6 +380,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault()
         {
             eventHits = 0;
+            faultStartNanos = System.nanoTime();
             return pageFaultEvent;
         }
 
@@ -297,6 +388,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void hit()
         {
             hits += eventHits;
+            fileHits[pinFile] += eventHits;
         }
 
         @Override
@@ -175,6 +175,57 @@ class MemoryAllocatorTest
         assertEquals( 0, memoryTracker.usedDirectMemory() );
     }
 
+    @Test
+    void explicitHugePagesMustBeUsedWhenAvailable()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        FakeHugePageMapper mapper = new FakeHugePageMapper( true, true );
+        allocator = MemoryAllocator.createAllocator( "8m", memoryTracker, HugePageMode.EXPLICIT_2MB, mapper );
+
+        long address = allocator.allocateAligned( PageCache.PAGE_SIZE, PageCache.PAGE_SIZE );
+        assertThat( address, is( not( 0L ) ) );
+        assertThat( address % PageCache.PAGE_SIZE, is( 0L ) );
+        assertThat( allocator.explicitHugePageMemory() % ByteUnit.mebiBytes( 2 ), is( 0L ) );
+        assertThat( allocator.explicitHugePageMemory(), is( greaterThanOrEqualTo( ByteUnit.mebiBytes( 2 ) ) ) );
+        assertEquals( 0, allocator.transparentHugePageMemory() );
+        assertEquals( 0, mapper.alignedMappings );
+        assertEquals( allocator.explicitHugePageMemory(), memoryTracker.usedDirectMemory() );
+
+        closeAllocator();
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+        assertEquals( 0, mapper.mappedMemory );
+    }
+
+    @Test
+    void explicitHugePagesMustFallBackToTransparentHugePages()
+    {
+        FakeHugePageMapper mapper = new FakeHugePageMapper( false, true );
+        allocator = MemoryAllocator.createAllocator( "8m", new LocalMemoryTracker(), HugePageMode.EXPLICIT_2MB, mapper );
+
+        assertThat( allocator.allocateAligned( PageCache.PAGE_SIZE, PageCache.PAGE_SIZE ), is( not( 0L ) ) );
+        assertEquals( 0, allocator.explicitHugePageMemory() );
+        assertThat( allocator.transparentHugePageMemory(), is( greaterThanOrEqualTo( ByteUnit.mebiBytes( 2 ) ) ) );
+
+        closeAllocator();
+        assertEquals( 0, mapper.mappedMemory );
+    }
+
+    @Test
+    void hugePagesMustFallBackToNormalMemory()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        allocator = MemoryAllocator.createAllocator( "8m", memoryTracker, HugePageMode.EXPLICIT_1GB, HugePageMapper.UNAVAILABLE );
+
+        long address = allocator.allocateAligned( PageCache.PAGE_SIZE, PageCache.PAGE_SIZE );
+        assertThat( address, is( not( 0L ) ) );
+        assertThat( address % PageCache.PAGE_SIZE, is( 0L ) );
+        assertEquals( 0, allocator.explicitHugePageMemory() );
+        assertEquals( 0, allocator.transparentHugePageMemory() );
+
+        closeAllocator();
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+    }
+
     private void closeAllocator()
     {
         if ( allocator != null )
@@ -190,4 +241,51 @@ class MemoryAllocatorTest
         allocator = MemoryAllocator.createAllocator( expectedMaxMemory, new LocalMemoryTracker() );
         return allocator;
     }
+
+    private static class FakeHugePageMapper implements HugePageMapper
+    {
+        private final boolean explicitAvailable;
+        private final boolean transparentAvailable;
+        private long mappedMemory;
+        private int alignedMappings;
+
+        FakeHugePageMapper( boolean explicitAvailable, boolean transparentAvailable )
+        {
+            this.explicitAvailable = explicitAvailable;
+            this.transparentAvailable = transparentAvailable;
+        }
+
+        @Override
+        public long mapHugeTlb( long bytes, long hugePageSize )
+        {
+            assertThat( bytes % hugePageSize, is( 0L ) );
+            return explicitAvailable ? map( bytes ) : 0;
+        }
+
+        @Override
+        public long mapAligned( long bytes, long alignment )
+        {
+            alignedMappings++;
+            return map( bytes );
+        }
+
+        @Override
+        public boolean adviseHugePages( long address, long bytes )
+        {
+            return transparentAvailable;
+        }
+
+        @Override
+        public void unmap( long address, long bytes )
+        {
+            mappedMemory -= bytes;
+            UnsafeUtil.free( address, bytes );
+        }
+
+        private long map( long bytes )
+        {
+            mappedMemory += bytes;
+            return UnsafeUtil.allocateMemory( bytes );
+        }
+    }
 }
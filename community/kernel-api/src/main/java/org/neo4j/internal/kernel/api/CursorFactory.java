@@ -37,6 +37,8 @@ public interface CursorFactory
 
     RelationshipTraversalCursor allocateRelationshipTraversalCursor();
 
+    RelationshipBatchCursor allocateRelationshipBatchCursor();
+
     // properties
 
     PropertyCursor allocatePropertyCursor();
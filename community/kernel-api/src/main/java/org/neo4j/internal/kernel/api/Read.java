@@ -20,6 +20,7 @@
 package org.neo4j.internal.kernel.api;
 
 import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
@@ -149,6 +150,18 @@ public interface Read
      */
     boolean nodeExists( long reference );
 
+    /**
+     * The number of relationships of a certain type and direction that a node has, including anything changed in the transaction state.
+     * Loops count as both outgoing and incoming, but only once for {@link Direction#BOTH}. Dense nodes keep their degrees per type and direction,
+     * so this doesn't visit their relationships like counting through a {@link RelationshipGroupCursor} would.
+     *
+     * @param reference the reference of the node to count relationships of.
+     * @param typeId the type of relationships to count.
+     * @param direction the direction of relationships to count, from the node's point of view.
+     * @return the number of matching relationships, or {@code 0} if the node doesn't exist.
+     */
+    int nodeDegree( long reference, int typeId, Direction direction );
+
     /**
      * The number of nodes in the graph, including anything changed in the transaction state.
      *
@@ -327,6 +340,21 @@ public interface Read
      */
     void relationships( long nodeReference, long reference, RelationshipTraversalCursor cursor );
 
+    /**
+     * Traverse the relationships of many nodes in one go. This is meant for expanding many nodes at once, such as the frontier
+     * of a breadth first traversal, and lets the storage read the relationships of all the nodes in whatever order is the
+     * most efficient for it, rather than one node at a time.
+     *
+     * @param nodeReferences
+     *         the nodes to traverse the relationships of. The cursor returns a group of relationships for each of them,
+     *         in this order. Nodes that do not exist, or that have no relationships of the given types, get an empty group.
+     * @param types
+     *         the relationship types to traverse, or {@code null} to traverse relationships of all types.
+     * @param cursor
+     *         the cursor to use for consuming the results.
+     */
+    void nodesRelationships( long[] nodeReferences, int[] types, RelationshipBatchCursor cursor );
+
     /**
      * @param nodeReference
      *         the owner of the properties.
@@ -347,6 +375,30 @@ public interface Read
      */
     void relationshipProperties( long relationshipReference, long reference, PropertyCursor cursor );
 
+    /**
+     * Reads some properties of many nodes at once. This is cheaper than reading them node by node since the underlying storage
+     * can order its reads to visit each part of the store only once.
+     *
+     * @param nodeReferences the nodes to read properties of.
+     * @param propertyKeyIds the distinct property keys to read for each node.
+     * @return for each node, in the order of {@code nodeReferences}, the values of the properties in the order of {@code propertyKeyIds},
+     * or {@code null} for a node which doesn't exist or isn't visible to the current transaction. Properties which a node doesn't have, or
+     * which aren't visible to the current transaction, are {@link Values#NO_VALUE}.
+     */
+    Value[][] nodesProperties( long[] nodeReferences, int[] propertyKeyIds );
+
+    /**
+     * Reads some properties of many relationships at once. This is cheaper than reading them relationship by relationship since
+     * the underlying storage can order its reads to visit each part of the store only once.
+     *
+     * @param relationshipReferences the relationships to read properties of.
+     * @param propertyKeyIds the distinct property keys to read for each relationship.
+     * @return for each relationship, in the order of {@code relationshipReferences}, the values of the properties in the order of
+     * {@code propertyKeyIds}, or {@code null} for a relationship which doesn't exist or isn't visible to the current transaction.
+     * Properties which a relationship doesn't have, or which aren't visible to the current transaction, are {@link Values#NO_VALUE}.
+     */
+    Value[][] relationshipsProperties( long[] relationshipReferences, int[] propertyKeyIds );
+
     /**
      * Checks if a node was deleted in the current transaction
      * @param node the node to check
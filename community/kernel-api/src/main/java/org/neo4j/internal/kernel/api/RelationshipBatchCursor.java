@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+/**
+ * Cursor for traversing the relationships of many nodes in one go, see
+ * {@link Read#nodesRelationships(long[], int[], RelationshipBatchCursor)}.
+ * <p>
+ * The relationships are grouped by the node they were traversed from, and the groups come in the order the nodes were given in.
+ * The order of the relationships within a group is unspecified.
+ */
+public interface RelationshipBatchCursor extends RelationshipDataAccessor, Cursor
+{
+    /**
+     * @return the index into the node references the cursor was initialized with, of the node the current relationship was traversed from.
+     */
+    int originIndex();
+
+    long originNodeReference();
+
+    long neighbourNodeReference();
+
+    /**
+     * Get the other node, the one that the current relationship was not traversed from.
+     *
+     * @param cursor the cursor to use for accessing the other node.
+     */
+    void neighbour( NodeCursor cursor );
+}
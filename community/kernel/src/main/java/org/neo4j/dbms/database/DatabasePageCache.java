@@ -98,6 +98,12 @@ public class DatabasePageCache implements PageCache
         }
     }
 
+    @Override
+    public IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        return globalPageCache.snapshotDirtyPages( limiter );
+    }
+
     @Override
     public synchronized void close()
     {
@@ -154,6 +160,12 @@ public class DatabasePageCache implements PageCache
             return delegate.io( pageId, pf_flags );
         }
 
+        @Override
+        public void prefetch( long[] filePageIds, int count )
+        {
+            delegate.prefetch( filePageIds, count );
+        }
+
         @Override
         public int pageSize()
         {
@@ -65,6 +65,8 @@ public class ExecutingQuery
     private final NamedDatabaseId namedDatabaseId;
     private final LongSupplier hitsSupplier;
     private final LongSupplier faultsSupplier;
+    private final LongSupplier bytesReadSupplier;
+    private final LongSupplier bytesWrittenSupplier;
     /** Uses write barrier of {@link #status}. */
     private long compilationCompletedNanos;
     private String obfuscatedQueryText;
@@ -90,12 +92,14 @@ public class ExecutingQuery
 
     public ExecutingQuery( long queryId, ClientConnectionInfo clientConnection, NamedDatabaseId namedDatabaseId, String username, String queryText,
             MapValue queryParameters, Map<String,Object> transactionAnnotationData, LongSupplier activeLockCount,
-            LongSupplier hitsSupplier, LongSupplier faultsSupplier,
+            LongSupplier hitsSupplier, LongSupplier faultsSupplier, LongSupplier bytesReadSupplier, LongSupplier bytesWrittenSupplier,
             long threadExecutingTheQueryId, String threadExecutingTheQueryName, SystemNanoClock clock, CpuClock cpuClock )
     {
         this.namedDatabaseId = namedDatabaseId;
         this.hitsSupplier = hitsSupplier;
         this.faultsSupplier = faultsSupplier;
+        this.bytesReadSupplier = bytesReadSupplier;
+        this.bytesWrittenSupplier = bytesWrittenSupplier;
         // Capture timestamps first
         this.cpuTimeNanosWhenQueryStarted = cpuClock.cpuTimeNanos( threadExecutingTheQueryId );
         this.startTimeNanos = clock.nanos();
@@ -181,7 +185,7 @@ public class ExecutingQuery
         // activeLockCount is not atomic to capture, so we capture it after the most sensitive part.
         long totalActiveLocks = this.activeLockCount.getAsLong();
         // just needs to be captured at some point...
-        PageCounterValues pageCounters = new PageCounterValues( hitsSupplier, faultsSupplier );
+        PageCounterValues pageCounters = new PageCounterValues( hitsSupplier, faultsSupplier, bytesReadSupplier, bytesWrittenSupplier );
 
         // - at this point we are done capturing the "live" state, and can start computing the snapshot -
         long compilationTimeNanos = (status.isPlanning() ? currentTimeNanos : compilationCompletedNanos) - startTimeNanos;
@@ -25,10 +25,14 @@ class PageCounterValues
 {
     final long hits;
     final long faults;
+    final long bytesRead;
+    final long bytesWritten;
 
-    PageCounterValues( LongSupplier hits, LongSupplier faults )
+    PageCounterValues( LongSupplier hits, LongSupplier faults, LongSupplier bytesRead, LongSupplier bytesWritten )
     {
         this.hits = hits.getAsLong();
         this.faults = faults.getAsLong();
+        this.bytesRead = bytesRead.getAsLong();
+        this.bytesWritten = bytesWritten.getAsLong();
     }
 }
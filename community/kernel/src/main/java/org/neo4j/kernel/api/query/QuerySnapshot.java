@@ -230,6 +230,23 @@ public class QuerySnapshot
         return page.faults;
     }
 
+    /**
+     * @return the number of bytes the query has read into the page cache through page faults.
+     */
+    public long pageBytesRead()
+    {
+        return page.bytesRead;
+    }
+
+    /**
+     * @return the number of bytes the query has written out of the page cache, when evicting pages to make room for
+     * its page faults.
+     */
+    public long pageBytesWritten()
+    {
+        return page.bytesWritten;
+    }
+
     public List<ActiveLock> waitingLocks()
     {
         return waitingLocks;
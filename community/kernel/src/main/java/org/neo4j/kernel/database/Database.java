@@ -48,6 +48,8 @@ import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.internal.index.label.LoggingMonitor;
 import org.neo4j.internal.index.label.NativeLabelScanStore;
+import org.neo4j.internal.index.label.NativeRelationshipTypeScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemUtils;
@@ -56,6 +58,7 @@ import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.kernel.api.Kernel;
@@ -79,6 +82,7 @@ import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.api.scan.FullLabelStream;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipTypeStream;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
 import org.neo4j.kernel.impl.api.transaction.monitor.KernelTransactionMonitor;
 import org.neo4j.kernel.impl.api.transaction.monitor.KernelTransactionMonitorScheduler;
@@ -94,22 +98,29 @@ import org.neo4j.kernel.impl.locking.StatementLocksFactory;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
 import org.neo4j.kernel.impl.pagecache.PageCacheStartMetricsReporter;
 import org.neo4j.kernel.impl.pagecache.PageCacheStopMetricsReporter;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmerMonitor;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.store.stats.DatabaseEntityCounters;
 import org.neo4j.kernel.impl.storemigration.DatabaseMigratorFactory;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.ChangeDataCapture;
 import org.neo4j.kernel.impl.transaction.log.LogVersionUpgradeChecker;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.ServiceLoadingCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckpointerLifecycle;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.RecoveryTimeEstimator;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
+import org.neo4j.kernel.impl.transaction.log.entry.CommandCompressionMonitor;
+import org.neo4j.kernel.impl.transaction.log.entry.CommandCompressionStatistics;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -206,6 +217,7 @@ public class Database extends LifecycleAdapter
     private final DatabaseEventListeners eventListeners;
     private final DatabaseTracer databaseTracer;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
+    private final PageCacheTracer pageCacheTracer;
     private final LockTracer lockTracer;
     private final AccessCapabilityFactory accessCapabilityFactory;
     private final LeaseService leaseService;
@@ -289,6 +301,7 @@ public class Database extends LifecycleAdapter
         Tracers globalTracers = context.getTracers();
         this.databaseTracer = globalTracers.getDatabaseTracer();
         this.pageCursorTracerSupplier = globalTracers.getPageCursorTracerSupplier();
+        this.pageCacheTracer = globalTracers.getPageCacheTracer();
         this.lockTracer = globalTracers.getLockTracer();
         this.fileLockerService = context.getFileLockerService();
         this.leaseService = context.getLeaseService();
@@ -354,7 +367,11 @@ public class Database extends LifecycleAdapter
             upgradeStore( databaseConfig, databasePageCache );
 
             // Check the tail of transaction logs and validate version
-            final LogEntryReader logEntryReader = new VersionAwareLogEntryReader();
+            CommandCompressionStatistics commandCompressionStatistics = new CommandCompressionStatistics();
+            databaseMonitors.addMonitorListener( commandCompressionStatistics );
+            databaseDependencies.satisfyDependency( commandCompressionStatistics );
+            final LogEntryReader logEntryReader = new VersionAwareLogEntryReader( new ServiceLoadingCommandReaderFactory(), true,
+                    databaseMonitors.newMonitor( CommandCompressionMonitor.class ) );
 
             LogFiles logFiles = LogFilesBuilder.builder( databaseLayout, fs ).withLogEntryReader( logEntryReader )
                     .withConfig( databaseConfig )
@@ -367,6 +384,9 @@ public class Database extends LifecycleAdapter
             databaseMonitors.addMonitorListener( new LoggingLogTailScannerMonitor( internalLogProvider.getLog( LogTailScanner.class ) ) );
             databaseMonitors.addMonitorListener(
                     new ReverseTransactionCursorLoggingMonitor( internalLogProvider.getLog( ReversedSingleFileTransactionCursor.class ) ) );
+            RecoveryTimeEstimator recoveryTimeEstimator = new RecoveryTimeEstimator( databaseConfig, fs,
+                    databaseLayout.file( RecoveryTimeEstimator.THROUGHPUT_FILE_NAME ), internalLogProvider.getLog( RecoveryTimeEstimator.class ) );
+            databaseMonitors.addMonitorListener( recoveryTimeEstimator );
             LogTailScanner tailScanner =
                     new LogTailScanner( logFiles, logEntryReader, databaseMonitors, databaseConfig.get( fail_on_corrupted_log_files ) );
             LogVersionUpgradeChecker.check( tailScanner, databaseConfig );
@@ -399,6 +419,10 @@ public class Database extends LifecycleAdapter
             LabelScanStore labelScanStore =
                     buildLabelIndex( databasePageCache, recoveryCleanupWorkCollector, storageEngine, neoStoreIndexStoreView, databaseMonitors );
 
+            // Relationship type index
+            RelationshipTypeScanStore relationshipTypeScanStore = life.add( buildRelationshipTypeIndex( recoveryCleanupWorkCollector, storageEngine,
+                    databaseMonitors, databasePageCache, databaseLayout, fs, readOnly ) );
+
             // Schema indexes
             DynamicIndexStoreView indexStoreView =
                     new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, lockService, storageEngine::newReader, internalLogProvider );
@@ -412,11 +436,14 @@ public class Database extends LifecycleAdapter
 
             versionContextSupplier.init( transactionIdStore::getLastClosedTransactionId );
 
-            CheckPointerImpl.ForceOperation forceOperation = new DefaultForceOperation( indexingService, labelScanStore, storageEngine );
+            CheckPointerImpl.ForceOperation forceOperation =
+                    new DefaultForceOperation( indexingService, labelScanStore, relationshipTypeScanStore, storageEngine );
             DatabaseTransactionLogModule transactionLogModule =
                     buildTransactionLogs( logFiles, databaseConfig, internalLogProvider, scheduler, forceOperation,
-                            logEntryReader, transactionIdStore, databaseMonitors );
+                            logEntryReader, transactionIdStore, databaseMonitors, recoveryTimeEstimator );
             transactionLogModule.satisfyDependencies( databaseDependencies );
+            databaseDependencies.satisfyDependency(
+                    new ChangeDataCapture( transactionLogModule.logicalTransactionStore(), transactionIdStore, storageEngine::newChangeEventDecoder ) );
 
             final DatabaseKernelModule kernelModule = buildKernel(
                     logFiles,
@@ -424,6 +451,7 @@ public class Database extends LifecycleAdapter
                     indexingService,
                     databaseSchemaState,
                     labelScanStore,
+                    relationshipTypeScanStore,
                     storageEngine,
                     transactionIdStore,
                     databaseAvailabilityGuard,
@@ -439,6 +467,7 @@ public class Database extends LifecycleAdapter
             databaseDependencies.satisfyDependency( logEntryReader );
             databaseDependencies.satisfyDependency( storageEngine );
             databaseDependencies.satisfyDependency( labelScanStore );
+            databaseDependencies.satisfyDependency( relationshipTypeScanStore );
             databaseDependencies.satisfyDependency( indexingService );
             databaseDependencies.satisfyDependency( indexStoreView );
             databaseDependencies.satisfyDependency( indexStatisticsStore );
@@ -456,6 +485,11 @@ public class Database extends LifecycleAdapter
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
             life.add( new PageCacheStartMetricsReporter( pageCursorTracerSupplier ) );
+            PageCacheWarmer pageCacheWarmer = new PageCacheWarmer( fs, databasePageCache, pageCacheTracer, scheduler,
+                    databaseLayout.databaseDirectory(), databaseConfig, internalLogProvider.getLog( PageCacheWarmer.class ),
+                    databaseMonitors.newMonitor( PageCacheWarmerMonitor.class ) );
+            databaseDependencies.satisfyDependency( pageCacheWarmer );
+            life.add( pageCacheWarmer );
             life.setLast( checkpointerLifecycle );
 
             databaseDependencies.resolveDependency( DbmsDiagnosticsManager.class ).dumpDatabaseDiagnostics( this );
@@ -577,16 +611,35 @@ public class Database extends LifecycleAdapter
             FileSystemAbstraction fs,
             boolean readOnly )
     {
-        monitors.addMonitorListener( new LoggingMonitor( logProvider.getLog( NativeLabelScanStore.class ) ) );
+        monitors.addMonitorListener( new LoggingMonitor( logProvider.getLog( NativeLabelScanStore.class ) ),
+                NativeLabelScanStore.LABEL_SCAN_STORE_MONITOR_TAG );
         NativeLabelScanStore labelScanStore = new NativeLabelScanStore( pageCache, databaseLayout, fs, new FullLabelStream( indexStoreView ),
                 readOnly, monitors, recoveryCleanupWorkCollector );
         storageEngine.addNodeLabelUpdateListener( labelScanStore );
         return labelScanStore;
     }
 
+    /**
+     * Convenience method for building a {@link RelationshipTypeScanStore}. Doesn't add it to a {@link LifeSupport}.
+     */
+    public static RelationshipTypeScanStore buildRelationshipTypeIndex(
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            StorageEngine storageEngine,
+            Monitors monitors,
+            PageCache pageCache,
+            DatabaseLayout databaseLayout,
+            FileSystemAbstraction fs,
+            boolean readOnly )
+    {
+        NativeRelationshipTypeScanStore relationshipTypeScanStore = new NativeRelationshipTypeScanStore( pageCache, databaseLayout, fs,
+                new FullRelationshipTypeStream( storageEngine::newReader ), readOnly, monitors, recoveryCleanupWorkCollector );
+        storageEngine.addRelationshipTypeUpdateListener( relationshipTypeScanStore );
+        return relationshipTypeScanStore;
+    }
+
     private DatabaseTransactionLogModule buildTransactionLogs( LogFiles logFiles, Config config,
             LogProvider logProvider, JobScheduler scheduler, CheckPointerImpl.ForceOperation forceOperation,
-            LogEntryReader logEntryReader, TransactionIdStore transactionIdStore, Monitors monitors )
+            LogEntryReader logEntryReader, TransactionIdStore transactionIdStore, Monitors monitors, RecoveryTimeEstimator recoveryTimeEstimator )
     {
         TransactionMetadataCache transactionMetadataCache = new TransactionMetadataCache();
 
@@ -596,16 +649,19 @@ public class Database extends LifecycleAdapter
         final LogRotation logRotation =
                 new LogRotationImpl( logFiles, clock, databaseHealth, monitors.newMonitor( LogRotationMonitor.class ) );
 
-        final TransactionAppender appender = life.add( new BatchingTransactionAppender(
-                logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth ) );
+        final TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, logRotation, transactionMetadataCache,
+                transactionIdStore, databaseHealth, config.get( GraphDatabaseSettings.transaction_log_compression ),
+                monitors.newMonitor( CommandCompressionMonitor.class ), internalLogProvider ) );
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors, true );
 
-        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
+        CheckPointThreshold threshold =
+                CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider, transactionIdStore, recoveryTimeEstimator );
 
         final CheckPointerImpl checkPointer =
                 new CheckPointerImpl( transactionIdStore, threshold, forceOperation, logPruning, appender, databaseHealth, logProvider, databaseTracer,
-                        ioLimiter, storeCopyCheckPointMutex );
+                        ioLimiter, databasePageCache, config.get( GraphDatabaseSettings.check_point_snapshot_dirty_pages ),
+                        storeCopyCheckPointMutex );
 
         long recurringPeriod = threshold.checkFrequencyMillis();
         CheckPointScheduler checkPointScheduler = new CheckPointScheduler( checkPointer, ioLimiter, scheduler,
@@ -619,7 +675,7 @@ public class Database extends LifecycleAdapter
 
     private DatabaseKernelModule buildKernel( LogFiles logFiles, TransactionAppender appender,
             IndexingService indexingService, DatabaseSchemaState databaseSchemaState, LabelScanStore labelScanStore,
-            StorageEngine storageEngine, TransactionIdStore transactionIdStore,
+            RelationshipTypeScanStore relationshipTypeScanStore, StorageEngine storageEngine, TransactionIdStore transactionIdStore,
             AvailabilityGuard databaseAvailabilityGuard, SystemNanoClock clock,
             IndexStatisticsStore indexStatisticsStore, GraphDatabaseFacade facade,
             LeaseService leaseService )
@@ -645,8 +701,9 @@ public class Database extends LifecycleAdapter
                         databaseAvailabilityGuard,
                         storageEngine, globalProcedures, transactionIdStore, clock, cpuClockRef,
                         heapAllocationRef, accessCapability, versionContextSupplier, collectionsFactorySupplier,
-                        constraintSemantics, databaseSchemaState, tokenHolders, getNamedDatabaseId(), indexingService, labelScanStore, indexStatisticsStore,
-                        databaseDependencies, databaseTracer, pageCursorTracerSupplier, lockTracer, leaseService ) );
+                        constraintSemantics, databaseSchemaState, tokenHolders, getNamedDatabaseId(), indexingService, labelScanStore,
+                        relationshipTypeScanStore, indexStatisticsStore, databaseDependencies, databaseTracer, pageCursorTracerSupplier, lockTracer,
+                        leaseService ) );
 
         buildTransactionMonitor( kernelTransactions, databaseConfig );
 
@@ -655,7 +712,8 @@ public class Database extends LifecycleAdapter
         life.add( kernel );
 
         final DatabaseFileListing fileListing =
-                new DatabaseFileListing( databaseLayout, logFiles, labelScanStore, indexingService, storageEngine, idGeneratorFactory );
+                new DatabaseFileListing( databaseLayout, fs, logFiles, labelScanStore, relationshipTypeScanStore, indexingService, storageEngine,
+                        idGeneratorFactory );
         databaseDependencies.satisfyDependency( fileListing );
 
         return new DatabaseKernelModule( transactionCommitProcess, kernel, kernelTransactions, fileListing );
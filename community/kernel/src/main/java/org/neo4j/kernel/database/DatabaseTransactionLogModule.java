@@ -55,6 +55,11 @@ class DatabaseTransactionLogModule
         return appender;
     }
 
+    LogicalTransactionStore logicalTransactionStore()
+    {
+        return logicalTransactionStore;
+    }
+
     public void satisfyDependencies( Dependencies dependencies )
     {
         dependencies.satisfyDependencies( checkPointer,
@@ -22,6 +22,7 @@ package org.neo4j.kernel.database;
 import java.io.IOException;
 
 import org.neo4j.internal.index.label.LabelScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
@@ -31,12 +32,15 @@ public class DefaultForceOperation implements CheckPointerImpl.ForceOperation
 {
     private final IndexingService indexingService;
     private final LabelScanStore labelScanStore;
+    private final RelationshipTypeScanStore relationshipTypeScanStore;
     private final StorageEngine storageEngine;
 
-    public DefaultForceOperation( IndexingService indexingService, LabelScanStore labelScanStore, StorageEngine storageEngine )
+    public DefaultForceOperation( IndexingService indexingService, LabelScanStore labelScanStore, RelationshipTypeScanStore relationshipTypeScanStore,
+            StorageEngine storageEngine )
     {
         this.indexingService = indexingService;
         this.labelScanStore = labelScanStore;
+        this.relationshipTypeScanStore = relationshipTypeScanStore;
         this.storageEngine = storageEngine;
     }
 
@@ -45,6 +49,7 @@ public class DefaultForceOperation implements CheckPointerImpl.ForceOperation
     {
         indexingService.forceAll( ioLimiter );
         labelScanStore.force( ioLimiter );
+        relationshipTypeScanStore.force( ioLimiter );
         storageEngine.flushAndForce( ioLimiter );
     }
 }
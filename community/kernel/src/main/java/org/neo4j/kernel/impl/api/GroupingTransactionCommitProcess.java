@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A {@link TransactionRepresentationCommitProcess} that groups the batches of concurrently committing transactions
+ * into a single batch, that is appended to the log and applied to the store in one go.
+ * <p>
+ * The {@link BatchingTransactionAppender} already lets concurrent committers share a single force of the log, but
+ * every batch still pays the fixed cost of its own log append, and of setting up and tearing down the batch
+ * appliers of the storage engine. Here, committers put their batches in a queue, and the first of them to get hold of
+ * the commit lock becomes the leader, and commits the queued batches linked together as one batch, while the other
+ * committers wait for it to finish. Under many concurrent small transactions, each leader will find a number of
+ * batches waiting in the queue, and the fixed cost is then shared by all of them. A single committer finds only its
+ * own batch in the queue, and commits it with no other overhead than taking the lock.
+ * <p>
+ * The commits of the groups are pipelined. The commit lock is only held while the group is written to the log, and
+ * is handed over to the next leader as soon as that is done, see
+ * {@link TransactionAppender#append(TransactionToApply, LogAppendEvent, Runnable)}. So while one group is being
+ * forced, the next one can be written to the log, and a group before that can still be applied to the store. The
+ * transaction id store closes transactions out of order, so groups may finish applying in any order. The throughput
+ * is then bounded by the slowest of the three stages, rather than by the sum of them.
+ * <p>
+ * Only {@link TransactionApplicationMode#INTERNAL internal} commits are grouped. The storage engine applies the whole
+ * group in the thread of the leader, so this cannot be used with snapshot queries, that rely on the version context
+ * of the committing thread. If committing a group fails, then all
+ * of the transactions in the group fail.
+ * <p>
+ * A group is traced as one commit. The {@link CommitEvent} of the leader gets the log append and the store apply of
+ * the whole group, including the transactions of the other committers, and the commit events of the other committers
+ * get neither. The group is written to the log and applied to the store as one unit of work, so there is no
+ * individual cost to report for each of its transactions, and reporting the shared cost to the events of all of them
+ * would make tracers that sum up what they are told, like the appended bytes, count the group once per transaction.
+ */
+public class GroupingTransactionCommitProcess extends TransactionRepresentationCommitProcess
+{
+    /**
+     * The maximum number of queued batches that a leader will commit as one group.
+     */
+    private static final int MAX_GROUP_SIZE = getInteger( GroupingTransactionCommitProcess.class, "maxGroupSize", 100 );
+
+    private final Queue<GroupedBatch> queue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    public GroupingTransactionCommitProcess( TransactionAppender appender, StorageEngine storageEngine )
+    {
+        super( appender, storageEngine );
+    }
+
+    @Override
+    public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode ) throws TransactionFailureException
+    {
+        if ( mode != TransactionApplicationMode.INTERNAL )
+        {
+            return super.commit( batch, commitEvent, mode );
+        }
+
+        GroupedBatch grouped = new GroupedBatch( batch );
+        queue.offer( grouped );
+        boolean interrupted = false;
+        while ( !grouped.done )
+        {
+            if ( commitLock.tryLock() )
+            {
+                commitGroup( commitEvent );
+            }
+            else
+            {
+                LockSupport.park( this );
+                // The commit cannot be abandoned once queued, so hold on to the interrupt until it is done.
+                interrupted |= Thread.interrupted();
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+        return grouped.lastTransactionId( Thread.currentThread() );
+    }
+
+    /**
+     * Commits the next group of queued batches. Must be called holding the commit lock, which is released by this method, as soon as the group has
+     * been written to the log.
+     *
+     * @param commitEvent the commit event of the leader, that traces the commit of the whole group.
+     */
+    private void commitGroup( CommitEvent commitEvent )
+    {
+        GroupedBatch first = queue.poll();
+        if ( first == null )
+        {
+            releaseCommitLock();
+            return;
+        }
+        GroupedBatch last = first;
+        for ( int i = 1; i < MAX_GROUP_SIZE; i++ )
+        {
+            GroupedBatch next = queue.poll();
+            if ( next == null )
+            {
+                break;
+            }
+            last.tail.next( next.head );
+            last.nextInGroup = next;
+            last = next;
+        }
+
+        Throwable failure = null;
+        try
+        {
+            // The group is traced as the commit of the leader, see the class documentation.
+            super.commit( first.head, commitEvent, TransactionApplicationMode.INTERNAL, this::releaseCommitLock );
+        }
+        catch ( Throwable t )
+        {
+            failure = t;
+        }
+        finally
+        {
+            if ( commitLock.isHeldByCurrentThread() )
+            {
+                // Writing the group to the log failed, so the lock was never handed over.
+                releaseCommitLock();
+            }
+        }
+
+        Thread leader = Thread.currentThread();
+        GroupedBatch grouped = first;
+        while ( grouped != null )
+        {
+            // Take the batches apart again, before handing them back to their committers.
+            GroupedBatch next = grouped.nextInGroup;
+            grouped.tail.next( null );
+            grouped.nextInGroup = null;
+            grouped.failure = failure;
+            grouped.leader = leader;
+            grouped.done = true;
+            LockSupport.unpark( grouped.committer );
+            grouped = next;
+        }
+    }
+
+    private void releaseCommitLock()
+    {
+        commitLock.unlock();
+        // Anyone who queued their batch while we held the lock, is parked waiting for it.
+        // Wake up the first of them, so they can lead the next group.
+        GroupedBatch next = queue.peek();
+        if ( next != null )
+        {
+            LockSupport.unpark( next.committer );
+        }
+    }
+
+    private static class GroupedBatch
+    {
+        private final TransactionToApply head;
+        private final TransactionToApply tail;
+        private final Thread committer = Thread.currentThread();
+        private GroupedBatch nextInGroup;
+        private Throwable failure;
+        private Thread leader;
+        private volatile boolean done;
+
+        GroupedBatch( TransactionToApply batch )
+        {
+            TransactionToApply tail = batch;
+            while ( tail.next() != null )
+            {
+                tail = tail.next();
+            }
+            this.head = batch;
+            this.tail = tail;
+        }
+
+        long lastTransactionId( Thread committer ) throws TransactionFailureException
+        {
+            if ( failure == null )
+            {
+                return tail.transactionId();
+            }
+            if ( committer == leader )
+            {
+                if ( failure instanceof TransactionFailureException )
+                {
+                    throw (TransactionFailureException) failure;
+                }
+                if ( failure instanceof RuntimeException )
+                {
+                    throw (RuntimeException) failure;
+                }
+                if ( failure instanceof Error )
+                {
+                    throw (Error) failure;
+                }
+            }
+            // The failure was thrown in the thread of the leader, so give this committer its own exception.
+            if ( failure instanceof TransactionFailureException )
+            {
+                TransactionFailureException transactionFailure = (TransactionFailureException) failure;
+                throw new TransactionFailureException( transactionFailure.status(), failure, transactionFailure.getMessage() );
+            }
+            throw new TransactionFailureException( TransactionCommitFailed, failure, "Could not commit the transaction as part of a group" );
+        }
+    }
+}
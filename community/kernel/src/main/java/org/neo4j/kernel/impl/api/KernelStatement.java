@@ -87,6 +87,8 @@ public class KernelStatement extends CloseableResourceManager implements Stateme
     private final VersionContextSupplier versionContextSupplier;
     private long initialStatementHits;
     private long initialStatementFaults;
+    private long initialStatementBytesRead;
+    private long initialStatementBytesWritten;
 
     public KernelStatement( KernelTransactionImplementation transaction, LockTracer systemLockTracer, ClockContext clockContext,
             VersionContextSupplier versionContextSupplier, AtomicReference<CpuClock> cpuClockRef, NamedDatabaseId namedDatabaseId )
@@ -159,6 +161,16 @@ public class KernelStatement extends CloseableResourceManager implements Stateme
         return subtractExact( pageCursorTracer.faults(), initialStatementFaults );
     }
 
+    public long getBytesRead()
+    {
+        return subtractExact( pageCursorTracer.bytesRead(), initialStatementBytesRead );
+    }
+
+    public long getBytesWritten()
+    {
+        return subtractExact( pageCursorTracer.bytesWritten(), initialStatementBytesWritten );
+    }
+
     public final void acquire()
     {
         if ( referenceCount++ == 0 )
@@ -166,6 +178,8 @@ public class KernelStatement extends CloseableResourceManager implements Stateme
             clockContext.initializeStatement();
             this.initialStatementHits = pageCursorTracer.hits();
             this.initialStatementFaults = pageCursorTracer.faults();
+            this.initialStatementBytesRead = pageCursorTracer.bytesRead();
+            this.initialStatementBytesWritten = pageCursorTracer.bytesWritten();
         }
         recordOpenCloseMethods();
     }
@@ -38,6 +38,7 @@ import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.graphdb.TransactionFailureException;
 import org.neo4j.internal.id.IdController;
 import org.neo4j.internal.index.label.LabelScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.internal.kernel.api.connectioninfo.ClientConnectionInfo;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
@@ -104,6 +105,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<IdC
     private final NamedDatabaseId namedDatabaseId;
     private final IndexingService indexingService;
     private final LabelScanStore labelScanStore;
+    private final RelationshipTypeScanStore relationshipTypeScanStore;
     private final IndexStatisticsStore indexStatisticsStore;
     private final Dependencies databaseDependendies;
     private final Config config;
@@ -151,7 +153,8 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<IdC
             AtomicReference<CpuClock> cpuClockRef, AtomicReference<HeapAllocation> heapAllocationRef, AccessCapability accessCapability,
             VersionContextSupplier versionContextSupplier, CollectionsFactorySupplier collectionsFactorySupplier, ConstraintSemantics constraintSemantics,
             SchemaState schemaState, TokenHolders tokenHolders, NamedDatabaseId namedDatabaseId, IndexingService indexingService, LabelScanStore labelScanStore,
-            IndexStatisticsStore indexStatisticsStore, Dependencies databaseDependencies, TransactionTracer transactionTracer,
+            RelationshipTypeScanStore relationshipTypeScanStore, IndexStatisticsStore indexStatisticsStore, Dependencies databaseDependencies,
+            TransactionTracer transactionTracer,
             PageCursorTracerSupplier pageCursorTracerSupplier, LockTracer lockTracer, LeaseService leaseService )
     {
         this.config = config;
@@ -172,6 +175,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<IdC
         this.namedDatabaseId = namedDatabaseId;
         this.indexingService = indexingService;
         this.labelScanStore = labelScanStore;
+        this.relationshipTypeScanStore = relationshipTypeScanStore;
         this.indexStatisticsStore = indexStatisticsStore;
         this.databaseDependendies = databaseDependencies;
         this.versionContextSupplier = versionContextSupplier;
@@ -396,8 +400,8 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<IdC
                             transactionCommitProcess, transactionMonitor, localTxPool, clock, cpuClockRef, heapAllocationRef,
                             transactionTracer, lockTracer, pageCursorTracerSupplier, storageEngine, accessCapability,
                             versionContextSupplier, collectionsFactorySupplier, constraintSemantics,
-                            schemaState, tokenHolders, indexingService, labelScanStore, indexStatisticsStore,
-                            databaseDependendies, namedDatabaseId, leaseService );
+                            schemaState, tokenHolders, indexingService, labelScanStore, relationshipTypeScanStore,
+                            indexStatisticsStore, databaseDependendies, namedDatabaseId, leaseService );
             this.transactions.add( tx );
             return tx;
         }
@@ -69,6 +69,7 @@ public class StatementQueryRegistry implements QueryRegistry
         ExecutingQuery executingQuery =
                 new ExecutingQuery( queryId, transaction.clientInfo(), namedDatabaseId, statement.username(), queryText, queryParameters,
                         transaction.getMetaData(), () -> statement.locks().activeLockCount(), statement::getHits, statement::getFaults,
+                        statement::getBytesRead, statement::getBytesWritten,
                         threadId, threadName, clock, cpuClockRef.get() );
         registerExecutingQuery( executingQuery );
         return executingQuery;
@@ -45,7 +45,19 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
     public long commit( TransactionToApply batch, CommitEvent commitEvent,
             TransactionApplicationMode mode ) throws TransactionFailureException
     {
-        long lastTxId = appendToLog( batch, commitEvent );
+        return commit( batch, commitEvent, mode, null );
+    }
+
+    /**
+     * Commits the batch like {@link #commit(TransactionToApply, CommitEvent, TransactionApplicationMode)}, and calls {@code serialized} as soon as
+     * the batch has been written to the log, see {@link TransactionAppender#append(TransactionToApply, LogAppendEvent, Runnable)}.
+     *
+     * @param serialized called when the batch has been written to the log, or {@code null} if the caller does not need to know.
+     */
+    protected long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode, Runnable serialized )
+            throws TransactionFailureException
+    {
+        long lastTxId = appendToLog( batch, commitEvent, serialized );
         try
         {
             applyToStore( batch, commitEvent, mode );
@@ -57,11 +69,11 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
         }
     }
 
-    private long appendToLog( TransactionToApply batch, CommitEvent commitEvent ) throws TransactionFailureException
+    private long appendToLog( TransactionToApply batch, CommitEvent commitEvent, Runnable serialized ) throws TransactionFailureException
     {
         try ( LogAppendEvent logAppendEvent = commitEvent.beginLogAppend() )
         {
-            return appender.append( batch, logAppendEvent );
+            return serialized == null ? appender.append( batch, logAppendEvent ) : appender.append( batch, logAppendEvent, serialized );
         }
         catch ( Throwable cause )
         {
@@ -672,9 +672,8 @@ public class NodeEntity implements Node, RelationshipFactory<Relationship>
             return 0;
         }
 
-        NodeCursor nodes = transaction.ambientNodeCursor();
-        singleNode( transaction, nodes );
-        return Nodes.countAll( nodes, transaction.cursors(), typeId, transaction.securityContext().mode() );
+        singleNode( transaction, transaction.ambientNodeCursor() );
+        return transaction.dataRead().nodeDegree( nodeId, typeId, Direction.BOTH );
     }
 
     @Override
@@ -707,19 +706,8 @@ public class NodeEntity implements Node, RelationshipFactory<Relationship>
             return 0;
         }
 
-        NodeCursor nodes = transaction.ambientNodeCursor();
-        singleNode( transaction, nodes );
-        switch ( direction )
-        {
-        case OUTGOING:
-            return Nodes.countOutgoing( nodes, transaction.cursors(), typeId, transaction.securityContext().mode() );
-        case INCOMING:
-            return Nodes.countIncoming( nodes, transaction.cursors(), typeId, transaction.securityContext().mode() );
-        case BOTH:
-            return Nodes.countAll( nodes, transaction.cursors(), typeId, transaction.securityContext().mode() );
-        default:
-            throw new IllegalStateException( "Unknown direction " + direction );
-        }
+        singleNode( transaction, transaction.ambientNodeCursor() );
+        return transaction.dataRead().nodeDegree( nodeId, typeId, direction );
     }
 
     @Override
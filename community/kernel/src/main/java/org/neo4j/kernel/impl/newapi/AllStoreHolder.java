@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Objects;
@@ -28,15 +29,23 @@ import java.util.function.Predicate;
 
 import org.neo4j.collection.Dependencies;
 import org.neo4j.collection.RawIterator;
+import org.neo4j.common.EntityType;
 import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.internal.index.label.LabelScanReader;
 import org.neo4j.internal.index.label.LabelScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanReader;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.internal.kernel.api.IndexReadSession;
 import org.neo4j.internal.kernel.api.InternalIndexState;
+import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PopulationProgress;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.SchemaReadCore;
 import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.kernel.api.helpers.Nodes;
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
@@ -69,12 +78,14 @@ import org.neo4j.lock.ResourceTypes;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.register.Registers;
 import org.neo4j.storageengine.api.CountsDelta;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.StorageSchemaReader;
 import org.neo4j.storageengine.api.txstate.DiffSets;
 import org.neo4j.storageengine.api.txstate.TransactionCountingStateVisitor;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.helpers.collection.Iterators.singleOrNull;
@@ -83,15 +94,22 @@ import static org.neo4j.storageengine.api.txstate.TxStateVisitor.EMPTY;
 
 public class AllStoreHolder extends Read
 {
+    private static final RelationshipDirection[] OUTGOING_DIRECTIONS = {RelationshipDirection.OUTGOING, RelationshipDirection.LOOP};
+    private static final RelationshipDirection[] INCOMING_DIRECTIONS = {RelationshipDirection.INCOMING, RelationshipDirection.LOOP};
+    private static final RelationshipDirection[] ALL_DIRECTIONS =
+            {RelationshipDirection.OUTGOING, RelationshipDirection.INCOMING, RelationshipDirection.LOOP};
+
     private final StorageReader storageReader;
     private final GlobalProcedures globalProcedures;
     private final SchemaState schemaState;
     private final IndexingService indexingService;
     private final LabelScanStore labelScanStore;
+    private final RelationshipTypeScanStore relationshipTypeScanStore;
     private final IndexStatisticsStore indexStatisticsStore;
     private final Dependencies databaseDependencies;
     private final IndexReaderCache indexReaderCache;
     private LabelScanReader labelScanReader;
+    private RelationshipTypeScanReader relationshipTypeScanReader;
 
     public AllStoreHolder( StorageReader storageReader,
                            KernelTransactionImplementation ktx,
@@ -100,6 +118,7 @@ public class AllStoreHolder extends Read
                            SchemaState schemaState,
                            IndexingService indexingService,
                            LabelScanStore labelScanStore,
+                           RelationshipTypeScanStore relationshipTypeScanStore,
                            IndexStatisticsStore indexStatisticsStore,
                            Dependencies databaseDependencies )
     {
@@ -110,6 +129,7 @@ public class AllStoreHolder extends Read
         this.indexReaderCache = new IndexReaderCache( indexingService );
         this.indexingService = indexingService;
         this.labelScanStore = labelScanStore;
+        this.relationshipTypeScanStore = relationshipTypeScanStore;
         this.indexStatisticsStore = indexStatisticsStore;
         this.databaseDependencies = databaseDependencies;
     }
@@ -153,6 +173,194 @@ public class AllStoreHolder extends Read
         }
     }
 
+    @Override
+    public int nodeDegree( long reference, int typeId, Direction direction )
+    {
+        ktx.assertOpen();
+
+        AccessMode mode = ktx.securityContext().mode();
+        if ( !mode.allowsTraverseAllLabels() || !mode.allowsTraverseRelType( typeId ) )
+        {
+            // Some of the relationships, or the nodes they lead to, may be hidden, so only count the ones that can be traversed
+            try ( DefaultNodeCursor node = cursors.allocateNodeCursor() )
+            {
+                singleNode( reference, node );
+                if ( !node.next() )
+                {
+                    return 0;
+                }
+                switch ( direction )
+                {
+                case OUTGOING:
+                    return Nodes.countOutgoing( node, cursors, typeId, mode );
+                case INCOMING:
+                    return Nodes.countIncoming( node, cursors, typeId, mode );
+                case BOTH:
+                    return Nodes.countAll( node, cursors, typeId, mode );
+                default:
+                    throw new IllegalStateException( "Unknown direction " + direction );
+                }
+            }
+        }
+
+        TransactionState txState = hasTxStateWithChanges() ? txState() : null;
+        if ( txState != null && txState.nodeIsDeletedInThisTx( reference ) )
+        {
+            return 0;
+        }
+        boolean inStore = txState == null || !txState.nodeIsAddedInThisTx( reference );
+        int degree = 0;
+        for ( RelationshipDirection relationshipDirection : relationshipDirections( direction ) )
+        {
+            int storedDegree = inStore ? Math.toIntExact( storageReader.nodeDegree( reference, typeId, relationshipDirection ) ) : 0;
+            degree += txState != null ? txState.getNodeState( reference ).augmentDegree( relationshipDirection, storedDegree, typeId ) : storedDegree;
+        }
+        return degree;
+    }
+
+    private static RelationshipDirection[] relationshipDirections( Direction direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING:
+            return OUTGOING_DIRECTIONS;
+        case INCOMING:
+            return INCOMING_DIRECTIONS;
+        case BOTH:
+            return ALL_DIRECTIONS;
+        default:
+            throw new IllegalStateException( "Unknown direction " + direction );
+        }
+    }
+
+    @Override
+    public Value[][] nodesProperties( long[] nodeReferences, int[] propertyKeyIds )
+    {
+        ktx.assertOpen();
+        AccessMode mode = ktx.securityContext().mode();
+        boolean unrestricted = mode.allowsTraverseAllLabels();
+        for ( int propertyKeyId : propertyKeyIds )
+        {
+            unrestricted &= mode.allowsReadPropertyAllLabels( propertyKeyId );
+        }
+        TransactionState txState = hasTxStateWithChanges() ? txState() : null;
+
+        Value[][] values = new Value[nodeReferences.length][];
+        long[] propertyReferences = new long[nodeReferences.length];
+        int[] positions = new int[nodeReferences.length];
+        int stored = 0;
+        try ( NodeCursor node = cursors.allocateNodeCursor();
+              PropertyCursor properties = cursors.allocatePropertyCursor() )
+        {
+            for ( int i = 0; i < nodeReferences.length; i++ )
+            {
+                singleNode( nodeReferences[i], node );
+                if ( !node.next() )
+                {
+                    // Left to the caller, which knows whether a deleted node is an error
+                    values[i] = null;
+                }
+                else if ( !unrestricted || (txState != null && txState.getNodeState( nodeReferences[i] ).hasPropertyChanges()) )
+                {
+                    // Security and transaction state are applied by the property cursor
+                    node.properties( properties );
+                    values[i] = propertyValues( properties, propertyKeyIds );
+                }
+                else
+                {
+                    propertyReferences[stored] = node.propertiesReference();
+                    positions[stored++] = i;
+                }
+            }
+        }
+        return storedPropertyValues( values, propertyReferences, positions, stored, propertyKeyIds, EntityType.NODE );
+    }
+
+    @Override
+    public Value[][] relationshipsProperties( long[] relationshipReferences, int[] propertyKeyIds )
+    {
+        ktx.assertOpen();
+        AccessMode mode = ktx.securityContext().mode();
+        boolean unrestricted = mode.allowsTraverseAllRelTypes();
+        for ( int propertyKeyId : propertyKeyIds )
+        {
+            unrestricted &= mode.allowsReadPropertyAllRelTypes( propertyKeyId );
+        }
+        TransactionState txState = hasTxStateWithChanges() ? txState() : null;
+
+        Value[][] values = new Value[relationshipReferences.length][];
+        long[] propertyReferences = new long[relationshipReferences.length];
+        int[] positions = new int[relationshipReferences.length];
+        int stored = 0;
+        try ( RelationshipScanCursor relationship = cursors.allocateRelationshipScanCursor();
+              PropertyCursor properties = cursors.allocatePropertyCursor() )
+        {
+            for ( int i = 0; i < relationshipReferences.length; i++ )
+            {
+                singleRelationship( relationshipReferences[i], relationship );
+                if ( !relationship.next() )
+                {
+                    // Left to the caller, which knows whether a deleted relationship is an error
+                    values[i] = null;
+                }
+                else if ( !unrestricted || (txState != null && txState.getRelationshipState( relationshipReferences[i] ).hasPropertyChanges()) )
+                {
+                    // Security and transaction state are applied by the property cursor
+                    relationship.properties( properties );
+                    values[i] = propertyValues( properties, propertyKeyIds );
+                }
+                else
+                {
+                    propertyReferences[stored] = relationship.propertiesReference();
+                    positions[stored++] = i;
+                }
+            }
+        }
+        return storedPropertyValues( values, propertyReferences, positions, stored, propertyKeyIds, EntityType.RELATIONSHIP );
+    }
+
+    /**
+     * Reads the property values of the entities which can be served straight from the store in one go and puts them at their
+     * {@code positions} in {@code values}.
+     */
+    private Value[][] storedPropertyValues( Value[][] values, long[] propertyReferences, int[] positions, int count, int[] propertyKeyIds,
+            EntityType entityType )
+    {
+        if ( count > 0 )
+        {
+            Value[][] stored = storageReader.propertyValues( Arrays.copyOf( propertyReferences, count ), propertyKeyIds, entityType );
+            for ( int i = 0; i < count; i++ )
+            {
+                values[positions[i]] = stored[i];
+            }
+        }
+        return values;
+    }
+
+    private static Value[] propertyValues( PropertyCursor properties, int[] propertyKeyIds )
+    {
+        Value[] values = noValues( propertyKeyIds.length );
+        while ( properties.next() )
+        {
+            int propertyKey = properties.propertyKey();
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                if ( propertyKeyIds[i] == propertyKey )
+                {
+                    values[i] = properties.propertyValue();
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Value[] noValues( int count )
+    {
+        Value[] values = new Value[count];
+        Arrays.fill( values, Values.NO_VALUE );
+        return values;
+    }
+
     @Override
     public boolean nodeDeletedInTransaction( long node )
     {
@@ -360,6 +568,16 @@ public class AllStoreHolder extends Read
         return labelScanReader;
     }
 
+    @Override
+    RelationshipTypeScanReader relationshipTypeScanReader()
+    {
+        if ( relationshipTypeScanReader == null )
+        {
+            relationshipTypeScanReader = relationshipTypeScanStore.newReader();
+        }
+        return relationshipTypeScanReader;
+    }
+
     @Override
     public Iterator<IndexDescriptor> indexForSchemaNonTransactional( SchemaDescriptor schema )
     {
@@ -37,6 +37,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
     private DefaultRelationshipScanCursor relationshipScanCursor;
     private FullAccessRelationshipScanCursor fullAccessRelationshipScanCursor;
     private DefaultRelationshipTraversalCursor relationshipTraversalCursor;
+    private DefaultRelationshipBatchCursor relationshipBatchCursor;
     private DefaultPropertyCursor propertyCursor;
     private FullAccessPropertyCursor fullAccessPropertyCursor;
     private DefaultRelationshipGroupCursor relationshipGroupCursor;
@@ -185,6 +186,33 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         relationshipTraversalCursor = cursor;
     }
 
+    @Override
+    public DefaultRelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        if ( relationshipBatchCursor == null )
+        {
+            return trace( new DefaultRelationshipBatchCursor( this::accept, storageReader.allocateRelationshipBatchCursor() ) );
+        }
+
+        try
+        {
+            return relationshipBatchCursor;
+        }
+        finally
+        {
+            relationshipBatchCursor = null;
+        }
+    }
+
+    void accept( DefaultRelationshipBatchCursor cursor )
+    {
+        if ( relationshipBatchCursor != null )
+        {
+            relationshipBatchCursor.release();
+        }
+        relationshipBatchCursor = cursor;
+    }
+
     @Override
     public DefaultPropertyCursor allocatePropertyCursor()
     {
@@ -374,6 +402,11 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             relationshipTraversalCursor.release();
             relationshipTraversalCursor = null;
         }
+        if ( relationshipBatchCursor != null )
+        {
+            relationshipBatchCursor.release();
+            relationshipBatchCursor = null;
+        }
         if ( propertyCursor != null )
         {
             propertyCursor.release();
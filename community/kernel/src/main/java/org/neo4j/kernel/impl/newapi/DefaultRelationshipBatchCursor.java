@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
+import org.neo4j.internal.kernel.api.security.AccessMode;
+import org.neo4j.storageengine.api.StorageRelationshipBatchCursor;
+
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.newapi.Read.NO_ID;
+
+class DefaultRelationshipBatchCursor extends DefaultRelationshipCursor<StorageRelationshipBatchCursor> implements RelationshipBatchCursor
+{
+    private final CursorPool<DefaultRelationshipBatchCursor> pool;
+    private long[] nodeReferences;
+    private int[] types;
+    private int currentIndex;
+    private LongIterator addedRelationships;
+    // The store cursor reads ahead into the next group to find where the current group ends, these keep track of that
+    private boolean storeCursorHasPending;
+    private boolean storeCursorExhausted;
+
+    DefaultRelationshipBatchCursor( CursorPool<DefaultRelationshipBatchCursor> pool, StorageRelationshipBatchCursor storeCursor )
+    {
+        super( storeCursor );
+        this.pool = pool;
+    }
+
+    /**
+     * Initializes this cursor to traverse over the relationships of all the given nodes.
+     * @param nodeReferences references to the origin nodes.
+     * @param types relationship types to traverse, or {@code null} for all types.
+     * @param read reference to {@link Read}.
+     */
+    void init( long[] nodeReferences, int[] types, Read read )
+    {
+        this.storeCursor.init( nodeReferences, types );
+        init( read );
+        this.nodeReferences = nodeReferences;
+        this.types = types;
+        this.currentIndex = -1;
+        this.addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
+        this.storeCursorHasPending = false;
+        this.storeCursorExhausted = false;
+    }
+
+    @Override
+    public int originIndex()
+    {
+        return currentIndex;
+    }
+
+    @Override
+    public long originNodeReference()
+    {
+        return nodeReferences[currentIndex];
+    }
+
+    @Override
+    public void neighbour( NodeCursor cursor )
+    {
+        read.singleNode( neighbourNodeReference(), cursor );
+    }
+
+    @Override
+    public long neighbourNodeReference()
+    {
+        if ( currentAddedInTx != NO_ID )
+        {
+            long originNodeReference = originNodeReference();
+            if ( txStateSourceNodeReference == originNodeReference )
+            {
+                return txStateTargetNodeReference;
+            }
+            else if ( txStateTargetNodeReference == originNodeReference )
+            {
+                return txStateSourceNodeReference;
+            }
+            else
+            {
+                throw new IllegalStateException( format(
+                        "Relationship[%d] which was added in tx has an origin node [%d] which is neither source [%d] nor target [%d]",
+                        currentAddedInTx, originNodeReference, txStateSourceNodeReference, txStateTargetNodeReference ) );
+            }
+        }
+        return storeCursor.neighbourNodeReference();
+    }
+
+    @Override
+    public boolean next()
+    {
+        boolean hasChanges = hasChanges();
+        while ( currentIndex < nodeReferences.length )
+        {
+            // tx-state relationships of the current origin node
+            if ( hasChanges )
+            {
+                while ( addedRelationships.hasNext() )
+                {
+                    read.txState().relationshipVisit( addedRelationships.next(), relationshipTxStateDataVisitor );
+                    if ( includesType( type() ) )
+                    {
+                        if ( tracer != null )
+                        {
+                            tracer.onRelationship( relationshipReference() );
+                        }
+                        return true;
+                    }
+                }
+                currentAddedInTx = NO_ID;
+            }
+
+            // store relationships of the current origin node
+            if ( currentIndex >= 0 )
+            {
+                while ( nextStoreRelationshipOfCurrentOrigin() )
+                {
+                    boolean skip = hasChanges && read.txState().relationshipIsDeletedInThisTx( storeCursor.entityReference() );
+                    AccessMode mode = read.ktx.securityContext().mode();
+                    if ( !skip && mode.allowsTraverseRelType( storeCursor.type() ) && allowedToSeeEndNode( mode ) )
+                    {
+                        if ( tracer != null )
+                        {
+                            tracer.onRelationship( relationshipReference() );
+                        }
+                        return true;
+                    }
+                }
+            }
+
+            currentIndex++;
+            if ( hasChanges && currentIndex < nodeReferences.length )
+            {
+                addedRelationships = read.txState().getNodeState( nodeReferences[currentIndex] ).getAddedRelationships();
+            }
+        }
+        return false;
+    }
+
+    private boolean nextStoreRelationshipOfCurrentOrigin()
+    {
+        if ( !storeCursorHasPending )
+        {
+            if ( storeCursorExhausted || !storeCursor.next() )
+            {
+                storeCursorExhausted = true;
+                return false;
+            }
+            storeCursorHasPending = true;
+        }
+        if ( storeCursor.originIndex() != currentIndex )
+        {
+            // This relationship belongs to a later group, leave it for when we get there
+            return false;
+        }
+        storeCursorHasPending = false;
+        return true;
+    }
+
+    private boolean includesType( int type )
+    {
+        if ( types == null )
+        {
+            return true;
+        }
+        for ( int candidate : types )
+        {
+            if ( candidate == type )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allowedToSeeEndNode( AccessMode mode )
+    {
+        if ( mode.allowsTraverseAllLabels() )
+        {
+            return true;
+        }
+        try ( NodeCursor nodeCursor = read.cursors().allocateNodeCursor() )
+        {
+            read.singleNode( storeCursor.neighbourNodeReference(), nodeCursor );
+            return nodeCursor.next();
+        }
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( !isClosed() )
+        {
+            read = null;
+            nodeReferences = null;
+            types = null;
+            addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
+            storeCursor.close();
+
+            pool.accept( this );
+        }
+    }
+
+    @Override
+    protected void collectAddedTxStateSnapshot()
+    {
+        // The added relationships are collected per origin node as the cursor moves between the groups
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return read == null;
+    }
+
+    public void release()
+    {
+        storeCursor.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( isClosed() )
+        {
+            return "RelationshipBatchCursor[closed state]";
+        }
+        else
+        {
+            return "RelationshipBatchCursor[originIndex=" + currentIndex + ", id=" + relationshipReference() +
+                    ", " + storeCursor.toString() + "]";
+        }
+    }
+}
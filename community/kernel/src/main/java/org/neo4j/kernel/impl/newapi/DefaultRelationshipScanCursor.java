@@ -23,6 +23,7 @@ import org.eclipse.collections.api.iterator.LongIterator;
 import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
+import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
@@ -36,6 +37,7 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
     private int type;
     private long single;
     private LongIterator addedRelationships;
+    private PrimitiveLongResourceIterator relationshipsWithType;
     private CursorPool<DefaultRelationshipScanCursor> pool;
 
     DefaultRelationshipScanCursor( CursorPool<DefaultRelationshipScanCursor> pool, StorageRelationshipScanCursor storeCursor )
@@ -46,6 +48,7 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
 
     void scan( int type, Read read )
     {
+        closeRelationshipsWithType();
         storeCursor.scan( type );
         this.type = type;
         this.single = NO_ID;
@@ -53,8 +56,23 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
         this.addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
     }
 
+    /**
+     * Scans relationships of the given type, as found in the relationship type scan store, such that only records of
+     * relationships of that type are read from the store.
+     */
+    void scan( int type, PrimitiveLongResourceIterator relationshipsWithType, Read read )
+    {
+        closeRelationshipsWithType();
+        this.relationshipsWithType = relationshipsWithType;
+        this.type = type;
+        this.single = NO_ID;
+        init( read );
+        this.addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
+    }
+
     boolean scanBatch( Read read, AllRelationshipsScan scan, int sizeHint, LongIterator addedRelationships, boolean hasChanges )
     {
+        closeRelationshipsWithType();
         this.read = read;
         this.single = NO_ID;
         this.type = -1;
@@ -68,6 +86,7 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
 
     void single( long reference, Read read )
     {
+        closeRelationshipsWithType();
         storeCursor.single( reference );
         type = -1;
         this.single = reference;
@@ -83,22 +102,23 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
 
         if ( hasChanges )
         {
-            if ( addedRelationships.hasNext() )
+            while ( addedRelationships.hasNext() )
             {
                 read.txState().relationshipVisit( addedRelationships.next(), relationshipTxStateDataVisitor );
+                if ( type != -1 && type() != type )
+                {
+                    continue;
+                }
                 if ( tracer != null )
                 {
                     tracer.onRelationship( relationshipReference() );
                 }
                 return true;
             }
-            else
-            {
-                currentAddedInTx = NO_ID;
-            }
+            currentAddedInTx = NO_ID;
         }
 
-        while ( storeCursor.next() )
+        while ( nextFromStore() )
         {
             boolean skip = hasChanges && read.txState().relationshipIsDeletedInThisTx( storeCursor.entityReference() );
             AccessMode mode = read.ktx.securityContext().mode();
@@ -114,6 +134,32 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
         return false;
     }
 
+    private boolean nextFromStore()
+    {
+        if ( relationshipsWithType == null )
+        {
+            return storeCursor.next();
+        }
+        while ( relationshipsWithType.hasNext() )
+        {
+            storeCursor.single( relationshipsWithType.next() );
+            if ( storeCursor.next() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void closeRelationshipsWithType()
+    {
+        if ( relationshipsWithType != null )
+        {
+            relationshipsWithType.close();
+            relationshipsWithType = null;
+        }
+    }
+
     protected boolean allowedToSeeEndNode( AccessMode mode )
     {
         if ( mode.allowsTraverseAllLabels() )
@@ -135,6 +181,7 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
         if ( !isClosed() )
         {
             read = null;
+            closeRelationshipsWithType();
             storeCursor.close();
 
             pool.accept( this );
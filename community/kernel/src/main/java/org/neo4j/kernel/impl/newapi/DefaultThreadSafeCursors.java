@@ -26,6 +26,7 @@ import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
@@ -79,6 +80,13 @@ public class DefaultThreadSafeCursors extends DefaultCursors implements CursorFa
                 DefaultRelationshipTraversalCursor::release, storageReader.allocateRelationshipTraversalCursor() ) );
     }
 
+    @Override
+    public RelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        return trace( new DefaultRelationshipBatchCursor(
+                DefaultRelationshipBatchCursor::release, storageReader.allocateRelationshipBatchCursor() ) );
+    }
+
     @Override
     public PropertyCursor allocatePropertyCursor()
     {
@@ -23,6 +23,7 @@ import org.neo4j.common.EntityType;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.index.label.LabelScan;
 import org.neo4j.internal.index.label.LabelScanReader;
+import org.neo4j.internal.index.label.RelationshipTypeScanReader;
 import org.neo4j.internal.kernel.api.AutoCloseablePlus;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.DefaultCloseListenable;
@@ -35,6 +36,7 @@ import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
@@ -449,7 +451,7 @@ abstract class Read implements TxStateHolder,
     public final void relationshipTypeScan( int type, RelationshipScanCursor cursor )
     {
         ktx.assertOpen();
-        ((DefaultRelationshipScanCursor) cursor).scan( type, this );
+        ((DefaultRelationshipScanCursor) cursor).scan( type, relationshipTypeScanReader().relationshipsWithType( type ), this );
     }
 
     @Override
@@ -515,6 +517,13 @@ abstract class Read implements TxStateHolder,
         }
     }
 
+    @Override
+    public void nodesRelationships( long[] nodeReferences, int[] types, RelationshipBatchCursor cursor )
+    {
+        ktx.assertOpen();
+        ((DefaultRelationshipBatchCursor) cursor).init( nodeReferences, types, this );
+    }
+
     @Override
     public void nodeProperties( long nodeReference, long reference, PropertyCursor cursor )
     {
@@ -531,6 +540,8 @@ abstract class Read implements TxStateHolder,
 
     abstract LabelScanReader labelScanReader();
 
+    abstract RelationshipTypeScanReader relationshipTypeScanReader();
+
     @Override
     public TransactionState txState()
     {
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * An {@link IOLimiter} for the checkpoints, that adapts its limit to keep the average page fault latency below a
+ * target.
+ * <p>
+ * The page faults and the time spent in them are sampled from the {@link PageCacheCounters} about once a second,
+ * while a flush is in progress. The first sample of a checkpoint starts when the {@link #checkpointStarted()
+ * checkpoint starts}, so the faults in between checkpoints do not count. If the average fault latency in the sample
+ * is above the target, the limit is halved, so the flush backs off quickly when it competes with the foreground reads.
+ * Otherwise the limit is raised by a tenth, so the flush speeds up gradually when the device has capacity to spare.
+ * <p>
+ * The latency of the flushes themselves is measured from the time between the calls to
+ * {@link #maybeLimitIO(long, int, Flushable)}, not counting the time the limiter spent sleeping. The decisions are
+ * reported to the {@link Monitor}, and the current state can be read with {@link #iopsLimit()},
+ * {@link #faultLatencyNanos()} and {@link #flushLatencyNanos()}.
+ */
+public class AdaptiveIOLimiter extends PacedIOLimiter
+{
+    private static final int minIops = getInteger( AdaptiveIOLimiter.class, "minIops", 10 );
+    private static final int maxIops = getInteger( AdaptiveIOLimiter.class, "maxIops", 100_000 );
+    private static final int evaluationIntervalMillis = getInteger( AdaptiveIOLimiter.class, "evaluationIntervalMillis", 1000 );
+
+    private final PageCacheCounters counters;
+    private final long targetFaultLatencyNanos;
+    private final Monitor monitor;
+    private final AtomicInteger disabledCounter = new AtomicInteger();
+
+    // Guarded by synchronized(this).
+    private int limit;
+    private long lastEvaluationMillis;
+    private long lastFaults;
+    private long lastFaultNanos;
+    private long lastCallNanos;
+    private long flushes;
+    private long flushNanos;
+
+    private volatile long faultLatencyNanos;
+    private volatile long flushLatencyNanos;
+
+    public AdaptiveIOLimiter( int initialIopsLimit, long targetFaultLatencyNanos, PageCacheCounters counters, Monitor monitor )
+    {
+        super( clamp( initialIopsLimit ) );
+        this.limit = clamp( initialIopsLimit );
+        this.targetFaultLatencyNanos = targetFaultLatencyNanos;
+        this.counters = counters;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+    {
+        if ( disabledCounter.get() > 0 )
+        {
+            return previousStamp;
+        }
+        synchronized ( this )
+        {
+            long now = nanoTime();
+            if ( previousStamp != INITIAL_STAMP && recentlyCompletedIOs > 0 )
+            {
+                flushes += recentlyCompletedIOs;
+                flushNanos += now - lastCallNanos;
+            }
+            long millis = currentTimeMillis();
+            if ( millis - lastEvaluationMillis >= evaluationIntervalMillis )
+            {
+                evaluate( millis );
+            }
+        }
+        long stamp = super.maybeLimitIO( previousStamp, recentlyCompletedIOs, flushable );
+        synchronized ( this )
+        {
+            lastCallNanos = nanoTime();
+        }
+        return stamp;
+    }
+
+    private void evaluate( long millis )
+    {
+        long faults = counters.faults();
+        long faultNanos = counters.faultNanos();
+        long sampledFaults = faults - lastFaults;
+        long sampledFaultNanos = faultNanos - lastFaultNanos;
+        boolean firstEvaluation = lastEvaluationMillis == 0;
+        lastEvaluationMillis = millis;
+        lastFaults = faults;
+        lastFaultNanos = faultNanos;
+        if ( firstEvaluation )
+        {
+            // The counters have been accumulating since the start of the database, which says little about now.
+            return;
+        }
+
+        long faultLatency = sampledFaults > 0 ? sampledFaultNanos / sampledFaults : 0;
+        long flushLatency = flushes > 0 ? flushNanos / flushes : 0;
+        flushes = 0;
+        flushNanos = 0;
+
+        int previousLimit = limit;
+        if ( faultLatency > targetFaultLatencyNanos )
+        {
+            limit = clamp( limit / 2 );
+        }
+        else
+        {
+            limit = clamp( limit + Math.max( 1, limit / 10 ) );
+        }
+        setIopsLimit( limit );
+        faultLatencyNanos = faultLatency;
+        flushLatencyNanos = flushLatency;
+        monitor.ioLimitAdjusted( previousLimit, limit, faultLatency, flushLatency );
+    }
+
+    @Override
+    public synchronized void checkpointStarted()
+    {
+        lastEvaluationMillis = currentTimeMillis();
+        lastFaults = counters.faults();
+        lastFaultNanos = counters.faultNanos();
+        flushes = 0;
+        flushNanos = 0;
+    }
+
+    /**
+     * The configured IO limit has been changed. The limit is adapted from the new value from now on.
+     *
+     * @param iopsLimit the new IOs per second.
+     */
+    public synchronized void configuredLimitChanged( int iopsLimit )
+    {
+        limit = clamp( iopsLimit );
+        setIopsLimit( limit );
+    }
+
+    private static int clamp( int iops )
+    {
+        return Math.max( minIops, Math.min( maxIops, iops ) );
+    }
+
+    @Override
+    public void disableLimit()
+    {
+        disabledCounter.getAndIncrement();
+    }
+
+    @Override
+    public void enableLimit()
+    {
+        disabledCounter.getAndDecrement();
+    }
+
+    @Override
+    public boolean isLimited()
+    {
+        return disabledCounter.get() == 0;
+    }
+
+    /**
+     * @return the average latency of the page faults, in nanoseconds, as of the last time the limit was adjusted.
+     */
+    public long faultLatencyNanos()
+    {
+        return faultLatencyNanos;
+    }
+
+    /**
+     * @return the average latency of the flushes, in nanoseconds, as of the last time the limit was adjusted.
+     */
+    public long flushLatencyNanos()
+    {
+        return flushLatencyNanos;
+    }
+
+    long nanoTime()
+    {
+        return System.nanoTime();
+    }
+
+    public interface Monitor
+    {
+        /**
+         * The IO limit has been adjusted after observing the given latencies.
+         *
+         * @param previousIopsLimit the IOs per second allowed until now.
+         * @param iopsLimit the IOs per second allowed from now on.
+         * @param faultLatencyNanos the average page fault latency since the last adjustment, in nanoseconds.
+         * @param flushLatencyNanos the average flush latency since the last adjustment, in nanoseconds.
+         */
+        void ioLimitAdjusted( int previousIopsLimit, int iopsLimit, long faultLatencyNanos, long flushLatencyNanos );
+    }
+}
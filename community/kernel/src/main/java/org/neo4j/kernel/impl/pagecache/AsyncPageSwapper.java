@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.nativeimpl.LinuxVectoredIO;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+
+/**
+ * A {@link PageSwapper} that splits vectored reads and writes into chunks, and submits them to a shared queue of IO threads
+ * that perform them with native positioned vectored IO. The calling thread performs the last chunk itself, and then
+ * waits for the completion of the rest.
+ * <p>
+ * Everything else, including single page reads and writes, file locking, forcing and truncation, is delegated to the
+ * wrapped swapper.
+ */
+class AsyncPageSwapper implements PageSwapper
+{
+    private final PageSwapper delegate;
+    private final StoreChannel channel;
+    private final int fd;
+    private final int filePageSize;
+    private final Executor ioQueue;
+    private final int pagesPerRequest;
+    /**
+     * The size of the file as extended by vectored writes from this swapper, which the delegate does not know about.
+     */
+    private final AtomicLong fileSize = new AtomicLong();
+
+    AsyncPageSwapper( PageSwapper delegate, StoreChannel channel, int fd, int filePageSize, Executor ioQueue, int pagesPerRequest )
+    {
+        this.delegate = delegate;
+        this.channel = channel;
+        this.fd = fd;
+        this.filePageSize = filePageSize;
+        this.ioQueue = ioQueue;
+        this.pagesPerRequest = Math.max( 1, pagesPerRequest );
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress ) throws IOException
+    {
+        return delegate.read( filePageId, bufferAddress );
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        return submitAndAwait( startFilePageId, bufferAddresses, arrayOffset, length, false );
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        return delegate.write( filePageId, bufferAddress );
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytesWritten = submitAndAwait( startFilePageId, bufferAddresses, arrayOffset, length, true );
+        increaseFileSizeTo( pageIdToPosition( startFilePageId ) + bytesWritten );
+        return bytesWritten;
+    }
+
+    private long submitAndAwait( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length, boolean write ) throws IOException
+    {
+        if ( length == 0 )
+        {
+            return 0;
+        }
+        int requests = (length + pagesPerRequest - 1) / pagesPerRequest;
+        @SuppressWarnings( "unchecked" )
+        Future<Long>[] completions = new Future[requests - 1];
+        int submitted = 0;
+        try
+        {
+            for ( ; submitted < requests - 1; submitted++ )
+            {
+                int offset = submitted * pagesPerRequest;
+                FutureTask<Long> request =
+                        new FutureTask<>( () -> transfer( startFilePageId + offset, bufferAddresses, arrayOffset + offset, pagesPerRequest, write ) );
+                ioQueue.execute( request );
+                completions[submitted] = request;
+            }
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // The queue has been shut down. Do the remaining requests in this thread.
+        }
+
+        IOException exception = null;
+        long bytes = 0;
+        for ( int request = submitted; request < requests; request++ )
+        {
+            int offset = request * pagesPerRequest;
+            int pages = Math.min( pagesPerRequest, length - offset );
+            try
+            {
+                bytes += transfer( startFilePageId + offset, bufferAddresses, arrayOffset + offset, pages, write );
+            }
+            catch ( IOException e )
+            {
+                exception = collect( exception, e );
+            }
+        }
+
+        // Even if we are interrupted, we cannot return until all the requests have completed, since they use our buffers.
+        boolean interrupted = false;
+        for ( int i = 0; i < submitted; i++ )
+        {
+            while ( true )
+            {
+                try
+                {
+                    bytes += completions[i].get();
+                    break;
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted = true;
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    exception = collect( exception, cause instanceof IOException ? (IOException) cause : new IOException( cause ) );
+                    break;
+                }
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+        return bytes;
+    }
+
+    private long transfer( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length, boolean write ) throws IOException
+    {
+        long fileOffset = pageIdToPosition( startFilePageId );
+        if ( write )
+        {
+            return LinuxVectoredIO.write( fd, fileOffset, bufferAddresses, arrayOffset, length, filePageSize );
+        }
+        long bytesRead = LinuxVectoredIO.read( fd, fileOffset, bufferAddresses, arrayOffset, length, filePageSize );
+        if ( bytesRead < ((long) filePageSize) * length )
+        {
+            // Zero-fill everything beyond the end of the file.
+            int pagesRead = (int) (bytesRead / filePageSize);
+            int bytesReadIntoLastReadPage = (int) (bytesRead % filePageSize);
+            for ( int i = pagesRead; i < length; i++ )
+            {
+                long address = bufferAddresses[arrayOffset + i];
+                long bytesToZero = filePageSize;
+                if ( i == pagesRead )
+                {
+                    address += bytesReadIntoLastReadPage;
+                    bytesToZero -= bytesReadIntoLastReadPage;
+                }
+                UnsafeUtil.setMemory( address, bytesToZero, MuninnPageCache.ZERO_BYTE );
+            }
+        }
+        return bytesRead;
+    }
+
+    private static IOException collect( IOException exception, IOException e )
+    {
+        if ( exception == null )
+        {
+            return e;
+        }
+        exception.addSuppressed( e );
+        return exception;
+    }
+
+    private long pageIdToPosition( long pageId )
+    {
+        return filePageSize * pageId;
+    }
+
+    private void increaseFileSizeTo( long newFileSize )
+    {
+        fileSize.accumulateAndGet( newFileSize, Math::max );
+    }
+
+    @Override
+    public void evicted( long pageId )
+    {
+        delegate.evicted( pageId );
+    }
+
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public void closeAndDelete() throws IOException
+    {
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            delegate.closeAndDelete();
+        }
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        delegate.force();
+    }
+
+    @Override
+    public long getLastPageId() throws IOException
+    {
+        long lastPageId = delegate.getLastPageId();
+        long size = fileSize.get();
+        if ( size == 0 )
+        {
+            return lastPageId;
+        }
+        long div = size / filePageSize;
+        long mod = size % filePageSize;
+        return Math.max( lastPageId, mod == 0 ? div - 1 : div );
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        fileSize.set( 0 );
+        delegate.truncate();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AsyncPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + file() +
+                '}';
+    }
+}
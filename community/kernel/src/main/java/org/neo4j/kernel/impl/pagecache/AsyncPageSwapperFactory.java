@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import com.sun.nio.file.ExtendedOpenOption;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.Executor;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.internal.nativeimpl.LinuxVectoredIO;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.fs.DefaultFileSystemAbstraction.WRITE_OPTIONS;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A factory for {@link AsyncPageSwapper} instances, selected with {@code dbms.memory.pagecache.swapper=async}.
+ * <p>
+ * The swappers submit vectored reads and writes in chunks to the {@link Group#PAGE_SWAPPER_IO} threads of the job scheduler,
+ * that issue them with {@code preadv} and {@code pwritev} against the file descriptor directly. This keeps many requests in
+ * flight against the same file at the same time, which is what fast storage devices with deep queues need to reach their
+ * full throughput.
+ * <p>
+ * When no job scheduler has been {@link #configure(JobScheduler, int) configured}, native vectored IO is not available on
+ * this platform, or the file system does not expose file descriptors, this factory falls back to creating plain
+ * {@link org.neo4j.io.pagecache.impl.SingleFilePageSwapper SingleFilePageSwappers}.
+ */
+@ServiceProvider
+public class AsyncPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    public static final String NAME = "async";
+
+    /**
+     * The number of pages in each chunk that a vectored read or write is split into.
+     */
+    private static final int PAGES_PER_REQUEST = getInteger( AsyncPageSwapperFactory.class, "pagesPerRequest", 8 );
+
+    private FileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private int queueDepth;
+    private Executor ioQueue;
+
+    /**
+     * Run the vectored IO requests on the given scheduler. Must be called before the factory is opened.
+     *
+     * @param scheduler the job scheduler that owns the IO threads.
+     * @param queueDepth the number of IO threads, and thereby the number of requests that can be in flight at the same time.
+     */
+    public void configure( JobScheduler scheduler, int queueDepth )
+    {
+        this.scheduler = scheduler;
+        this.queueDepth = queueDepth;
+    }
+
+    @Override
+    public void open( FileSystemAbstraction fs )
+    {
+        super.open( fs );
+        this.fs = fs;
+        if ( scheduler != null && LinuxVectoredIO.isAvailable() )
+        {
+            try
+            {
+                scheduler.setParallelism( Group.PAGE_SWAPPER_IO, queueDepth );
+            }
+            catch ( IllegalStateException e )
+            {
+                // Another page cache on this scheduler has already started the IO threads. Share them.
+            }
+            ioQueue = scheduler.executor( Group.PAGE_SWAPPER_IO );
+        }
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( File file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist,
+            boolean noChannelStriping, boolean useDirectIO ) throws IOException
+    {
+        PageSwapper swapper = super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, noChannelStriping, useDirectIO );
+        if ( ioQueue == null )
+        {
+            return swapper;
+        }
+
+        StoreChannel channel = null;
+        try
+        {
+            if ( useDirectIO )
+            {
+                var openOptions = new HashSet<>( WRITE_OPTIONS );
+                openOptions.add( ExtendedOpenOption.DIRECT );
+                channel = fs.open( file, openOptions );
+            }
+            else
+            {
+                channel = fs.write( file );
+            }
+            int fd = fs.getFileDescriptor( channel );
+            if ( fd > 0 )
+            {
+                return new AsyncPageSwapper( swapper, channel, fd, filePageSize, ioQueue, PAGES_PER_REQUEST );
+            }
+            channel.close();
+            return swapper;
+        }
+        catch ( IOException e )
+        {
+            if ( channel != null )
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch ( IOException closeException )
+                {
+                    e.addSuppressed( closeException );
+                }
+            }
+            try
+            {
+                swapper.close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        // The IO threads belong to the job scheduler, which shuts them down.
+        ioQueue = null;
+        super.close();
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+}
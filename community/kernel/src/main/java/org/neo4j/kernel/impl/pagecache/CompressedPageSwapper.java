@@ -0,0 +1,628 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+
+/**
+ * A {@link PageSwapper} that compresses the pages with zstd when they are written, and decompresses them when they are
+ * read.
+ * <p>
+ * The compressed pages are stored in <em>slots</em> in the data file, that are a whole number of 512 byte sectors
+ * long. Where the slot of each file page is, is recorded in a sidecar mapping file next to the data file, with one
+ * fixed size entry per file page, so a page can still be read with two random reads. The first sector of the data
+ * file, and the first entry of the mapping file, are headers that identify the file as compressed.
+ * <p>
+ * Every file page has two slots; the <em>current</em> slot with the latest version of the page, and the
+ * <em>previous</em> slot with the version before that. A page that is written for the first time since the last
+ * {@link #force()} is written to its previous slot, which then becomes the current slot, while a page that has
+ * already been written since the last force is overwritten in its current slot. This way, the version of the page
+ * that was made durable by the last force is never overwritten before the next force. Each slot starts with a
+ * checksum of its contents, and if the current slot turns out to be torn after a crash, the page is read from its
+ * previous slot instead. Recovery then redoes the changes since the last checkpoint, like it does for uncompressed
+ * files.
+ * <p>
+ * Slots are reused in place when the new version of the page fits, and otherwise a new slot is appended to the end of
+ * the data file. The space of a slot that was outgrown is not reclaimed.
+ * <p>
+ * The number of bytes returned by the read and write methods is the number of compressed bytes that were transferred
+ * to or from the storage device, so the page cache statistics reflect the IO that was saved.
+ */
+class CompressedPageSwapper implements PageSwapper
+{
+    static final String MAPPING_FILE_SUFFIX = ".pagemap";
+    static final long MAGIC = SingleFilePageSwapperFactory.COMPRESSED_FILE_MAGIC;
+    static final int SECTOR_SIZE = 512;
+    static final int ENTRY_SIZE = 32;
+
+    private static final int SECTOR_SHIFT = 9;
+    private static final int SLOT_SECTORS_BITS = 16;
+    private static final long SLOT_SECTORS_MASK = (1L << SLOT_SECTORS_BITS) - 1;
+    private static final int CHECKSUM_SIZE = Integer.BYTES;
+    private static final long BYTE_ARRAY_BASE_OFFSET = UnsafeUtil.arrayBaseOffset( byte[].class );
+
+    // The layout of a mapping entry.
+    private static final int CURRENT_SLOT = 0;
+    private static final int PREVIOUS_SLOT = 8;
+    private static final int CURRENT_LENGTH = 16;
+    private static final int PREVIOUS_LENGTH = 20;
+    private static final int GENERATION = 24;
+
+    // The layout of the mapping header.
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_GENERATION = 8;
+    private static final int HEADER_PAGE_SIZE = 16;
+
+    private final PageSwapper delegate;
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final File mappingFile;
+    private final int filePageSize;
+    private final int compressionLevel;
+    private final ThreadLocal<Buffers> buffers;
+    /**
+     * The end of the last allocated slot in the data file.
+     */
+    private final AtomicLong dataEnd;
+    /**
+     * The number of times this file has been forced, as recorded in the mapping header. A mapping entry with this
+     * generation has been written since the last force.
+     */
+    private volatile long generation;
+    /**
+     * Held in shared mode by writes, and in exclusive mode when the generation is incremented, so no write can use a
+     * slot that was chosen for a generation that has already ended.
+     */
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private volatile StoreChannel dataChannel;
+    private volatile StoreChannel mappingChannel;
+    // Writes guarded by synchronized(this). See reopen() and close().
+    private volatile boolean closed;
+
+    /**
+     * @param delegate the swapper of the data file, which is responsible for locking the file.
+     * @param create {@code true} if the file is empty, and the headers should be written.
+     */
+    CompressedPageSwapper( PageSwapper delegate, FileSystemAbstraction fs, int filePageSize, int compressionLevel, boolean create )
+            throws IOException
+    {
+        this.delegate = delegate;
+        this.fs = fs;
+        this.file = delegate.file();
+        this.mappingFile = mappingFile( file );
+        this.filePageSize = filePageSize;
+        this.compressionLevel = compressionLevel;
+        this.buffers = ThreadLocal.withInitial( () -> new Buffers( filePageSize ) );
+        this.dataChannel = fs.write( file );
+        this.mappingChannel = fs.write( mappingFile );
+        try
+        {
+            if ( create )
+            {
+                writeHeaders( 0 );
+            }
+            else
+            {
+                readHeaders();
+                startGenerationAfterOpening();
+            }
+            this.dataEnd = new AtomicLong( Math.max( SECTOR_SIZE, roundUpToSector( dataChannel.size() ) ) );
+        }
+        catch ( IOException e )
+        {
+            closeChannels( e );
+            throw e;
+        }
+    }
+
+    static File mappingFile( File file )
+    {
+        return new File( file.getPath() + MAPPING_FILE_SUFFIX );
+    }
+
+    private void writeHeaders( long generation ) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate( SECTOR_SIZE );
+        header.putLong( HEADER_MAGIC, MAGIC );
+        header.putInt( HEADER_PAGE_SIZE, filePageSize );
+        dataChannel.writeAll( header, 0 );
+        writeMappingHeader( generation );
+        this.generation = generation;
+    }
+
+    private void writeMappingHeader( long generation ) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate( ENTRY_SIZE );
+        header.putLong( HEADER_MAGIC, MAGIC );
+        header.putLong( HEADER_GENERATION, generation );
+        header.putInt( HEADER_PAGE_SIZE, filePageSize );
+        mappingChannel.writeAll( header, 0 );
+    }
+
+    private void readHeaders() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate( ENTRY_SIZE );
+        mappingChannel.read( header, 0 );
+        if ( header.getLong( HEADER_MAGIC ) != MAGIC )
+        {
+            throw new IOException( "The page mapping file " + mappingFile + " of the compressed file " + file + " is missing or damaged." );
+        }
+        int mappedFilePageSize = header.getInt( HEADER_PAGE_SIZE );
+        if ( mappedFilePageSize != filePageSize )
+        {
+            throw new IOException( "The compressed file " + file + " has a file page size of " + mappedFilePageSize +
+                    " bytes, but was mapped with a file page size of " + filePageSize + " bytes." );
+        }
+        generation = header.getLong( HEADER_GENERATION );
+    }
+
+    /**
+     * A force hands out the next generation before it records it in the mapping header, so if the database stopped in
+     * the middle of a force, pages can have been written with a generation that is one ahead of the header. Make what
+     * was left behind durable, and then persist a generation that no page has been written with, before the first write.
+     * That way the slots that are current now are kept until the next force, whether or not the last force completed.
+     */
+    private void startGenerationAfterOpening() throws IOException
+    {
+        long nextGeneration = generation + 2;
+        dataChannel.force( false );
+        mappingChannel.force( false );
+        writeMappingHeader( nextGeneration );
+        mappingChannel.force( false );
+        generation = nextGeneration;
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress ) throws IOException
+    {
+        Buffers buf = buffers.get();
+        long bytesRead = 0;
+        if ( readEntry( filePageId, buf.entry ) && buf.entry.getInt( CURRENT_LENGTH ) > 0 )
+        {
+            ByteBuffer entry = buf.entry;
+            bytesRead = readSlot( entry.getLong( CURRENT_SLOT ), entry.getInt( CURRENT_LENGTH ), buf );
+            if ( bytesRead < 0 && entry.getInt( PREVIOUS_LENGTH ) > 0 )
+            {
+                // The current version of the page was torn by a crash. The previous version was durable.
+                bytesRead = readSlot( entry.getLong( PREVIOUS_SLOT ), entry.getInt( PREVIOUS_LENGTH ), buf );
+            }
+            if ( bytesRead < 0 )
+            {
+                throw new IOException( "Failed to read page " + filePageId + " of the compressed file " + file +
+                        ", because its contents do not match their checksum." );
+            }
+            UnsafeUtil.copyMemory( buf.page, BYTE_ARRAY_BASE_OFFSET, null, bufferAddress, filePageSize );
+        }
+        else
+        {
+            UnsafeUtil.setMemory( bufferAddress, filePageSize, (byte) 0 );
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytesRead = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytesRead += read( startFilePageId + i, bufferAddresses[arrayOffset + i] );
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        Buffers buf = buffers.get();
+        UnsafeUtil.copyMemory( null, bufferAddress, buf.page, BYTE_ARRAY_BASE_OFFSET, filePageSize );
+        long compressedLength = Zstd.compressByteArray(
+                buf.compressed, CHECKSUM_SIZE, buf.compressed.length - CHECKSUM_SIZE, buf.page, 0, filePageSize, compressionLevel );
+        if ( Zstd.isError( compressedLength ) )
+        {
+            throw new IOException( "Failed to compress page " + filePageId + " of " + file + ": " + Zstd.getErrorName( compressedLength ) );
+        }
+        int length = (int) compressedLength;
+        buf.checksum.reset();
+        buf.checksum.update( buf.compressed, CHECKSUM_SIZE, length );
+        ByteBuffer slotData = buf.compressedBuffer;
+        slotData.clear().limit( CHECKSUM_SIZE + length );
+        slotData.putInt( 0, (int) buf.checksum.getValue() );
+
+        ByteBuffer entry = buf.entry;
+        generationLock.readLock().lock();
+        try
+        {
+            if ( !readEntry( filePageId, entry ) )
+            {
+                clearEntry( entry );
+            }
+            long currentGeneration = generation;
+            long slot;
+            if ( entry.getLong( GENERATION ) == currentGeneration && entry.getInt( CURRENT_LENGTH ) > 0 )
+            {
+                // The page has already been written since the last force, so the current slot is not durable anyway.
+                slot = fitSlot( entry.getLong( CURRENT_SLOT ), length );
+            }
+            else
+            {
+                // Keep the durable current slot as the previous slot, and write to the old previous slot.
+                slot = fitSlot( entry.getLong( PREVIOUS_SLOT ), length );
+                entry.putLong( PREVIOUS_SLOT, entry.getLong( CURRENT_SLOT ) );
+                entry.putInt( PREVIOUS_LENGTH, entry.getInt( CURRENT_LENGTH ) );
+            }
+            writeData( slotData, slotOffset( slot ) );
+            entry.putLong( CURRENT_SLOT, slot );
+            entry.putInt( CURRENT_LENGTH, length );
+            entry.putLong( GENERATION, currentGeneration );
+            writeEntry( filePageId, entry );
+        }
+        finally
+        {
+            generationLock.readLock().unlock();
+        }
+        return CHECKSUM_SIZE + length;
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytesWritten = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytesWritten += write( startFilePageId + i, bufferAddresses[arrayOffset + i] );
+        }
+        return bytesWritten;
+    }
+
+    /**
+     * @return the given slot if the given number of compressed bytes fit in it, or otherwise a newly allocated slot.
+     */
+    private long fitSlot( long slot, int length )
+    {
+        int sectors = (int) ((CHECKSUM_SIZE + length + SECTOR_SIZE - 1) >>> SECTOR_SHIFT);
+        if ( slot != 0 && (slot & SLOT_SECTORS_MASK) >= sectors )
+        {
+            return slot;
+        }
+        long offset = dataEnd.getAndAdd( (long) sectors << SECTOR_SHIFT );
+        return ((offset >>> SECTOR_SHIFT) << SLOT_SECTORS_BITS) | sectors;
+    }
+
+    private static long slotOffset( long slot )
+    {
+        return (slot >>> SLOT_SECTORS_BITS) << SECTOR_SHIFT;
+    }
+
+    /**
+     * Read and decompress the given slot into the page buffer.
+     *
+     * @return the number of bytes read, or -1 if the contents of the slot do not match its checksum.
+     */
+    private long readSlot( long slot, int length, Buffers buf ) throws IOException
+    {
+        ByteBuffer slotData = buf.compressedBuffer;
+        slotData.clear().limit( CHECKSUM_SIZE + length );
+        readData( slotData, slotOffset( slot ) );
+        buf.checksum.reset();
+        buf.checksum.update( buf.compressed, CHECKSUM_SIZE, length );
+        if ( slotData.position() != CHECKSUM_SIZE + length || slotData.getInt( 0 ) != (int) buf.checksum.getValue() )
+        {
+            return -1;
+        }
+        long pageLength = Zstd.decompressByteArray( buf.page, 0, filePageSize, buf.compressed, CHECKSUM_SIZE, length );
+        if ( Zstd.isError( pageLength ) || pageLength != filePageSize )
+        {
+            return -1;
+        }
+        return CHECKSUM_SIZE + length;
+    }
+
+    private boolean readEntry( long filePageId, ByteBuffer entry ) throws IOException
+    {
+        entry.clear();
+        long position = entryPosition( filePageId );
+        while ( entry.hasRemaining() )
+        {
+            StoreChannel channel = mappingChannel;
+            try
+            {
+                if ( channel.read( entry, position + entry.position() ) == -1 )
+                {
+                    return false;
+                }
+            }
+            catch ( ClosedChannelException e )
+            {
+                reopen( channel, e );
+            }
+        }
+        return true;
+    }
+
+    private void writeEntry( long filePageId, ByteBuffer entry ) throws IOException
+    {
+        entry.clear();
+        long position = entryPosition( filePageId );
+        while ( true )
+        {
+            StoreChannel channel = mappingChannel;
+            try
+            {
+                channel.writeAll( entry, position );
+                return;
+            }
+            catch ( ClosedChannelException e )
+            {
+                reopen( channel, e );
+                entry.clear();
+            }
+        }
+    }
+
+    private static void clearEntry( ByteBuffer entry )
+    {
+        entry.clear();
+        for ( int i = 0; i < ENTRY_SIZE; i += Long.BYTES )
+        {
+            entry.putLong( i, 0 );
+        }
+    }
+
+    private static long entryPosition( long filePageId )
+    {
+        return (filePageId + 1) * ENTRY_SIZE;
+    }
+
+    private void readData( ByteBuffer data, long position ) throws IOException
+    {
+        while ( data.hasRemaining() )
+        {
+            StoreChannel channel = dataChannel;
+            try
+            {
+                if ( channel.read( data, position + data.position() ) == -1 )
+                {
+                    return;
+                }
+            }
+            catch ( ClosedChannelException e )
+            {
+                reopen( channel, e );
+            }
+        }
+    }
+
+    private void writeData( ByteBuffer data, long position ) throws IOException
+    {
+        while ( true )
+        {
+            StoreChannel channel = dataChannel;
+            try
+            {
+                channel.writeAll( data, position );
+                return;
+            }
+            catch ( ClosedChannelException e )
+            {
+                reopen( channel, e );
+                data.position( 0 );
+            }
+        }
+    }
+
+    /**
+     * Reopen the given channel, if it has been closed by an interrupt rather than by {@link #close()}. Like the
+     * {@link org.neo4j.io.pagecache.impl.SingleFilePageSwapper}, the interrupt status of the thread is preserved.
+     */
+    private synchronized void reopen( StoreChannel channel, ClosedChannelException closedException ) throws ClosedChannelException
+    {
+        if ( closed )
+        {
+            throw closedException;
+        }
+        boolean interrupted = Thread.interrupted();
+        try
+        {
+            if ( channel == dataChannel && !channel.isOpen() )
+            {
+                dataChannel = fs.write( file );
+            }
+            else if ( channel == mappingChannel && !channel.isOpen() )
+            {
+                mappingChannel = fs.write( mappingFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            closedException.addSuppressed( e );
+            throw closedException;
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void evicted( long pageId )
+    {
+        delegate.evicted( pageId );
+    }
+
+    @Override
+    public File file()
+    {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        closed = true;
+        IOException exception = closeChannels( null );
+        try
+        {
+            delegate.close();
+        }
+        catch ( IOException e )
+        {
+            exception = addSuppressed( exception, e );
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+
+    @Override
+    public synchronized void closeAndDelete() throws IOException
+    {
+        closed = true;
+        IOException exception = closeChannels( null );
+        try
+        {
+            delegate.closeAndDelete();
+            fs.deleteFileOrThrow( mappingFile );
+        }
+        catch ( IOException e )
+        {
+            exception = addSuppressed( exception, e );
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+
+    private IOException closeChannels( IOException exception )
+    {
+        for ( StoreChannel channel : new StoreChannel[]{dataChannel, mappingChannel} )
+        {
+            try
+            {
+                channel.close();
+            }
+            catch ( IOException e )
+            {
+                exception = addSuppressed( exception, e );
+            }
+        }
+        return exception;
+    }
+
+    private static IOException addSuppressed( IOException exception, IOException e )
+    {
+        if ( exception == null )
+        {
+            return e;
+        }
+        exception.addSuppressed( e );
+        return exception;
+    }
+
+    /**
+     * Start a new generation, so the slots that are about to be made durable are not overwritten until the next force,
+     * and then force the data file before the mapping file, so that the mapping never refers to slots that are not
+     * durable. The new generation is recorded in the mapping header last, which is why opening the file starts yet
+     * another generation.
+     */
+    @Override
+    public synchronized void force() throws IOException
+    {
+        long nextGeneration = generation + 1;
+        generationLock.writeLock().lock();
+        try
+        {
+            generation = nextGeneration;
+        }
+        finally
+        {
+            generationLock.writeLock().unlock();
+        }
+        dataChannel.force( false );
+        mappingChannel.force( false );
+        writeMappingHeader( nextGeneration );
+        mappingChannel.force( false );
+    }
+
+    @Override
+    public long getLastPageId() throws IOException
+    {
+        return mappingChannel.size() / ENTRY_SIZE - 2;
+    }
+
+    @Override
+    public synchronized void truncate() throws IOException
+    {
+        delegate.truncate();
+        mappingChannel.truncate( 0 );
+        dataEnd.set( SECTOR_SIZE );
+        writeHeaders( generation );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CompressedPageSwapper{file=" + file + ", filePageSize=" + filePageSize + "}";
+    }
+
+    private static long roundUpToSector( long size )
+    {
+        return (size + SECTOR_SIZE - 1) & -SECTOR_SIZE;
+    }
+
+    /**
+     * The per-thread buffers for compressing and decompressing pages.
+     */
+    private static final class Buffers
+    {
+        final byte[] page;
+        final byte[] compressed;
+        final ByteBuffer compressedBuffer;
+        final ByteBuffer entry = ByteBuffer.allocate( ENTRY_SIZE );
+        final CRC32C checksum = new CRC32C();
+
+        Buffers( int filePageSize )
+        {
+            page = new byte[filePageSize];
+            compressed = new byte[CHECKSUM_SIZE + (int) Zstd.compressBound( filePageSize )];
+            compressedBuffer = ByteBuffer.wrap( compressed );
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.FeatureToggles.getString;
+
+/**
+ * A factory for {@link CompressedPageSwapper} instances, selected with {@code dbms.memory.pagecache.swapper=compressed}.
+ * <p>
+ * Only new files whose names match the {@code fileNamePattern} feature toggle are compressed, which by default are the
+ * relationship and property stores that tend to be large and cold. Existing uncompressed files are never converted, and
+ * keep being mapped with a plain {@link org.neo4j.io.pagecache.impl.SingleFilePageSwapper SingleFilePageSwapper}, so
+ * compression can be enabled for an existing database, and will apply to the store files that are created from then on,
+ * for instance by a store copy or an import.
+ * <p>
+ * Compressed files consist of a data file and a {@code .pagemap} sidecar file, that must be kept together. They can only
+ * be read through the page cache with this swapper, and the other swappers refuse to map them. They must not be copied or
+ * replaced with file system tools while the database is running. Compressed files cannot be mapped with direct IO.
+ */
+@ServiceProvider
+public class CompressingPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    public static final String NAME = "compressed";
+
+    /**
+     * The file names of the new files that will be compressed.
+     */
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile( getString( CompressingPageSwapperFactory.class, "fileNamePattern",
+            "neostore\\.(relationshipstore|propertystore)\\.db(\\.strings|\\.arrays)?" ) );
+
+    /**
+     * The zstd compression level. Higher levels compress better, but make evicting dirty pages slower.
+     */
+    private static final int COMPRESSION_LEVEL = getInteger( CompressingPageSwapperFactory.class, "compressionLevel", 3 );
+
+    private FileSystemAbstraction fs;
+
+    @Override
+    public void open( FileSystemAbstraction fs )
+    {
+        super.open( fs );
+        this.fs = fs;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( File file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist,
+            boolean noChannelStriping, boolean useDirectIO ) throws IOException
+    {
+        PageSwapper swapper = createSingleFilePageSwapper( file, filePageSize, onEviction, createIfNotExist, noChannelStriping, useDirectIO );
+        try
+        {
+            File mappingFile = mappingFile( file );
+            boolean compressed = isCompressedFile( fs, file );
+            boolean mapped = fs.fileExists( mappingFile );
+            if ( compressed )
+            {
+                if ( !mapped )
+                {
+                    throw new IOException( "The page mapping file " + mappingFile + " of the compressed file " + file + " is missing." );
+                }
+                if ( useDirectIO )
+                {
+                    throw new IOException( "The compressed file " + file + " cannot be mapped with direct IO." );
+                }
+                return new CompressedPageSwapper( swapper, fs, filePageSize, COMPRESSION_LEVEL, false );
+            }
+            if ( mapped )
+            {
+                // The data file has been replaced by an uncompressed file, so the page mapping no longer applies to it.
+                fs.deleteFileOrThrow( mappingFile );
+            }
+            if ( useDirectIO || fs.getFileSize( file ) > 0 || !FILE_NAME_PATTERN.matcher( file.getName() ).matches() )
+            {
+                return swapper;
+            }
+            return new CompressedPageSwapper( swapper, fs, filePageSize, COMPRESSION_LEVEL, true );
+        }
+        catch ( IOException e )
+        {
+            try
+            {
+                swapper.close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the page mapping file that goes with the data file, if it is compressed. Store copies and backups must copy it along
+     * with the data file.
+     */
+    public static File mappingFile( File file )
+    {
+        return CompressedPageSwapper.mappingFile( file );
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+}
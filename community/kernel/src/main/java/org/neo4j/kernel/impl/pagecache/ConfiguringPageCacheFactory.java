@@ -22,11 +22,19 @@ package org.neo4j.kernel.impl.pagecache;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.configuration.GraphDatabaseSettings.PageCacheHugePages;
+import org.neo4j.internal.nativeimpl.LinuxHugePages;
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
+import org.neo4j.io.mem.HugePageMode;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.os.OsBeanUtil;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
@@ -37,8 +45,13 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.service.Services;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_background_flush_iops_limit;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_eviction_policy;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_huge_pages;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_numa_partitioning;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_swapper;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_swapper_queue_depth;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
 
 public class ConfiguringPageCacheFactory
@@ -50,6 +63,8 @@ public class ConfiguringPageCacheFactory
     private final Log log;
     private final VersionContextSupplier versionContextSupplier;
     private PageCache pageCache;
+    private MemoryAllocator memoryAllocator;
+    private HugePageMode hugePageMode = HugePageMode.DISABLED;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final JobScheduler scheduler;
 
@@ -81,17 +96,65 @@ public class ConfiguringPageCacheFactory
     {
         if ( pageCache == null )
         {
-            this.swapperFactory = createAndConfigureSwapperFactory( fs, config, log );
+            this.swapperFactory = createAndConfigureSwapperFactory( fs, config, log, scheduler );
             this.pageCache = createPageCache();
         }
         return pageCache;
     }
 
+    /**
+     * @return diagnostics of the memory of the page cache created by this factory, including how much of it is backed by huge pages.
+     */
+    public synchronized PageCacheMemoryDiagnostics memoryDiagnostics()
+    {
+        getOrCreatePageCache();
+        return new PageCacheMemoryDiagnostics( memoryAllocator, hugePageMode );
+    }
+
     protected PageCache createPageCache()
     {
-        MemoryAllocator memoryAllocator = buildMemoryAllocator( config );
-        return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier,
-                versionContextSupplier, scheduler );
+        memoryAllocator = buildMemoryAllocator( config );
+        MuninnPageCache muninnPageCache = new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier,
+                versionContextSupplier, scheduler, getEvictionPolicy( config ), getNumaTopology() );
+        int backgroundFlushIopsLimit = config.get( pagecache_background_flush_iops_limit );
+        if ( backgroundFlushIopsLimit != 0 )
+        {
+            log.info( "Enabling the page cache background flusher." );
+            IOLimiter limiter = backgroundFlushIopsLimit < 0 ? IOLimiter.UNLIMITED : new PacedIOLimiter( backgroundFlushIopsLimit );
+            muninnPageCache.enableBackgroundFlushing( limiter,
+                    e -> log.warn( "The page cache background flusher failed to write out a page. It will keep trying.", e ) );
+        }
+        return muninnPageCache;
+    }
+
+    private NumaTopology getNumaTopology()
+    {
+        if ( !config.get( pagecache_numa_partitioning ) )
+        {
+            return NumaTopology.SINGLE_NODE;
+        }
+        NativeAccess nativeAccess = NativeAccessProvider.getNativeAccess();
+        int nodeCount = nativeAccess.getNumaNodeCount();
+        if ( !nativeAccess.isAvailable() || nodeCount < 2 )
+        {
+            log.info( "The " + pagecache_numa_partitioning.name() + " setting is enabled, but the system does not have multiple NUMA nodes " +
+                    "available. The page cache will not be partitioned. " + nativeAccess.describe() );
+            return NumaTopology.SINGLE_NODE;
+        }
+        log.info( "Partitioning the page cache over " + nodeCount + " NUMA nodes." );
+        return new NativeNumaTopology( nativeAccess, log );
+    }
+
+    private static EvictionPolicy getEvictionPolicy( Config config )
+    {
+        switch ( config.get( pagecache_eviction_policy ) )
+        {
+        case SCAN_RESISTANT:
+            return EvictionPolicy.SCAN_RESISTANT;
+        case CLOCK:
+        default:
+            return EvictionPolicy.CLOCK;
+        }
     }
 
     private MemoryAllocator buildMemoryAllocator( Config config )
@@ -107,7 +170,36 @@ public class ConfiguringPageCacheFactory
             pageCacheMemorySetting = "" + heuristic;
         }
 
-        return MemoryAllocator.createAllocator( pageCacheMemorySetting, EmptyMemoryTracker.INSTANCE );
+        hugePageMode = getHugePageMode( config );
+        if ( hugePageMode == HugePageMode.DISABLED )
+        {
+            return MemoryAllocator.createAllocator( pageCacheMemorySetting, EmptyMemoryTracker.INSTANCE );
+        }
+        log.info( "Backing the page cache memory with huge pages, using the " + hugePageMode + " mode." );
+        return MemoryAllocator.createAllocator( pageCacheMemorySetting, EmptyMemoryTracker.INSTANCE, hugePageMode, new NativeHugePageMapper( log ) );
+    }
+
+    private HugePageMode getHugePageMode( Config config )
+    {
+        PageCacheHugePages hugePages = config.get( pagecache_huge_pages );
+        if ( hugePages != PageCacheHugePages.DISABLED && !LinuxHugePages.isAvailable() )
+        {
+            log.warn( "The " + pagecache_huge_pages.name() + " setting is " + hugePages + ", but huge pages are only supported on Linux " +
+                    "with native access enabled. The page cache will use normal memory." );
+            return HugePageMode.DISABLED;
+        }
+        switch ( hugePages )
+        {
+        case TRANSPARENT:
+            return HugePageMode.TRANSPARENT;
+        case EXPLICIT_2MB:
+            return HugePageMode.EXPLICIT_2MB;
+        case EXPLICIT_1GB:
+            return HugePageMode.EXPLICIT_1GB;
+        case DISABLED:
+        default:
+            return HugePageMode.DISABLED;
+        }
     }
 
     public static long defaultHeuristicPageCacheMemory()
@@ -170,9 +262,13 @@ public class ConfiguringPageCacheFactory
         log.info( msg );
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, Config config, Log log )
+    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, Config config, Log log, JobScheduler scheduler )
     {
         PageSwapperFactory factory = getPageSwapperFactory( config, log );
+        if ( factory instanceof AsyncPageSwapperFactory )
+        {
+            ((AsyncPageSwapperFactory) factory).configure( scheduler, config.get( pagecache_swapper_queue_depth ) );
+        }
         factory.open( fs );
         return factory;
     }
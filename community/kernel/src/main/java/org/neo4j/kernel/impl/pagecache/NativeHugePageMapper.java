@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.neo4j.internal.nativeimpl.LinuxHugePages;
+import org.neo4j.io.mem.HugePageMapper;
+import org.neo4j.logging.Log;
+
+/**
+ * A {@link HugePageMapper} that maps the page cache memory through {@link LinuxHugePages}, and logs the first time
+ * that huge pages could not be obtained, since the page cache then silently falls back to smaller pages.
+ */
+class NativeHugePageMapper implements HugePageMapper
+{
+    private final Log log;
+    private volatile boolean explicitFailureLogged;
+    private volatile boolean transparentFailureLogged;
+
+    NativeHugePageMapper( Log log )
+    {
+        this.log = log;
+    }
+
+    @Override
+    public long mapHugeTlb( long bytes, long hugePageSize )
+    {
+        long address = LinuxHugePages.mapHugeTlb( bytes, hugePageSize );
+        if ( address == 0 && !explicitFailureLogged )
+        {
+            explicitFailureLogged = true;
+            log.warn( "Failed to reserve " + bytes + " bytes of explicit huge pages of size " + hugePageSize + " for the page cache. " +
+                    "The huge page pool is likely too small; check `vm.nr_hugepages` and /proc/meminfo. " +
+                    "Falling back to transparent huge pages." );
+        }
+        return address;
+    }
+
+    @Override
+    public long mapAligned( long bytes, long alignment )
+    {
+        return LinuxHugePages.mapAligned( bytes, alignment );
+    }
+
+    @Override
+    public boolean adviseHugePages( long address, long bytes )
+    {
+        boolean advised = LinuxHugePages.adviseHugePages( address, bytes );
+        if ( !advised && !transparentFailureLogged )
+        {
+            transparentFailureLogged = true;
+            log.warn( "Transparent huge pages are not available for the page cache, so it will use normal pages. " +
+                    "Check /sys/kernel/mm/transparent_hugepage/enabled." );
+        }
+        return advised;
+    }
+
+    @Override
+    public void unmap( long address, long bytes )
+    {
+        LinuxHugePages.unmap( address, bytes );
+    }
+}
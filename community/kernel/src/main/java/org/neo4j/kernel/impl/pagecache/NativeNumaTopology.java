@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeCallResult;
+import org.neo4j.io.mem.NumaTopology;
+import org.neo4j.logging.Log;
+
+/**
+ * A {@link NumaTopology} that discovers the NUMA nodes, and binds memory to them, through {@link NativeAccess}.
+ */
+class NativeNumaTopology implements NumaTopology
+{
+    private final NativeAccess nativeAccess;
+    private final int nodeCount;
+    private final Log log;
+    private volatile boolean bindFailureLogged;
+
+    NativeNumaTopology( NativeAccess nativeAccess, Log log )
+    {
+        this.nativeAccess = nativeAccess;
+        this.nodeCount = nativeAccess.getNumaNodeCount();
+        this.log = log;
+    }
+
+    @Override
+    public int nodeCount()
+    {
+        return nodeCount;
+    }
+
+    @Override
+    public int currentNode()
+    {
+        return nativeAccess.getCurrentNumaNode();
+    }
+
+    @Override
+    public void bindToNode( long address, long bytes, int node )
+    {
+        NativeCallResult result = nativeAccess.tryBindMemoryToNumaNode( address, bytes, node );
+        if ( result.isError() && !bindFailureLogged )
+        {
+            bindFailureLogged = true;
+            log.warn( "Failed to bind page cache memory to NUMA node " + node + ". The memory will be placed by the operating system. " +
+                    "Details: " + result );
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.IOLimiter;
+
+/**
+ * An {@link IOLimiter} that paces the IO to a given number of IOs per second. This is used for the page cache
+ * background flusher, and as the basis of the {@link AdaptiveIOLimiter}.
+ * <p>
+ * The second is divided into quanta, and the limiter sleeps out the rest of a quantum once the IOs of that quantum
+ * have been spent. A quantum is about 100 milliseconds, but is computed from the limit so that it fits a whole number
+ * of IOs, which makes limits below 10 IOPS use longer quanta of a single IO each. The stamp encodes the start of the
+ * current quantum in milliseconds, and the number of IOs done in it so far.
+ */
+public class PacedIOLimiter implements IOLimiter
+{
+    private static final int TARGET_QUANTUM_MILLIS = 100;
+    private static final int QUANTUMS_PER_SECOND = (int) (TimeUnit.SECONDS.toMillis( 1 ) / TARGET_QUANTUM_MILLIS);
+    private static final int IO_BITS = 20;
+    private static final long IO_MASK = (1L << IO_BITS) - 1;
+
+    private volatile int iopsLimit;
+
+    PacedIOLimiter( int iopsLimit )
+    {
+        setIopsLimit( iopsLimit );
+    }
+
+    /**
+     * Change the number of IOs per second. This takes effect from the next call to
+     * {@link #maybeLimitIO(long, int, Flushable)}.
+     */
+    void setIopsLimit( int iopsLimit )
+    {
+        this.iopsLimit = Math.max( 1, iopsLimit );
+    }
+
+    /**
+     * @return the number of IOs per second that the IO is currently paced to.
+     */
+    public int iopsLimit()
+    {
+        return iopsLimit;
+    }
+
+    @Override
+    public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+    {
+        long now = currentTimeMillis();
+        long quantumStart = previousStamp == INITIAL_STAMP ? now : previousStamp >>> IO_BITS;
+        long ios = (previousStamp & IO_MASK) + recentlyCompletedIOs;
+        int iopsLimit = this.iopsLimit;
+        long iosPerQuantum = Math.min( IO_MASK, Math.max( 1, iopsLimit / QUANTUMS_PER_SECOND ) );
+        long quantumMillis = TimeUnit.SECONDS.toMillis( iosPerQuantum ) / iopsLimit;
+        long elapsed = now - quantumStart;
+        if ( elapsed >= quantumMillis )
+        {
+            return now << IO_BITS;
+        }
+        if ( ios < iosPerQuantum )
+        {
+            return (quantumStart << IO_BITS) | ios;
+        }
+        sleep( quantumMillis - elapsed );
+        return currentTimeMillis() << IO_BITS;
+    }
+
+    @Override
+    public boolean isLimited()
+    {
+        return true;
+    }
+
+    long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    void sleep( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e )
+        {
+            // The background flusher is being stopped, and will look for the interrupt.
+            Thread.currentThread().interrupt();
+        }
+    }
+}
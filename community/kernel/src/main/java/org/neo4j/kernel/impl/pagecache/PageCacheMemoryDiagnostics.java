@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.neo4j.internal.diagnostics.NamedDiagnosticsProvider;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.mem.HugePageMode;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.logging.Logger;
+
+/**
+ * Tells how much memory the page cache has allocated so far, and how much of it is backed by huge pages. The page cache
+ * allocates its memory as pages are first used, so the numbers grow until the page cache is full.
+ */
+public class PageCacheMemoryDiagnostics extends NamedDiagnosticsProvider
+{
+    private final MemoryAllocator memoryAllocator;
+    private final HugePageMode hugePageMode;
+
+    PageCacheMemoryDiagnostics( MemoryAllocator memoryAllocator, HugePageMode hugePageMode )
+    {
+        super( "Page cache memory" );
+        this.memoryAllocator = memoryAllocator;
+        this.hugePageMode = hugePageMode;
+    }
+
+    @Override
+    public void dump( Logger logger )
+    {
+        logger.log( "Allocated page cache memory: %d MiB, available: %d MiB", mebiBytes( memoryAllocator.usedMemory() ),
+                mebiBytes( memoryAllocator.availableMemory() ) );
+        logger.log( "Huge pages: %s, explicit huge page memory: %d MiB, transparent huge page memory: %d MiB", hugePageMode,
+                mebiBytes( memoryAllocator.explicitHugePageMemory() ), mebiBytes( memoryAllocator.transparentHugePageMemory() ) );
+    }
+
+    private static long mebiBytes( long bytes )
+    {
+        return ByteUnit.Byte.toMebiBytes( bytes );
+    }
+}
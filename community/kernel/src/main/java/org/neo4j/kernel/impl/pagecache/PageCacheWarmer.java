@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.util.FeatureToggles;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_whitelist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * Keeps profiles of which pages of the mapped database files are in memory, and reloads those pages after a restart.
+ * <p>
+ * A profile is a bitmap with one bit per file page, written gzipped into a {@code .cacheprof} file in the
+ * {@value #PROFILES_DIRECTORY_NAME} directory of the database, mirroring the location of the mapped file. Profiles are
+ * taken periodically, and when the database is stopped.
+ * <p>
+ * On start, a background job loads the profiled pages of every mapped file in file order, with read-ahead, such that
+ * consecutive profiled pages are loaded with large vectored reads. The warmup backs off while the foreground workload
+ * is faulting in pages of its own, since the two would otherwise compete for the IO bandwidth. If the foreground keeps
+ * faulting for long enough, it is loading the pages it needs by itself, and the warmup is {@link #cancelWarmup()
+ * cancelled}. No profiles are taken until the warmup has either completed or been cancelled, since they would otherwise
+ * overwrite the profiles we are warming up from.
+ * <p>
+ * If {@code dbms.memory.pagecache.warmup.preload} is enabled, then all pages of the files matching the whitelist are
+ * loaded instead, and no profiles are kept.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String PROFILES_DIRECTORY_NAME = "profiles";
+    public static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String PROFILE_TEMP_SUFFIX = ".tmp";
+    private static final int PROGRESS_REPORT_INTERVAL = 100_000;
+    private static final long THROTTLE_CHECK_INTERVAL_MILLIS = FeatureToggles.getLong( PageCacheWarmer.class, "throttleCheckIntervalMillis", 100 );
+    private static final long THROTTLE_FAULT_THRESHOLD = FeatureToggles.getLong( PageCacheWarmer.class, "throttleFaultThreshold", 1000 );
+    private static final long MAX_THROTTLE_MILLIS =
+            FeatureToggles.getLong( PageCacheWarmer.class, "maxThrottleMillis", TimeUnit.MINUTES.toMillis( 1 ) );
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final PageCacheTracer pageCacheTracer;
+    private final JobScheduler scheduler;
+    private final File databaseDirectory;
+    private final File profilesDirectory;
+    private final Config config;
+    private final Log log;
+    private final PageCacheWarmerMonitor monitor;
+    private final long throttleCheckIntervalNanos;
+    private final long throttleFaultThreshold;
+    private final long maxThrottleNanos;
+
+    private volatile boolean stopped;
+    private volatile boolean warmupCancelled;
+    private volatile boolean warmupDone;
+    private JobHandle warmupJob;
+    private JobHandle profileJob;
+
+    // Only used by the warmup job
+    private long lastThrottleCheck;
+    private long faultsAtLastThrottleCheck;
+    private long pagesLoadedAtLastThrottleCheck;
+    private long throttledNanos;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, PageCacheTracer pageCacheTracer, JobScheduler scheduler,
+            File databaseDirectory, Config config, Log log, PageCacheWarmerMonitor monitor )
+    {
+        this( fs, pageCache, pageCacheTracer, scheduler, databaseDirectory, config, log, monitor, THROTTLE_CHECK_INTERVAL_MILLIS,
+                THROTTLE_FAULT_THRESHOLD, MAX_THROTTLE_MILLIS );
+    }
+
+    PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, PageCacheTracer pageCacheTracer, JobScheduler scheduler,
+            File databaseDirectory, Config config, Log log, PageCacheWarmerMonitor monitor, long throttleCheckIntervalMillis,
+            long throttleFaultThreshold, long maxThrottleMillis )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.pageCacheTracer = pageCacheTracer;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = new File( databaseDirectory, PROFILES_DIRECTORY_NAME );
+        this.config = config;
+        this.log = log;
+        this.monitor = monitor;
+        this.throttleCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos( throttleCheckIntervalMillis );
+        this.throttleFaultThreshold = throttleFaultThreshold;
+        this.maxThrottleNanos = TimeUnit.MILLISECONDS.toNanos( maxThrottleMillis );
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if ( !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        stopped = false;
+        warmupCancelled = false;
+        warmupDone = false;
+        warmupJob = scheduler.schedule( Group.FILE_IO_HELPER, this::warmup );
+        if ( !config.get( pagecache_warmup_prefetch ) )
+        {
+            long interval = config.get( pagecache_warmup_profiling_interval ).toMillis();
+            profileJob = scheduler.scheduleRecurring( Group.STORAGE_MAINTENANCE, this::profile, interval, interval, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws Exception
+    {
+        JobHandle warmup;
+        boolean warmupDoneBeforeStop;
+        synchronized ( this )
+        {
+            warmupDoneBeforeStop = warmupDone;
+            stopped = true;
+            warmupCancelled = true;
+            warmup = warmupJob;
+            warmupJob = null;
+            if ( profileJob != null )
+            {
+                profileJob.cancel();
+                profileJob = null;
+            }
+        }
+        if ( warmup != null )
+        {
+            try
+            {
+                warmup.waitTermination();
+            }
+            catch ( Exception e )
+            {
+                log.warn( "Page cache warmup failed.", e );
+            }
+        }
+        // Take a last profile while the files are still mapped, unless we never got around to complete the warmup, in
+        // which case the existing profiles are more useful than the current contents of the page cache.
+        if ( warmupDoneBeforeStop && config.get( pagecache_warmup_enabled ) && !config.get( pagecache_warmup_prefetch ) )
+        {
+            doProfile();
+        }
+    }
+
+    /**
+     * Stop any ongoing warmup as soon as possible. Profiling will resume once the warmup has stopped. This happens by
+     * itself if the foreground workload keeps faulting in pages while the warmup is running.
+     */
+    public void cancelWarmup()
+    {
+        warmupCancelled = true;
+    }
+
+    private void warmup()
+    {
+        monitor.warmupStarted();
+        long startTime = System.nanoTime();
+        long pagesLoaded = 0;
+        lastThrottleCheck = startTime;
+        faultsAtLastThrottleCheck = pageCacheTracer.faults();
+        pagesLoadedAtLastThrottleCheck = 0;
+        throttledNanos = 0;
+        try
+        {
+            boolean prefetch = config.get( pagecache_warmup_prefetch );
+            Pattern whitelist = Pattern.compile( config.get( pagecache_warmup_prefetch_whitelist ) );
+            for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+            {
+                if ( warmupCancelled )
+                {
+                    break;
+                }
+                if ( prefetch )
+                {
+                    if ( whitelist.matcher( pagedFile.file().getAbsolutePath() ).find() )
+                    {
+                        pagesLoaded = loadAllPages( pagedFile, pagesLoaded );
+                    }
+                }
+                else
+                {
+                    Optional<long[]> profile = readProfile( profileFileFor( pagedFile.file() ) );
+                    if ( profile.isPresent() )
+                    {
+                        pagesLoaded = loadProfiledPages( pagedFile, profile.get(), pagesLoaded );
+                    }
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup failed after loading " + pagesLoaded + " pages.", e );
+        }
+        finally
+        {
+            warmupDone = true;
+        }
+        if ( warmupCancelled )
+        {
+            monitor.warmupCancelled( pagesLoaded );
+        }
+        else
+        {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTime );
+            log.info( "Page cache warmup completed. %d pages loaded in %d ms.", pagesLoaded, elapsedMillis );
+            monitor.warmupCompleted( pagesLoaded, elapsedMillis );
+        }
+    }
+
+    private long loadAllPages( PagedFile pagedFile, long pagesLoaded ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            while ( !warmupCancelled && cursor.next() )
+            {
+                pagesLoaded = loaded( pagesLoaded );
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private long loadProfiledPages( PagedFile pagedFile, long[] profile, long pagesLoaded ) throws IOException
+    {
+        long lastPageId = pagedFile.getLastPageId();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            for ( int word = 0; word < profile.length && !warmupCancelled; word++ )
+            {
+                long bits = profile[word];
+                while ( bits != 0 && !warmupCancelled )
+                {
+                    long pageId = ((long) word << 6) + Long.numberOfTrailingZeros( bits );
+                    bits &= bits - 1;
+                    if ( pageId > lastPageId || !cursor.next( pageId ) )
+                    {
+                        return pagesLoaded;
+                    }
+                    pagesLoaded = loaded( pagesLoaded );
+                }
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private long loaded( long pagesLoaded )
+    {
+        pagesLoaded++;
+        if ( pagesLoaded % PROGRESS_REPORT_INTERVAL == 0 )
+        {
+            monitor.warmupProgress( pagesLoaded );
+        }
+        if ( System.nanoTime() - lastThrottleCheck >= throttleCheckIntervalNanos )
+        {
+            throttle( pagesLoaded );
+        }
+        return pagesLoaded;
+    }
+
+    /**
+     * Pause the warmup for as long as the foreground workload is faulting in pages. The warmup is taken to cause one
+     * page fault per page it loads, and any faults beyond that are counted as the foreground's.
+     */
+    private void throttle( long pagesLoaded )
+    {
+        while ( !warmupCancelled )
+        {
+            long faults = pageCacheTracer.faults();
+            long foregroundFaults = (faults - faultsAtLastThrottleCheck) - (pagesLoaded - pagesLoadedAtLastThrottleCheck);
+            faultsAtLastThrottleCheck = faults;
+            pagesLoadedAtLastThrottleCheck = pagesLoaded;
+            lastThrottleCheck = System.nanoTime();
+            if ( foregroundFaults < throttleFaultThreshold )
+            {
+                return;
+            }
+            if ( throttledNanos >= maxThrottleNanos )
+            {
+                log.info( "Cancelling page cache warmup after %d pages loaded, since the workload is loading the pages it needs.", pagesLoaded );
+                cancelWarmup();
+                return;
+            }
+            LockSupport.parkNanos( throttleCheckIntervalNanos );
+            throttledNanos += System.nanoTime() - lastThrottleCheck;
+        }
+    }
+
+    private void profile()
+    {
+        if ( warmupDone && !stopped )
+        {
+            doProfile();
+        }
+    }
+
+    private synchronized void doProfile()
+    {
+        long startTime = System.nanoTime();
+        long pagesInMemory = 0;
+        try
+        {
+            for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+            {
+                pagesInMemory += profile( pagedFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache profiling failed.", e );
+            return;
+        }
+        monitor.profileCompleted( pagesInMemory, TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTime ) );
+    }
+
+    private long profile( PagedFile pagedFile ) throws IOException
+    {
+        long lastPageId = pagedFile.getLastPageId();
+        if ( lastPageId < 0 )
+        {
+            return 0;
+        }
+        long[] profile = new long[(int) ((lastPageId >>> 6) + 1)];
+        long pagesInMemory = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            for ( long pageId = 0; pageId <= lastPageId && cursor.next(); pageId++ )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    profile[(int) (pageId >>> 6)] |= 1L << (pageId & 63);
+                    pagesInMemory++;
+                }
+            }
+        }
+        writeProfile( profileFileFor( pagedFile.file() ), profile );
+        return pagesInMemory;
+    }
+
+    private File profileFileFor( File file )
+    {
+        String relativePath = databaseDirectory.toPath().relativize( file.toPath() ).toString();
+        return new File( profilesDirectory, relativePath + PROFILE_SUFFIX );
+    }
+
+    private void writeProfile( File profileFile, long[] profile ) throws IOException
+    {
+        fs.mkdirs( profileFile.getParentFile() );
+        File tempFile = new File( profileFile.getParentFile(), profileFile.getName() + PROFILE_TEMP_SUFFIX );
+        try ( DataOutputStream out = new DataOutputStream( new GZIPOutputStream( fs.openAsOutputStream( tempFile, false ) ) ) )
+        {
+            out.writeInt( profile.length );
+            for ( long word : profile )
+            {
+                out.writeLong( word );
+            }
+        }
+        fs.renameFile( tempFile, profileFile, ATOMIC_MOVE, REPLACE_EXISTING );
+    }
+
+    private Optional<long[]> readProfile( File profileFile )
+    {
+        if ( !fs.fileExists( profileFile ) )
+        {
+            return Optional.empty();
+        }
+        try ( DataInputStream in = new DataInputStream( new GZIPInputStream( fs.openAsInputStream( profileFile ) ) ) )
+        {
+            long[] profile = new long[in.readInt()];
+            for ( int i = 0; i < profile.length; i++ )
+            {
+                profile[i] = in.readLong();
+            }
+            return Optional.of( profile );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            log.warn( "Ignoring unreadable page cache profile " + profileFile + ".", e );
+            return Optional.empty();
+        }
+    }
+}
@@ -30,9 +30,13 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.CommandCompressionMonitor;
+import org.neo4j.kernel.impl.transaction.log.entry.CompressingLogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogPositionIndex;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
@@ -41,11 +45,15 @@ import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
 import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.logging.NullLogProvider;
 import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
+import static org.neo4j.util.concurrent.Runnables.EMPTY_RUNNABLE;
 
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
@@ -55,49 +63,83 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 {
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
     private final TransactionMetadataCache transactionMetadataCache;
+    private final LogFiles logFiles;
     private final LogFile logFile;
     private final LogRotation logRotation;
     private final TransactionIdStore transactionIdStore;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final Health databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final boolean compressCommands;
+    private final CommandCompressionMonitor compressionMonitor;
+    private final Log log;
 
     private FlushablePositionAwareChecksumChannel writer;
+    private TransactionLogPositionIndex positionIndex;
     private TransactionLogWriter transactionLogWriter;
     private int previousChecksum;
 
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth )
     {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, false, CommandCompressionMonitor.NO_MONITOR,
+                NullLogProvider.getInstance() );
+    }
+
+    /**
+     * @param compressCommands whether to write the commands of each transaction as a compressed block, see {@link CompressingLogEntryWriter}.
+     * @param compressionMonitor monitor of the compressed blocks that are written.
+     * @param logProvider log provider for failures that do not fail the append, such as not being able to update the tail index.
+     */
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, boolean compressCommands, CommandCompressionMonitor compressionMonitor,
+            LogProvider logProvider )
+    {
+        this.logFiles = logFiles;
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
         this.previousChecksum = transactionIdStore.getLastCommittedTransaction().checksum();
+        this.compressCommands = compressCommands;
+        this.compressionMonitor = compressionMonitor;
+        this.log = logProvider.getLog( getClass() );
     }
 
     @VisibleForTesting
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth, int previousChecksum )
     {
+        this.logFiles = logFiles;
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
         this.previousChecksum = previousChecksum;
+        this.compressCommands = false;
+        this.compressionMonitor = CommandCompressionMonitor.NO_MONITOR;
+        this.log = NullLogProvider.getInstance().getLog( getClass() );
     }
 
     @Override
     public void start()
     {
         this.writer = logFile.getWriter();
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        this.positionIndex = logFiles.getPositionIndex();
+        LogEntryWriter logEntryWriter = compressCommands ? new CompressingLogEntryWriter( writer, compressionMonitor ) : new LogEntryWriter( writer );
+        this.transactionLogWriter = new TransactionLogWriter( logEntryWriter );
     }
 
     @Override
     public long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
+    {
+        return append( batch, logAppendEvent, EMPTY_RUNNABLE );
+    }
+
+    @Override
+    public long append( TransactionToApply batch, LogAppendEvent logAppendEvent, Runnable serialized ) throws IOException
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
@@ -129,6 +171,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                 }
             }
         }
+        // Whoever writes the next batch is now free to do so, while we wait for this one to be forced.
+        serialized.run();
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
@@ -177,14 +221,16 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     @Override
     public void checkPoint( LogPosition logPosition, LogCheckPointEvent logCheckPointEvent ) throws IOException
     {
+        LogPosition logPositionBeforeCheckpoint;
+        LogPosition logPositionAfterCheckpoint;
         // Synchronized with logFile to get absolute control over concurrent rotations happening
         synchronized ( logFile )
         {
             try
             {
-                LogPosition logPositionBeforeCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
+                logPositionBeforeCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
                 transactionLogWriter.checkPoint( logPosition );
-                LogPosition logPositionAfterCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
+                logPositionAfterCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
                 logCheckPointEvent.appendToLogFile( logPositionBeforeCheckpoint, logPositionAfterCheckpoint );
             }
             catch ( Throwable cause )
@@ -194,6 +240,24 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             }
         }
         forceAfterAppend( logCheckPointEvent );
+        updateTailIndex( logPositionBeforeCheckpoint, logPositionAfterCheckpoint, logPosition );
+    }
+
+    private void updateTailIndex( LogPosition checkPointEntry, LogPosition endOfCheckPointEntry, LogPosition checkPointedPosition )
+    {
+        try
+        {
+            LogHeader header = logFiles.extractHeader( checkPointEntry.getLogVersion() );
+            logFiles.getTailIndex().write( header, checkPointEntry, endOfCheckPointEntry, checkPointedPosition,
+                    transactionIdStore.getLastCommittedTransactionId() );
+        }
+        catch ( IOException e )
+        {
+            // The check point itself is durable. The tail index is only a hint for the next startup,
+            // which will scan the logs for the tail instead, if the index is missing or stale.
+            log.warn( "Failed to update the transaction log tail index after a check point. " +
+                    "The next startup will scan the transaction logs for the tail instead.", e );
+        }
     }
 
     /**
@@ -212,6 +276,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
+            positionIndex.sample( transactionId, logPositionBeforeCommit );
             int checksum = transactionLogWriter.append( transaction, transactionId, previousChecksum );
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
             logAppendEvent.appendToLogFile( logPositionBeforeCommit, logPositionAfterCommit );
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.util.function.Supplier;
+
+import org.neo4j.storageengine.api.ChangeEvent;
+import org.neo4j.storageengine.api.ChangeEventDecoder;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+
+/**
+ * Change data capture, i.e. access to the changes made by committed transactions as a stream of logical
+ * {@link ChangeEvent change events}, read from the {@link LogicalTransactionStore transaction log} rather than
+ * by querying the database. This lets a consumer, like a replicator feeding an external search index, tail the
+ * changes of the database without putting any read load on the store.
+ * <p>
+ * Each consumer opens its own {@link ChangeEventCursor} which it pulls events from at its own pace. A cursor only
+ * holds the events of one transaction at a time, so a slow consumer holds the log back rather than buffering
+ * changes in memory, and it can only fall behind as far as the log is kept around by log pruning.
+ */
+public class ChangeDataCapture
+{
+    private final LogicalTransactionStore transactionStore;
+    private final TransactionIdStore transactionIdStore;
+    private final Supplier<ChangeEventDecoder> decoders;
+
+    public ChangeDataCapture( LogicalTransactionStore transactionStore, TransactionIdStore transactionIdStore,
+            Supplier<ChangeEventDecoder> decoders )
+    {
+        this.transactionStore = transactionStore;
+        this.transactionIdStore = transactionIdStore;
+        this.decoders = decoders;
+    }
+
+    /**
+     * Opens a cursor over the changes of all transactions with an id from {@code fromTxId} and up. To resume
+     * a stream, open a new cursor from the transaction after {@link ChangeEventCursor#lastCompletedTxId()} of the previous one.
+     *
+     * @param fromTxId id of the first transaction to return changes for.
+     * @return a {@link ChangeEventCursor} that must be closed after use.
+     */
+    public ChangeEventCursor changesFrom( long fromTxId )
+    {
+        if ( fromTxId <= BASE_TX_ID )
+        {
+            throw new IllegalArgumentException(
+                    "Transaction id " + fromTxId + " is not a committed transaction, the first one is " + (BASE_TX_ID + 1) );
+        }
+        return new ChangeEventCursor( transactionStore, transactionIdStore, decoders.get(), fromTxId );
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.IOCursor;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.storageengine.api.ChangeEvent;
+import org.neo4j.storageengine.api.ChangeEventDecoder;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+/**
+ * {@link IOCursor} over the {@link ChangeEvent change events} of committed transactions, in transaction id order.
+ * <p>
+ * {@link #next()} returning {@code false} means that the cursor has caught up with the last closed transaction, not
+ * that it is exhausted: calling {@link #next()} again later will continue with the transactions closed since.
+ * A cursor never reads further than the last closed transaction, so the changes it returns are always durable and visible.
+ */
+public class ChangeEventCursor implements IOCursor<ChangeEvent>
+{
+    private final LogicalTransactionStore transactionStore;
+    private final TransactionIdStore transactionIdStore;
+    private final ChangeEventDecoder decoder;
+    private final List<ChangeEvent> events = new ArrayList<>();
+    private TransactionCursor transactions;
+    private long nextTxId;
+    private int nextEvent;
+    private ChangeEvent current;
+
+    ChangeEventCursor( LogicalTransactionStore transactionStore, TransactionIdStore transactionIdStore, ChangeEventDecoder decoder,
+            long fromTxId )
+    {
+        this.transactionStore = transactionStore;
+        this.transactionIdStore = transactionIdStore;
+        this.decoder = decoder;
+        this.nextTxId = fromTxId;
+    }
+
+    /**
+     * Moves to the next change event.
+     *
+     * @return {@code true} if there was a change event, or {@code false} if all changes of the transactions closed so far have been returned.
+     * @throws NoSuchTransactionException if the log no longer has the next transaction, e.g. because it has been pruned.
+     * @throws IOException on error reading the log.
+     */
+    @Override
+    public boolean next() throws IOException
+    {
+        while ( nextEvent >= events.size() )
+        {
+            if ( !nextTransaction() )
+            {
+                current = null;
+                return false;
+            }
+        }
+        current = events.get( nextEvent++ );
+        return true;
+    }
+
+    @Override
+    public ChangeEvent get()
+    {
+        if ( current == null )
+        {
+            throw new IllegalStateException( "No current change event" );
+        }
+        return current;
+    }
+
+    /**
+     * @return id of the last transaction that all changes have been returned for, i.e. the one to resume after.
+     */
+    public long lastCompletedTxId()
+    {
+        return nextEvent >= events.size() ? nextTxId - 1 : nextTxId - 2;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closeTransactions();
+        events.clear();
+        nextEvent = 0;
+        current = null;
+    }
+
+    private boolean nextTransaction() throws IOException
+    {
+        events.clear();
+        nextEvent = 0;
+        if ( nextTxId > transactionIdStore.getLastClosedTransactionId() )
+        {
+            // Caught up. The open cursor may have read ahead into bytes still being written, so start over next time
+            closeTransactions();
+            return false;
+        }
+
+        if ( transactions != null && !transactions.next() )
+        {
+            // The cursor reached what was the end of the log when it last read from it, reopen to see what has been written since
+            closeTransactions();
+        }
+        if ( transactions == null )
+        {
+            transactions = transactionStore.getTransactions( nextTxId );
+            if ( !transactions.next() )
+            {
+                closeTransactions();
+                return false;
+            }
+        }
+
+        CommittedTransactionRepresentation transaction = transactions.get();
+        long txId = transaction.getCommitEntry().getTxId();
+        if ( txId != nextTxId )
+        {
+            closeTransactions();
+            throw new IllegalStateException( "Expected to read transaction " + nextTxId + " from the log, but got " + txId );
+        }
+        decoder.decode( txId, transaction.getTransactionRepresentation(), events );
+        nextTxId++;
+        return true;
+    }
+
+    private void closeTransactions() throws IOException
+    {
+        if ( transactions != null )
+        {
+            TransactionCursor cursor = transactions;
+            transactions = null;
+            cursor.close();
+        }
+    }
+}
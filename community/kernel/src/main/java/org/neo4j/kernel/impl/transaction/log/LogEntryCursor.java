@@ -20,13 +20,19 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.IOException;
+import java.util.Iterator;
 
 import org.neo4j.cursor.IOCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompressedCommands;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 
+import static java.util.Collections.emptyIterator;
+
 /**
- * {@link IOCursor} abstraction on top of a {@link LogEntryReader}
+ * {@link IOCursor} abstraction on top of a {@link LogEntryReader}. The command entries of a {@link LogEntryCompressedCommands compressed
+ * command block} are handed out one by one, as if they had been written uncompressed.
  */
 public class LogEntryCursor implements IOCursor<LogEntry>
 {
@@ -34,6 +40,7 @@ public class LogEntryCursor implements IOCursor<LogEntry>
     private final ReadableClosablePositionAwareChecksumChannel channel;
     private final LogPositionMarker position = new LogPositionMarker();
     private LogEntry entry;
+    private Iterator<LogEntryCommand> compressedCommands = emptyIterator();
 
     public LogEntryCursor( LogEntryReader logEntryReader, ReadableClosablePositionAwareChecksumChannel channel )
     {
@@ -50,9 +57,17 @@ public class LogEntryCursor implements IOCursor<LogEntry>
     @Override
     public boolean next() throws IOException
     {
-        entry = logEntryReader.readLogEntry( channel );
-
-        return entry != null;
+        while ( !compressedCommands.hasNext() )
+        {
+            entry = logEntryReader.readLogEntry( channel );
+            if ( !(entry instanceof LogEntryCompressedCommands) )
+            {
+                return entry != null;
+            }
+            compressedCommands = ((LogEntryCompressedCommands) entry).getCommands().iterator();
+        }
+        entry = compressedCommands.next();
+        return true;
     }
 
     @Override
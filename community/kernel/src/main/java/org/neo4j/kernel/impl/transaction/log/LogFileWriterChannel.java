@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+
+/**
+ * {@link FlushablePositionAwareChecksumChannel} appending to the current transaction log file, which is moved over to
+ * the next log file when the log is rotated.
+ */
+public interface LogFileWriterChannel extends FlushablePositionAwareChecksumChannel
+{
+    /**
+     * Continue appending to the given log file channel, from its current position.
+     * Everything appended so far must have been flushed before calling this method.
+     *
+     * @param channel the log file channel to append to from now on.
+     * @throws IOException if the writer could not be set up for the given channel.
+     */
+    void setChannel( LogVersionedStoreChannel channel ) throws IOException;
+}
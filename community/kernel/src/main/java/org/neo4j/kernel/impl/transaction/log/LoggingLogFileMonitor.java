@@ -61,6 +61,14 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
         }
     }
 
+    @Override
+    public void parallelRecoveryCompleted( long numberOfTransactions, long numberOfSerialTransactions, int parallelism, long applyTimeInMilliseconds )
+    {
+        log.info( format( "Parallel recovery applied %d transactions with %d threads in %s (%d transactions/s), %d of them on their own.",
+                numberOfTransactions, parallelism, duration( applyTimeInMilliseconds ),
+                numberOfTransactions * 1000 / Math.max( 1, applyTimeInMilliseconds ), numberOfSerialTransactions ) );
+    }
+
     @Override
     public void failToRecoverTransactionsAfterCommit( Throwable t, LogEntryCommit commitEntry, LogPosition recoveryToPosition )
     {
@@ -92,9 +92,21 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             LogVersionLocator headerVisitor = new LogVersionLocator( transactionIdToStartFrom );
             logFiles.accept( headerVisitor );
 
+            // ask the position index where in that version to start looking
+            LogPosition headerPosition = headerVisitor.getLogPosition();
+            LogPosition sampledPosition = logFiles.getPositionIndex().lookup( transactionIdToStartFrom, headerPosition.getLogVersion() );
+            if ( sampledPosition != null )
+            {
+                LogPosition position = locateFromSample( transactionIdToStartFrom, sampledPosition );
+                if ( position != null )
+                {
+                    return new PhysicalTransactionCursor( logFile.getReader( position ), logEntryReader );
+                }
+            }
+
             // ask LogFile
             TransactionPositionLocator transactionPositionLocator = new TransactionPositionLocator( transactionIdToStartFrom, logEntryReader );
-            logFile.accept( transactionPositionLocator, headerVisitor.getLogPosition() );
+            logFile.accept( transactionPositionLocator, headerPosition );
             LogPosition position = transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache );
             return new PhysicalTransactionCursor( logFile.getReader( position ), logEntryReader );
         }
@@ -108,18 +120,54 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
         }
     }
 
+    /**
+     * The position index only gives hints, so anything going wrong when searching from a sampled position just means
+     * that we search the whole log file instead.
+     *
+     * @return the start position of the transaction, or {@code null} if it was not found after the sampled position.
+     */
+    private LogPosition locateFromSample( long transactionId, LogPosition sampledPosition ) throws FileNotFoundException
+    {
+        try
+        {
+            TransactionPositionLocator transactionPositionLocator = new TransactionPositionLocator( transactionId, logEntryReader, sampledPosition );
+            logFile.accept( transactionPositionLocator, sampledPosition );
+            return transactionPositionLocator.startEntryForFoundTransaction != null
+                   ? transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache ) : null;
+        }
+        catch ( FileNotFoundException e )
+        {
+            throw e;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return null;
+        }
+    }
+
     public static class TransactionPositionLocator implements LogFile.LogFileVisitor
     {
         private final long startTransactionId;
         private final LogEntryReader logEntryReader;
+        private final LogPosition sampledPosition;
         private LogEntryStart startEntryForFoundTransaction;
         private long commitTimestamp;
         private int commitChecksum;
 
         TransactionPositionLocator( long startTransactionId, LogEntryReader logEntryReader )
+        {
+            this( startTransactionId, logEntryReader, null );
+        }
+
+        /**
+         * @param sampledPosition position from the {@link org.neo4j.kernel.impl.transaction.log.files.TransactionLogPositionIndex} that the search
+         * starts from, which must be the start of a transaction for the search to go on, or {@code null} if searching from a log header.
+         */
+        TransactionPositionLocator( long startTransactionId, LogEntryReader logEntryReader, LogPosition sampledPosition )
         {
             this.startTransactionId = startTransactionId;
             this.logEntryReader = logEntryReader;
+            this.sampledPosition = sampledPosition;
         }
 
         @Override
@@ -129,6 +177,11 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             LogEntryStart startEntry = null;
             while ( (logEntry = logEntryReader.readLogEntry( channel )) != null )
             {
+                if ( sampledPosition != null && startEntry == null && logEntry.getType() != TX_START )
+                {
+                    // The sample does not point to the start of a transaction, so it is stale
+                    return false;
+                }
                 switch ( logEntry.getType() )
                 {
                 case TX_START:
@@ -143,6 +196,11 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
                         commitChecksum = commit.getChecksum();
                         return false;
                     }
+                    if ( sampledPosition != null && commit.getTxId() > startTransactionId )
+                    {
+                        // Went past it, so the sample is stale
+                        return false;
+                    }
                 default: // just skip commands
                     break;
                 }
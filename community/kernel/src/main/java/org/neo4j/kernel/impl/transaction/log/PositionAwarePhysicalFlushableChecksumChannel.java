@@ -33,7 +33,7 @@ import static org.neo4j.io.memory.ByteBuffers.allocate;
  * implementation uses a {@link PhysicalFlushableChecksumChannel}, which provides buffering for write operations over the
  * decorated channel.
  */
-public class PositionAwarePhysicalFlushableChecksumChannel implements FlushablePositionAwareChecksumChannel
+public class PositionAwarePhysicalFlushableChecksumChannel implements LogFileWriterChannel
 {
     private static final ByteBuffer EMPTY_READ_ONLY_BUFFER = allocate( 0 ).asReadOnlyBuffer();
     private LogVersionedStoreChannel logVersionedStoreChannel;
@@ -119,6 +119,7 @@ public class PositionAwarePhysicalFlushableChecksumChannel implements FlushableP
         channel.setBuffer( EMPTY_READ_ONLY_BUFFER );
     }
 
+    @Override
     public void setChannel( LogVersionedStoreChannel channel )
     {
         this.logVersionedStoreChannel = channel;
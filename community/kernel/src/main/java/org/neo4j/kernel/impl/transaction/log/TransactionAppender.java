@@ -56,6 +56,26 @@ public interface TransactionAppender
      */
     long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException;
 
+    /**
+     * Appends a batch of transactions to a log, just like {@link #append(TransactionToApply, LogAppendEvent)}, but also calls the given
+     * {@code serialized} callback as soon as the batch has been written to the log, and before the log is forced. This lets the caller start
+     * writing its next batch while this one is still being forced. The callback is not called if writing the batch fails.
+     * <p>
+     * The default implementation calls the callback after the whole append is done, which is always correct, but does not overlap anything.
+     *
+     * @param batch transactions to append to the log.
+     * @param logAppendEvent A trace event for the given log append operation.
+     * @param serialized called when the batch has been written to the log, but not yet forced.
+     * @return last committed transaction in this batch.
+     * @throws IOException if there was a problem appending the transaction.
+     */
+    default long append( TransactionToApply batch, LogAppendEvent logAppendEvent, Runnable serialized ) throws IOException
+    {
+        long lastTransactionId = append( batch, logAppendEvent );
+        serialized.run();
+        return lastTransactionId;
+    }
+
     /**
      * Appends a check point to a log which marks a starting point for recovery in the event of failure.
      * After this method have returned the check point mark must have been flushed to disk.
@@ -25,8 +25,10 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.configuration.GraphDatabaseSettings.check_point_policy;
@@ -65,6 +67,18 @@ public interface CheckPointThreshold
      */
     void checkPointHappened( long transactionId );
 
+    /**
+     * Like {@link #checkPointHappened(long)}, but also tells the threshold the log position the check point was made at, for thresholds
+     * that care about how much log has been written since.
+     *
+     * @param transactionId the latest transaction committed id used by the check point
+     * @param logPosition the log position of the check point
+     */
+    default void checkPointHappened( long transactionId, LogPosition logPosition )
+    {
+        checkPointHappened( transactionId );
+    }
+
     /**
      * Return a desired checking frequency, as a number of milliseconds between calls to
      * {@link #isCheckPointingNeeded(long, Consumer)}.
@@ -76,8 +90,8 @@ public interface CheckPointThreshold
     /**
      * Create and configure a {@link CheckPointThreshold} based on the given configurations.
      */
-    static CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider )
+    static CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider,
+            TransactionIdStore transactionIdStore, RecoveryTimeEstimator recoveryTimeEstimator )
     {
         String policyName = config.get( check_point_policy ).name().toLowerCase();
         CheckPointThresholdPolicy policy;
@@ -92,7 +106,7 @@ public interface CheckPointThreshold
                     "Using default policy instead.", e );
             policy = new PeriodicThresholdPolicy();
         }
-        return policy.createThreshold( config, clock, logPruning, logProvider );
+        return policy.createThreshold( config, clock, logPruning, logProvider, transactionIdStore, recoveryTimeEstimator );
     }
 
     /**
@@ -134,6 +148,15 @@ public interface CheckPointThreshold
                 }
             }
 
+            @Override
+            public void checkPointHappened( long transactionId, LogPosition logPosition )
+            {
+                for ( CheckPointThreshold threshold : thresholds )
+                {
+                    threshold.checkPointHappened( transactionId, logPosition );
+                }
+            }
+
             @Override
             public long checkFrequencyMillis()
             {
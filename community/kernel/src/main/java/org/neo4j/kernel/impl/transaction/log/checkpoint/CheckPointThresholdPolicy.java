@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.service.NamedService;
 import org.neo4j.service.Services;
+import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.time.SystemNanoClock;
 
 /**
@@ -36,7 +37,8 @@ import org.neo4j.time.SystemNanoClock;
  *
  * The is determined by the {@link GraphDatabaseSettings#check_point_policy} setting, and
  * based on this, the concrete policies are loaded and used to
- * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, LogProvider) create} the final and fully
+ * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, LogProvider, TransactionIdStore,
+ * RecoveryTimeEstimator) create} the final and fully
  * configured check point thresholds.
  */
 @Service
@@ -53,7 +55,10 @@ public interface CheckPointThresholdPolicy extends NamedService
     }
 
     /**
-     * Create a {@link CheckPointThreshold} instance based on this policy and the given configurations.
+     * Create a {@link CheckPointThreshold} instance based on this policy and the given configurations. The transaction id store and
+     * recovery time estimator are for policies that need to know where in the transaction log the database is, and how long
+     * recovering it would take.
      */
-    CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider );
+    CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider,
+            TransactionIdStore transactionIdStore, RecoveryTimeEstimator recoveryTimeEstimator );
 }
@@ -24,6 +24,7 @@ import java.util.function.BooleanSupplier;
 
 import org.neo4j.graphdb.Resource;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
@@ -50,6 +51,8 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
     private final LogPruning logPruning;
     private final Health databaseHealth;
     private final IOLimiter ioLimiter;
+    private final PageCache pageCache;
+    private final boolean snapshotDirtyPages;
     private final Log msgLog;
     private final CheckPointTracer tracer;
     private final StoreCopyCheckPointMutex mutex;
@@ -66,6 +69,8 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
             LogProvider logProvider,
             CheckPointTracer tracer,
             IOLimiter ioLimiter,
+            PageCache pageCache,
+            boolean snapshotDirtyPages,
             StoreCopyCheckPointMutex mutex )
     {
         this.appender = appender;
@@ -75,6 +80,8 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
         this.logPruning = logPruning;
         this.databaseHealth = databaseHealth;
         this.ioLimiter = ioLimiter;
+        this.pageCache = pageCache;
+        this.snapshotDirtyPages = snapshotDirtyPages;
         this.msgLog = logProvider.getLog( CheckPointerImpl.class );
         this.tracer = tracer;
         this.mutex = mutex;
@@ -182,7 +189,12 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
              */
             msgLog.info( prefix + " checkpoint started..." );
             Stopwatch startTime = Stopwatch.start();
-            forceOperation.flushAndForce( ioLimiter );
+            ioLimiter.checkpointStarted();
+            /*
+             * Everything up to the last closed transaction is on pages that are dirty by now, or that have already been
+             * written out. So with a snapshot of the dirty pages the flush can leave the pages that get dirty from here on.
+             */
+            forceOperation.flushAndForce( snapshotDirtyPages ? pageCache.snapshotDirtyPages( ioLimiter ) : ioLimiter );
             /*
              * Check kernel health before going to write the next check point.  In case of a panic this check point
              * will be aborted, which is the safest alternative so that the next recovery will have a chance to
@@ -190,7 +202,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
              */
             databaseHealth.assertHealthy( IOException.class );
             appender.checkPoint( logPosition, event );
-            threshold.checkPointHappened( lastClosedTransactionId );
+            threshold.checkPointHappened( lastClosedTransactionId, logPosition );
             long durationMillis = startTime.elapsed( MILLISECONDS );
             msgLog.info( prefix + " checkpoint completed in " + duration( durationMillis ) );
             event.checkpointCompleted( durationMillis );
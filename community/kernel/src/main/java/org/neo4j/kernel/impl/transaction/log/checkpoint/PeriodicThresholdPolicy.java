@@ -24,6 +24,7 @@ import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold.or;
@@ -42,8 +43,8 @@ public class PeriodicThresholdPolicy implements CheckPointThresholdPolicy
     }
 
     @Override
-    public CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider )
+    public CheckPointThreshold createThreshold( Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider,
+            TransactionIdStore transactionIdStore, RecoveryTimeEstimator recoveryTimeEstimator )
     {
         int txThreshold = config.get( GraphDatabaseSettings.check_point_interval_tx );
         final CountCommittedTransactionThreshold countCommittedTransactionThreshold =
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.logging.Log;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Estimates how long it would take to recover a given amount of transaction log.
+ * <p>
+ * The estimate is based on the log apply throughput of the recoveries this estimator has observed, as reported through
+ * {@link RecoveryMonitor#recoveredLogRange(LogPosition, LogPosition, long)}. Each recovery moves the measured throughput a share,
+ * {@link #SAMPLE_WEIGHT}, of the way towards its own throughput, so that the influence of a recovery decays with every
+ * recovery after it, and the estimate follows the hardware and the workload when they change, in either direction.
+ * Until a recovery of a meaningful size has been observed, a conservative default throughput is used instead.
+ * The measured throughput is kept in a file, so that it outlives the database that measured it: recoveries are rare,
+ * and a throughput that was only known until the next restart would rarely be known at all.
+ * <p>
+ * Log sizes across log versions are computed from the {@link GraphDatabaseSettings#logical_log_rotation_threshold}, since rotated log
+ * files may have been preallocated and their sizes on disk would then not reflect how much log they contain.
+ */
+public class RecoveryTimeEstimator implements RecoveryMonitor
+{
+    static final long DEFAULT_APPLY_BYTES_PER_SECOND =
+            FeatureToggles.getLong( RecoveryTimeEstimator.class, "defaultApplyBytesPerSecond", ByteUnit.mebiBytes( 8 ) );
+    /**
+     * Recoveries of less log than this are dominated by fixed start-up costs, and say little about the log apply throughput.
+     */
+    static final long MIN_SAMPLE_BYTES = FeatureToggles.getLong( RecoveryTimeEstimator.class, "minSampleBytes", ByteUnit.mebiBytes( 1 ) );
+    /**
+     * How much the throughput of the latest recovery counts, in the exponentially weighted moving average of the measured throughputs.
+     */
+    static final double SAMPLE_WEIGHT = FeatureToggles.getDouble( RecoveryTimeEstimator.class, "sampleWeight", 0.5 );
+
+    /**
+     * The name of the file, in the database directory, that the measured throughput is kept in.
+     */
+    public static final String THROUGHPUT_FILE_NAME = "recovery-throughput";
+
+    private final Config config;
+    private final FileSystemAbstraction fs;
+    private final File throughputFile;
+    private final Log log;
+    private volatile long measuredApplyBytesPerSecond;
+
+    /**
+     * @param throughputFile the file to keep the measured throughput in, between restarts.
+     */
+    public RecoveryTimeEstimator( Config config, FileSystemAbstraction fs, File throughputFile, Log log )
+    {
+        this.config = config;
+        this.fs = fs;
+        this.throughputFile = throughputFile;
+        this.log = log;
+        this.measuredApplyBytesPerSecond = readMeasuredThroughput();
+    }
+
+    @Override
+    public void recoveredLogRange( LogPosition fromPosition, LogPosition toPosition, long recoveryTimeInMilliseconds )
+    {
+        long bytes = logBytesBetween( fromPosition, toPosition );
+        if ( bytes < MIN_SAMPLE_BYTES )
+        {
+            return;
+        }
+        long bytesPerSecond = Math.max( 1, bytes * 1000 / Math.max( 1, recoveryTimeInMilliseconds ) );
+        long measured = measuredApplyBytesPerSecond;
+        long average = measured == 0 ? bytesPerSecond : Math.max( 1, Math.round( measured + SAMPLE_WEIGHT * (bytesPerSecond - measured) ) );
+        if ( average != measured )
+        {
+            measuredApplyBytesPerSecond = average;
+            writeMeasuredThroughput( average );
+        }
+    }
+
+    /**
+     * @return the number of log bytes between the two positions, or zero if {@code to} is not after {@code from}.
+     */
+    public long logBytesBetween( LogPosition from, LogPosition to )
+    {
+        long rotationThreshold = config.get( GraphDatabaseSettings.logical_log_rotation_threshold );
+        long versions = to.getLogVersion() - from.getLogVersion();
+        return Math.max( 0, versions * rotationThreshold + to.getByteOffset() - from.getByteOffset() );
+    }
+
+    /**
+     * @return the log apply throughput, in bytes per second, that recovery time estimates are based on.
+     */
+    public long applyBytesPerSecond()
+    {
+        long measured = measuredApplyBytesPerSecond;
+        return measured == 0 ? DEFAULT_APPLY_BYTES_PER_SECOND : measured;
+    }
+
+    /**
+     * @param logBytes the amount of transaction log that would have to be recovered.
+     * @return the estimated time, in milliseconds, it would take to recover that much log.
+     */
+    public long estimateRecoveryMillis( long logBytes )
+    {
+        return (long) (logBytes * 1000d / applyBytesPerSecond());
+    }
+
+    private long readMeasuredThroughput()
+    {
+        if ( !fs.fileExists( throughputFile ) )
+        {
+            return 0;
+        }
+        try ( StoreChannel channel = fs.read( throughputFile ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( Long.BYTES );
+            channel.readAll( buffer );
+            buffer.flip();
+            return Math.max( 0, buffer.getLong() );
+        }
+        catch ( IOException | IllegalStateException e )
+        {
+            log.warn( "Unable to read the measured recovery throughput from " + throughputFile + ", using the default.", e );
+            return 0;
+        }
+    }
+
+    private void writeMeasuredThroughput( long bytesPerSecond )
+    {
+        try ( StoreChannel channel = fs.write( throughputFile ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( Long.BYTES );
+            buffer.putLong( bytesPerSecond ).flip();
+            channel.truncate( 0 );
+            channel.writeAll( buffer );
+            channel.force( false );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to write the measured recovery throughput to " + throughputFile + ".", e );
+        }
+    }
+}
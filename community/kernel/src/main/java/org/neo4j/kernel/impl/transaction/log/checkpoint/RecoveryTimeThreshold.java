@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.time.SystemNanoClock;
+
+import static org.neo4j.internal.helpers.Format.duration;
+
+/**
+ * Triggers a check point when recovering the transaction log written since the last check point would take longer than a target duration.
+ * <p>
+ * The log keeps growing while we wait for the next check and while the check point itself runs, so the decision is made on the log
+ * we expect to have by then: the log written so far, plus the current write rate over the check frequency and the duration of the last
+ * check point. When the write load is light that projection stays small, and no check point is triggered until the log itself
+ * approaches the target.
+ */
+class RecoveryTimeThreshold extends AbstractCheckPointThreshold
+{
+    private final long targetMillis;
+    private final RecoveryTimeEstimator estimator;
+    private final TransactionIdStore transactionIdStore;
+    private final SystemNanoClock clock;
+
+    private volatile long lastCheckPointedTransactionId;
+    private volatile LogPosition lastCheckPointedPosition;
+    private volatile long lastCheckPointDurationMillis;
+    private volatile long checkPointTriggeredNanos;
+
+    private LogPosition lastObservedPosition;
+    private long lastObservedNanos;
+    private long writeBytesPerSecond;
+    private long projectedLogBytes;
+
+    RecoveryTimeThreshold( long targetMillis, RecoveryTimeEstimator estimator, TransactionIdStore transactionIdStore, SystemNanoClock clock )
+    {
+        super( "recovery time estimate above " + duration( targetMillis ) + " threshold" );
+        this.targetMillis = targetMillis;
+        this.estimator = estimator;
+        this.transactionIdStore = transactionIdStore;
+        this.clock = clock;
+    }
+
+    @Override
+    public void initialize( long transactionId )
+    {
+        checkPointHappened( transactionId, lastClosedPosition() );
+    }
+
+    @Override
+    protected synchronized boolean thresholdReached( long lastCommittedTransactionId )
+    {
+        if ( lastCommittedTransactionId <= lastCheckPointedTransactionId )
+        {
+            return false;
+        }
+
+        LogPosition position = lastClosedPosition();
+        long nanos = clock.nanos();
+        long elapsedNanos = nanos - lastObservedNanos;
+        if ( elapsedNanos > 0 )
+        {
+            long writtenBytes = estimator.logBytesBetween( lastObservedPosition, position );
+            writeBytesPerSecond = (long) (writtenBytes * (double) TimeUnit.SECONDS.toNanos( 1 ) / elapsedNanos);
+        }
+        lastObservedPosition = position;
+        lastObservedNanos = nanos;
+
+        long horizonMillis = checkFrequencyMillis() + lastCheckPointDurationMillis;
+        projectedLogBytes = estimator.logBytesBetween( lastCheckPointedPosition, position ) + writeBytesPerSecond * horizonMillis / 1000;
+        if ( estimator.estimateRecoveryMillis( projectedLogBytes ) >= targetMillis )
+        {
+            checkPointTriggeredNanos = nanos;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected String createCheckpointThresholdDescription( String description )
+    {
+        return description + " (" + ByteUnit.bytesToString( projectedLogBytes ) + " of log at " +
+                ByteUnit.bytesToString( estimator.applyBytesPerSecond() ) + "/s)";
+    }
+
+    @Override
+    public void checkPointHappened( long transactionId )
+    {
+        checkPointHappened( transactionId, lastClosedPosition() );
+    }
+
+    @Override
+    public synchronized void checkPointHappened( long transactionId, LogPosition logPosition )
+    {
+        long nanos = clock.nanos();
+        if ( checkPointTriggeredNanos != 0 )
+        {
+            lastCheckPointDurationMillis = TimeUnit.NANOSECONDS.toMillis( nanos - checkPointTriggeredNanos );
+            checkPointTriggeredNanos = 0;
+        }
+        lastCheckPointedTransactionId = transactionId;
+        lastCheckPointedPosition = logPosition;
+        if ( lastObservedPosition == null )
+        {
+            lastObservedPosition = logPosition;
+            lastObservedNanos = nanos;
+        }
+    }
+
+    @Override
+    public long checkFrequencyMillis()
+    {
+        // Check often enough that the log can not outgrow the target between two checks, even with short targets.
+        return Math.max( 1, Math.min( DEFAULT_CHECKING_FREQUENCY_MILLIS, targetMillis / 10 ) );
+    }
+
+    private LogPosition lastClosedPosition()
+    {
+        long[] lastClosedTransaction = transactionIdStore.getLastClosedTransaction();
+        return new LogPosition( lastClosedTransaction[1], lastClosedTransaction[2] );
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.io.fs.WritableChecksumChannel;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.util.FeatureToggles;
+
+import static java.lang.Math.max;
+import static org.neo4j.kernel.impl.transaction.log.entry.CompressedCommandBlocks.BLOCK_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMPRESSED_COMMANDS;
+
+/**
+ * {@link LogEntryWriter} that writes the commands of a transaction as one {@link CompressedCommandBlocks compressed block},
+ * when they are large enough to be worth compressing and compression makes them smaller. Otherwise they are written as the
+ * usual command entries.
+ */
+public class CompressingLogEntryWriter extends LogEntryWriter
+{
+    private static final int MIN_COMPRESSED_LENGTH = FeatureToggles.getInteger( CompressingLogEntryWriter.class, "minLength", 256 );
+    private static final int COMPRESSION_LEVEL = FeatureToggles.getInteger( CompressingLogEntryWriter.class, "compressionLevel", 3 );
+    private static final int RETAINED_BUFFER_SIZE = (int) ByteUnit.mebiBytes( 1 );
+
+    private final CommandBuffer commands = new CommandBuffer();
+    private final StorageCommandSerializer commandSerializer = new StorageCommandSerializer( commands );
+    private final CommandCompressionMonitor monitor;
+    private byte[] compressed = new byte[0];
+
+    public CompressingLogEntryWriter( WritableChecksumChannel channel, CommandCompressionMonitor monitor )
+    {
+        super( channel );
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void serialize( TransactionRepresentation tx ) throws IOException
+    {
+        commands.clear();
+        tx.accept( commandSerializer );
+        int length = commands.buffer.position();
+        byte[] serialized = commands.buffer.array();
+        try
+        {
+            if ( length >= MIN_COMPRESSED_LENGTH )
+            {
+                int maxCompressedLength = CompressedCommandBlocks.maxCompressedLength( length );
+                if ( compressed.length < maxCompressedLength )
+                {
+                    compressed = new byte[maxCompressedLength];
+                }
+                long startNanos = System.nanoTime();
+                int compressedLength = CompressedCommandBlocks.compress( serialized, length, compressed, COMPRESSION_LEVEL );
+                monitor.compressed( length, compressedLength, System.nanoTime() - startNanos );
+                if ( compressedLength + BLOCK_HEADER_SIZE < length )
+                {
+                    // Only compressed blocks use the optional version, so logs without them can still be read by releases before it
+                    writeLogEntryHeader( LogEntryVersion.V4_1, COMPRESSED_COMMANDS, channel );
+                    channel.putInt( length ).putInt( compressedLength ).put( compressed, compressedLength );
+                    return;
+                }
+            }
+            // The serialized commands are the same command entries that the plain writer would have written
+            channel.put( serialized, length );
+        }
+        finally
+        {
+            // Don't hold on to the buffers of an unusually large transaction
+            if ( serialized.length > RETAINED_BUFFER_SIZE )
+            {
+                commands.buffer = ByteBuffer.allocate( MIN_COMPRESSED_LENGTH );
+            }
+            if ( compressed.length > RETAINED_BUFFER_SIZE )
+            {
+                compressed = new byte[0];
+            }
+        }
+    }
+
+    /**
+     * Growing heap buffer that the commands of a transaction are serialized into, before compressing them.
+     */
+    private static class CommandBuffer implements WritableChannel
+    {
+        private ByteBuffer buffer = ByteBuffer.allocate( MIN_COMPRESSED_LENGTH );
+
+        void clear()
+        {
+            buffer.clear();
+        }
+
+        @Override
+        public WritableChannel put( byte value )
+        {
+            withSpace( Byte.BYTES ).put( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putShort( short value )
+        {
+            withSpace( Short.BYTES ).putShort( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putInt( int value )
+        {
+            withSpace( Integer.BYTES ).putInt( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putLong( long value )
+        {
+            withSpace( Long.BYTES ).putLong( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putFloat( float value )
+        {
+            withSpace( Float.BYTES ).putFloat( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putDouble( double value )
+        {
+            withSpace( Double.BYTES ).putDouble( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel put( byte[] value, int length )
+        {
+            withSpace( length ).put( value, 0, length );
+            return this;
+        }
+
+        private ByteBuffer withSpace( int bytes )
+        {
+            if ( buffer.remaining() < bytes )
+            {
+                ByteBuffer grown = ByteBuffer.allocate( max( buffer.capacity() * 2, buffer.position() + bytes ) );
+                buffer.flip();
+                grown.put( buffer );
+                buffer = grown;
+            }
+            return buffer;
+        }
+    }
+}
@@ -52,7 +52,12 @@ public class LogEntryWriter
 
     protected static void writeLogEntryHeader( byte type, WritableChannel channel ) throws IOException
     {
-        channel.put( LATEST_VERSION.version() ).put( type );
+        writeLogEntryHeader( LATEST_VERSION, type, channel );
+    }
+
+    protected static void writeLogEntryHeader( LogEntryVersion version, byte type, WritableChannel channel ) throws IOException
+    {
+        channel.put( version.version() ).put( type );
     }
 
     private void writeStartEntry( LogEntryStart entry ) throws IOException
@@ -68,5 +68,9 @@ public interface LogFiles extends Lifecycle
 
     LogFileChannelNativeAccessor getChannelNativeAccessor();
 
+    TransactionLogTailIndex getTailIndex();
+
+    TransactionLogPositionIndex getPositionIndex();
+
     PhysicalLogVersionedStoreChannel createLogChannelForVersion( long versionUsed, LongSupplier lastCommittedTransactionId ) throws IOException;
 }
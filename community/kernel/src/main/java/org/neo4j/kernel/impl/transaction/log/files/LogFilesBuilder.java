@@ -48,6 +48,7 @@ import org.neo4j.storageengine.api.TransactionIdStore;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_logical_logs;
+import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_append_mode;
 
 /**
  * Transactional log files facade class builder.
@@ -252,7 +253,7 @@ public class LogFilesBuilder
 
         return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedIdSupplier,
                 committingTransactionIdSupplier, lastClosedTransactionPositionSupplier, logVersionRepositorySupplier, fileSystem,
-                logProvider, databaseTracer, storeIdSupplier, nativeAccess );
+                logProvider, databaseTracer, storeIdSupplier, nativeAccess, config.get( transaction_log_append_mode ) );
     }
 
     private NativeAccess getNativeAccess()
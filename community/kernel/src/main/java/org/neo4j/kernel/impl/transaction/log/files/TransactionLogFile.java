@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import org.apache.commons.lang3.SystemUtils;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -28,10 +30,12 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChecksumChannel;
+import org.neo4j.kernel.impl.transaction.log.LogFileWriterChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.PositionAwareMappedFlushableChecksumChannel;
 import org.neo4j.kernel.impl.transaction.log.PositionAwarePhysicalFlushableChecksumChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
@@ -39,10 +43,13 @@ import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
 import org.neo4j.storageengine.api.LogVersionRepository;
+import org.neo4j.util.FeatureToggles;
 
 import static java.lang.Math.min;
 import static java.lang.Runtime.getRuntime;
+import static org.neo4j.configuration.GraphDatabaseSettings.TransactionLogAppendMode.MEMORY_MAPPED;
 import static org.neo4j.io.memory.ByteBuffers.allocateDirect;
 import static org.neo4j.io.memory.ByteBuffers.releaseBuffer;
 
@@ -51,11 +58,15 @@ import static org.neo4j.io.memory.ByteBuffers.releaseBuffer;
  */
 class TransactionLogFile extends LifecycleAdapter implements LogFile
 {
+    private static final int MAPPED_WINDOW_SIZE = FeatureToggles.getInteger( TransactionLogFile.class, "mappedWindowSize",
+            (int) ByteUnit.mebiBytes( 8 ) );
+
     private final AtomicLong rotateAtSize;
     private final LogFiles logFiles;
     private final TransactionLogFilesContext context;
     private final LogVersionBridge readerLogVersionBridge;
-    private PositionAwarePhysicalFlushableChecksumChannel writer;
+    private final Log log;
+    private LogFileWriterChannel writer;
     private LogVersionRepository logVersionRepository;
 
     private volatile PhysicalLogVersionedStoreChannel channel;
@@ -67,6 +78,7 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         this.context = context;
         this.logFiles = logFiles;
         this.readerLogVersionBridge = new ReaderLogVersionBridge( logFiles );
+        this.log = context.getLogProvider().getLog( getClass() );
     }
 
     @Override
@@ -84,8 +96,32 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         //try to set position
         seekChannelPosition( currentLogVersion );
 
+        writer = createWriter();
+    }
+
+    private LogFileWriterChannel createWriter()
+    {
+        if ( context.getAppendMode() == MEMORY_MAPPED )
+        {
+            if ( SystemUtils.IS_OS_WINDOWS )
+            {
+                // Windows does not allow truncating a file that is mapped, which rotation does
+                log.warn( "Memory mapped transaction log appending is not supported on Windows, using buffered appending instead." );
+            }
+            else
+            {
+                try
+                {
+                    return new PositionAwareMappedFlushableChecksumChannel( channel, MAPPED_WINDOW_SIZE );
+                }
+                catch ( IOException e )
+                {
+                    log.warn( "Unable to map transaction log file " + channel.getFile() + ", using buffered appending instead.", e );
+                }
+            }
+        }
         this.byteBuffer = allocateDirect( calculateLogBufferSize() );
-        writer = new PositionAwarePhysicalFlushableChecksumChannel( channel, byteBuffer );
+        return new PositionAwarePhysicalFlushableChecksumChannel( channel, byteBuffer );
     }
 
     private void seekChannelPosition( long currentLogVersion ) throws IOException
@@ -135,6 +171,7 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         if ( writer != null )
         {
             writer.close();
+            flushPositionIndex();
         }
         if ( byteBuffer != null )
         {
@@ -217,6 +254,7 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
          */
         writer.prepareForFlush().flush();
         currentLog.truncate( currentLog.position() );
+        flushPositionIndex();
 
         /*
          * The log version is now in the store, flushed and persistent. If we crash
@@ -232,6 +270,19 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         return newLog;
     }
 
+    private void flushPositionIndex()
+    {
+        try
+        {
+            logFiles.getPositionIndex().flush();
+        }
+        catch ( IOException e )
+        {
+            // Reading transactions by id will just have to scan more of the log
+            log.warn( "Unable to update the transaction log position index.", e );
+        }
+    }
+
     @Override
     public FlushablePositionAwareChecksumChannel getWriter()
     {
@@ -54,6 +54,8 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     private final File logsDirectory;
     private final TransactionLogChannelAllocator channelAllocator;
     private final LogFileChannelNativeAccessor nativeChannelAccessor;
+    private final TransactionLogTailIndex tailIndex;
+    private final TransactionLogPositionIndex positionIndex;
 
     TransactionLogFiles( File logsDirectory, String name, TransactionLogFilesContext context )
     {
@@ -66,6 +68,8 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         this.nativeChannelAccessor = new LogFileChannelNativeAccessor( fileSystem, context );
         this.logFile = new TransactionLogFile( this, context );
         this.channelAllocator = new TransactionLogChannelAllocator( logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor );
+        this.tailIndex = new TransactionLogTailIndex( fileSystem, new File( logsDirectory, name + TransactionLogTailIndex.TAIL_INDEX_SUFFIX ) );
+        this.positionIndex = new TransactionLogPositionIndex( fileSystem, new File( logsDirectory, name + TransactionLogPositionIndex.POSITION_INDEX_SUFFIX ) );
     }
 
     @Override
@@ -268,4 +272,16 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     {
         return nativeChannelAccessor;
     }
+
+    @Override
+    public TransactionLogTailIndex getTailIndex()
+    {
+        return tailIndex;
+    }
+
+    @Override
+    public TransactionLogPositionIndex getPositionIndex()
+    {
+        return positionIndex;
+    }
 }
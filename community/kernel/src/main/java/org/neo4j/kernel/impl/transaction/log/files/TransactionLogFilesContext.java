@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
+import org.neo4j.configuration.GraphDatabaseSettings.TransactionLogAppendMode;
 import org.neo4j.internal.nativeimpl.NativeAccess;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
@@ -47,11 +48,13 @@ class TransactionLogFilesContext
     private final DatabaseTracer databaseTracer;
     private final Supplier<StoreId> storeId;
     private final NativeAccess nativeAccess;
+    private final TransactionLogAppendMode appendMode;
 
     TransactionLogFilesContext( AtomicLong rotationThreshold, AtomicBoolean tryPreallocateTransactionLogs, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier, Supplier<LogPosition> lastClosedPositionSupplier,
             Supplier<LogVersionRepository> logVersionRepositorySupplier, FileSystemAbstraction fileSystem,
-            LogProvider logProvider, DatabaseTracer databaseTracer, Supplier<StoreId> storeId, NativeAccess nativeAccess )
+            LogProvider logProvider, DatabaseTracer databaseTracer, Supplier<StoreId> storeId, NativeAccess nativeAccess,
+            TransactionLogAppendMode appendMode )
     {
         this.rotationThreshold = rotationThreshold;
         this.tryPreallocateTransactionLogs = tryPreallocateTransactionLogs;
@@ -65,6 +68,7 @@ class TransactionLogFilesContext
         this.databaseTracer = databaseTracer;
         this.storeId = storeId;
         this.nativeAccess = nativeAccess;
+        this.appendMode = appendMode;
     }
 
     AtomicLong getRotationThreshold()
@@ -117,6 +121,11 @@ class TransactionLogFilesContext
         return nativeAccess;
     }
 
+    TransactionLogAppendMode getAppendMode()
+    {
+        return appendMode;
+    }
+
     DatabaseTracer getDatabaseTracer()
     {
         return databaseTracer;
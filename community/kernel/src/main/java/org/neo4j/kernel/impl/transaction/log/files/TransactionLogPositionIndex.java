@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.util.VisibleForTesting;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A sparse, persistent index from transaction id to the position of the transaction in the log, so that reading
+ * transactions from an arbitrary transaction id does not have to scan the log file holding it from the start.
+ * <p>
+ * The appender offers the start position of every transaction it appends, and one is kept as a sample whenever it is
+ * at least {@link #SAMPLE_DISTANCE} bytes into the log from the previous sample. The samples of a log file are kept in
+ * memory until that file is rotated away, or the log is shut down, at which point they are appended to the index file.
+ * <p>
+ * The index file is a sorted array of fixed size records, that is binary searched with a few positional reads.
+ * If transaction ids are written again after the end of the log was truncated, such as by recovery, then the
+ * samples of the old history are dropped from the index before the new ones are appended. The samples of log files
+ * that have been pruned are dropped by {@link #prune(long)}. The positions are only hints, and readers must verify that
+ * they find the transaction they are looking for where a sample points.
+ * <p>
+ * Samples are offered by the appender while it holds the log file, so offering one never waits for file IO:
+ * the samples in memory are guarded by the monitor of the index, and the index file by a separate lock.
+ * <p>
+ * Each record is
+ * <pre>
+ *  transaction id   8 bytes
+ *  log version      8 bytes
+ *  byte offset      8 bytes
+ * </pre>
+ */
+public class TransactionLogPositionIndex
+{
+    static final String POSITION_INDEX_SUFFIX = "_positions";
+    /**
+     * The minimum number of bytes between the start positions of two samples in the same log file.
+     */
+    private static final int SAMPLE_DISTANCE = getInteger( TransactionLogPositionIndex.class, "sampleDistance", (int) ByteUnit.mebiBytes( 1 ) );
+    private static final int RECORD_SIZE = 3 * Long.BYTES;
+    private static final int TRANSACTION_ID = 0;
+    private static final int LOG_VERSION = Long.BYTES;
+    private static final int BYTE_OFFSET = 2 * Long.BYTES;
+
+    private final FileSystemAbstraction fileSystem;
+    private final File file;
+    private final int sampleDistance;
+    /**
+     * Guards the index file. It is taken before the monitor of the index, which is never held during file IO.
+     */
+    private final Object fileLock = new Object();
+    private final List<Sample> pendingSamples = new ArrayList<>();
+    private long lastSampleVersion = -1;
+    private long lastSampleOffset;
+
+    TransactionLogPositionIndex( FileSystemAbstraction fileSystem, File file )
+    {
+        this( fileSystem, file, SAMPLE_DISTANCE );
+    }
+
+    @VisibleForTesting
+    TransactionLogPositionIndex( FileSystemAbstraction fileSystem, File file, int sampleDistance )
+    {
+        this.fileSystem = fileSystem;
+        this.file = file;
+        this.sampleDistance = sampleDistance;
+    }
+
+    /**
+     * Offers the start position of an appended transaction as a sample. Must be called in transaction id order.
+     *
+     * @param transactionId id of the appended transaction.
+     * @param startPosition position of the start entry of the transaction.
+     */
+    public synchronized void sample( long transactionId, LogPosition startPosition )
+    {
+        if ( startPosition.getLogVersion() != lastSampleVersion )
+        {
+            // Searching a log file starts from its header anyway
+            lastSampleVersion = startPosition.getLogVersion();
+            lastSampleOffset = 0;
+        }
+        if ( startPosition.getByteOffset() - lastSampleOffset >= sampleDistance )
+        {
+            pendingSamples.add( new Sample( transactionId, startPosition ) );
+            lastSampleOffset = startPosition.getByteOffset();
+        }
+    }
+
+    /**
+     * Appends the samples taken since the last flush to the index file.
+     */
+    public void flush() throws IOException
+    {
+        synchronized ( fileLock )
+        {
+            List<Sample> samples;
+            synchronized ( this )
+            {
+                samples = new ArrayList<>( pendingSamples );
+            }
+            if ( samples.isEmpty() )
+            {
+                return;
+            }
+            try ( StoreChannel channel = fileSystem.write( file ) )
+            {
+                ByteBuffer recordBuffer = ByteBuffers.allocate( RECORD_SIZE );
+                long records = channel.size() / RECORD_SIZE;
+                long keptRecords = countRecordsBefore( channel, recordBuffer, records, TRANSACTION_ID, samples.get( 0 ).transactionId );
+                ByteBuffer buffer = ByteBuffers.allocate( samples.size() * RECORD_SIZE );
+                for ( Sample sample : samples )
+                {
+                    buffer.putLong( sample.transactionId );
+                    buffer.putLong( sample.position.getLogVersion() );
+                    buffer.putLong( sample.position.getByteOffset() );
+                }
+                buffer.flip();
+                channel.truncate( keptRecords * RECORD_SIZE );
+                channel.writeAll( buffer, keptRecords * RECORD_SIZE );
+            }
+            synchronized ( this )
+            {
+                // Samples taken while the file was written are appended after the flushed ones, and stay pending.
+                pendingSamples.subList( 0, samples.size() ).clear();
+            }
+        }
+    }
+
+    /**
+     * Drops the samples of the log files before the given version, that have been pruned.
+     *
+     * @param lowestLogVersion the lowest log version that is still kept.
+     */
+    public void prune( long lowestLogVersion ) throws IOException
+    {
+        synchronized ( fileLock )
+        {
+            synchronized ( this )
+            {
+                pendingSamples.removeIf( sample -> sample.position.getLogVersion() < lowestLogVersion );
+            }
+            if ( !fileSystem.fileExists( file ) )
+            {
+                return;
+            }
+            ByteBuffer keptRecords;
+            try ( StoreChannel channel = fileSystem.read( file ) )
+            {
+                ByteBuffer recordBuffer = ByteBuffers.allocate( RECORD_SIZE );
+                long records = channel.size() / RECORD_SIZE;
+                long prunedRecords = countRecordsBefore( channel, recordBuffer, records, LOG_VERSION, lowestLogVersion );
+                if ( prunedRecords == 0 )
+                {
+                    return;
+                }
+                keptRecords = ByteBuffers.allocate( Math.toIntExact( (records - prunedRecords) * RECORD_SIZE ) );
+                channel.position( prunedRecords * RECORD_SIZE );
+                channel.readAll( keptRecords );
+                keptRecords.flip();
+            }
+            // The index is rewritten to a new file, so that a crash half way through does not leave it unsorted.
+            File tempFile = new File( file.getParentFile(), file.getName() + ".tmp" );
+            try ( StoreChannel channel = fileSystem.write( tempFile ) )
+            {
+                channel.truncate( 0 );
+                channel.writeAll( keptRecords );
+            }
+            fileSystem.renameFile( tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING );
+        }
+    }
+
+    /**
+     * Finds the sample closest before the given transaction, in the given log file.
+     *
+     * @param transactionId id of the transaction to look for.
+     * @param logVersion version of the log file that holds the transaction.
+     * @return the start position of a transaction with an id that is not higher than {@code transactionId}, in log file {@code logVersion},
+     * or {@code null} if there is no such sample, in which case the log file must be searched from its header.
+     */
+    public LogPosition lookup( long transactionId, long logVersion ) throws IOException
+    {
+        LogPosition found = lookupPendingSample( transactionId, logVersion );
+        if ( found != null )
+        {
+            return found;
+        }
+        synchronized ( fileLock )
+        {
+            if ( !fileSystem.fileExists( file ) )
+            {
+                return null;
+            }
+            try ( StoreChannel channel = fileSystem.read( file ) )
+            {
+                ByteBuffer recordBuffer = ByteBuffers.allocate( RECORD_SIZE );
+                long record = countRecordsBefore( channel, recordBuffer, channel.size() / RECORD_SIZE, TRANSACTION_ID, transactionId + 1 ) - 1;
+                if ( record < 0 )
+                {
+                    return null;
+                }
+                readRecord( channel, recordBuffer, record );
+                long version = recordBuffer.getLong( LOG_VERSION );
+                return version == logVersion ? new LogPosition( version, recordBuffer.getLong( BYTE_OFFSET ) ) : null;
+            }
+        }
+    }
+
+    private synchronized LogPosition lookupPendingSample( long transactionId, long logVersion )
+    {
+        LogPosition found = null;
+        for ( Sample sample : pendingSamples )
+        {
+            if ( sample.transactionId > transactionId )
+            {
+                break;
+            }
+            if ( sample.position.getLogVersion() == logVersion )
+            {
+                found = sample.position;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Transaction ids and log versions both grow through the index file, so it can be searched by either.
+     *
+     * @return the number of records, at the start of the sorted index file, with a lower value than {@code value} in the given field.
+     */
+    private long countRecordsBefore( StoreChannel channel, ByteBuffer recordBuffer, long records, int field, long value ) throws IOException
+    {
+        long low = 0;
+        long high = records;
+        while ( low < high )
+        {
+            long middle = (low + high) >>> 1;
+            readRecord( channel, recordBuffer, middle );
+            if ( recordBuffer.getLong( field ) < value )
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void readRecord( StoreChannel channel, ByteBuffer recordBuffer, long record ) throws IOException
+    {
+        recordBuffer.clear();
+        long position = record * RECORD_SIZE;
+        while ( recordBuffer.hasRemaining() )
+        {
+            int read = channel.read( recordBuffer, position + recordBuffer.position() );
+            if ( read == -1 )
+            {
+                throw new EOFException( "Transaction log position index " + file + " ended in the middle of record " + record );
+            }
+        }
+    }
+
+    private static class Sample
+    {
+        private final long transactionId;
+        private final LogPosition position;
+
+        Sample( long transactionId, LogPosition position )
+        {
+            this.transactionId = transactionId;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.storageengine.api.StoreId;
+
+/**
+ * A small file next to the transaction logs, that remembers where the last check point was written, so that finding
+ * the tail of the logs at startup does not have to scan all of them. It is rewritten after every check point.
+ * <p>
+ * The index is only a hint. It is not forced, and a stale one still points at a valid, older, check point, from
+ * where the tail is found by scanning forward. Anything that does not add up, such as a bad checksum, or a log
+ * header that differs from the one the index was written for, makes the reader fall back to a full scan.
+ * <p>
+ * Format is
+ * <pre>
+ *  format version                 8 bytes
+ *  log format version             1 byte
+ *  log version                    8 bytes
+ *  log header last committed tx   8 bytes
+ *  log header store id            40 bytes
+ *  log header size                8 bytes
+ *  check point entry offset       8 bytes
+ *  end of check point entry       8 bytes
+ *  check pointed log version      8 bytes
+ *  check pointed log offset       8 bytes
+ *  last committed tx              8 bytes
+ *  checksum                       4 bytes
+ * </pre>
+ */
+public class TransactionLogTailIndex
+{
+    static final String TAIL_INDEX_SUFFIX = "_tail";
+    private static final long FORMAT_VERSION = 1;
+    private static final int SIZE = Byte.BYTES + 14 * Long.BYTES + Integer.BYTES;
+
+    private final FileSystemAbstraction fileSystem;
+    private final File file;
+
+    TransactionLogTailIndex( FileSystemAbstraction fileSystem, File file )
+    {
+        this.fileSystem = fileSystem;
+        this.file = file;
+    }
+
+    /**
+     * Records that a check point entry has been appended, and forced, to the log.
+     *
+     * @param header header of the log file that the check point entry was written to.
+     * @param checkPointEntry position of the check point entry itself.
+     * @param endOfCheckPointEntry position right after the check point entry.
+     * @param checkPointedPosition the position contained in the check point.
+     * @param lastCommittedTransactionId id of the last transaction committed when the check point was written.
+     */
+    public synchronized void write( LogHeader header, LogPosition checkPointEntry, LogPosition endOfCheckPointEntry, LogPosition checkPointedPosition,
+            long lastCommittedTransactionId ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffers.allocate( SIZE );
+        buffer.putLong( FORMAT_VERSION );
+        buffer.put( header.getLogFormatVersion() );
+        buffer.putLong( header.getLogVersion() );
+        buffer.putLong( header.getLastCommittedTxId() );
+        StoreId storeId = header.getStoreId();
+        buffer.putLong( storeId.getCreationTime() );
+        buffer.putLong( storeId.getRandomId() );
+        buffer.putLong( storeId.getStoreVersion() );
+        buffer.putLong( storeId.getUpgradeTime() );
+        buffer.putLong( storeId.getUpgradeTxId() );
+        buffer.putLong( header.getStartPosition().getByteOffset() );
+        buffer.putLong( checkPointEntry.getByteOffset() );
+        buffer.putLong( endOfCheckPointEntry.getByteOffset() );
+        buffer.putLong( checkPointedPosition.getLogVersion() );
+        buffer.putLong( checkPointedPosition.getByteOffset() );
+        buffer.putLong( lastCommittedTransactionId );
+        buffer.putInt( checksum( buffer, buffer.position() ) );
+        buffer.flip();
+        try ( StoreChannel channel = fileSystem.write( file ) )
+        {
+            channel.truncate( 0 );
+            channel.writeAll( buffer );
+        }
+    }
+
+    /**
+     * @return the last written {@link Entry}, or {@code null} if there is no index, or it could not be read back intact.
+     */
+    public synchronized Entry read()
+    {
+        if ( !fileSystem.fileExists( file ) )
+        {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffers.allocate( SIZE );
+        try ( StoreChannel channel = fileSystem.read( file ) )
+        {
+            if ( channel.size() != SIZE )
+            {
+                return null;
+            }
+            channel.readAll( buffer );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        buffer.flip();
+        if ( buffer.getInt( SIZE - Integer.BYTES ) != checksum( buffer, SIZE - Integer.BYTES ) || buffer.getLong() != FORMAT_VERSION )
+        {
+            return null;
+        }
+        byte logFormatVersion = buffer.get();
+        long logVersion = buffer.getLong();
+        long headerLastCommittedTxId = buffer.getLong();
+        StoreId storeId = new StoreId( buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong() );
+        LogHeader header = new LogHeader( logFormatVersion, logVersion, headerLastCommittedTxId, storeId, buffer.getLong() );
+        LogPosition checkPointEntry = new LogPosition( logVersion, buffer.getLong() );
+        LogPosition endOfCheckPointEntry = new LogPosition( logVersion, buffer.getLong() );
+        LogPosition checkPointedPosition = new LogPosition( buffer.getLong(), buffer.getLong() );
+        long lastCommittedTransactionId = buffer.getLong();
+        return new Entry( header, checkPointEntry, endOfCheckPointEntry, checkPointedPosition, lastCommittedTransactionId );
+    }
+
+    private static int checksum( ByteBuffer buffer, int length )
+    {
+        CRC32C checksum = new CRC32C();
+        checksum.update( buffer.array(), 0, length );
+        return (int) checksum.getValue();
+    }
+
+    public static class Entry
+    {
+        public final LogHeader header;
+        public final LogPosition checkPointEntry;
+        public final LogPosition endOfCheckPointEntry;
+        public final LogPosition checkPointedPosition;
+        public final long lastCommittedTransactionId;
+
+        Entry( LogHeader header, LogPosition checkPointEntry, LogPosition endOfCheckPointEntry, LogPosition checkPointedPosition,
+                long lastCommittedTransactionId )
+        {
+            this.header = header;
+            this.checkPointEntry = checkPointEntry;
+            this.endOfCheckPointEntry = endOfCheckPointEntry;
+            this.checkPointedPosition = checkPointedPosition;
+            this.lastCommittedTransactionId = lastCommittedTransactionId;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Entry{" + "header=" + header + ", checkPointEntry=" + checkPointEntry + ", endOfCheckPointEntry=" + endOfCheckPointEntry +
+                    ", checkPointedPosition=" + checkPointedPosition + ", lastCommittedTransactionId=" + lastCommittedTransactionId + '}';
+        }
+    }
+}
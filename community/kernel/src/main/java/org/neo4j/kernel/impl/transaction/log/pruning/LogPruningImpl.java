@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.pruning;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongConsumer;
@@ -86,6 +87,10 @@ public class LogPruningImpl implements LogPruning
                 LogPruneStrategy strategy = this.pruneStrategy;
                 strategy.findLogVersionsToDelete( upToVersion ).forEachOrdered( deleter );
                 log.info( deleter.describeResult( strategy ) );
+                if ( deleter.toVersion != CountingDeleter.NO_VERSION )
+                {
+                    prunePositionIndex( deleter.toVersion + 1 );
+                }
             }
             finally
             {
@@ -94,6 +99,19 @@ public class LogPruningImpl implements LogPruning
         }
     }
 
+    private void prunePositionIndex( long lowestLogVersion )
+    {
+        try
+        {
+            logFiles.getPositionIndex().prune( lowestLogVersion );
+        }
+        catch ( IOException e )
+        {
+            // The samples of the pruned log files are just never used
+            log.warn( "Unable to prune the transaction log position index.", e );
+        }
+    }
+
     @Override
     public boolean mightHaveLogsToPrune()
     {
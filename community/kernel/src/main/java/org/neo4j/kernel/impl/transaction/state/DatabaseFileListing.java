@@ -33,9 +33,12 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.index.label.LabelScanStore;
+import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.pagecache.CompressingPageSwapperFactory;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.util.MultiResource;
 import org.neo4j.storageengine.api.StorageEngine;
@@ -46,6 +49,7 @@ import static org.neo4j.internal.helpers.collection.Iterators.resourceIterator;
 public class DatabaseFileListing
 {
     private final DatabaseLayout databaseLayout;
+    private final FileSystemAbstraction fs;
     private final LogFiles logFiles;
     private final StorageEngine storageEngine;
     private final IdGeneratorFactory idGeneratorFactory;
@@ -53,15 +57,16 @@ public class DatabaseFileListing
     private final SchemaAndIndexingFileIndexListing fileIndexListing;
     private final Collection<StoreFileProvider> additionalProviders;
 
-    public DatabaseFileListing( DatabaseLayout databaseLayout, LogFiles logFiles,
-            LabelScanStore labelScanStore, IndexingService indexingService, StorageEngine storageEngine,
-            IdGeneratorFactory idGeneratorFactory )
+    public DatabaseFileListing( DatabaseLayout databaseLayout, FileSystemAbstraction fs, LogFiles logFiles,
+            LabelScanStore labelScanStore, RelationshipTypeScanStore relationshipTypeScanStore, IndexingService indexingService,
+            StorageEngine storageEngine, IdGeneratorFactory idGeneratorFactory )
     {
         this.databaseLayout = databaseLayout;
+        this.fs = fs;
         this.logFiles = logFiles;
         this.storageEngine = storageEngine;
         this.idGeneratorFactory = idGeneratorFactory;
-        this.fileIndexListing = new SchemaAndIndexingFileIndexListing( labelScanStore, indexingService );
+        this.fileIndexListing = new SchemaAndIndexingFileIndexListing( labelScanStore, relationshipTypeScanStore, indexingService );
         this.additionalProviders = new CopyOnWriteArraySet<>();
     }
 
@@ -122,6 +127,7 @@ public class DatabaseFileListing
         private boolean excludeLogFiles;
         private boolean excludeNeoStoreFiles;
         private boolean excludeLabelScanStoreFiles;
+        private boolean excludeRelationshipTypeScanStoreFiles;
         private boolean excludeSchemaIndexStoreFiles;
         private boolean excludeAdditionalProviders;
         private boolean excludeIdFiles;
@@ -135,6 +141,7 @@ public class DatabaseFileListing
             this.excludeLogFiles = initiateInclusive;
             this.excludeNeoStoreFiles = initiateInclusive;
             this.excludeLabelScanStoreFiles = initiateInclusive;
+            this.excludeRelationshipTypeScanStoreFiles = initiateInclusive;
             this.excludeSchemaIndexStoreFiles = initiateInclusive;
             this.excludeAdditionalProviders = initiateInclusive;
             this.excludeIdFiles = initiateInclusive;
@@ -170,6 +177,12 @@ public class DatabaseFileListing
             return this;
         }
 
+        public StoreFileListingBuilder excludeRelationshipTypeScanStoreFiles()
+        {
+            excludeRelationshipTypeScanStoreFiles = true;
+            return this;
+        }
+
         public StoreFileListingBuilder excludeSchemaIndexStoreFiles()
         {
             excludeSchemaIndexStoreFiles = true;
@@ -206,6 +219,12 @@ public class DatabaseFileListing
             return this;
         }
 
+        public StoreFileListingBuilder includeRelationshipTypeScanStoreFiles()
+        {
+            excludeRelationshipTypeScanStoreFiles = false;
+            return this;
+        }
+
         public StoreFileListingBuilder includeSchemaIndexStoreFiles()
         {
             excludeSchemaIndexStoreFiles = false;
@@ -246,6 +265,10 @@ public class DatabaseFileListing
                 {
                     resources.add( fileIndexListing.gatherLabelScanStoreFiles( files ) );
                 }
+                if ( !excludeRelationshipTypeScanStoreFiles )
+                {
+                    resources.add( fileIndexListing.gatherRelationshipTypeScanStoreFiles( files ) );
+                }
                 if ( !excludeSchemaIndexStoreFiles )
                 {
                     resources.add( fileIndexListing.gatherSchemaIndexFiles( files ) );
@@ -284,6 +307,15 @@ public class DatabaseFileListing
 
     private void gatherNeoStoreFiles( final Collection<StoreFileMetadata> targetFiles )
     {
-        targetFiles.addAll( storageEngine.listStorageFiles() );
+        for ( StoreFileMetadata storageFile : storageEngine.listStorageFiles() )
+        {
+            targetFiles.add( storageFile );
+            // Store files written by the compressed page swapper can only be read with their page mapping files
+            File mappingFile = CompressingPageSwapperFactory.mappingFile( storageFile.file() );
+            if ( fs.fileExists( mappingFile ) )
+            {
+                targetFiles.add( new StoreFileMetadata( mappingFile, 1 ) );
+            }
+        }
     }
 }
@@ -30,6 +30,7 @@ import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.logging.Log;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
@@ -46,11 +47,22 @@ public class DefaultRecoveryService implements RecoveryService
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
     private final Log log;
+    private final int parallelism;
+    private final JobScheduler jobScheduler;
+    private final RecoveryMonitor recoveryMonitor;
 
+    /**
+     * @param parallelism the number of threads to apply recovered transactions with, in {@link TransactionApplicationMode#RECOVERY} mode.
+     * @param jobScheduler the scheduler to run the threads that apply recovered transactions on, if parallelism is greater than one.
+     */
     DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner, TransactionIdStore transactionIdStore,
             LogicalTransactionStore logicalTransactionStore, LogVersionRepository logVersionRepository, LogFiles logFiles,
-            RecoveryStartInformationProvider.Monitor monitor, Log log )
+            RecoveryStartInformationProvider.Monitor monitor, Log log, int parallelism, JobScheduler jobScheduler,
+            RecoveryMonitor recoveryMonitor )
     {
+        this.parallelism = parallelism;
+        this.jobScheduler = jobScheduler;
+        this.recoveryMonitor = recoveryMonitor;
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
@@ -68,7 +80,12 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception
     {
-        return new RecoveryVisitor( storageEngine, mode );
+        RecoveryVisitor recoveryVisitor = new RecoveryVisitor( storageEngine, mode );
+        if ( parallelism > 1 && mode == TransactionApplicationMode.RECOVERY )
+        {
+            return new ParallelRecoveryApplier( recoveryVisitor, parallelism, jobScheduler, recoveryMonitor );
+        }
+        return recoveryVisitor;
     }
 
     @Override
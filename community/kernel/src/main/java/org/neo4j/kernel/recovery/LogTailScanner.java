@@ -38,6 +38,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogTailIndex;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.storageengine.api.StoreId;
 
@@ -57,6 +58,9 @@ import static org.neo4j.storageengine.api.LogVersionRepository.INITIAL_LOG_VERSI
  * <p>
  * Due to the nature of transaction logs and log rotation, a single transaction log file has to be scanned forward, and
  * if the required data is not found we search backwards through log file versions.
+ * <p>
+ * If the {@link TransactionLogTailIndex} points to a check point that is still in the logs, the scan instead starts from that
+ * check point, and only goes forward from there.
  */
 public class LogTailScanner
 {
@@ -83,6 +87,121 @@ public class LogTailScanner
     }
 
     private LogTailInformation findLogTail() throws IOException
+    {
+        LogTailInformation indexedTail = findLogTailFromIndex();
+        return indexedTail != null ? indexedTail : scanLogTail();
+    }
+
+    /**
+     * Finds the tail by scanning forward from the check point that was last recorded in the {@link TransactionLogTailIndex}, instead of
+     * scanning backwards through the log files until a check point is found. This gives the same answer as {@link #scanLogTail()}, but
+     * usually only needs to read the last few entries of the last log file.
+     *
+     * @return the tail of the log, or {@code null} if there is no usable index, or anything does not add up, and the logs need a full scan.
+     */
+    private LogTailInformation findLogTailFromIndex() throws IOException
+    {
+        TransactionLogTailIndex.Entry index = logFiles.getTailIndex().read();
+        if ( index == null )
+        {
+            return null;
+        }
+        long checkPointVersion = index.checkPointEntry.getLogVersion();
+        final long highestLogVersion = logFiles.getHighestLogVersion();
+        if ( checkPointVersion > highestLogVersion || checkPointVersion < logFiles.getLowestLogVersion() || !logFiles.versionExists( checkPointVersion ) )
+        {
+            monitor.tailIndexRejected( format( "log version %d of the indexed check point does not exist", checkPointVersion ) );
+            return null;
+        }
+
+        CheckPoint latestCheckPoint = null;
+        long latestCheckPointVersion = checkPointVersion;
+        LogEntryStart latestStartEntry = null;
+        LogEntryVersion latestLogEntryVersion = null;
+        try
+        {
+            LogHeader checkPointLogHeader = logFiles.extractHeader( checkPointVersion );
+            if ( !checkPointLogHeader.equals( index.header ) )
+            {
+                monitor.tailIndexRejected( format( "log header %s differs from indexed header %s", checkPointLogHeader, index.header ) );
+                return null;
+            }
+            for ( long version = checkPointVersion; version <= highestLogVersion; version++ )
+            {
+                try ( LogVersionedStoreChannel channel = logFiles.openForVersion( version ) )
+                {
+                    if ( version == checkPointVersion )
+                    {
+                        if ( channel.size() < index.endOfCheckPointEntry.getByteOffset() )
+                        {
+                            monitor.tailIndexRejected( format( "log version %d ends before the indexed check point", version ) );
+                            return null;
+                        }
+                        channel.position( index.checkPointEntry.getByteOffset() );
+                    }
+                    try ( ReadAheadLogChannel readAheadLogChannel = new ReadAheadLogChannel( channel );
+                          LogEntryCursor cursor = new LogEntryCursor( logEntryReader, readAheadLogChannel ) )
+                    {
+                        if ( version == checkPointVersion )
+                        {
+                            latestCheckPoint = readIndexedCheckPoint( cursor, index );
+                            if ( latestCheckPoint == null )
+                            {
+                                monitor.tailIndexRejected( format( "no check point at indexed position %s", index.checkPointEntry ) );
+                                return null;
+                            }
+                            latestLogEntryVersion = latestCheckPoint.getVersion();
+                        }
+                        while ( cursor.next() )
+                        {
+                            LogEntry entry = cursor.get();
+                            if ( entry instanceof CheckPoint )
+                            {
+                                latestCheckPoint = (CheckPoint) entry;
+                                latestCheckPointVersion = version;
+                            }
+                            else if ( entry instanceof LogEntryStart )
+                            {
+                                latestStartEntry = (LogEntryStart) entry;
+                            }
+                            latestLogEntryVersion = entry.getVersion();
+                        }
+                        verifyReaderPosition( highestLogVersion, version, channel );
+                    }
+                }
+            }
+        }
+        catch ( Error | ClosedByInterruptException e )
+        {
+            // These should not be parsing errors
+            throw e;
+        }
+        catch ( Throwable t )
+        {
+            // Let the full scan sort out, and report, any corruption
+            monitor.tailIndexRejected( format( "failed to read the logs from the indexed check point: %s", t ) );
+            return null;
+        }
+
+        StoreId storeId = logFiles.extractHeader( latestCheckPointVersion ).getStoreId();
+        return checkpointTailInformation( highestLogVersion, latestStartEntry, latestCheckPointVersion, latestLogEntryVersion, latestCheckPoint,
+                false, storeId );
+    }
+
+    private static CheckPoint readIndexedCheckPoint( LogEntryCursor cursor, TransactionLogTailIndex.Entry index ) throws IOException
+    {
+        if ( cursor.next() && cursor.get() instanceof CheckPoint )
+        {
+            CheckPoint checkPoint = (CheckPoint) cursor.get();
+            if ( checkPoint.getLogPosition().equals( index.checkPointedPosition ) )
+            {
+                return checkPoint;
+            }
+        }
+        return null;
+    }
+
+    private LogTailInformation scanLogTail() throws IOException
     {
         final long highestLogVersion = logFiles.getHighestLogVersion();
         long version = highestLogVersion;
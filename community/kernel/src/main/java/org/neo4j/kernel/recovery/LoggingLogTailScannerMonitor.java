@@ -35,4 +35,10 @@ public class LoggingLogTailScannerMonitor implements LogTailScannerMonitor
     {
         log.warn( String.format( "Fail to read transaction log version %d.", version ), t );
     }
+
+    @Override
+    public void tailIndexRejected( String reason )
+    {
+        log.info( "Transaction log tail index not used, scanning the logs instead: " + reason );
+    }
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.internal.helpers.collection.Visitor;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.time.Stopwatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A {@link RecoveryApplier} that applies recovered transactions on multiple threads.
+ * <p>
+ * The commands of every transaction are asked for the keys of the parts of the store that they change, with
+ * {@link StorageCommand#visitKeys(java.util.function.LongConsumer)}. A transaction is then applied as soon as the
+ * transactions before it that changed any of the same keys have been applied, so changes to the same records and
+ * entities are applied in transaction order, while transactions that have nothing in common are applied concurrently.
+ * Transactions with commands that cannot be described by keys, like schema and token changes, are applied on their
+ * own, after all transactions before them, and before all transactions after them.
+ * <p>
+ * Transactions are visited before they have been applied, and a failure to apply a transaction is thrown from a later
+ * visit, or from {@link #close()}, which waits for all transactions to be applied. Each transaction is reported to
+ * {@link RecoveryMonitor#transactionRecovered(long)} once it has been applied, from the thread that applied it.
+ */
+class ParallelRecoveryApplier implements RecoveryApplier
+{
+    /**
+     * The maximum number of transactions that have been read, but not yet applied.
+     */
+    private static final int MAX_PENDING_TRANSACTIONS = getInteger( ParallelRecoveryApplier.class, "maxPendingTransactions", 1024 );
+
+    /**
+     * The maximum number of keys to track the last transaction of, before waiting for all pending transactions to
+     * be applied, and forgetting all keys.
+     */
+    private static final int MAX_TRACKED_KEYS = getInteger( ParallelRecoveryApplier.class, "maxTrackedKeys", 1_000_000 );
+
+    private final RecoveryApplier applier;
+    private final int parallelism;
+    private final RecoveryMonitor monitor;
+    private final Executor executor;
+    private final Semaphore pending = new Semaphore( MAX_PENDING_TRANSACTIONS );
+    private final MutableLongObjectMap<Task> lastTaskByKey = new LongObjectHashMap<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Stopwatch startTime = Stopwatch.start();
+    private long transactions;
+    private long serialTransactions;
+
+    /**
+     * @param applier the applier that applies each transaction. It is called concurrently.
+     * @param parallelism the number of threads that the {@link Group#RECOVERY_APPLIER} group of the scheduler has been given.
+     * @param jobScheduler the scheduler to apply the transactions on.
+     */
+    ParallelRecoveryApplier( RecoveryApplier applier, int parallelism, JobScheduler jobScheduler, RecoveryMonitor monitor )
+    {
+        this.applier = applier;
+        this.parallelism = parallelism;
+        this.monitor = monitor;
+        this.executor = jobScheduler.executor( Group.RECOVERY_APPLIER );
+    }
+
+    @Override
+    public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+    {
+        throwIfFailed();
+        transactions++;
+        KeyCollector keys = new KeyCollector();
+        transaction.getTransactionRepresentation().accept( keys );
+        if ( !keys.keyed )
+        {
+            serialTransactions++;
+            awaitPendingTransactions();
+            lastTaskByKey.clear();
+            applier.visit( transaction );
+            monitor.transactionRecovered( transaction.getCommitEntry().getTxId() );
+            return false;
+        }
+
+        pending.acquire();
+        Task task = new Task( transaction );
+        for ( int i = 0; i < keys.size; i++ )
+        {
+            Task previous = lastTaskByKey.put( keys.keys[i], task );
+            if ( previous != null && previous != task )
+            {
+                task.dependsOn( previous );
+            }
+        }
+        task.dependenciesRegistered();
+        if ( lastTaskByKey.size() > MAX_TRACKED_KEYS )
+        {
+            awaitPendingTransactions();
+            lastTaskByKey.clear();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean reportsRecoveredTransactions()
+    {
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        try
+        {
+            awaitPendingTransactions();
+        }
+        finally
+        {
+            applier.close();
+        }
+        monitor.parallelRecoveryCompleted( transactions, serialTransactions, parallelism, startTime.elapsed( MILLISECONDS ) );
+    }
+
+    private void awaitPendingTransactions() throws Exception
+    {
+        pending.acquire( MAX_PENDING_TRANSACTIONS );
+        pending.release( MAX_PENDING_TRANSACTIONS );
+        throwIfFailed();
+    }
+
+    private void throwIfFailed() throws Exception
+    {
+        Throwable t = failure.get();
+        if ( t instanceof Exception )
+        {
+            throw (Exception) t;
+        }
+        if ( t instanceof Error )
+        {
+            throw (Error) t;
+        }
+    }
+
+    /**
+     * Applies a transaction, once the transactions it depends on have been applied, and then lets the transactions
+     * that depend on it be applied.
+     * <p>
+     * Tasks stay in {@link #lastTaskByKey} after they have been applied, so they let go of their transaction, and of
+     * the tasks that depend on them, once applied.
+     */
+    private class Task implements Runnable
+    {
+        private final long txId;
+        private CommittedTransactionRepresentation transaction;
+        /**
+         * The number of dependencies that have not been applied yet, plus one until all dependencies are registered.
+         */
+        private final AtomicInteger unappliedDependencies = new AtomicInteger( 1 );
+        private List<Task> dependents = new ArrayList<>();
+
+        Task( CommittedTransactionRepresentation transaction )
+        {
+            this.txId = transaction.getCommitEntry().getTxId();
+            this.transaction = transaction;
+        }
+
+        void dependsOn( Task dependency )
+        {
+            unappliedDependencies.incrementAndGet();
+            if ( !dependency.addDependent( this ) )
+            {
+                // The dependency has already been applied.
+                unappliedDependencies.decrementAndGet();
+            }
+        }
+
+        void dependenciesRegistered()
+        {
+            dependencyApplied();
+        }
+
+        private synchronized boolean addDependent( Task dependent )
+        {
+            if ( dependents == null )
+            {
+                return false;
+            }
+            dependents.add( dependent );
+            return true;
+        }
+
+        private void dependencyApplied()
+        {
+            if ( unappliedDependencies.decrementAndGet() == 0 )
+            {
+                executor.execute( this );
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                // Once anything has failed, the store is in no state to have more transactions applied to it.
+                if ( failure.get() == null )
+                {
+                    applier.visit( transaction );
+                    monitor.transactionRecovered( txId );
+                }
+            }
+            catch ( Throwable t )
+            {
+                failure.compareAndSet( null, t );
+            }
+            finally
+            {
+                transaction = null;
+                List<Task> applied;
+                synchronized ( this )
+                {
+                    applied = dependents;
+                    dependents = null;
+                }
+                pending.release();
+                for ( Task dependent : applied )
+                {
+                    dependent.dependencyApplied();
+                }
+            }
+        }
+    }
+
+    private static class KeyCollector implements Visitor<StorageCommand,IOException>
+    {
+        private long[] keys = new long[16];
+        private int size;
+        private boolean keyed = true;
+
+        @Override
+        public boolean visit( StorageCommand command )
+        {
+            if ( !command.visitKeys( this::add ) )
+            {
+                keyed = false;
+                return true;
+            }
+            return false;
+        }
+
+        private void add( long key )
+        {
+            if ( size == keys.length )
+            {
+                keys = Arrays.copyOf( keys, size * 2 );
+            }
+            keys[size++] = key;
+        }
+    }
+}
@@ -27,4 +27,12 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
  */
 public interface RecoveryApplier extends Visitor<CommittedTransactionRepresentation,Exception>, AutoCloseable
 {
+    /**
+     * @return {@code true} if this applier reports each transaction to {@link RecoveryMonitor#transactionRecovered(long)} itself, once it
+     * has been applied, which may be after it has been visited. Otherwise each transaction is reported once it has been visited.
+     */
+    default boolean reportsRecoveredTransactions()
+    {
+        return false;
+    }
 }
@@ -39,6 +39,31 @@ public interface RecoveryMonitor
         //noop
     }
 
+    /**
+     * Called when recovery has completed after replaying the transaction log between the given positions.
+     *
+     * @param fromPosition the position recovery started from.
+     * @param toPosition the position recovery stopped at, which is the new end of the transaction log.
+     * @param recoveryTimeInMilliseconds the time it took to recover, from the start of the reverse recovery pass.
+     */
+    default void recoveredLogRange( LogPosition fromPosition, LogPosition toPosition, long recoveryTimeInMilliseconds )
+    {
+        //noop
+    }
+
+    /**
+     * Called when the transactions have been applied by parallel recovery.
+     *
+     * @param numberOfTransactions the number of applied transactions.
+     * @param numberOfSerialTransactions the number of those transactions that had to be applied on their own.
+     * @param parallelism the number of threads that applied the transactions.
+     * @param applyTimeInMilliseconds the time it took to read and apply the transactions.
+     */
+    default void parallelRecoveryCompleted( long numberOfTransactions, long numberOfSerialTransactions, int parallelism, long applyTimeInMilliseconds )
+    {
+        //noop
+    }
+
     default void reverseStoreRecoveryCompleted( long lowestRecoveredTxId )
     {
         //noop
@@ -125,7 +125,10 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                         lastTransaction = transactionsToRecover.get();
                         long txId = lastTransaction.getCommitEntry().getTxId();
                         recoveryVisitor.visit( lastTransaction );
-                        monitor.transactionRecovered( txId );
+                        if ( !recoveryVisitor.reportsRecoveredTransactions() )
+                        {
+                            monitor.transactionRecovered( txId );
+                        }
                         numberOfRecoveredTransactions++;
                         lastTransactionPosition = transactionsToRecover.position();
                         recoveryToPosition = lastTransactionPosition;
@@ -161,7 +164,12 @@ public class TransactionLogsRecovery extends LifecycleAdapter
         }
 
         recoveryService.transactionsRecovered( lastTransaction, lastTransactionPosition, recoveryToPosition, recoveryStartInformation.isMissingLogs() );
-        monitor.recoveryCompleted( numberOfRecoveredTransactions, recoveryStartTime.elapsed( MILLISECONDS ) );
+        long recoveryTimeMillis = recoveryStartTime.elapsed( MILLISECONDS );
+        if ( !recoveryStartInformation.isMissingLogs() )
+        {
+            monitor.recoveredLogRange( recoveryStartPosition, recoveryToPosition, recoveryTimeMillis );
+        }
+        monitor.recoveryCompleted( numberOfRecoveredTransactions, recoveryTimeMillis );
     }
 
     private void initProgressReporter( RecoveryStartInformation recoveryStartInformation,
@@ -204,7 +204,7 @@ class ExecutingQueryTest
                 ClientConnectionInfo.EMBEDDED_CONNECTION, randomNamedDatabaseId(), "neo4j", "hello world",
                 EMPTY_MAP,
                 Collections.emptyMap(),
-                () -> lockCount, () -> 0, () -> 1,
+                () -> lockCount, () -> 0, () -> 1, () -> 0, () -> 0,
                 Thread.currentThread().getId(),
                 Thread.currentThread().getName(),
                 clock,
@@ -229,6 +229,8 @@ class ExecutingQueryTest
                 () -> lockCount,
                 () -> 0,
                 () -> 1,
+                () -> 0,
+                () -> 0,
                 Thread.currentThread().getId(),
                 Thread.currentThread().getName(),
                 clock,
@@ -281,6 +283,29 @@ class ExecutingQueryTest
         assertEquals( 8, snapshot.pageFaults() );
     }
 
+    @Test
+    void shouldReportPageBytesReadAndWritten()
+    {
+        // given
+        page.bytesRead( 8192 );
+        page.bytesWritten( 4096 );
+
+        // when
+        QuerySnapshot snapshot = query.snapshot();
+
+        // then
+        assertEquals( 8192, snapshot.pageBytesRead() );
+        assertEquals( 4096, snapshot.pageBytesWritten() );
+
+        // when
+        page.bytesRead( 8192 );
+        snapshot = query.snapshot();
+
+        // then
+        assertEquals( 16384, snapshot.pageBytesRead() );
+        assertEquals( 4096, snapshot.pageBytesWritten() );
+    }
+
     @Test
     void includeQueryExecutorThreadName()
     {
@@ -452,7 +477,8 @@ class ExecutingQueryTest
             FakeClock clock, FakeCpuClock cpuClock, NamedDatabaseId dbID, MapValue params )
     {
         return new ExecutingQuery( queryId, ClientConnectionInfo.EMBEDDED_CONNECTION, dbID, "neo4j", hello_world,
-                params, Collections.emptyMap(), () -> lockCount, page::hits, page::faults, Thread.currentThread().getId(),
+                params, Collections.emptyMap(), () -> lockCount, page::hits, page::faults, page::bytesRead, page::bytesWritten,
+                Thread.currentThread().getId(),
                 Thread.currentThread().getName(), clock, cpuClock );
     }
 
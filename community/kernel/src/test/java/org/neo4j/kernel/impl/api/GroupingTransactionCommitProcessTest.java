@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TestableTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+
+class GroupingTransactionCommitProcessTest
+{
+    private static final int FOLLOWERS = 3;
+
+    private final AtomicLong lastCommittingTransactionId = new AtomicLong( TransactionIdStore.BASE_TX_ID );
+    private final List<Thread> committers = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool( runnable ->
+    {
+        Thread thread = new Thread( runnable );
+        committers.add( thread );
+        return thread;
+    } );
+    private final List<Integer> appendedBatchSizes = new CopyOnWriteArrayList<>();
+    private final List<Integer> appliedBatchSizes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstAppendStarted = new CountDownLatch( 1 );
+    private final CountDownLatch releaseFirstAppend = new CountDownLatch( 1 );
+    private final CountDownLatch firstApplyStarted = new CountDownLatch( 1 );
+    private final CountDownLatch releaseFirstApply = new CountDownLatch( 1 );
+
+    @AfterEach
+    void tearDown()
+    {
+        releaseFirstAppend.countDown();
+        releaseFirstApply.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCommitTransactionsQueuedWhileWritingToLogAsOneBatch() throws Exception
+    {
+        TransactionCommitProcess commitProcess = commitProcess( false );
+        releaseFirstApply.countDown();
+
+        Future<Long> leader = commitInOtherThread( commitProcess );
+        firstAppendStarted.await();
+        List<Future<Long>> followers = new ArrayList<>();
+        for ( int i = 0; i < FOLLOWERS; i++ )
+        {
+            followers.add( commitInOtherThread( commitProcess ) );
+        }
+        awaitCommittersWaiting();
+        releaseFirstAppend.countDown();
+
+        assertEquals( TransactionIdStore.BASE_TX_ID + 1, leader.get() );
+        Set<Long> transactionIds = new HashSet<>();
+        for ( Future<Long> follower : followers )
+        {
+            transactionIds.add( follower.get() );
+        }
+        assertEquals( Set.of( TransactionIdStore.BASE_TX_ID + 2, TransactionIdStore.BASE_TX_ID + 3, TransactionIdStore.BASE_TX_ID + 4 ),
+                transactionIds );
+        assertEquals( List.of( 1, FOLLOWERS ), appendedBatchSizes );
+        // The two groups are applied concurrently, so in no particular order.
+        assertEquals( Set.of( 1, FOLLOWERS ), new HashSet<>( appliedBatchSizes ) );
+    }
+
+    @Test
+    void shouldWriteNextGroupToLogWhilePreviousGroupIsApplied() throws Exception
+    {
+        TransactionCommitProcess commitProcess = commitProcess( false );
+        releaseFirstAppend.countDown();
+
+        Future<Long> first = commitInOtherThread( commitProcess );
+        firstApplyStarted.await();
+
+        // The first group holds on to nothing but its own apply, so the second one can be committed in the meantime.
+        assertEquals( TransactionIdStore.BASE_TX_ID + 2, commitInOtherThread( commitProcess ).get() );
+        assertFalse( first.isDone() );
+
+        releaseFirstApply.countDown();
+        assertEquals( TransactionIdStore.BASE_TX_ID + 1, first.get() );
+    }
+
+    @Test
+    void shouldFailAllTransactionsInFailedGroup() throws Exception
+    {
+        TransactionCommitProcess commitProcess = commitProcess( true );
+        releaseFirstApply.countDown();
+
+        Future<Long> leader = commitInOtherThread( commitProcess );
+        firstAppendStarted.await();
+        List<Future<Long>> followers = new ArrayList<>();
+        for ( int i = 0; i < FOLLOWERS; i++ )
+        {
+            followers.add( commitInOtherThread( commitProcess ) );
+        }
+        awaitCommittersWaiting();
+        releaseFirstAppend.countDown();
+
+        leader.get();
+        for ( Future<Long> follower : followers )
+        {
+            ExecutionException exception = assertThrows( ExecutionException.class, follower::get );
+            assertTrue( exception.getCause() instanceof TransactionFailureException );
+            assertThat( exception.getCause().getMessage(), containsString( "Could not apply the transaction to the store" ) );
+        }
+    }
+
+    @Test
+    void shouldTraceGroupAsCommitOfLeader() throws Exception
+    {
+        TransactionCommitProcess commitProcess = commitProcess( false );
+        releaseFirstApply.countDown();
+        CommitEvent firstLeaderEvent = commitEvent();
+        CommitEvent secondLeaderEvent = commitEvent();
+        List<CommitEvent> followerEvents = new ArrayList<>();
+
+        Future<Long> leader = commitInOtherThread( commitProcess, firstLeaderEvent );
+        firstAppendStarted.await();
+        List<Future<Long>> followers = new ArrayList<>();
+        followers.add( commitInOtherThread( commitProcess, secondLeaderEvent ) );
+        awaitCommittersSize( 2 );
+        for ( int i = 1; i < FOLLOWERS; i++ )
+        {
+            CommitEvent followerEvent = commitEvent();
+            followerEvents.add( followerEvent );
+            followers.add( commitInOtherThread( commitProcess, followerEvent ) );
+        }
+        awaitCommittersWaiting();
+        releaseFirstAppend.countDown();
+        leader.get();
+        for ( Future<Long> follower : followers )
+        {
+            follower.get();
+        }
+
+        assertEquals( List.of( 1, FOLLOWERS ), appendedBatchSizes );
+        verify( firstLeaderEvent, times( 1 ) ).beginLogAppend();
+        verify( firstLeaderEvent, times( 1 ) ).beginStoreApply();
+        // The first of the followers to queue up wakes up first, and leads the second group.
+        verify( secondLeaderEvent, times( 1 ) ).beginLogAppend();
+        verify( secondLeaderEvent, times( 1 ) ).beginStoreApply();
+        for ( CommitEvent followerEvent : followerEvents )
+        {
+            verify( followerEvent, never() ).beginLogAppend();
+            verify( followerEvent, never() ).beginStoreApply();
+        }
+    }
+
+    @Test
+    void shouldUnlinkBatchesAfterCommittingGroup() throws Exception
+    {
+        TransactionCommitProcess commitProcess = commitProcess( false );
+        releaseFirstAppend.countDown();
+        releaseFirstApply.countDown();
+        TransactionToApply first = transaction();
+        TransactionToApply second = transaction();
+        first.next( second );
+
+        assertEquals( TransactionIdStore.BASE_TX_ID + 2, commitProcess.commit( first, CommitEvent.NULL, INTERNAL ) );
+        assertEquals( second, first.next() );
+        assertNull( second.next() );
+    }
+
+    private TransactionCommitProcess commitProcess( boolean failGroups ) throws IOException
+    {
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenAnswer( invocation -> lastCommittingTransactionId.incrementAndGet() );
+        TransactionAppender appender = new TestableTransactionAppender( transactionIdStore )
+        {
+            @Override
+            public long append( TransactionToApply batch, LogAppendEvent logAppendEvent )
+            {
+                appendedBatchSizes.add( size( batch ) );
+                if ( appendedBatchSizes.size() == 1 )
+                {
+                    firstAppendStarted.countDown();
+                    try
+                    {
+                        releaseFirstAppend.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new RuntimeException( e );
+                    }
+                }
+                return super.append( batch, logAppendEvent );
+            }
+        };
+        StorageEngine storageEngine = mock( StorageEngine.class );
+        doAnswer( invocation ->
+        {
+            int size = size( invocation.getArgument( 0 ) );
+            appliedBatchSizes.add( size );
+            if ( appliedBatchSizes.size() == 1 )
+            {
+                firstApplyStarted.countDown();
+                releaseFirstApply.await();
+            }
+            if ( failGroups && size > 1 )
+            {
+                throw new IOException( "Mock exception" );
+            }
+            return null;
+        } ).when( storageEngine ).apply( any( TransactionToApply.class ), any( TransactionApplicationMode.class ) );
+        return new GroupingTransactionCommitProcess( appender, storageEngine );
+    }
+
+    private static int size( TransactionToApply batch )
+    {
+        int size = 0;
+        for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            size++;
+        }
+        return size;
+    }
+
+    private Future<Long> commitInOtherThread( TransactionCommitProcess commitProcess )
+    {
+        return commitInOtherThread( commitProcess, CommitEvent.NULL );
+    }
+
+    private Future<Long> commitInOtherThread( TransactionCommitProcess commitProcess, CommitEvent commitEvent )
+    {
+        return executor.submit( () -> commitProcess.commit( transaction(), commitEvent, INTERNAL ) );
+    }
+
+    private void awaitCommittersWaiting() throws InterruptedException
+    {
+        // The leader is blocked writing to the log, and the followers are parked waiting for it.
+        awaitCommittersSize( FOLLOWERS + 1 );
+    }
+
+    private void awaitCommittersSize( int size ) throws InterruptedException
+    {
+        while ( committers.size() < size || !committers.stream().allMatch( thread -> thread.getState() == Thread.State.WAITING ) )
+        {
+            Thread.sleep( 1 );
+        }
+    }
+
+    private static CommitEvent commitEvent()
+    {
+        CommitEvent commitEvent = mock( CommitEvent.class );
+        when( commitEvent.beginLogAppend() ).thenReturn( LogAppendEvent.NULL );
+        when( commitEvent.beginStoreApply() ).thenReturn( StoreApplyEvent.NULL );
+        return commitEvent;
+    }
+
+    private static TransactionToApply transaction()
+    {
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        return new TransactionToApply( transaction );
+    }
+}
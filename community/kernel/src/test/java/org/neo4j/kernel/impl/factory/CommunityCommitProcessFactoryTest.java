@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.api.GroupingTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.ReadOnlyTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
@@ -31,6 +32,7 @@ import org.neo4j.storageengine.api.StorageEngine;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 
 class CommunityCommitProcessFactoryTest
@@ -58,4 +60,44 @@ class CommunityCommitProcessFactoryTest
 
         assertThat( commitProcess, instanceOf( TransactionRepresentationCommitProcess.class ) );
     }
+
+    @Test
+    void createNonGroupingCommitProcessByDefault()
+    {
+        CommunityCommitProcessFactory factory = new CommunityCommitProcessFactory();
+
+        TransactionCommitProcess commitProcess = factory.create( mock( TransactionAppender.class ),
+                mock( StorageEngine.class ), Config.defaults() );
+
+        assertThat( commitProcess, not( instanceOf( GroupingTransactionCommitProcess.class ) ) );
+    }
+
+    @Test
+    void createGroupingCommitProcessWhenGroupCommitIsEnabled()
+    {
+        CommunityCommitProcessFactory factory = new CommunityCommitProcessFactory();
+
+        Config config = Config.defaults( GraphDatabaseSettings.transaction_group_commit, true );
+
+        TransactionCommitProcess commitProcess = factory.create( mock( TransactionAppender.class ),
+                mock( StorageEngine.class ), config );
+
+        assertThat( commitProcess, instanceOf( GroupingTransactionCommitProcess.class ) );
+    }
+
+    @Test
+    void createNonGroupingCommitProcessForSnapshotQueries()
+    {
+        CommunityCommitProcessFactory factory = new CommunityCommitProcessFactory();
+
+        Config config = Config.newBuilder()
+                .set( GraphDatabaseSettings.transaction_group_commit, true )
+                .set( GraphDatabaseSettings.snapshot_query, true )
+                .build();
+
+        TransactionCommitProcess commitProcess = factory.create( mock( TransactionAppender.class ),
+                mock( StorageEngine.class ), config );
+
+        assertThat( commitProcess, not( instanceOf( GroupingTransactionCommitProcess.class ) ) );
+    }
 }
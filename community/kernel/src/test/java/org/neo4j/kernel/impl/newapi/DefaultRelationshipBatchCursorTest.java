@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.internal.util.reflection.FieldSetter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.security.AccessMode;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
+import org.neo4j.kernel.impl.api.state.TxState;
+import org.neo4j.storageengine.api.StoragePropertyCursor;
+import org.neo4j.storageengine.api.StorageRelationshipBatchCursor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultRelationshipBatchCursorTest
+{
+    private static final long node1 = 10;
+    private static final long node2 = 20;
+    private static final long node3 = 30;
+    private static final int type = 9999;
+    private static final int type2 = 9998;
+    private final DefaultPooledCursors pool = mock( DefaultPooledCursors.class );
+
+    @Test
+    void shouldGroupStoreRelationshipsByOrigin() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor(
+                rel( 0, 100, node1, node2, type ),
+                rel( 0, 101, node3, node1, type2 ),
+                rel( 2, 102, node3, node1, type2 ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+
+        // when
+        cursor.init( new long[]{node1, node2, node3}, null, emptyTxState() );
+
+        // then
+        List<Set<Long>> groups = traverse( cursor, 3 );
+        assertEquals( Set.of( 100L, 101L ), groups.get( 0 ) );
+        assertEquals( Set.of(), groups.get( 1 ) );
+        assertEquals( Set.of( 102L ), groups.get( 2 ) );
+    }
+
+    @Test
+    void shouldIncludeRelationshipsAddedInTxWithTheirOrigins() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor(
+                rel( 0, 100, node1, node2, type ),
+                rel( 1, 100, node1, node2, type ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+        Read read = txState(
+                rel( -1, 3, node1, node3, type ),
+                rel( -1, 4, node2, node2, type2 ),
+                rel( -1, 5, node3, node2, type ) );
+
+        // when
+        cursor.init( new long[]{node1, node2, node3}, null, read );
+
+        // then
+        List<Set<Long>> groups = traverse( cursor, 3 );
+        assertEquals( Set.of( 3L, 100L ), groups.get( 0 ) );
+        assertEquals( Set.of( 4L, 5L, 100L ), groups.get( 1 ) );
+        assertEquals( Set.of( 3L, 5L ), groups.get( 2 ) );
+    }
+
+    @Test
+    void shouldOnlyIncludeRelationshipsAddedInTxOfTheGivenTypes() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor( rel( 0, 100, node1, node2, type ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+        Read read = txState(
+                rel( -1, 3, node1, node3, type ),
+                rel( -1, 4, node1, node2, type2 ) );
+
+        // when
+        cursor.init( new long[]{node1}, new int[]{type}, read );
+
+        // then
+        assertEquals( List.of( Set.of( 3L, 100L ) ), traverse( cursor, 1 ) );
+    }
+
+    @Test
+    void shouldSkipRelationshipsDeletedInTx() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor(
+                rel( 0, 100, node1, node2, type ),
+                rel( 0, 101, node1, node3, type ),
+                rel( 1, 100, node1, node2, type ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+        Read read = txState( rel( -1, 3, node2, node3, type ) );
+        read.txState().relationshipDoDelete( 100, type, node1, node2 );
+
+        // when
+        cursor.init( new long[]{node1, node2}, null, read );
+
+        // then
+        List<Set<Long>> groups = traverse( cursor, 2 );
+        assertEquals( Set.of( 101L ), groups.get( 0 ) );
+        assertEquals( Set.of( 3L ), groups.get( 1 ) );
+    }
+
+    @Test
+    void shouldSkipRelationshipsOfTypesNotAllowedToTraverse() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor(
+                rel( 0, 100, node1, node2, type ),
+                rel( 0, 101, node1, node3, type2 ),
+                rel( 1, 102, node3, node2, type2 ),
+                rel( 1, 103, node2, node2, type ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+        AccessMode mode = mock( AccessMode.class );
+        when( mode.allowsTraverseAllLabels() ).thenReturn( true );
+        when( mode.allowsTraverseRelType( type ) ).thenReturn( true );
+
+        // when
+        cursor.init( new long[]{node1, node2}, null, readWithAccessMode( mode ) );
+
+        // then
+        List<Set<Long>> groups = traverse( cursor, 2 );
+        assertEquals( Set.of( 100L ), groups.get( 0 ) );
+        assertEquals( Set.of( 103L ), groups.get( 1 ) );
+    }
+
+    @Test
+    void shouldSkipRelationshipsToNodesNotAllowedToTraverse() throws NoSuchFieldException
+    {
+        // given
+        StorageRelationshipBatchCursor storeCursor = storeCursor(
+                rel( 0, 100, node1, node2, type ),
+                rel( 0, 101, node1, node3, type ),
+                rel( 1, 102, node3, node2, type ),
+                rel( 1, 103, node2, node1, type ) );
+        DefaultRelationshipBatchCursor cursor = new DefaultRelationshipBatchCursor( pool::accept, storeCursor );
+        AccessMode mode = mock( AccessMode.class );
+        when( mode.allowsTraverseAllLabels() ).thenReturn( false );
+        when( mode.allowsTraverseRelType( anyInt() ) ).thenReturn( true );
+        Read read = readWithAccessMode( mode );
+        allowTraversingNodes( read, node1, node2 );
+
+        // when
+        cursor.init( new long[]{node1, node2}, null, read );
+
+        // then
+        List<Set<Long>> groups = traverse( cursor, 2 );
+        assertEquals( Set.of( 100L ), groups.get( 0 ) );
+        assertEquals( Set.of( 103L ), groups.get( 1 ) );
+    }
+
+    // HELPERS
+
+    private static List<Set<Long>> traverse( DefaultRelationshipBatchCursor cursor, int origins )
+    {
+        List<Set<Long>> groups = new ArrayList<>();
+        for ( int i = 0; i < origins; i++ )
+        {
+            groups.add( new HashSet<>() );
+        }
+        int previousOrigin = 0;
+        while ( cursor.next() )
+        {
+            int origin = cursor.originIndex();
+            assertTrue( origin >= previousOrigin, "Relationships should be grouped by origin" );
+            long neighbour = cursor.neighbourNodeReference();
+            assertTrue( cursor.sourceNodeReference() == cursor.originNodeReference() && cursor.targetNodeReference() == neighbour ||
+                    cursor.targetNodeReference() == cursor.originNodeReference() && cursor.sourceNodeReference() == neighbour );
+            assertTrue( groups.get( origin ).add( cursor.relationshipReference() ),
+                    "Relationship " + cursor.relationshipReference() + " seen twice" );
+            previousOrigin = origin;
+        }
+        return groups;
+    }
+
+    private static Read emptyTxState() throws NoSuchFieldException
+    {
+        return readWithAccessMode( AccessMode.Static.FULL );
+    }
+
+    private static Read readWithAccessMode( AccessMode mode ) throws NoSuchFieldException
+    {
+        Read read = mock( Read.class );
+        KernelTransactionImplementation ktx = mock( KernelTransactionImplementation.class );
+        FieldSetter.setField( read, Read.class.getDeclaredField( "ktx" ), ktx );
+        SecurityContext securityContext = mock( SecurityContext.class );
+        when( securityContext.mode() ).thenReturn( mode );
+        when( ktx.securityContext() ).thenReturn( securityContext );
+        return read;
+    }
+
+    private static Read txState( Rel... rels ) throws NoSuchFieldException
+    {
+        Read read = emptyTxState();
+        TxState txState = new TxState();
+        for ( Rel rel : rels )
+        {
+            txState.relationshipDoCreate( rel.relId, rel.type, rel.sourceId, rel.targetId );
+        }
+        when( read.hasTxStateWithChanges() ).thenReturn( true );
+        when( read.txState() ).thenReturn( txState );
+        return read;
+    }
+
+    /**
+     * Only the given nodes can be found through {@link Read#singleNode(long, org.neo4j.internal.kernel.api.NodeCursor)}.
+     */
+    private static void allowTraversingNodes( Read read, long... nodes )
+    {
+        Set<Long> allowed = new HashSet<>();
+        for ( long node : nodes )
+        {
+            allowed.add( node );
+        }
+        long[] current = new long[1];
+        DefaultNodeCursor nodeCursor = mock( DefaultNodeCursor.class );
+        doAnswer( invocation ->
+        {
+            current[0] = invocation.getArgument( 0 );
+            return null;
+        } ).when( nodeCursor ).single( anyLong(), any( Read.class ) );
+        when( nodeCursor.next() ).thenAnswer( invocation -> allowed.contains( current[0] ) );
+        CursorFactory cursors = mock( CursorFactory.class );
+        when( cursors.allocateNodeCursor() ).thenReturn( nodeCursor );
+        when( read.cursors() ).thenReturn( cursors );
+    }
+
+    private static Rel rel( int origin, long relId, long startId, long endId, int type )
+    {
+        return new Rel( origin, relId, startId, endId, type );
+    }
+
+    private static final Rel NO_REL = rel( -1, -1L, -1L, -1L, -1 );
+
+    private static class Rel
+    {
+        final int origin;
+        final long relId;
+        final long sourceId;
+        final long targetId;
+        final int type;
+
+        Rel( int origin, long relId, long sourceId, long targetId, int type )
+        {
+            this.origin = origin;
+            this.relId = relId;
+            this.sourceId = sourceId;
+            this.targetId = targetId;
+            this.type = type;
+        }
+    }
+
+    /**
+     * A store cursor handing out the given relationships in the given order, which must be grouped by origin.
+     */
+    private static StorageRelationshipBatchCursor storeCursor( Rel... rels )
+    {
+        return new StorageRelationshipBatchCursor()
+        {
+            private long[] nodeReferences;
+            private int i = -1;
+            private Rel rel = NO_REL;
+
+            @Override
+            public void init( long[] nodeReferences, int[] types )
+            {
+                this.nodeReferences = nodeReferences;
+                i = -1;
+                rel = NO_REL;
+            }
+
+            @Override
+            public int originIndex()
+            {
+                return rel.origin;
+            }
+
+            @Override
+            public long originNodeReference()
+            {
+                return nodeReferences[rel.origin];
+            }
+
+            @Override
+            public long neighbourNodeReference()
+            {
+                return rel.sourceId == originNodeReference() ? rel.targetId : rel.sourceId;
+            }
+
+            @Override
+            public int type()
+            {
+                return rel.type;
+            }
+
+            @Override
+            public long sourceNodeReference()
+            {
+                return rel.sourceId;
+            }
+
+            @Override
+            public long targetNodeReference()
+            {
+                return rel.targetId;
+            }
+
+            @Override
+            public boolean hasProperties()
+            {
+                throw new UnsupportedOperationException( "not implemented" );
+            }
+
+            @Override
+            public long propertiesReference()
+            {
+                throw new UnsupportedOperationException( "not implemented" );
+            }
+
+            @Override
+            public void properties( StoragePropertyCursor propertyCursor )
+            {
+                throw new UnsupportedOperationException( "not implemented" );
+            }
+
+            @Override
+            public long entityReference()
+            {
+                return rel.relId;
+            }
+
+            @Override
+            public boolean next()
+            {
+                i++;
+                if ( i < 0 || i >= rels.length )
+                {
+                    rel = NO_REL;
+                    return false;
+                }
+                rel = rels[i];
+                return true;
+            }
+
+            @Override
+            public void reset()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveIOLimiterTest
+{
+    private static final long TARGET_FAULT_LATENCY = MILLISECONDS.toNanos( 2 );
+
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final List<String> adjustments = new ArrayList<>();
+    private long now = 1_000_000;
+
+    @Test
+    void mustHalveTheLimitWhenFaultsAreSlowerThanTheTarget()
+    {
+        AdaptiveIOLimiter limiter = limiter( 1000 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+
+        now += 1000;
+        faults( 10, MILLISECONDS.toNanos( 5 ) );
+        limiter.maybeLimitIO( stamp, 1, () -> {} );
+
+        assertEquals( 500, limiter.iopsLimit() );
+        assertEquals( MILLISECONDS.toNanos( 5 ), limiter.faultLatencyNanos() );
+        assertEquals( List.of( "1000->500" ), adjustments );
+    }
+
+    @Test
+    void mustRaiseTheLimitWhenFaultsAreFasterThanTheTarget()
+    {
+        AdaptiveIOLimiter limiter = limiter( 1000 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+
+        now += 1000;
+        faults( 10, MILLISECONDS.toNanos( 1 ) );
+        stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        assertEquals( 1100, limiter.iopsLimit() );
+
+        now += 1000;
+        limiter.maybeLimitIO( stamp, 1, () -> {} );
+        assertEquals( 1210, limiter.iopsLimit() );
+        assertEquals( List.of( "1000->1100", "1100->1210" ), adjustments );
+    }
+
+    @Test
+    void mustNotAdjustTheLimitBeforeTheEvaluationInterval()
+    {
+        AdaptiveIOLimiter limiter = limiter( 1000 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+
+        now += 500;
+        faults( 10, MILLISECONDS.toNanos( 50 ) );
+        limiter.maybeLimitIO( stamp, 1, () -> {} );
+
+        assertEquals( 1000, limiter.iopsLimit() );
+        assertTrue( adjustments.isEmpty() );
+    }
+
+    @Test
+    void mustNotGoBelowTheMinimumLimit()
+    {
+        AdaptiveIOLimiter limiter = limiter( 20 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+        for ( int i = 0; i < 5; i++ )
+        {
+            now += 1000;
+            faults( 10, MILLISECONDS.toNanos( 50 ) );
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertEquals( 10, limiter.iopsLimit() );
+    }
+
+    @Test
+    void mustMeasureFlushLatencyWithoutTheTimeSpentSleeping()
+    {
+        AdaptiveIOLimiter limiter = limiter( 10 ); // one IO per quantum, so every IO makes the limiter sleep
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+        for ( int i = 0; i < 20; i++ )
+        {
+            now += 3; // each flush takes 3 milliseconds
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertEquals( MILLISECONDS.toNanos( 3 ), limiter.flushLatencyNanos() );
+    }
+
+    @Test
+    void mustNotLimitWhileDisabled()
+    {
+        AdaptiveIOLimiter limiter = limiter( 10 );
+        limiter.disableLimit();
+        assertFalse( limiter.isLimited() );
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < 100; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertEquals( 1_000_000, now );
+        limiter.enableLimit();
+        assertTrue( limiter.isLimited() );
+    }
+
+    @Test
+    void mustOnlySampleTheFaultsSinceTheCheckpointStarted()
+    {
+        AdaptiveIOLimiter limiter = limiter( 1000 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+
+        // Slow faults in between checkpoints.
+        now += 60_000;
+        faults( 10, MILLISECONDS.toNanos( 50 ) );
+
+        limiter.checkpointStarted();
+        now += 1000;
+        faults( 10, MILLISECONDS.toNanos( 1 ) );
+        limiter.maybeLimitIO( stamp, 1, () -> {} );
+
+        assertEquals( 1100, limiter.iopsLimit() );
+        assertEquals( MILLISECONDS.toNanos( 1 ), limiter.faultLatencyNanos() );
+        assertEquals( List.of( "1000->1100" ), adjustments );
+    }
+
+    @Test
+    void mustAdaptFromTheChangedConfiguredLimit()
+    {
+        AdaptiveIOLimiter limiter = limiter( 1000 );
+        long stamp = limiter.maybeLimitIO( IOLimiter.INITIAL_STAMP, 0, () -> {} );
+
+        limiter.configuredLimitChanged( 400 );
+        assertEquals( 400, limiter.iopsLimit() );
+
+        now += 1000;
+        faults( 10, MILLISECONDS.toNanos( 1 ) );
+        limiter.maybeLimitIO( stamp, 1, () -> {} );
+        assertEquals( 440, limiter.iopsLimit() );
+    }
+
+    private void faults( long faults, long latencyNanos )
+    {
+        tracer.faults( faults );
+        tracer.faultNanos( faults * latencyNanos );
+    }
+
+    private AdaptiveIOLimiter limiter( int iops )
+    {
+        AdaptiveIOLimiter.Monitor monitor = ( previous, limit, faultLatency, flushLatency ) -> adjustments.add( previous + "->" + limit );
+        return new AdaptiveIOLimiter( iops, TARGET_FAULT_LATENCY, tracer, monitor )
+        {
+            @Override
+            long currentTimeMillis()
+            {
+                return now;
+            }
+
+            @Override
+            long nanoTime()
+            {
+                return MILLISECONDS.toNanos( now );
+            }
+
+            @Override
+            void sleep( long millis )
+            {
+                now += millis;
+            }
+        };
+    }
+}
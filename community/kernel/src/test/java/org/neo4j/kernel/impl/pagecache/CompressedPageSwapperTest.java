@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EphemeralTestDirectoryExtension
+class CompressedPageSwapperTest
+{
+    private static final int PAGE_SIZE = 8192;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private CompressingPageSwapperFactory factory;
+    private long buffer;
+
+    @BeforeEach
+    void setUp()
+    {
+        factory = new CompressingPageSwapperFactory();
+        factory.open( fs );
+        buffer = UnsafeUtil.allocateMemory( PAGE_SIZE );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        UnsafeUtil.free( buffer, PAGE_SIZE );
+        factory.close();
+    }
+
+    @Test
+    void mustReadBackCompressedPagesAfterReopening() throws IOException
+    {
+        File file = storeFile();
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            assertTrue( swapper instanceof CompressedPageSwapper );
+            for ( int pageId = 0; pageId < 10; pageId++ )
+            {
+                fillPage( pageId );
+                swapper.write( pageId, buffer );
+            }
+            swapper.force();
+        }
+        finally
+        {
+            swapper.close();
+        }
+
+        PageSwapper reopened = createSwapper( file );
+        try
+        {
+            assertTrue( reopened instanceof CompressedPageSwapper );
+            assertEquals( 9, reopened.getLastPageId() );
+            for ( int pageId = 0; pageId < 10; pageId++ )
+            {
+                long bytesRead = reopened.read( pageId, buffer );
+                assertThat( bytesRead ).isGreaterThan( 0L ).isLessThan( PAGE_SIZE );
+                assertPage( pageId );
+            }
+        }
+        finally
+        {
+            reopened.close();
+        }
+        assertThat( fs.getFileSize( file ) ).isLessThan( 10L * PAGE_SIZE );
+    }
+
+    @Test
+    void mustReadZerosFromPagesThatHaveNotBeenWritten() throws IOException
+    {
+        PageSwapper swapper = createSwapper( storeFile() );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 1, buffer );
+
+            assertEquals( 0, swapper.read( 0, buffer ) );
+            assertZeros();
+            assertEquals( 0, swapper.read( 5, buffer ) );
+            assertZeros();
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void mustOverwriteCurrentSlotUntilForced() throws IOException
+    {
+        File file = storeFile();
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 0, buffer );
+            long sizeAfterFirstWrite = fs.getFileSize( file );
+            fillPage( 2 );
+            swapper.write( 0, buffer );
+            assertEquals( sizeAfterFirstWrite, fs.getFileSize( file ) );
+
+            swapper.force();
+            fillPage( 3 );
+            swapper.write( 0, buffer );
+            assertThat( fs.getFileSize( file ) ).isGreaterThan( sizeAfterFirstWrite );
+
+            swapper.read( 0, buffer );
+            assertPage( 3 );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void mustReadForcedVersionOfPageWhenLaterVersionIsTorn() throws IOException
+    {
+        File file = storeFile();
+        long tornSlotOffset;
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 0, buffer );
+            swapper.force();
+
+            tornSlotOffset = fs.getFileSize( file );
+            fillPage( 2 );
+            swapper.write( 0, buffer );
+        }
+        finally
+        {
+            swapper.close();
+        }
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3, 4, 5, 6, 7, 8} ), tornSlotOffset + 8 );
+        }
+
+        PageSwapper reopened = createSwapper( file );
+        try
+        {
+            reopened.read( 0, buffer );
+            assertPage( 1 );
+        }
+        finally
+        {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void mustKeepVersionWrittenBeforeReopeningWhenPageIsWrittenAgain() throws IOException
+    {
+        File file = storeFile();
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 0, buffer );
+            swapper.force();
+            fillPage( 2 );
+            swapper.write( 0, buffer );
+        }
+        finally
+        {
+            swapper.close();
+        }
+
+        // The page was written again after the last force, so without a new generation when reopening, the next write
+        // would overwrite the slot of the second version in place, and leave only the first version to fall back to.
+        long dataFileSize = fs.getFileSize( file );
+        PageSwapper reopened = createSwapper( file );
+        try
+        {
+            fillPage( 3 );
+            reopened.write( 0, buffer );
+        }
+        finally
+        {
+            reopened.close();
+        }
+        // The third version reused the slot of the first version, right after the header sector.
+        assertEquals( dataFileSize, fs.getFileSize( file ) );
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3, 4, 5, 6, 7, 8} ), CompressedPageSwapper.SECTOR_SIZE + 8 );
+        }
+
+        PageSwapper reopenedAgain = createSwapper( file );
+        try
+        {
+            reopenedAgain.read( 0, buffer );
+            assertPage( 2 );
+        }
+        finally
+        {
+            reopenedAgain.close();
+        }
+    }
+
+    @Test
+    void truncateMustRemoveAllPages() throws IOException
+    {
+        File file = storeFile();
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 3, buffer );
+            assertEquals( 3, swapper.getLastPageId() );
+
+            swapper.truncate();
+            assertEquals( -1, swapper.getLastPageId() );
+            assertEquals( 0, swapper.read( 3, buffer ) );
+            assertZeros();
+        }
+        finally
+        {
+            swapper.close();
+        }
+        PageSwapper reopened = createSwapper( file );
+        try
+        {
+            assertTrue( reopened instanceof CompressedPageSwapper );
+        }
+        finally
+        {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void closeAndDeleteMustDeletePageMappingFile() throws IOException
+    {
+        File file = storeFile();
+        createSwapper( file ).closeAndDelete();
+        assertFalse( fs.fileExists( file ) );
+        assertFalse( fs.fileExists( CompressedPageSwapper.mappingFile( file ) ) );
+    }
+
+    @Test
+    void mustNotCompressExistingUncompressedFiles() throws IOException
+    {
+        File file = storeFile();
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( PAGE_SIZE ) );
+        }
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            assertFalse( swapper instanceof CompressedPageSwapper );
+        }
+        finally
+        {
+            swapper.close();
+        }
+        assertFalse( fs.fileExists( CompressedPageSwapper.mappingFile( file ) ) );
+    }
+
+    @Test
+    void defaultSwapperMustRefuseCompressedFiles() throws IOException
+    {
+        File file = storeFile();
+        PageSwapper swapper = createSwapper( file );
+        try
+        {
+            fillPage( 1 );
+            swapper.write( 0, buffer );
+            swapper.force();
+        }
+        finally
+        {
+            swapper.close();
+        }
+
+        SingleFilePageSwapperFactory defaultFactory = new SingleFilePageSwapperFactory();
+        defaultFactory.open( fs );
+        try
+        {
+            IOException e = assertThrows( IOException.class,
+                    () -> defaultFactory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, false, false, false ) );
+            assertThat( e.getMessage() ).contains( file.getName() );
+        }
+        finally
+        {
+            defaultFactory.close();
+        }
+    }
+
+    @Test
+    void mustNotCompressFilesThatDoNotMatchFileNamePattern() throws IOException
+    {
+        PageSwapper swapper = createSwapper( testDirectory.file( "neostore.nodestore.db" ) );
+        try
+        {
+            assertFalse( swapper instanceof CompressedPageSwapper );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    private File storeFile()
+    {
+        return testDirectory.file( "neostore.relationshipstore.db" );
+    }
+
+    private PageSwapper createSwapper( File file ) throws IOException
+    {
+        return factory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, true, false, false );
+    }
+
+    /**
+     * Fill the page with a compressible pattern that differs by seed.
+     */
+    private void fillPage( int seed )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            UnsafeUtil.putLong( buffer + i, seed * 1_000_000L + i / 64 );
+        }
+    }
+
+    private void assertPage( int seed )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            assertEquals( seed * 1_000_000L + i / 64, UnsafeUtil.getLong( buffer + i ) );
+        }
+    }
+
+    private void assertZeros()
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            assertEquals( 0, UnsafeUtil.getLong( buffer + i ) );
+        }
+    }
+}
@@ -112,6 +112,27 @@ class ConfiguringPageCacheFactoryTest
         logProvider.rawMessageMatcher().assertContains( TEST_PAGESWAPPER_NAME );
     }
 
+    @Test
+    void mustDumpHugePageMemoryInDiagnostics()
+    {
+        // Given
+        Config config = Config.defaults( pagecache_memory, "8m" );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        ConfiguringPageCacheFactory cacheFactory = new ConfiguringPageCacheFactory( fs, config, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL, NullLog.getInstance(), EmptyVersionContextSupplier.EMPTY, jobScheduler );
+
+        // When
+        try ( PageCache ignore = cacheFactory.getOrCreatePageCache() )
+        {
+            cacheFactory.memoryDiagnostics().dump( logProvider.getLog( PageCache.class ).infoLogger() );
+        }
+
+        // Then
+        logProvider.formattedMessageMatcher().assertContains( "Allocated page cache memory" );
+        logProvider.formattedMessageMatcher().assertContains(
+                "Huge pages: DISABLED, explicit huge page memory: 0 MiB, transparent huge page memory: 0 MiB" );
+    }
+
     @Test
     void mustThrowIfConfiguredPageSwapperCannotBeFound()
     {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.IOLimiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacedIOLimiterTest
+{
+    private final List<Long> sleeps = new ArrayList<>();
+    private long now = 1_000_000;
+
+    @Test
+    void mustNotSleepBeforeTheIosOfTheQuantumHaveBeenSpent()
+    {
+        IOLimiter limiter = limiter( 100 ); // 10 IOs per 100 ms quantum
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < 9; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertTrue( sleeps.isEmpty() );
+        assertTrue( limiter.isLimited() );
+    }
+
+    @Test
+    void mustSleepOutTheRestOfTheQuantumWhenItsIosHaveBeenSpent()
+    {
+        IOLimiter limiter = limiter( 100 );
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < 9; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        now += 30;
+        stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        assertEquals( List.of( 70L ), sleeps );
+
+        // The next quantum starts over.
+        for ( int i = 0; i < 9; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertEquals( 1, sleeps.size() );
+    }
+
+    @Test
+    void mustStartNewQuantumWithoutSleepingWhenTheQuantumHasPassed()
+    {
+        IOLimiter limiter = limiter( 100 );
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < 5; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        now += 150;
+        for ( int i = 0; i < 9; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertTrue( sleeps.isEmpty() );
+    }
+
+    @Test
+    void mustUseLongerQuantaForLimitsBelowTenIops()
+    {
+        IOLimiter limiter = limiter( 4 ); // 1 IO per 250 ms quantum
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < 8; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, () -> {} );
+        }
+        assertEquals( List.of( 250L, 250L, 250L, 250L, 250L, 250L, 250L, 250L ), sleeps );
+        assertEquals( 4, ((PacedIOLimiter) limiter).iopsLimit() );
+    }
+
+    private IOLimiter limiter( int iops )
+    {
+        return new PacedIOLimiter( iops )
+        {
+            @Override
+            long currentTimeMillis()
+            {
+                return now;
+            }
+
+            @Override
+            void sleep( long millis )
+            {
+                sleeps.add( millis );
+                now += millis;
+            }
+        };
+    }
+}
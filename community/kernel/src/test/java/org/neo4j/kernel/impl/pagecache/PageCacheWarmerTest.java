@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+@TestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final int FILE_PAGES = 100;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private File databaseDirectory;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        databaseDirectory = testDirectory.homeDir().getCanonicalFile();
+        file = new File( databaseDirectory, "a" );
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( PAGE_SIZE * FILE_PAGES ) );
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        jobScheduler.close();
+        fs.close();
+    }
+
+    @Test
+    void mustReloadProfiledPagesAfterRestart() throws Exception
+    {
+        Config config = Config.defaults();
+        try ( PageCache pageCache = ConfigurableStandalonePageCacheFactory.createPageCache( fs, jobScheduler );
+              PagedFile pagedFile = pageCache.map( file, PAGE_SIZE ) )
+        {
+            WarmupCompletion completion = new WarmupCompletion();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, PageCacheTracer.NULL, jobScheduler, databaseDirectory, config,
+                    NullLog.getInstance(), completion );
+            warmer.start();
+            assertEquals( 0, completion.awaitPagesLoaded() );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long pageId : new long[]{3, 5, 70} )
+                {
+                    cursor.next( pageId );
+                }
+            }
+            warmer.stop();
+        }
+
+        try ( PageCache pageCache = ConfigurableStandalonePageCacheFactory.createPageCache( fs, jobScheduler );
+              PagedFile pagedFile = pageCache.map( file, PAGE_SIZE ) )
+        {
+            WarmupCompletion completion = new WarmupCompletion();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, PageCacheTracer.NULL, jobScheduler, databaseDirectory, config,
+                    NullLog.getInstance(), completion );
+            warmer.start();
+            assertEquals( 3, completion.awaitPagesLoaded() );
+            // Read-ahead may bring in neighbouring pages as well, but the profiled pages must all be there.
+            assertTrue( residentPages( pagedFile ).containsAll( List.of( 3L, 5L, 70L ) ) );
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void mustCancelWarmupWhenTheWorkloadKeepsFaultingInPages() throws Exception
+    {
+        Config config = Config.defaults();
+        try ( PageCache pageCache = ConfigurableStandalonePageCacheFactory.createPageCache( fs, jobScheduler );
+              PagedFile pagedFile = pageCache.map( file, PAGE_SIZE ) )
+        {
+            WarmupCompletion completion = new WarmupCompletion();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, PageCacheTracer.NULL, jobScheduler, databaseDirectory, config,
+                    NullLog.getInstance(), completion );
+            warmer.start();
+            completion.awaitPagesLoaded();
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long pageId : new long[]{3, 5, 70} )
+                {
+                    cursor.next( pageId );
+                }
+            }
+            warmer.stop();
+        }
+
+        try ( PageCache pageCache = ConfigurableStandalonePageCacheFactory.createPageCache( fs, jobScheduler );
+              PagedFile ignore = pageCache.map( file, PAGE_SIZE ) )
+        {
+            // Every time the warmer looks, the workload has faulted in another thousand pages
+            AtomicLong foregroundFaults = new AtomicLong();
+            PageCacheTracer busyTracer = new DefaultPageCacheTracer()
+            {
+                @Override
+                public long faults()
+                {
+                    return foregroundFaults.addAndGet( 1000 );
+                }
+            };
+            WarmupCompletion completion = new WarmupCompletion();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, busyTracer, jobScheduler, databaseDirectory, config,
+                    NullLog.getInstance(), completion, 0, 100, 0 );
+            warmer.start();
+            assertEquals( 1, completion.awaitPagesLoaded() );
+            assertTrue( completion.cancelled );
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void mustNotProfileWhenWarmupIsDisabled() throws Exception
+    {
+        Config config = Config.defaults( pagecache_warmup_enabled, false );
+        try ( PageCache pageCache = ConfigurableStandalonePageCacheFactory.createPageCache( fs, jobScheduler );
+              PagedFile pagedFile = pageCache.map( file, PAGE_SIZE ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, PageCacheTracer.NULL, jobScheduler, databaseDirectory, config,
+                    NullLog.getInstance(), PageCacheWarmerMonitorAdapter.EMPTY );
+            warmer.start();
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                cursor.next( 1 );
+            }
+            warmer.stop();
+        }
+        assertFalse( fs.fileExists( new File( databaseDirectory, PageCacheWarmer.PROFILES_DIRECTORY_NAME ) ) );
+    }
+
+    private static List<Long> residentPages( PagedFile pagedFile ) throws Exception
+    {
+        List<Long> residentPages = new ArrayList<>();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            for ( long pageId = 0; pageId < FILE_PAGES && cursor.next( pageId ); pageId++ )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    residentPages.add( pageId );
+                }
+            }
+        }
+        return residentPages;
+    }
+
+    private static class WarmupCompletion extends PageCacheWarmerMonitorAdapter
+    {
+        private final CountDownLatch completed = new CountDownLatch( 1 );
+        private final AtomicLong pagesLoaded = new AtomicLong();
+        private volatile boolean cancelled;
+
+        @Override
+        public void warmupCompleted( long pagesLoaded, long elapsedMillis )
+        {
+            this.pagesLoaded.set( pagesLoaded );
+            completed.countDown();
+        }
+
+        @Override
+        public void warmupCancelled( long pagesLoaded )
+        {
+            this.pagesLoaded.set( pagesLoaded );
+            cancelled = true;
+            completed.countDown();
+        }
+
+        long awaitPagesLoaded() throws InterruptedException
+        {
+            completed.await();
+            return pagesLoaded.get();
+        }
+    }
+}
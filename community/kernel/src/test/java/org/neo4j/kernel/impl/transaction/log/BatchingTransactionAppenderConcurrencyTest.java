@@ -65,6 +65,7 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogPositionIndex;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
@@ -134,6 +135,7 @@ public class BatchingTransactionAppenderConcurrencyTest
     void setUp()
     {
         when( logFiles.getLogFile() ).thenReturn( logFile );
+        when( logFiles.getPositionIndex() ).thenReturn( mock( TransactionLogPositionIndex.class ) );
         when( logFile.getWriter() ).thenReturn( new CommandQueueChannel() );
     }
 
@@ -40,9 +40,13 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogPositionIndex;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogTailIndex;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.log.entry.CommandCompressionMonitor;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.StorageCommand;
@@ -52,6 +56,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -71,6 +76,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
 import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
@@ -87,6 +93,7 @@ class BatchingTransactionAppenderTest
     private final Health databaseHealth = mock( DatabaseHealth.class );
     private final LogFile logFile = mock( LogFile.class );
     private final LogFiles logFiles = mock( TransactionLogFiles.class );
+    private final TransactionLogTailIndex tailIndex = mock( TransactionLogTailIndex.class );
     private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
     private final TransactionMetadataCache positionCache = new TransactionMetadataCache();
 
@@ -94,6 +101,8 @@ class BatchingTransactionAppenderTest
     void setUp()
     {
         when( logFiles.getLogFile() ).thenReturn( logFile );
+        when( logFiles.getTailIndex() ).thenReturn( tailIndex );
+        when( logFiles.getPositionIndex() ).thenReturn( mock( TransactionLogPositionIndex.class ) );
     }
 
     @Test
@@ -299,6 +308,30 @@ class BatchingTransactionAppenderTest
         verify( channel ).prepareForFlush();
         verify( flushable ).flush();
         verify( databaseHealth, never() ).panic( any() );
+        verify( tailIndex ).write( any(), any(), any(), eq( new LogPosition( 1L, 2L ) ), anyLong() );
+    }
+
+    @Test
+    void shouldLogFailureToUpdateTailIndexAfterCheckPoint() throws Throwable
+    {
+        // Given
+        FlushablePositionAwareChecksumChannel channel = mock( FlushablePositionAwareChecksumChannel.class, RETURNS_MOCKS );
+        when( channel.putLong( anyLong() ) ).thenReturn( channel );
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.getLastCommittedTransaction() ).thenReturn( new TransactionId( 1L, BASE_TX_CHECKSUM, BASE_TX_COMMIT_TIMESTAMP ) );
+        IOException failure = new IOException( "No space left on device" );
+        doThrow( failure ).when( tailIndex ).write( any(), any(), any(), any(), anyLong() );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, databaseHealth, false, CommandCompressionMonitor.NO_MONITOR, logProvider ) );
+
+        // When
+        appender.checkPoint( new LogPosition( 1L, 2L ), LogCheckPointEvent.NULL );
+
+        // Then
+        verify( databaseHealth, never() ).panic( any() );
+        logProvider.assertAtLeastOnce( inLog( BatchingTransactionAppender.class )
+                .warn( containsString( "tail index" ), sameInstance( failure ) ) );
     }
 
     @Test
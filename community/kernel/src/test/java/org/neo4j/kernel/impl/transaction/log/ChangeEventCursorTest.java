@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.storageengine.api.ChangeEvent;
+import org.neo4j.storageengine.api.ChangeEventDecoder;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.storageengine.api.UpdateMode;
+import org.neo4j.values.storable.Value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.GivenTransactionCursor.given;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+
+class ChangeEventCursorTest
+{
+    private static final int EVENTS_PER_TRANSACTION = 2;
+
+    private final List<CommittedTransactionRepresentation> log = new ArrayList<>();
+    private final LogicalTransactionStore transactionStore = mock( LogicalTransactionStore.class );
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final ChangeEventDecoder decoder = ( txId, commands, target ) ->
+    {
+        for ( int i = 0; i < EVENTS_PER_TRANSACTION; i++ )
+        {
+            target.add( ChangeEvent.nodeChange( txId, i, UpdateMode.CHANGED, null, null, new int[0], new Value[0], new Value[0] ) );
+        }
+    };
+    private final ChangeDataCapture changeDataCapture = new ChangeDataCapture( transactionStore, transactionIdStore, () -> decoder );
+    private long lastClosedTxId;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        when( transactionIdStore.getLastClosedTransactionId() ).thenAnswer( invocation -> lastClosedTxId );
+        when( transactionStore.getTransactions( anyLong() ) ).thenAnswer( invocation ->
+        {
+            long fromTxId = invocation.getArgument( 0 );
+            return given( log.stream()
+                    .filter( transaction -> transaction.getCommitEntry().getTxId() >= fromTxId )
+                    .toArray( CommittedTransactionRepresentation[]::new ) );
+        } );
+    }
+
+    @Test
+    void shouldStreamChangesOfClosedTransactionsInOrder() throws IOException
+    {
+        // given
+        commit( 2, 3, 4 );
+
+        // when
+        try ( ChangeEventCursor cursor = changeDataCapture.changesFrom( 3 ) )
+        {
+            // then
+            assertEquals( Arrays.asList( "3:0", "3:1", "4:0", "4:1" ), drain( cursor ) );
+            assertEquals( 4, cursor.lastCompletedTxId() );
+        }
+    }
+
+    @Test
+    void shouldContinueWithTransactionsClosedAfterCatchingUp() throws IOException
+    {
+        // given
+        commit( 2 );
+        try ( ChangeEventCursor cursor = changeDataCapture.changesFrom( 2 ) )
+        {
+            assertEquals( Arrays.asList( "2:0", "2:1" ), drain( cursor ) );
+
+            // when
+            commit( 3 );
+
+            // then
+            assertEquals( Arrays.asList( "3:0", "3:1" ), drain( cursor ) );
+            assertEquals( 3, cursor.lastCompletedTxId() );
+        }
+    }
+
+    @Test
+    void shouldNotReturnChangesOfTransactionsThatAreNotClosed() throws IOException
+    {
+        // given
+        commit( 2 );
+        log.add( transaction( 3 ) );
+
+        // when
+        try ( ChangeEventCursor cursor = changeDataCapture.changesFrom( 2 ) )
+        {
+            // then
+            assertEquals( Arrays.asList( "2:0", "2:1" ), drain( cursor ) );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    void shouldKnowWhereToResumeInTheMiddleOfTransaction() throws IOException
+    {
+        // given
+        commit( 2, 3 );
+        try ( ChangeEventCursor cursor = changeDataCapture.changesFrom( 2 ) )
+        {
+            // when
+            for ( int i = 0; i < EVENTS_PER_TRANSACTION + 1; i++ )
+            {
+                cursor.next();
+            }
+
+            // then
+            assertEquals( 2, cursor.lastCompletedTxId() );
+        }
+    }
+
+    @Test
+    void shouldNotStreamFromBeforeFirstTransaction()
+    {
+        assertThrows( IllegalArgumentException.class, () -> changeDataCapture.changesFrom( BASE_TX_ID ) );
+    }
+
+    private void commit( long... txIds )
+    {
+        for ( long txId : txIds )
+        {
+            log.add( transaction( txId ) );
+            lastClosedTxId = txId;
+        }
+    }
+
+    private static CommittedTransactionRepresentation transaction( long txId )
+    {
+        LogEntryStart start = new LogEntryStart( 0L, txId - 1, 0, null, LogPosition.UNSPECIFIED );
+        LogEntryCommit commit = new LogEntryCommit( txId, 0L, BASE_TX_CHECKSUM );
+        return new CommittedTransactionRepresentation( start, mock( TransactionRepresentation.class ), commit );
+    }
+
+    private static List<String> drain( ChangeEventCursor cursor ) throws IOException
+    {
+        List<String> events = new ArrayList<>();
+        while ( cursor.next() )
+        {
+            events.add( cursor.get().getTxId() + ":" + cursor.get().getEntityId() );
+        }
+        return events;
+    }
+}
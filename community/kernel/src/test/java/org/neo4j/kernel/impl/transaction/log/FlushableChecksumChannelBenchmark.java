@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FlushableChecksumChannel;
+import org.neo4j.io.fs.MappedFlushableChecksumChannel;
+import org.neo4j.io.fs.PhysicalFlushableChecksumChannel;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+
+import static java.lang.Integer.parseInt;
+
+/**
+ * Compares the write throughput of the channels behind the {@code BUFFERED} and {@code MEMORY_MAPPED} transaction log append modes.
+ * Transactions are written as a checksummed header and payload, both with a flush and force after every transaction, like a
+ * commit does, and without any force until the end. The buffer and window sizes are those of the transaction log file.
+ * <p>
+ * Arguments, all optional: {@code [directory] [transaction size] [rounds]}. The directory defaults to a temporary directory,
+ * which should be on the disk that is to be measured.
+ */
+public class FlushableChecksumChannelBenchmark
+{
+    private static final int FORCED_TRANSACTIONS = 5_000;
+    private static final int UNFORCED_TRANSACTIONS = 2_000_000;
+
+    public static void main( String[] args ) throws Exception
+    {
+        File directory = args.length > 0 ? new File( args[0] ) : Files.createTempDirectory( "log-channel-benchmark" ).toFile();
+        int transactionSize = args.length > 1 ? parseInt( args[1] ) : 256;
+        int rounds = args.length > 2 ? parseInt( args[2] ) : 3;
+
+        try ( FileSystemAbstraction fs = new DefaultFileSystemAbstraction() )
+        {
+            fs.mkdirs( directory );
+            for ( int round = 0; round < rounds; round++ )
+            {
+                for ( boolean force : new boolean[]{true, false} )
+                {
+                    int transactions = force ? FORCED_TRANSACTIONS : UNFORCED_TRANSACTIONS;
+                    run( false, force, transactions, transactionSize, fs, new File( directory, "buffered" ) );
+                    run( true, force, transactions, transactionSize, fs, new File( directory, "mapped" ) );
+                }
+            }
+        }
+    }
+
+    private static void run( boolean mapped, boolean force, int transactions, int transactionSize, FileSystemAbstraction fs, File file )
+            throws IOException
+    {
+        fs.deleteFile( file );
+        byte[] payload = new byte[transactionSize];
+        long elapsedNanos;
+        try ( StoreChannel storeChannel = fs.write( file );
+              FlushableChecksumChannel channel = mapped ? new MappedFlushableChecksumChannel( storeChannel, (int) ByteUnit.mebiBytes( 8 ) )
+                                                        : new PhysicalFlushableChecksumChannel( storeChannel,
+                                                                ByteBuffers.allocateDirect( (int) ByteUnit.mebiBytes( 1 ) ) ) )
+        {
+            long start = System.nanoTime();
+            for ( int i = 0; i < transactions; i++ )
+            {
+                channel.beginChecksum();
+                channel.putLong( i ).putInt( transactionSize ).put( payload, payload.length );
+                channel.putChecksum();
+                if ( force )
+                {
+                    channel.prepareForFlush().flush();
+                }
+            }
+            channel.prepareForFlush().flush();
+            elapsedNanos = System.nanoTime() - start;
+        }
+        fs.deleteFile( file );
+        System.out.printf( "%-8s force=%-5s %,d tx/s%n", mapped ? "mapped" : "buffered", force,
+                transactions * 1_000_000_000L / elapsedNanos );
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FlushableChecksumChannel;
+import org.neo4j.io.fs.MappedFlushableChecksumChannel;
+import org.neo4j.io.fs.PhysicalFlushableChecksumChannel;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.impl.transaction.log.files.LogFileChannelNativeAccessor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+@TestDirectoryExtension
+class MappedFlushableChecksumChannelTest
+{
+    private static final int WINDOW_SIZE = 4096;
+
+    @Inject
+    private DefaultFileSystemAbstraction fileSystem;
+    @Inject
+    private TestDirectory directory;
+    private final LogFileChannelNativeAccessor nativeChannelAccessor = mock( LogFileChannelNativeAccessor.class );
+
+    @Test
+    void shouldWriteSameBytesAndChecksumsAsBufferedChannelAcrossWindows() throws IOException
+    {
+        File bufferedFile = new File( directory.homeDir(), "buffered" );
+        File mappedFile = new File( directory.homeDir(), "mapped" );
+        long seed = new Random().nextLong();
+        int[] bufferedChecksums;
+        int[] mappedChecksums;
+        try ( PhysicalFlushableChecksumChannel channel = new PhysicalFlushableChecksumChannel( fileSystem.write( bufferedFile ),
+                ByteBuffers.allocate( 1024 ) ) )
+        {
+            bufferedChecksums = writeTransactions( channel, new Random( seed ) );
+        }
+        long mappedPosition;
+        try ( MappedFlushableChecksumChannel channel = new MappedFlushableChecksumChannel( fileSystem.write( mappedFile ), WINDOW_SIZE ) )
+        {
+            mappedChecksums = writeTransactions( channel, new Random( seed ) );
+            mappedPosition = channel.position();
+        }
+
+        assertArrayEquals( bufferedChecksums, mappedChecksums, "Seed " + seed );
+        ByteBuffer buffered = readFile( bufferedFile );
+        ByteBuffer mapped = readFile( mappedFile );
+        assertEquals( buffered.remaining(), mappedPosition );
+        mapped.limit( (int) mappedPosition );
+        assertEquals( buffered, mapped, "Seed " + seed );
+    }
+
+    @Test
+    void shouldMoveChannelPositionOnPrepareForFlush() throws IOException
+    {
+        File file = new File( directory.homeDir(), "file" );
+        StoreChannel storeChannel = fileSystem.write( file );
+        try ( MappedFlushableChecksumChannel channel = new MappedFlushableChecksumChannel( storeChannel, WINDOW_SIZE ) )
+        {
+            channel.putLong( 67 );
+            channel.putInt( 1234 );
+            assertEquals( 12, channel.position() );
+            assertEquals( 0, storeChannel.position() );
+
+            channel.prepareForFlush().flush();
+            assertEquals( 12, storeChannel.position() );
+        }
+    }
+
+    @Test
+    void shouldWriteThroughRotation() throws IOException
+    {
+        File firstFile = new File( directory.homeDir(), "file1" );
+        File secondFile = new File( directory.homeDir(), "file2" );
+        PhysicalLogVersionedStoreChannel firstChannel =
+                new PhysicalLogVersionedStoreChannel( fileSystem.write( firstFile ), 1, (byte) -1, firstFile, nativeChannelAccessor );
+        PositionAwareMappedFlushableChecksumChannel channel = new PositionAwareMappedFlushableChecksumChannel( firstChannel, WINDOW_SIZE );
+        LogPositionMarker positionMarker = new LogPositionMarker();
+
+        channel.putLong( 45849589L );
+        Flushable flushableBeforeRotation = channel.prepareForFlush();
+        flushableBeforeRotation.flush();
+        firstChannel.truncate( firstChannel.position() );
+
+        StoreChannel secondStoreChannel = fileSystem.write( secondFile );
+        secondStoreChannel.position( 16 );
+        channel.setChannel( new PhysicalLogVersionedStoreChannel( secondStoreChannel, 2, (byte) -1, secondFile, nativeChannelAccessor ) );
+        firstChannel.close();
+        // a flush that raced with the rotation must not touch the released window
+        flushableBeforeRotation.flush();
+        assertEquals( new LogPosition( 2, 16 ), channel.getCurrentPosition( positionMarker ).newPosition() );
+        channel.putDouble( 458493343D );
+        channel.close();
+
+        ByteBuffer firstFileContents = readFile( firstFile );
+        assertEquals( 8, firstFileContents.remaining() );
+        assertEquals( 45849589L, firstFileContents.getLong() );
+        ByteBuffer secondFileContents = readFile( secondFile );
+        assertEquals( 458493343D, secondFileContents.getDouble( 16 ), 0.001d );
+    }
+
+    @Test
+    void shouldThrowIllegalStateExceptionAfterClosed() throws IOException
+    {
+        File file = new File( directory.homeDir(), "file" );
+        StoreChannel storeChannel = fileSystem.write( file );
+        MappedFlushableChecksumChannel channel = new MappedFlushableChecksumChannel( storeChannel, WINDOW_SIZE );
+        Flushable flushable = channel.prepareForFlush();
+        channel.close();
+
+        // a flush that raced with closing must not touch the released window
+        flushable.flush();
+        assertThrows( IllegalStateException.class, () -> channel.putLong( 1 ) );
+        assertThrows( IllegalStateException.class, channel::prepareForFlush );
+    }
+
+    private static int[] writeTransactions( FlushableChecksumChannel channel, Random random ) throws IOException
+    {
+        int[] checksums = new int[100];
+        for ( int i = 0; i < checksums.length; i++ )
+        {
+            channel.beginChecksum();
+            int entries = random.nextInt( 20 ) + 1;
+            for ( int j = 0; j < entries; j++ )
+            {
+                channel.put( (byte) random.nextInt() );
+                channel.putShort( (short) random.nextInt() );
+                channel.putInt( random.nextInt() );
+                channel.putLong( random.nextLong() );
+                channel.putFloat( random.nextFloat() );
+                channel.putDouble( random.nextDouble() );
+                byte[] bytes = new byte[random.nextInt( WINDOW_SIZE * 2 )];
+                random.nextBytes( bytes );
+                channel.put( bytes, bytes.length );
+            }
+            checksums[i] = channel.putChecksum();
+            if ( random.nextBoolean() )
+            {
+                channel.prepareForFlush().flush();
+            }
+        }
+        return checksums;
+    }
+
+    private ByteBuffer readFile( File file ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.read( file ) )
+        {
+            ByteBuffer buffer = ByteBuffers.allocate( (int) channel.size() );
+            channel.readAll( buffer );
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -21,11 +21,18 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import org.junit.jupiter.api.Test;
 
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold.DEFAULT_CHECKING_FREQUENCY_MILLIS;
 
 class CheckPointThresholdTest extends CheckPointThresholdTestSupport
@@ -224,4 +231,185 @@ class CheckPointThresholdTest extends CheckPointThresholdTestSupport
         withIntervalTime( "100ms" );
         assertThat( createThreshold().checkFrequencyMillis(), is( 100L ) );
     }
+
+    @Test
+    void recoveryTimeThresholdMustNotTriggerWhileEstimateIsBelowTarget()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 10, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 10 ) );
+        assertFalse( threshold.isCheckPointingNeeded( 10, notTriggered ) );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustTriggerWhenEstimateReachesTarget()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 90 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 10, triggered ) );
+        verifyTriggered( "recovery time estimate above 10s threshold" );
+        verifyNoMoreTriggers();
+    }
+
+    @Test
+    void recoveryTimeThresholdMustNotTriggerWithoutNewTransactions()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 100, SECONDS );
+        assertFalse( threshold.isCheckPointingNeeded( 2, notTriggered ) );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustTriggerEarlierWhenWriteLoadIsHigh()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        // The same amount of log as in the light load case below, but written so fast that it will have outgrown the target by the
+        // time of the next check.
+        clock.forward( 1, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 60 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 10, triggered ) );
+        verifyTriggered( "recovery time estimate" );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustNotTriggerEarlyWhenWriteLoadIsLight()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 60 ) );
+        assertFalse( threshold.isCheckPointingNeeded( 10, notTriggered ) );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustCountLogAcrossLogVersions()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        // Crossing into the next log version means at least a full rotation threshold worth of log has been written.
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 1, 64 );
+        assertTrue( threshold.isCheckPointingNeeded( 10, triggered ) );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustUseApplyThroughputMeasuredByRecovery()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 100_000 );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        // Recovering 10 MiB at the 1 MiB/s measured by recovery would take as long as the target.
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 10 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 10, triggered ) );
+        verifyTriggered( "at 1024KiB/s" );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustUseApplyThroughputMeasuredBeforeRestart()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 100_000 );
+        recoveryTimeEstimator = newRecoveryTimeEstimator();
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 10 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 10, triggered ) );
+        verifyTriggered( "at 1024KiB/s" );
+    }
+
+    @Test
+    void recoveryTimeEstimatorMustAverageTheMeasuredThroughputs()
+    {
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 100_000 );
+        assertEquals( mebiBytes( 1 ), recoveryTimeEstimator.applyBytesPerSecond() );
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 50_000 );
+        assertEquals( mebiBytes( 3 ) / 2, recoveryTimeEstimator.applyBytesPerSecond() );
+        assertEquals( mebiBytes( 3 ) / 2, newRecoveryTimeEstimator().applyBytesPerSecond() );
+    }
+
+    @Test
+    void recoveryTimeEstimatorMustRecoverFromASlowMeasurement()
+    {
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 10_000 );
+        recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 1_000_000 );
+        assertThat( recoveryTimeEstimator.applyBytesPerSecond(), lessThan( mebiBytes( 10 ) ) );
+        for ( int i = 0; i < 10; i++ )
+        {
+            recoveryTimeEstimator.recoveredLogRange( new LogPosition( 0, 64 ), new LogPosition( 0, 64 + mebiBytes( 100 ) ), 10_000 );
+        }
+        assertThat( recoveryTimeEstimator.applyBytesPerSecond(), greaterThan( mebiBytes( 9 ) ) );
+        assertEquals( recoveryTimeEstimator.applyBytesPerSecond(), newRecoveryTimeEstimator().applyBytesPerSecond() );
+    }
+
+    @Test
+    void recoveryTimeEstimatorMustUseDefaultThroughputWithoutMeasurements()
+    {
+        assertEquals( RecoveryTimeEstimator.DEFAULT_APPLY_BYTES_PER_SECOND, newRecoveryTimeEstimator().applyBytesPerSecond() );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustMeasureLogFromLastCheckPoint()
+    {
+        withPolicy( "recovery_time" );
+        withRecoveryTime( "10s" );
+        closeTransaction( 2, 0, 64 );
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize( 2 );
+
+        clock.forward( 100, SECONDS );
+        closeTransaction( 10, 0, 64 + mebiBytes( 90 ) );
+        threshold.checkPointHappened( 10, new LogPosition( 0, 64 + mebiBytes( 90 ) ) );
+
+        clock.forward( 100, SECONDS );
+        closeTransaction( 12, 0, 64 + mebiBytes( 100 ) );
+        assertFalse( threshold.isCheckPointingNeeded( 12, notTriggered ) );
+    }
+
+    @Test
+    void recoveryTimeThresholdMustCheckMoreOftenForShortTargets()
+    {
+        withPolicy( "recovery_time" );
+        assertThat( createThreshold().checkFrequencyMillis(), is( DEFAULT_CHECKING_FREQUENCY_MILLIS ) );
+
+        withRecoveryTime( "10s" );
+        assertThat( createThreshold().checkFrequencyMillis(), is( 1000L ) );
+    }
 }
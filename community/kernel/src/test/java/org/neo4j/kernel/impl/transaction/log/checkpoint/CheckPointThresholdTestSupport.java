@@ -20,9 +20,12 @@
 package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import org.hamcrest.Matcher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -31,6 +34,8 @@ import java.util.function.Consumer;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.SettingImpl;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
@@ -47,6 +52,10 @@ public class CheckPointThresholdTestSupport
     protected FakeClock clock;
     protected LogPruning logPruning;
     protected LogProvider logProvider;
+    protected SimpleTransactionIdStore transactionIdStore;
+    protected EphemeralFileSystemAbstraction fs;
+    protected File throughputFile;
+    protected RecoveryTimeEstimator recoveryTimeEstimator;
     protected Integer intervalTx;
     protected Duration intervalTime;
     protected Consumer<String> notTriggered;
@@ -60,6 +69,10 @@ public class CheckPointThresholdTestSupport
         clock = Clocks.fakeClock();
         logPruning = LogPruning.NO_PRUNING;
         logProvider = NullLogProvider.getInstance();
+        transactionIdStore = new SimpleTransactionIdStore();
+        fs = new EphemeralFileSystemAbstraction();
+        throughputFile = new File( RecoveryTimeEstimator.THROUGHPUT_FILE_NAME );
+        recoveryTimeEstimator = newRecoveryTimeEstimator();
         intervalTx = config.get( GraphDatabaseSettings.check_point_interval_tx );
         intervalTime = config.get( GraphDatabaseSettings.check_point_interval_time );
         triggerConsumer = new LinkedBlockingQueue<>();
@@ -67,6 +80,17 @@ public class CheckPointThresholdTestSupport
         notTriggered = s -> Assertions.fail( "Should not have triggered: " + s );
     }
 
+    @AfterEach
+    public void tearDown() throws IOException
+    {
+        fs.close();
+    }
+
+    protected RecoveryTimeEstimator newRecoveryTimeEstimator()
+    {
+        return new RecoveryTimeEstimator( config, fs, throughputFile, logProvider.getLog( RecoveryTimeEstimator.class ) );
+    }
+
     protected void withPolicy( String policy )
     {
         config.set( GraphDatabaseSettings.check_point_policy,
@@ -84,9 +108,20 @@ public class CheckPointThresholdTestSupport
         config.set( GraphDatabaseSettings.check_point_interval_tx, count );
     }
 
+    protected void withRecoveryTime( String time )
+    {
+        config.set( GraphDatabaseSettings.check_point_recovery_time,
+                ((SettingImpl<Duration>) GraphDatabaseSettings.check_point_recovery_time).parse( time ) );
+    }
+
+    protected void closeTransaction( long transactionId, long logVersion, long byteOffset )
+    {
+        transactionIdStore.setLastCommittedAndClosedTransactionId( transactionId, 0, 0, byteOffset, logVersion );
+    }
+
     protected CheckPointThreshold createThreshold()
     {
-        return CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
+        return CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider, transactionIdStore, recoveryTimeEstimator );
     }
 
     protected void verifyTriggered( String reason )
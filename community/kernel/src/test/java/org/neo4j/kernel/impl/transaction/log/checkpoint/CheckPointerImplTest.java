@@ -21,8 +21,10 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.Flushable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -34,7 +36,12 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl.ForceOperation;
@@ -45,8 +52,12 @@ import org.neo4j.logging.NullLogProvider;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.util.concurrent.BinaryLatch;
 
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.time.Duration.ofSeconds;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -67,12 +78,21 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.test.ThreadTestUtils.forkFuture;
 
+@PageCacheExtension
 class CheckPointerImplTest
 {
     private static final SimpleTriggerInfo INFO = new SimpleTriggerInfo( "Test" );
 
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private PageCache pageCache;
+
     private final TransactionIdStore txIdStore = mock( TransactionIdStore.class );
     private final CheckPointThreshold threshold = mock( CheckPointThreshold.class );
     private final ForceOperation forceOperation = mock( ForceOperation.class );
@@ -120,11 +140,12 @@ class CheckPointerImplTest
 
         // Then
         assertEquals( transactionId, txId );
+        verify( limiter ).checkpointStarted();
         verify( forceOperation ).flushAndForce( limiter );
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
         verify( appender ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold ).initialize( initialTransactionId );
-        verify( threshold ).checkPointHappened( transactionId );
+        verify( threshold ).checkPointHappened( transactionId, logPosition );
         verify( threshold ).isCheckPointingNeeded( transactionId, INFO );
         verify( logPruning ).pruneLogs( logPosition.getLogVersion() );
         verify( tracer ).beginCheckPoint();
@@ -150,7 +171,7 @@ class CheckPointerImplTest
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
         verify( appender ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold ).initialize( initialTransactionId );
-        verify( threshold ).checkPointHappened( transactionId );
+        verify( threshold ).checkPointHappened( transactionId, logPosition );
         verify( threshold, never() ).isCheckPointingNeeded( transactionId, INFO );
         verify( logPruning ).pruneLogs( logPosition.getLogVersion() );
         verifyNoMoreInteractions( forceOperation, health, appender, threshold );
@@ -175,7 +196,7 @@ class CheckPointerImplTest
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
         verify( appender ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold ).initialize( initialTransactionId );
-        verify( threshold ).checkPointHappened( transactionId );
+        verify( threshold ).checkPointHappened( transactionId, logPosition );
         verify( threshold, never() ).isCheckPointingNeeded( transactionId, INFO );
         verify( logPruning ).pruneLogs( logPosition.getLogVersion() );
         verifyNoMoreInteractions( forceOperation, health, appender, threshold );
@@ -200,7 +221,7 @@ class CheckPointerImplTest
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
         verify( appender ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold ).initialize( initialTransactionId );
-        verify( threshold ).checkPointHappened( transactionId );
+        verify( threshold ).checkPointHappened( transactionId, logPosition );
         verify( threshold, never() ).isCheckPointingNeeded( transactionId, INFO );
         verify( logPruning ).pruneLogs( logPosition.getLogVersion() );
         verifyNoMoreInteractions( forceOperation, health, appender, threshold );
@@ -257,6 +278,78 @@ class CheckPointerImplTest
         verify( spyLock, times( 2 ) ).unlock();
     }
 
+    @Test
+    void shouldNotFlushPagesDirtiedAfterCheckPointStartedWhenSnapshottingDirtyPages() throws Throwable
+    {
+        File file = testDirectory.file( "store" );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+        {
+            // Given
+            writePage( pagedFile, 0, 1 );
+            CheckPointerImpl checkPointing = checkPointer( flushWhileWriting( pagedFile ), true );
+            mockTxIdStore();
+            checkPointing.start();
+
+            // When
+            checkPointing.forceCheckPoint( INFO );
+
+            // Then
+            assertEquals( pageCache.pageSize(), fs.getFileSize( file ) );
+            assertEquals( 1, readFirstLong( file ) );
+        }
+    }
+
+    @Test
+    void shouldFlushPagesDirtiedAfterCheckPointStartedWhenNotSnapshottingDirtyPages() throws Throwable
+    {
+        File file = testDirectory.file( "store" );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+        {
+            // Given
+            writePage( pagedFile, 0, 1 );
+            CheckPointerImpl checkPointing = checkPointer( flushWhileWriting( pagedFile ), false );
+            mockTxIdStore();
+            checkPointing.start();
+
+            // When
+            checkPointing.forceCheckPoint( INFO );
+
+            // Then
+            assertEquals( 2L * pageCache.pageSize(), fs.getFileSize( file ) );
+            assertEquals( 1, readFirstLong( file ) );
+        }
+    }
+
+    private static ForceOperation flushWhileWriting( PagedFile pagedFile )
+    {
+        return ioLimiter ->
+        {
+            // A transaction that writes to a new page after the check point has started
+            writePage( pagedFile, 1, 2 );
+            pagedFile.flushAndForce( ioLimiter );
+        };
+    }
+
+    private static void writePage( PagedFile pagedFile, long pageId, long value ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+            cursor.putLong( value );
+        }
+    }
+
+    private long readFirstLong( File file ) throws IOException
+    {
+        try ( StoreChannel channel = fs.read( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( Long.BYTES );
+            channel.readAll( buffer );
+            buffer.flip();
+            return buffer.getLong();
+        }
+    }
+
     private static StoreCopyCheckPointMutex mutex( Lock lock )
     {
         return new StoreCopyCheckPointMutex( new ReadWriteLock()
@@ -520,7 +613,13 @@ class CheckPointerImplTest
     private CheckPointerImpl checkPointer( StoreCopyCheckPointMutex mutex )
     {
         return new CheckPointerImpl( txIdStore, threshold, forceOperation, logPruning, appender, health,
-                NullLogProvider.getInstance(), tracer, limiter, mutex );
+                NullLogProvider.getInstance(), tracer, limiter, pageCache, false, mutex );
+    }
+
+    private CheckPointerImpl checkPointer( ForceOperation forceOperation, boolean snapshotDirtyPages )
+    {
+        return new CheckPointerImpl( txIdStore, threshold, forceOperation, logPruning, appender, health,
+                NullLogProvider.getInstance(), tracer, limiter, pageCache, snapshotDirtyPages, new StoreCopyCheckPointMutex() );
     }
 
     private CheckPointerImpl checkPointer()
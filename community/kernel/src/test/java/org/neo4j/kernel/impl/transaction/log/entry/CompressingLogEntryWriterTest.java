@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.kernel.impl.transaction.log.LogEntryCursor;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMPRESSED_COMMANDS;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+
+class CompressingLogEntryWriterTest
+{
+    private final CommandCompressionStatistics statistics = new CommandCompressionStatistics();
+    private final LogEntryReader logEntryReader = new VersionAwareLogEntryReader( new TestCommandReaderFactory(), true, statistics );
+
+    @Test
+    void shouldReadBackCompressedTransactionsAsCommandEntries() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = commands( 100 );
+        InMemoryClosableChannel plainChannel = new InMemoryClosableChannel( 20_000 );
+        writeTransaction( new LogEntryWriter( plainChannel ), commands, 1 );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+
+        // when
+        writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands, 1 );
+        writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands, 2 );
+
+        // then
+        assertTrue( channel.writerPosition() < plainChannel.writerPosition() );
+        assertEquals( 2, statistics.blocksWritten() );
+        LogEntryCursor cursor = new LogEntryCursor( logEntryReader, channel );
+        assertTransaction( cursor, commands, 1 );
+        assertTransaction( cursor, commands, 2 );
+        assertFalse( cursor.next() );
+        assertEquals( 2, statistics.blocksRead() );
+        assertTrue( statistics.writeCompressionRatio() > 1 );
+    }
+
+    @Test
+    void shouldWriteOnlyCompressedBlocksWithOptionalLogEntryVersion() throws IOException
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+
+        // when
+        writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands( 100 ), 1 );
+
+        // then
+        assertEquals( LogEntryVersion.V4_0, logEntryReader.readLogEntry( channel ).getVersion() );
+        LogEntry compressed = logEntryReader.readLogEntry( channel );
+        assertTrue( compressed instanceof LogEntryCompressedCommands );
+        assertEquals( LogEntryVersion.V4_1, compressed.getVersion() );
+        assertEquals( 100, ((LogEntryCompressedCommands) compressed).getCommands().size() );
+        for ( LogEntryCommand command : ((LogEntryCompressedCommands) compressed).getCommands() )
+        {
+            assertEquals( LogEntryVersion.V4_0, command.getVersion() );
+        }
+        LogEntry commit = logEntryReader.readLogEntry( channel );
+        assertTrue( commit instanceof LogEntryCommit );
+        assertEquals( LogEntryVersion.V4_0, commit.getVersion() );
+    }
+
+    @Test
+    void shouldWriteAllEntriesOfUncompressedTransactionsWithLatestLogEntryVersion() throws IOException
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+
+        // when
+        writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands( 1 ), 1 );
+
+        // then
+        LogEntry entry;
+        while ( (entry = logEntryReader.readLogEntry( channel )) != null )
+        {
+            assertEquals( LogEntryVersion.LATEST_VERSION, entry.getVersion() );
+        }
+    }
+
+    @Test
+    void shouldWriteSmallTransactionsAsPlainCommandEntries() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = commands( 1 );
+        InMemoryClosableChannel plainChannel = new InMemoryClosableChannel( 20_000 );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+
+        // when
+        int plainChecksum = writeTransaction( new LogEntryWriter( plainChannel ), commands, 1 );
+        int checksum = writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands, 1 );
+
+        // then
+        assertEquals( plainChecksum, checksum );
+        assertEquals( plainChannel.writerPosition(), channel.writerPosition() );
+        assertTransaction( new LogEntryCursor( logEntryReader, channel ), commands, 1 );
+        assertEquals( 0, statistics.blocksWritten() );
+    }
+
+    @Test
+    void shouldReadCompressedTransactionsOfSeveralChannelsWithTheSameReader() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = commands( 100 );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+        InMemoryClosableChannel otherChannel = new InMemoryClosableChannel( 20_000 );
+        writeTransaction( new CompressingLogEntryWriter( channel, statistics ), commands, 1 );
+        writeTransaction( new CompressingLogEntryWriter( otherChannel, statistics ), commands, 2 );
+        LogEntryCursor cursor = new LogEntryCursor( logEntryReader, channel );
+        LogEntryCursor otherCursor = new LogEntryCursor( logEntryReader, otherChannel );
+
+        // when
+        assertTrue( cursor.next() );
+        assertTrue( cursor.get() instanceof LogEntryStart );
+        assertTrue( cursor.next() );
+        assertEquals( new LogEntryCommand( commands.get( 0 ) ), cursor.get() );
+
+        // then
+        assertTransaction( otherCursor, commands, 2 );
+        for ( StorageCommand command : commands.subList( 1, commands.size() ) )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( new LogEntryCommand( command ), cursor.get() );
+        }
+        assertTrue( cursor.next() );
+        assertEquals( 1, ((LogEntryCommit) cursor.get()).getTxId() );
+    }
+
+    @Test
+    void shouldNotAllocateForCompressedBlockLongerThanTheLog() throws IOException
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+        channel.put( LogEntryVersion.V4_1.version() ).put( COMPRESSED_COMMANDS );
+        channel.putInt( Integer.MAX_VALUE - 1_000 ).putInt( Integer.MAX_VALUE - 1_000 ).put( new byte[100], 100 );
+
+        // when
+        LogEntry entry = logEntryReader.readLogEntry( channel );
+
+        // then
+        assertNull( entry );
+    }
+
+    @Test
+    void shouldFailOnCompressedBlockNotHoldingTheCommandsItClaims() throws IOException
+    {
+        // given
+        InMemoryClosableChannel compressedChannel = new InMemoryClosableChannel( 20_000 );
+        writeTransaction( new CompressingLogEntryWriter( compressedChannel, statistics ), commands( 100 ), 1 );
+        logEntryReader.readLogEntry( compressedChannel );
+        compressedChannel.get();
+        compressedChannel.get();
+        int length = compressedChannel.getInt();
+        int compressedLength = compressedChannel.getInt();
+        byte[] compressed = new byte[compressedLength];
+        compressedChannel.get( compressed, compressedLength );
+
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( 20_000 );
+        channel.put( LogEntryVersion.V4_1.version() ).put( COMPRESSED_COMMANDS );
+        channel.putInt( length * 2 ).putInt( compressedLength ).put( compressed, compressedLength );
+
+        // when/then
+        assertThrows( IOException.class, () -> logEntryReader.readLogEntry( channel ) );
+    }
+
+    private static void assertTransaction( LogEntryCursor cursor, List<StorageCommand> commands, long txId ) throws IOException
+    {
+        assertTrue( cursor.next() );
+        assertTrue( cursor.get() instanceof LogEntryStart );
+        for ( StorageCommand command : commands )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( new LogEntryCommand( command ), cursor.get() );
+        }
+        assertTrue( cursor.next() );
+        assertEquals( txId, ((LogEntryCommit) cursor.get()).getTxId() );
+    }
+
+    private static int writeTransaction( LogEntryWriter writer, List<StorageCommand> commands, long txId ) throws IOException
+    {
+        writer.writeStartEntry( 1, 2, BASE_TX_CHECKSUM, new byte[0] );
+        writer.serialize( new PhysicalTransactionRepresentation( commands ) );
+        return writer.writeCommitEntry( txId, 3 );
+    }
+
+    private static List<StorageCommand> commands( int count )
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            byte[] bytes = new byte[50];
+            bytes[0] = (byte) i;
+            commands.add( new TestCommand( bytes ) );
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.test.extension.EphemeralFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith( EphemeralFileSystemExtension.class )
+class TransactionLogPositionIndexTest
+{
+    private static final int SAMPLE_DISTANCE = 100;
+
+    @Inject
+    private EphemeralFileSystemAbstraction fileSystem;
+    private final File file = new File( "neostore.transaction.db" + TransactionLogPositionIndex.POSITION_INDEX_SUFFIX );
+
+    @Test
+    void shouldFindClosestSampleBeforeTransaction() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 2, new LogPosition( 0, 64 ) );
+        index.sample( 3, new LogPosition( 0, 150 ) );
+        index.sample( 4, new LogPosition( 0, 200 ) );
+        index.sample( 5, new LogPosition( 0, 260 ) );
+        index.sample( 6, new LogPosition( 0, 320 ) );
+        index.flush();
+
+        // when/then
+        assertNull( index.lookup( 2, 0 ) );
+        assertEquals( new LogPosition( 0, 150 ), index.lookup( 3, 0 ) );
+        assertEquals( new LogPosition( 0, 150 ), index.lookup( 4, 0 ) );
+        assertEquals( new LogPosition( 0, 260 ), index.lookup( 5, 0 ) );
+        assertEquals( new LogPosition( 0, 260 ), index.lookup( 100, 0 ) );
+    }
+
+    @Test
+    void shouldFindSamplesBeforeTheyAreFlushed() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.flush();
+        index.sample( 20, new LogPosition( 0, 1000 ) );
+
+        // when/then
+        assertEquals( new LogPosition( 0, 500 ), index.lookup( 15, 0 ) );
+        assertEquals( new LogPosition( 0, 1000 ), index.lookup( 25, 0 ) );
+    }
+
+    @Test
+    void shouldNotReturnSampleFromOtherLogFile() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.sample( 11, new LogPosition( 1, 64 ) );
+        index.sample( 20, new LogPosition( 1, 500 ) );
+        index.flush();
+
+        // when/then
+        assertEquals( new LogPosition( 0, 500 ), index.lookup( 10, 0 ) );
+        assertNull( index.lookup( 15, 1 ) );
+        assertNull( index.lookup( 25, 0 ) );
+        assertEquals( new LogPosition( 1, 500 ), index.lookup( 25, 1 ) );
+    }
+
+    @Test
+    void shouldSurviveRestart() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 3, 500 ) );
+        index.flush();
+
+        // when
+        TransactionLogPositionIndex reopened = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+
+        // then
+        assertEquals( new LogPosition( 3, 500 ), reopened.lookup( 12, 3 ) );
+    }
+
+    @Test
+    void shouldDropSamplesOfRewrittenTransactions() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.sample( 20, new LogPosition( 0, 1000 ) );
+        index.sample( 30, new LogPosition( 0, 1500 ) );
+        index.flush();
+
+        // when the log is truncated after transaction 15 and written again
+        TransactionLogPositionIndex reopened = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        reopened.sample( 16, new LogPosition( 1, 800 ) );
+        reopened.flush();
+
+        // then
+        assertEquals( new LogPosition( 0, 500 ), reopened.lookup( 15, 0 ) );
+        assertNull( reopened.lookup( 25, 0 ) );
+        assertEquals( new LogPosition( 1, 800 ), reopened.lookup( 35, 1 ) );
+    }
+
+    @Test
+    void shouldDropSamplesOfPrunedLogFiles() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.sample( 20, new LogPosition( 1, 500 ) );
+        index.sample( 30, new LogPosition( 2, 500 ) );
+        index.flush();
+        index.sample( 40, new LogPosition( 2, 1000 ) );
+        long sizeBeforePruning = fileSystem.getFileSize( file );
+
+        // when
+        index.prune( 2 );
+
+        // then
+        assertEquals( sizeBeforePruning / 3, fileSystem.getFileSize( file ) );
+        assertNull( index.lookup( 15, 0 ) );
+        assertNull( index.lookup( 25, 1 ) );
+        assertEquals( new LogPosition( 2, 500 ), index.lookup( 35, 2 ) );
+        assertEquals( new LogPosition( 2, 1000 ), index.lookup( 45, 2 ) );
+
+        // and the samples taken before pruning are still appended after the kept ones
+        index.flush();
+        TransactionLogPositionIndex reopened = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        assertEquals( new LogPosition( 2, 500 ), reopened.lookup( 35, 2 ) );
+        assertEquals( new LogPosition( 2, 1000 ), reopened.lookup( 45, 2 ) );
+    }
+
+    @Test
+    void shouldDropPendingSamplesOfPrunedLogFiles() throws IOException
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.sample( 20, new LogPosition( 1, 500 ) );
+
+        // when
+        index.prune( 1 );
+        index.flush();
+
+        // then
+        assertNull( index.lookup( 15, 0 ) );
+        assertEquals( new LogPosition( 1, 500 ), index.lookup( 25, 1 ) );
+    }
+
+    @Test
+    void shouldLookupWhileSamplesAreOffered() throws Exception
+    {
+        // given
+        TransactionLogPositionIndex index = new TransactionLogPositionIndex( fileSystem, file, SAMPLE_DISTANCE );
+        index.sample( 10, new LogPosition( 0, 500 ) );
+        index.flush();
+
+        // when samples are offered and flushed concurrently with lookups
+        Thread sampler = new Thread( () ->
+        {
+            try
+            {
+                for ( int i = 1; i <= 1000; i++ )
+                {
+                    index.sample( 10 + i, new LogPosition( i, 500 ) );
+                    if ( i % 10 == 0 )
+                    {
+                        index.flush();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        } );
+        sampler.start();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( new LogPosition( 0, 500 ), index.lookup( 10, 0 ) );
+        }
+        sampler.join();
+
+        // then
+        index.flush();
+        assertEquals( new LogPosition( 1000, 500 ), index.lookup( 1010, 1000 ) );
+    }
+}
@@ -24,12 +24,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.stream.LongStream;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogPositionIndex;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.time.SystemNanoClock;
@@ -43,6 +45,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -51,6 +55,7 @@ class LogPruningTest
     private final Config config = Config.defaults();
     private FileSystemAbstraction fs;
     private LogFiles logFiles;
+    private TransactionLogPositionIndex positionIndex;
     private LogProvider logProvider;
     private SystemNanoClock clock;
     private LogPruneStrategyFactory factory;
@@ -60,6 +65,8 @@ class LogPruningTest
     {
         fs = mock( FileSystemAbstraction.class );
         logFiles = mock( LogFiles.class );
+        positionIndex = mock( TransactionLogPositionIndex.class );
+        when( logFiles.getPositionIndex() ).thenReturn( positionIndex );
         doAnswer( inv -> new File( String.valueOf( inv.getArguments()[0] ) ) )
                 .when( logFiles ).getLogFileForVersion( anyLong() );
         logProvider = NullLogProvider.getInstance();
@@ -81,6 +88,26 @@ class LogPruningTest
         verifyNoMoreInteractions( fs );
     }
 
+    @Test
+    void mustPrunePositionIndexOfDeletedLogFiles() throws IOException
+    {
+        when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( logProvider ), eq( clock ), anyString() ) )
+                .thenReturn( upTo -> LongStream.range( 3, upTo ) );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config );
+        pruning.pruneLogs( 5 );
+        verify( positionIndex ).prune( 5 );
+    }
+
+    @Test
+    void mustNotPrunePositionIndexWhenNoLogFilesAreDeleted() throws IOException
+    {
+        when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( logProvider ), eq( clock ), anyString() ) )
+                .thenReturn( upTo -> LongStream.empty() );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config );
+        pruning.pruneLogs( 5 );
+        verify( positionIndex, never() ).prune( anyLong() );
+    }
+
     @Test
     void mustHaveLogFilesToPruneIfStrategyFindsFiles()
     {
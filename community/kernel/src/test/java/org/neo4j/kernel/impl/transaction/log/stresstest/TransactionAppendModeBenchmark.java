@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.stresstest;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.neo4j.configuration.GraphDatabaseSettings.TransactionLogAppendMode;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.layout.Neo4jLayout;
+
+import static java.lang.Integer.parseInt;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.function.Suppliers.untilTimeExpired;
+
+/**
+ * Compares the throughput of the {@link TransactionLogAppendMode transaction log append modes}, by appending transactions
+ * from a number of threads through a {@link org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender}, which forces
+ * the log after every batch. Each mode is run a number of times in a fresh directory and the rate of every run is printed.
+ * <p>
+ * Arguments, all optional: {@code [directory] [seconds per run] [threads] [runs per mode]}. The directory defaults to a temporary
+ * directory, which should be on the disk that is to be measured.
+ */
+public class TransactionAppendModeBenchmark
+{
+    public static void main( String[] args ) throws Exception
+    {
+        File directory = args.length > 0 ? new File( args[0] ) : Files.createTempDirectory( "tx-append-benchmark" ).toFile();
+        int seconds = args.length > 1 ? parseInt( args[1] ) : 10;
+        int threads = args.length > 2 ? parseInt( args[2] ) : 10;
+        int runs = args.length > 3 ? parseInt( args[3] ) : 3;
+
+        for ( TransactionLogAppendMode appendMode : TransactionLogAppendMode.values() )
+        {
+            for ( int run = 0; run < runs; run++ )
+            {
+                File runDirectory = new File( directory, appendMode.name().toLowerCase() + "-" + run );
+                FileUtils.deleteRecursively( runDirectory );
+                DatabaseLayout databaseLayout = Neo4jLayout.of( runDirectory ).databaseLayout( "benchmark" );
+
+                long start = System.nanoTime();
+                long appendedTxs = new TransactionAppenderStressTest.Builder()
+                        .with( untilTimeExpired( seconds, SECONDS ) )
+                        .withWorkingDirectory( databaseLayout )
+                        .withNumThreads( threads )
+                        .withAppendMode( appendMode )
+                        .build()
+                        .call();
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf( "%s run %d: %d transactions in %.1f s, %.0f tx/s%n", appendMode, run, appendedTxs, elapsedSeconds,
+                        appendedTxs / elapsedSeconds );
+                FileUtils.deleteRecursively( runDirectory );
+            }
+        }
+    }
+}
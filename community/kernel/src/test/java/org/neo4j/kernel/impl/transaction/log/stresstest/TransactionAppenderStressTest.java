@@ -26,6 +26,8 @@ import java.io.IOException;
 import java.util.concurrent.Callable;
 import java.util.function.BooleanSupplier;
 
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings.TransactionLogAppendMode;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -45,6 +47,7 @@ import org.neo4j.test.extension.Neo4jLayoutExtension;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_append_mode;
 import static org.neo4j.function.Suppliers.untilTimeExpired;
 import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
 
@@ -69,11 +72,28 @@ public class TransactionAppenderStressTest
         assertEquals( new TransactionIdChecker( databaseLayout.getTransactionLogsDirectory() ).parseAllTxLogs(), appendedTxs );
     }
 
+    @Test
+    void concurrentMemoryMappedTransactionAppendingTest() throws Exception
+    {
+        int threads = 10;
+        Callable<Long> runner = new Builder()
+                .with( untilTimeExpired( 10, SECONDS ) )
+                .withWorkingDirectory( databaseLayout )
+                .withNumThreads( threads )
+                .withAppendMode( TransactionLogAppendMode.MEMORY_MAPPED )
+                .build();
+
+        long appendedTxs = runner.call();
+
+        assertEquals( new TransactionIdChecker( databaseLayout.getTransactionLogsDirectory() ).parseAllTxLogs(), appendedTxs );
+    }
+
     public static class Builder
     {
         private BooleanSupplier condition;
         private DatabaseLayout databaseLayout;
         private int threads;
+        private TransactionLogAppendMode appendMode = TransactionLogAppendMode.BUFFERED;
 
         public Builder with( BooleanSupplier condition )
         {
@@ -93,9 +113,15 @@ public class TransactionAppenderStressTest
             return this;
         }
 
+        public Builder withAppendMode( TransactionLogAppendMode appendMode )
+        {
+            this.appendMode = appendMode;
+            return this;
+        }
+
         public Callable<Long> build()
         {
-            return new Runner( databaseLayout, condition, threads );
+            return new Runner( databaseLayout, condition, threads, Config.defaults( transaction_log_append_mode, appendMode ) );
         }
     }
 
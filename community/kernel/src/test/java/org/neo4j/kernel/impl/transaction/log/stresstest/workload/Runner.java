@@ -27,6 +27,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.BooleanSupplier;
 
+import org.neo4j.configuration.Config;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -58,12 +59,14 @@ public class Runner implements Callable<Long>
     private final DatabaseLayout databaseLayout;
     private final BooleanSupplier condition;
     private final int threads;
+    private final Config config;
 
-    public Runner( DatabaseLayout databaseLayout, BooleanSupplier condition, int threads )
+    public Runner( DatabaseLayout databaseLayout, BooleanSupplier condition, int threads, Config config )
     {
         this.databaseLayout = databaseLayout;
         this.condition = condition;
         this.threads = threads;
+        this.config = config;
     }
 
     @Override
@@ -130,6 +133,7 @@ public class Runner implements Callable<Long>
                 .withLogVersionRepository( logVersionRepository )
                 .withLogEntryReader( new VersionAwareLogEntryReader( new TestCommandReaderFactory() ) )
                 .withStoreId( StoreId.UNKNOWN )
+                .withConfig( config )
                 .build();
     }
 }
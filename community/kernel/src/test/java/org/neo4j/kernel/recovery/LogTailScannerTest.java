@@ -28,12 +28,16 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
@@ -46,9 +50,12 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogTailIndex;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.recovery.LogTailScanner.LogTailInformation;
 import org.neo4j.monitoring.Monitors;
@@ -61,6 +68,7 @@ import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
@@ -83,6 +91,7 @@ class LogTailScannerTest
     private LogTailScanner tailScanner;
 
     private final Monitors monitors = new Monitors();
+    private final List<String> rejectedTailIndexReasons = new ArrayList<>();
     private LogFiles logFiles;
     private final LogEntryVersion latestLogEntryVersion = LogEntryVersion.LATEST_VERSION;
     private LogVersionRepository logVersionRepository;
@@ -109,6 +118,19 @@ class LogTailScannerTest
                 .withStoreId( StoreId.UNKNOWN )
                 .build();
         tailScanner = new LogTailScanner( logFiles, reader, monitors );
+        monitors.addMonitorListener( new LogTailScannerMonitor()
+        {
+            @Override
+            public void corruptedLogFile( long version, Throwable t )
+            {
+            }
+
+            @Override
+            public void tailIndexRejected( String reason )
+            {
+                rejectedTailIndexReasons.add( reason );
+            }
+        } );
     }
 
     @Test
@@ -473,6 +495,85 @@ class LogTailScannerTest
         assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
     }
 
+    @ParameterizedTest
+    @MethodSource( "params" )
+    void findCheckPointInOlderLogFileThroughTailIndex( int startLogVersion, int endLogVersion )
+    {
+        // given
+        long txId = 5;
+        setupLogFiles( endLogVersion + 1,
+            logFile( start(), commit( 1 ), indexedCheckPoint() ),
+            logFile( start(), commit( txId ) ),
+            logFile( start(), commit( txId + 1 ) ) );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertNotNull( logFiles.getTailIndex().read() );
+        assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
+        assertTrue( rejectedTailIndexReasons.isEmpty(), rejectedTailIndexReasons.toString() );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "params" )
+    void findCheckPointWrittenAfterTheIndexedOne( int startLogVersion, int endLogVersion )
+    {
+        // given
+        PositionEntry position = position();
+        setupLogFiles( endLogVersion,
+            logFile( start(), commit( 1 ), indexedCheckPoint(), start(), commit( 2 ), position ),
+            logFile( checkPoint( position ) ) );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, false, NO_TRANSACTION_ID, endLogVersion, logTailInformation );
+        assertTrue( rejectedTailIndexReasons.isEmpty(), rejectedTailIndexReasons.toString() );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "params" )
+    void scanLogsWhenTailIndexDoesNotMatchLogHeader( int startLogVersion, int endLogVersion ) throws IOException
+    {
+        // given
+        long txId = 7;
+        setupLogFiles( endLogVersion, logFile( start(), commit( 1 ), indexedCheckPoint() ), logFile( start(), commit( txId ) ) );
+        TransactionLogTailIndex.Entry index = logFiles.getTailIndex().read();
+        LogHeader otherHeader = new LogHeader( index.header.getLogVersion(), index.header.getLastCommittedTxId() + 1, index.header.getStoreId() );
+        logFiles.getTailIndex().write( otherHeader, index.checkPointEntry, index.endOfCheckPointEntry, index.checkPointedPosition,
+            index.lastCommittedTransactionId );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
+        assertEquals( 1, rejectedTailIndexReasons.size() );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "params" )
+    void scanLogsWhenTailIndexIsCorrupted( int startLogVersion, int endLogVersion ) throws IOException
+    {
+        // given
+        long txId = 7;
+        setupLogFiles( endLogVersion, logFile( start(), commit( 1 ), indexedCheckPoint() ), logFile( start(), commit( txId ) ) );
+        File indexFile = new File( logFiles.logFilesDirectory(), TransactionLogFilesHelper.DEFAULT_NAME + "_tail" );
+        try ( StoreChannel channel = fs.write( indexFile ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3} ), 20 );
+        }
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
+        assertTrue( rejectedTailIndexReasons.isEmpty(), rejectedTailIndexReasons.toString() );
+    }
+
     // === Below is code for helping the tests above ===
 
     private void setupLogFiles( long endLogVersion, LogCreator... logFiles )
@@ -524,6 +625,12 @@ class LogTailScannerTest
                             LogPosition logPosition = target != null ? positions.get( target ) : currentPosition;
                             assert logPosition != null : "No registered log position for " + target;
                             writer.writeCheckPointEntry( logPosition );
+                            if ( checkPointEntry.indexed )
+                            {
+                                LogPosition endOfCheckPoint = writeChannel.getCurrentPosition( positionMarker ).newPosition();
+                                logFiles.getTailIndex().write( logFiles.extractHeader( logVersion ), currentPosition, endOfCheckPoint, logPosition,
+                                    lastTxId.get() );
+                            }
                         }
                         else if ( entry instanceof PositionEntry )
                         {
@@ -576,7 +683,12 @@ class LogTailScannerTest
 
     private static CheckPointEntry checkPoint( Entry forEntry )
     {
-        return new CheckPointEntry( forEntry );
+        return new CheckPointEntry( forEntry, false );
+    }
+
+    private static CheckPointEntry indexedCheckPoint()
+    {
+        return new CheckPointEntry( null, true );
     }
 
     private static PositionEntry position()
@@ -601,10 +713,12 @@ class LogTailScannerTest
     private static class CheckPointEntry implements Entry
     {
         final Entry withPositionOfEntry;
+        final boolean indexed;
 
-        CheckPointEntry( Entry withPositionOfEntry )
+        CheckPointEntry( Entry withPositionOfEntry, boolean indexed )
         {
             this.withPositionOfEntry = withPositionOfEntry;
+            this.indexed = indexed;
         }
     }
 
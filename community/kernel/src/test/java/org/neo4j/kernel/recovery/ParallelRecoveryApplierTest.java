@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelRecoveryApplierTest
+{
+    private static final AtomicLong TX_IDS = new AtomicLong();
+
+    private final List<CommittedTransactionRepresentation> applied = new CopyOnWriteArrayList<>();
+    private final List<Long> recovered = new CopyOnWriteArrayList<>();
+    private final ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
+
+    @AfterEach
+    void tearDown()
+    {
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldApplyTransactionsWithCommonKeysInOrder() throws Exception
+    {
+        List<CommittedTransactionRepresentation> transactions = new ArrayList<>();
+        try ( ParallelRecoveryApplier applier = applier( transaction ->
+        {
+            Thread.sleep( ThreadLocalRandom.current().nextInt( 2 ) );
+            applied.add( transaction );
+        } ) )
+        {
+            for ( int i = 0; i < 200; i++ )
+            {
+                CommittedTransactionRepresentation transaction = transaction( keyedCommand( 1, 1000 + i ) );
+                transactions.add( transaction );
+                applier.visit( transaction );
+            }
+        }
+        assertEquals( transactions, applied );
+    }
+
+    @Test
+    void shouldApplyTransactionsWithoutCommonKeysConcurrently() throws Exception
+    {
+        CountDownLatch secondApplied = new CountDownLatch( 1 );
+        CommittedTransactionRepresentation first = transaction( keyedCommand( 1 ) );
+        CommittedTransactionRepresentation second = transaction( keyedCommand( 2 ) );
+        try ( ParallelRecoveryApplier applier = applier( transaction ->
+        {
+            if ( transaction == first )
+            {
+                // This would never finish if the second transaction was applied after the first.
+                secondApplied.await();
+                applied.add( transaction );
+            }
+            else
+            {
+                applied.add( transaction );
+                secondApplied.countDown();
+            }
+        } ) )
+        {
+            applier.visit( first );
+            applier.visit( second );
+        }
+        assertEquals( List.of( second, first ), applied );
+    }
+
+    @Test
+    void shouldApplyTransactionsWithUnkeyedCommandsOnTheirOwn() throws Exception
+    {
+        CommittedTransactionRepresentation before1 = transaction( keyedCommand( 1 ) );
+        CommittedTransactionRepresentation before2 = transaction( keyedCommand( 2 ) );
+        CommittedTransactionRepresentation unkeyed = transaction( keyedCommand( 3 ), unkeyedCommand() );
+        CommittedTransactionRepresentation after = transaction( keyedCommand( 4 ) );
+        try ( ParallelRecoveryApplier applier = applier( applied::add ) )
+        {
+            applier.visit( before1 );
+            applier.visit( before2 );
+            applier.visit( unkeyed );
+            applier.visit( after );
+        }
+        assertEquals( 4, applied.size() );
+        assertEquals( 2, applied.indexOf( unkeyed ) );
+        assertSame( after, applied.get( 3 ) );
+    }
+
+    @Test
+    void shouldReportTransactionsAsRecoveredOnceTheyHaveBeenApplied() throws Exception
+    {
+        CountDownLatch applyFirst = new CountDownLatch( 1 );
+        CommittedTransactionRepresentation first = transaction( keyedCommand( 1 ) );
+        CommittedTransactionRepresentation unkeyed = transaction( unkeyedCommand() );
+        try ( ParallelRecoveryApplier applier = applier( transaction ->
+        {
+            if ( transaction == first )
+            {
+                applyFirst.await();
+            }
+            applied.add( transaction );
+        } ) )
+        {
+            applier.visit( first );
+            assertFalse( recovered.contains( txId( first ) ) );
+            applyFirst.countDown();
+            applier.visit( unkeyed );
+            assertEquals( List.of( txId( first ), txId( unkeyed ) ), recovered );
+        }
+    }
+
+    @Test
+    void shouldNotReportTransactionsThatFailedToApplyAsRecovered() throws Exception
+    {
+        Exception failure = new Exception( "Failed to apply" );
+        ParallelRecoveryApplier applier = applier( transaction ->
+        {
+            throw failure;
+        } );
+        applier.visit( transaction( keyedCommand( 1 ) ) );
+        assertThrows( Exception.class, applier::close );
+        assertEquals( List.of(), recovered );
+    }
+
+    @Test
+    void shouldThrowFailureToApplyTransactionFromClose() throws Exception
+    {
+        Exception failure = new Exception( "Failed to apply" );
+        ParallelRecoveryApplier applier = applier( transaction ->
+        {
+            throw failure;
+        } );
+        applier.visit( transaction( keyedCommand( 1 ) ) );
+        assertSame( failure, assertThrows( Exception.class, applier::close ) );
+    }
+
+    private ParallelRecoveryApplier applier( TransactionApplier transactionApplier )
+    {
+        RecoveryApplier recoveryApplier = new RecoveryApplier()
+        {
+            @Override
+            public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+            {
+                transactionApplier.apply( transaction );
+                return false;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+        return new ParallelRecoveryApplier( recoveryApplier, 4, jobScheduler, new RecoveryMonitor()
+        {
+            @Override
+            public void transactionRecovered( long txId )
+            {
+                recovered.add( txId );
+            }
+        } );
+    }
+
+    private static long txId( CommittedTransactionRepresentation transaction )
+    {
+        return transaction.getCommitEntry().getTxId();
+    }
+
+    private static CommittedTransactionRepresentation transaction( StorageCommand... commands )
+    {
+        return new CommittedTransactionRepresentation( null, new PhysicalTransactionRepresentation( List.of( commands ) ),
+                new LogEntryCommit( TX_IDS.incrementAndGet(), 0, 0 ) );
+    }
+
+    private static StorageCommand keyedCommand( long... keys )
+    {
+        return new StorageCommand()
+        {
+            @Override
+            public void serialize( WritableChannel channel )
+            {
+            }
+
+            @Override
+            public boolean visitKeys( LongConsumer keyVisitor )
+            {
+                for ( long key : keys )
+                {
+                    keyVisitor.accept( key );
+                }
+                return true;
+            }
+        };
+    }
+
+    private static StorageCommand unkeyedCommand()
+    {
+        return channel ->
+        {
+        };
+    }
+
+    private interface TransactionApplier
+    {
+        void apply( CommittedTransactionRepresentation transaction ) throws Exception;
+    }
+}
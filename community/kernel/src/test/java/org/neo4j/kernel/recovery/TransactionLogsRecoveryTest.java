@@ -61,6 +61,7 @@ import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.Log;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.StoreId;
@@ -199,7 +200,7 @@ class TransactionLogsRecoveryTest
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystem );
             monitors.addMonitorListener( monitor );
             life.add( new TransactionLogsRecovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ) )
+                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ), 1, mock( JobScheduler.class ), monitor )
             {
                 private int nr;
 
@@ -299,7 +300,7 @@ class TransactionLogsRecoveryTest
                 }
             } );
             life.add( new TransactionLogsRecovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ) ),
+                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ), 1, mock( JobScheduler.class ), monitor ),
                     logPruner, schemaLife, monitor, ProgressReporter.SILENT, false, EMPTY_CHECKER ) );
 
             life.start();
@@ -518,7 +519,7 @@ class TransactionLogsRecoveryTest
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystem );
             monitors.addMonitorListener( monitor );
             life.add( new TransactionLogsRecovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ) ),
+                    txStore, versionRepository, logFiles, NO_MONITOR, mock( Log.class ), 1, mock( JobScheduler.class ), monitor ),
                     logPruner, schemaLife, monitor, ProgressReporter.SILENT, false, startupChecker ) );
 
             life.start();
@@ -244,6 +244,12 @@ public class StubStorageCursors implements StorageReader
         throw new UnsupportedOperationException( "Not implemented yet" );
     }
 
+    @Override
+    public long nodeDegree( long nodeReference, int typeId, RelationshipDirection direction )
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
     @Override
     public long nodesGetCount()
     {
@@ -328,6 +334,12 @@ public class StubStorageCursors implements StorageReader
         throw new UnsupportedOperationException( "Not implemented yet" );
     }
 
+    @Override
+    public StorageRelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
     @Override
     public StorageRelationshipScanCursor allocateRelationshipScanCursor()
     {
@@ -75,6 +75,11 @@ import static org.neo4j.internal.index.label.LabelScanValue.RANGE_SIZE;
  */
 public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateListener
 {
+    /**
+     * Tag of the {@link Monitor} events of the label scan store, for listeners that should not hear about other stores in the same layout.
+     */
+    public static final String LABEL_SCAN_STORE_MONITOR_TAG = "labelScanStore";
+
     /**
      * Written in header to indicate native label scan store is clean
      */
@@ -100,6 +105,11 @@ public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateList
      */
     private final Monitors monitors;
 
+    /**
+     * Tag of the monitor events of this store, and of its {@link GBPTree}.
+     */
+    private final String monitorTag;
+
     /**
      * {@link PageCache} to {@link PageCache#map(File, int, java.nio.file.OpenOption...)}
      * store file backing this label scan store. Passed to {@link GBPTree}.
@@ -164,6 +174,11 @@ public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateList
      */
     private NativeLabelScanWriter.WriteMonitor writeMonitor;
 
+    /**
+     * Whether or not writes are logged by {@link LabelScanWriteMonitor}, when it's enabled.
+     */
+    private final boolean writeLog;
+
     /**
      * Write rebuilding bit to header.
      */
@@ -188,16 +203,29 @@ public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateList
     NativeLabelScanStore( PageCache pageCache, DatabaseLayout directoryStructure, FileSystemAbstraction fs,
                 FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
                 RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
+    {
+        this( pageCache, directoryStructure, getLabelScanStoreFile( directoryStructure ), fs, fullStoreChangeStream, readOnly, monitors,
+                LABEL_SCAN_STORE_MONITOR_TAG, recoveryCleanupWorkCollector, pageSize, true );
+    }
+
+    /*
+     * Access for stores which keep other entity-->token mappings in the same layout, in a store file of their own.
+     */
+    NativeLabelScanStore( PageCache pageCache, DatabaseLayout directoryStructure, File storeFile, FileSystemAbstraction fs,
+                FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors, String monitorTag,
+                RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize, boolean writeLog )
     {
         this.pageCache = pageCache;
         this.fs = fs;
         this.pageSize = pageSize;
         this.fullStoreChangeStream = fullStoreChangeStream;
         this.directoryStructure = directoryStructure;
-        this.storeFile = getLabelScanStoreFile( directoryStructure );
+        this.storeFile = storeFile;
+        this.writeLog = writeLog;
         this.readOnly = readOnly;
         this.monitors = monitors;
-        this.monitor = monitors.newMonitor( Monitor.class );
+        this.monitorTag = monitorTag;
+        this.monitor = monitors.newMonitor( Monitor.class, monitorTag );
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
         this.fileSystem = fs;
     }
@@ -358,7 +386,7 @@ public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateList
             isDirty = true;
         }
 
-        writeMonitor = LabelScanWriteMonitor.ENABLED ? new LabelScanWriteMonitor( fs, directoryStructure ) : NativeLabelScanWriter.EMPTY;
+        writeMonitor = writeLog && LabelScanWriteMonitor.ENABLED ? new LabelScanWriteMonitor( fs, directoryStructure ) : NativeLabelScanWriter.EMPTY;
         singleWriter = new NativeLabelScanWriter( 1_000, writeMonitor );
 
         if ( isDirty )
@@ -390,8 +418,8 @@ public class NativeLabelScanStore implements LabelScanStore, NodeLabelUpdateList
      */
     private boolean instantiateTree()
     {
-        monitors.addMonitorListener( treeMonitor() );
-        GBPTree.Monitor monitor = monitors.newMonitor( GBPTree.Monitor.class );
+        monitors.addMonitorListener( treeMonitor(), monitorTag );
+        GBPTree.Monitor monitor = monitors.newMonitor( GBPTree.Monitor.class, monitorTag );
         MutableBoolean isRebuilding = new MutableBoolean();
         Header.Reader readRebuilding =
                 headerData -> isRebuilding.setValue( headerData.get() == NEEDS_REBUILDING );
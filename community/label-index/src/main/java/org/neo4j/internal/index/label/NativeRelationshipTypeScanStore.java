@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.index.label;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.annotations.documented.ReporterFactory;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.storageengine.api.NodeLabelUpdate;
+import org.neo4j.storageengine.api.RelationshipTypeUpdateListener;
+
+/**
+ * {@link RelationshipTypeScanStore} which is implemented using {@link GBPTree} atop a {@link PageCache}, in the very same layout
+ * as {@link NativeLabelScanStore}. Keys are a combination of {@code relationshipTypeId} and {@code relationshipIdRange} and
+ * each value is a bit set where each set bit represents a relationship of that type.
+ * <p>
+ * Updates are {@link NodeLabelUpdate}s where the entity id is the relationship id and the single label is the relationship type,
+ * see {@link RelationshipTypeUpdateListener}.
+ * <p>
+ * This store is backed by a single store file "neostore.relationshiptypescanstore.db".
+ */
+public class NativeRelationshipTypeScanStore implements RelationshipTypeScanStore, RelationshipTypeUpdateListener
+{
+    /**
+     * Tag of the {@link LabelScanStore.Monitor} events of the relationship type scan store, which tells them apart from those of the
+     * label scan store.
+     */
+    public static final String RELATIONSHIP_TYPE_SCAN_STORE_MONITOR_TAG = "relationshipTypeScanStore";
+
+    private final NativeLabelScanStore store;
+
+    public NativeRelationshipTypeScanStore( PageCache pageCache, DatabaseLayout directoryStructure, FileSystemAbstraction fs,
+            FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        this.store = new NativeLabelScanStore( pageCache, directoryStructure, directoryStructure.relationshipTypeScanStore(), fs,
+                fullStoreChangeStream, readOnly, monitors, RELATIONSHIP_TYPE_SCAN_STORE_MONITOR_TAG, recoveryCleanupWorkCollector,
+                /*means no opinion about page size*/ 0, false );
+    }
+
+    @Override
+    public RelationshipTypeScanReader newReader()
+    {
+        LabelScanReader reader = store.newReader();
+        return reader::nodesWithLabel;
+    }
+
+    @Override
+    public void applyRelationshipTypeUpdates( Iterable<NodeLabelUpdate> typeUpdates )
+    {
+        store.applyUpdates( typeUpdates );
+    }
+
+    @Override
+    public void force( IOLimiter limiter )
+    {
+        store.force( limiter );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotStoreFiles()
+    {
+        return store.snapshotStoreFiles();
+    }
+
+    @Override
+    public boolean isEmpty() throws IOException
+    {
+        return store.isEmpty();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        store.drop();
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return store.isReadOnly();
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return store.isDirty();
+    }
+
+    @Override
+    public boolean hasStore()
+    {
+        return store.hasStore();
+    }
+
+    @Override
+    public File getRelationshipTypeScanStoreFile()
+    {
+        return store.getLabelScanStoreFile();
+    }
+
+    @Override
+    public boolean consistencyCheck( ReporterFactory reporterFactory )
+    {
+        return store.consistencyCheck( reporterFactory );
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        store.init();
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        store.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        store.stop();
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        store.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.index.label;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+
+/**
+ * Stores relationship type-->relationships mappings. It receives updates in the form of condensed relationship type->relationship
+ * transaction data and can iterate through all relationships for any given relationship type.
+ */
+public interface RelationshipTypeScanStore extends Lifecycle, ConsistencyCheckable
+{
+    /**
+     * @return a {@link RelationshipTypeScanReader} capable of retrieving relationships for relationship types.
+     */
+    RelationshipTypeScanReader newReader();
+
+    /**
+     * Forces all changes to disk. Called at certain points from within Neo4j for example when
+     * rotating the logical log. After completion of this call there cannot be any essential state that
+     * hasn't been forced to disk.
+     *
+     * @throws IOException if there was a problem forcing the state to persistent storage.
+     */
+    void force( IOLimiter limiter ) throws IOException;
+
+    ResourceIterator<File> snapshotStoreFiles();
+
+    /**
+     * @return {@code true} if there's no data at all in this relationship type scan store, otherwise {@code false}.
+     * @throws IOException on I/O error.
+     */
+    boolean isEmpty() throws IOException;
+
+    /**
+     * Drops any persistent storage backing this store.
+     *
+     * @throws IOException on I/O error.
+     */
+    void drop() throws IOException;
+
+    /**
+     * @return whether or not this store is read-only.
+     */
+    boolean isReadOnly();
+
+    boolean isDirty();
+
+    /**
+     * @return whether or not there's an existing store present for this relationship type scan store.
+     */
+    boolean hasStore();
+
+    /**
+     * @return the file where the relationship type scan store is persisted.
+     */
+    File getRelationshipTypeScanStoreFile();
+}
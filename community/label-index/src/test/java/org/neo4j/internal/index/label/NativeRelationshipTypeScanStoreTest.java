@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.index.label;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.collection.PrimitiveLongCollections.closingAsArray;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.index.label.FullStoreChangeStream.EMPTY;
+import static org.neo4j.internal.index.label.FullStoreChangeStream.asStream;
+import static org.neo4j.storageengine.api.NodeLabelUpdate.labelChanges;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class NativeRelationshipTypeScanStoreTest
+{
+    @Inject
+    private DatabaseLayout databaseLayout;
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private PageCache pageCache;
+
+    private NativeRelationshipTypeScanStore store;
+
+    @AfterEach
+    void shutdown() throws IOException
+    {
+        if ( store != null )
+        {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void shouldBeBackedByItsOwnStoreFile() throws IOException
+    {
+        // when
+        store = start( EMPTY );
+
+        // then
+        assertTrue( store.hasStore() );
+        assertTrue( store.isEmpty() );
+        assertTrue( fileSystem.fileExists( databaseLayout.relationshipTypeScanStore() ) );
+        assertFalse( fileSystem.fileExists( databaseLayout.labelScanStore() ) );
+    }
+
+    @Test
+    void shouldFindRelationshipsOfTypeAfterUpdates() throws IOException
+    {
+        // given
+        store = start( EMPTY );
+
+        // when
+        store.applyRelationshipTypeUpdates( List.of(
+                labelChanges( 1, EMPTY_LONG_ARRAY, new long[]{0} ),
+                labelChanges( 2, EMPTY_LONG_ARRAY, new long[]{1} ),
+                labelChanges( 70, EMPTY_LONG_ARRAY, new long[]{0} ) ) );
+        store.applyRelationshipTypeUpdates( List.of( labelChanges( 1, new long[]{0}, EMPTY_LONG_ARRAY ) ) );
+
+        // then
+        RelationshipTypeScanReader reader = store.newReader();
+        assertArrayEquals( new long[]{70}, closingAsArray( reader.relationshipsWithType( 0 ) ) );
+        assertArrayEquals( new long[]{2}, closingAsArray( reader.relationshipsWithType( 1 ) ) );
+        assertArrayEquals( EMPTY_LONG_ARRAY, closingAsArray( reader.relationshipsWithType( 2 ) ) );
+    }
+
+    @Test
+    void shouldRebuildFromFullStoreChangeStreamWhenMissing() throws IOException
+    {
+        // when
+        store = start( asStream( List.of(
+                labelChanges( 3, EMPTY_LONG_ARRAY, new long[]{4} ),
+                labelChanges( 5, EMPTY_LONG_ARRAY, new long[]{4} ) ) ) );
+
+        // then
+        assertArrayEquals( new long[]{3, 5}, closingAsArray( store.newReader().relationshipsWithType( 4 ) ) );
+    }
+
+    private NativeRelationshipTypeScanStore start( FullStoreChangeStream fullStoreChangeStream ) throws IOException
+    {
+        NativeRelationshipTypeScanStore store = new NativeRelationshipTypeScanStore( pageCache, databaseLayout, fileSystem, fullStoreChangeStream,
+                false, new Monitors(), immediate() );
+        store.init();
+        store.start();
+        return store;
+    }
+}
@@ -28,6 +28,10 @@ final class DatabaseFileNames
 
     static final String LABEL_SCAN_STORE = "neostore.labelscanstore.db";
 
+    static final String RELATIONSHIP_TYPE_SCAN_STORE = "neostore.relationshiptypescanstore.db";
+
+    static final String RELATIONSHIP_ADJACENCY_STORE = "neostore.relationshipadjacencystore.db";
+
     static final String COUNTS_STORE = "neostore.counts.db";
 
     static final String NODE_STORE = "neostore.nodestore.db";
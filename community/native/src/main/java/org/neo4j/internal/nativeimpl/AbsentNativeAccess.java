@@ -51,6 +51,24 @@ public class AbsentNativeAccess implements NativeAccess
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public int getNumaNodeCount()
+    {
+        return 1;
+    }
+
+    @Override
+    public int getCurrentNumaNode()
+    {
+        return 0;
+    }
+
+    @Override
+    public NativeCallResult tryBindMemoryToNumaNode( long address, long length, int node )
+    {
+        return NativeCallResult.SUCCESS;
+    }
+
     @Override
     public String describe()
     {
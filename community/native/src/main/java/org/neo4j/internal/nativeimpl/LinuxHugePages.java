@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+/**
+ * Anonymous memory mappings backed by huge pages, either explicitly reserved from the huge page pool of the kernel with
+ * {@code MAP_HUGETLB}, or as transparent huge pages with {@code madvise( MADV_HUGEPAGE )}.
+ * <p>
+ * Explicit huge pages must have been reserved by the administrator, for instance through {@code vm.nr_hugepages}, and
+ * the mapping fails up front if there are not enough of them. Transparent huge pages are best effort, and the kernel
+ * will silently use normal pages if it cannot find contiguous physical memory.
+ */
+public final class LinuxHugePages
+{
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_PRIVATE = 0x02;
+    private static final int MAP_ANONYMOUS = 0x20;
+    private static final int MAP_HUGETLB = 0x40000;
+    /**
+     * The log2 of the huge page size is encoded in the mmap flags from this bit and up.
+     */
+    private static final int MAP_HUGE_SHIFT = 26;
+    private static final long MAP_FAILED = -1;
+    private static final int MADV_HUGEPAGE = 14;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+
+    static
+    {
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            // not available
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+    }
+
+    private LinuxHugePages()
+    {
+        // no instances
+    }
+
+    /**
+     * Create a new mapping in the virtual address space of the process.
+     * @return the address of the mapping on success. On error, MAP_FAILED (-1) is returned.
+     */
+    private static native long mmap( long addr, long length, int prot, int flags, int fd, long offset ) throws LastErrorException;
+
+    /**
+     * Delete the mappings for the given address range.
+     * @return 0 on success. On error, -1 is returned.
+     */
+    private static native int munmap( long addr, long length ) throws LastErrorException;
+
+    /**
+     * Give advice about the use of memory in the given address range.
+     * @return 0 on success. On error, -1 is returned.
+     */
+    private static native int madvise( long addr, long length, int advice ) throws LastErrorException;
+
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE && !NativeAccessProvider.isNativeAccessDisabled();
+    }
+
+    /**
+     * Map anonymous memory backed by explicitly reserved huge pages of the given size.
+     * @param bytes size of the mapping, must be a multiple of the huge page size
+     * @param hugePageSize the huge page size, a power of two, typically 2 MiB or 1 GiB
+     * @return the address of the mapping, or 0 if the huge pages could not be reserved
+     */
+    public static long mapHugeTlb( long bytes, long hugePageSize )
+    {
+        if ( !isAvailable() || bytes <= 0 || Long.bitCount( hugePageSize ) != 1 || bytes % hugePageSize != 0 )
+        {
+            return 0;
+        }
+        int flags = MAP_PRIVATE | MAP_ANONYMOUS | MAP_HUGETLB | (Long.numberOfTrailingZeros( hugePageSize ) << MAP_HUGE_SHIFT);
+        return map( bytes, flags );
+    }
+
+    /**
+     * Map anonymous memory aligned to the given alignment, such that it can be backed by transparent huge pages of
+     * that size.
+     * @param bytes size of the mapping
+     * @param alignment the alignment of the mapping, a power of two that is a multiple of the page size
+     * @return the address of the mapping, or 0 if the memory could not be mapped
+     */
+    public static long mapAligned( long bytes, long alignment )
+    {
+        if ( !isAvailable() || bytes <= 0 || Long.bitCount( alignment ) != 1 )
+        {
+            return 0;
+        }
+        // Over-allocate, and then trim off the unaligned head and the excess tail.
+        long address = map( bytes + alignment, MAP_PRIVATE | MAP_ANONYMOUS );
+        if ( address == 0 )
+        {
+            return 0;
+        }
+        long aligned = (address + alignment - 1) & -alignment;
+        long head = aligned - address;
+        long tail = alignment - head;
+        if ( head > 0 )
+        {
+            unmap( address, head );
+        }
+        if ( tail > 0 )
+        {
+            unmap( aligned + bytes, tail );
+        }
+        return aligned;
+    }
+
+    /**
+     * Advise the kernel to back the given memory with transparent huge pages.
+     * @return {@code true} if the advice was accepted, {@code false} if transparent huge pages are not supported or
+     * disabled.
+     */
+    public static boolean adviseHugePages( long address, long bytes )
+    {
+        if ( !isAvailable() )
+        {
+            return false;
+        }
+        try
+        {
+            return madvise( address, bytes, MADV_HUGEPAGE ) == 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Unmap memory that was mapped by {@link #mapHugeTlb(long, long)} or {@link #mapAligned(long, long)}.
+     * @return {@code true} if the memory was unmapped.
+     */
+    public static boolean unmap( long address, long bytes )
+    {
+        try
+        {
+            return munmap( address, bytes ) == 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return false;
+        }
+    }
+
+    private static long map( long bytes, int flags )
+    {
+        try
+        {
+            long address = mmap( 0, bytes, PROT_READ | PROT_WRITE, flags, -1, 0 );
+            return address == MAP_FAILED ? 0 : address;
+        }
+        catch ( LastErrorException e )
+        {
+            return 0;
+        }
+    }
+}
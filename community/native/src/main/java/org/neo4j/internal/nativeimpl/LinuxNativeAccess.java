@@ -24,6 +24,14 @@ import com.sun.jna.Native;
 import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
 
 public class LinuxNativeAccess implements NativeAccess
@@ -47,6 +55,21 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Memory policy mode defined in mempolicy.h, that prefers to allocate memory from the given node, but falls back
+     * to other nodes when the preferred node is out of memory.
+     * For more info check man page for mbind.
+     */
+    private static final int MPOL_PREFERRED = 1;
+
+    /**
+     * The mbind system call number. The C library has no wrapper for mbind; that lives in libnuma, which we cannot
+     * expect to be installed.
+     */
+    private static final long SYS_MBIND = "aarch64".equals( System.getProperty( "os.arch" ) ) ? 235 : 237;
+
+    private static final String NUMA_NODES_DIRECTORY = "/sys/devices/system/node";
+
     private static final boolean NATIVE_ACCESS_AVAILABLE;
     private static final Throwable INITIALIZATION_FAILURE;
 
@@ -103,6 +126,20 @@ public class LinuxNativeAccess implements NativeAccess
      */
     public static native long strerror_r( int errnum, long buffPtr, int buffLength );
 
+    /**
+     * Determine the CPU that the calling thread is running on.
+     * @return the CPU number on success. On error, -1 is returned.
+     */
+    private static native int sched_getcpu() throws LastErrorException;
+
+    /**
+     * Invoke the system call with the given number. Used for calling mbind, which sets the NUMA memory policy for the
+     * memory range starting at addr and extending for len bytes, to the given mode and the nodes in the given node mask.
+     * @return 0 on success. On error, -1 is returned.
+     */
+    private static native long syscall( long number, long addr, long len, long mode, long nodemask, long maxnode, long flags )
+            throws LastErrorException;
+
     @Override
     public boolean isAvailable()
     {
@@ -153,6 +190,59 @@ public class LinuxNativeAccess implements NativeAccess
         return wrapResult( () -> posix_fallocate( fd, 0, bytes ) );
     }
 
+    @Override
+    public int getNumaNodeCount()
+    {
+        return NumaTopologyHolder.NODE_COUNT;
+    }
+
+    @Override
+    public int getCurrentNumaNode()
+    {
+        if ( NumaTopologyHolder.NODE_COUNT == 1 )
+        {
+            return 0;
+        }
+        try
+        {
+            int cpu = sched_getcpu();
+            int[] cpuToNode = NumaTopologyHolder.CPU_TO_NODE;
+            return cpu >= 0 && cpu < cpuToNode.length ? cpuToNode[cpu] : 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return 0;
+        }
+    }
+
+    @Override
+    public NativeCallResult tryBindMemoryToNumaNode( long address, long length, int node )
+    {
+        if ( node < 0 || node >= Long.SIZE )
+        {
+            return new NativeCallResult( NativeAccess.ERROR, "Unsupported NUMA node: " + node );
+        }
+        if ( length <= 0 )
+        {
+            return new NativeCallResult( NativeAccess.ERROR, "Length of memory to bind should be positive. Requested: " + length );
+        }
+        long nodeMask = Native.malloc( Long.BYTES );
+        if ( nodeMask == 0 )
+        {
+            return new NativeCallResult( NativeAccess.ERROR, "Failed to allocate NUMA node mask." );
+        }
+        try
+        {
+            new Pointer( nodeMask ).setLong( 0, 1L << node );
+            // The kernel expects the number of bits in the mask plus one.
+            return wrapResult( () -> (int) syscall( SYS_MBIND, address, length, MPOL_PREFERRED, nodeMask, Long.SIZE + 1, 0 ) );
+        }
+        finally
+        {
+            Native.free( nodeMask );
+        }
+    }
+
     @Override
     public String describe()
     {
@@ -218,6 +308,63 @@ public class LinuxNativeAccess implements NativeAccess
         return "Error occurred calling native function. Please check error code.";
     }
 
+    /**
+     * Parse a CPU list in the format used by sysfs, for instance "0-3,8,10-11".
+     */
+    static int[] parseCpuList( String cpuList )
+    {
+        return Arrays.stream( cpuList.trim().split( "," ) )
+                .filter( range -> !range.isEmpty() )
+                .flatMapToInt( range ->
+                {
+                    int dash = range.indexOf( '-' );
+                    if ( dash == -1 )
+                    {
+                        return IntStream.of( Integer.parseInt( range ) );
+                    }
+                    return IntStream.rangeClosed( Integer.parseInt( range.substring( 0, dash ) ),
+                            Integer.parseInt( range.substring( dash + 1 ) ) );
+                } ).toArray();
+    }
+
+    private static final class NumaTopologyHolder
+    {
+        private static final int[] CPU_TO_NODE;
+        private static final int NODE_COUNT;
+
+        static
+        {
+            int[] cpuToNode = new int[0];
+            int nodeCount = 1;
+            try ( DirectoryStream<Path> nodes = Files.newDirectoryStream( Paths.get( NUMA_NODES_DIRECTORY ), "node[0-9]*" ) )
+            {
+                int maxNode = 0;
+                for ( Path node : nodes )
+                {
+                    int nodeId = Integer.parseInt( node.getFileName().toString().substring( "node".length() ) );
+                    for ( int cpu : parseCpuList( Files.readString( node.resolve( "cpulist" ) ) ) )
+                    {
+                        if ( cpu >= cpuToNode.length )
+                        {
+                            cpuToNode = Arrays.copyOf( cpuToNode, cpu + 1 );
+                        }
+                        cpuToNode[cpu] = nodeId;
+                    }
+                    maxNode = Math.max( maxNode, nodeId );
+                }
+                nodeCount = maxNode + 1;
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                // No NUMA topology information available, so we treat the system as a single node.
+                cpuToNode = new int[0];
+                nodeCount = 1;
+            }
+            CPU_TO_NODE = cpuToNode;
+            NODE_COUNT = nodeCount;
+        }
+    }
+
     @FunctionalInterface
     private interface NativeCall
     {
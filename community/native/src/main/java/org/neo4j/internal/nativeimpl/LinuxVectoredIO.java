@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+import java.io.IOException;
+
+/**
+ * Positioned, vectored reads and writes straight against a file descriptor, via {@code preadv} and {@code pwritev}.
+ * <p>
+ * Unlike the vectored operations on {@link java.nio.channels.FileChannel}, these calls do not move, and therefore do not
+ * need to lock, the position of the channel, which means that any number of them can be in flight against the same file
+ * at the same time.
+ */
+public final class LinuxVectoredIO
+{
+    /**
+     * Size of {@code struct iovec}, which is a pointer followed by a {@code size_t}.
+     */
+    private static final int IOVEC_SIZE = 2 * Native.POINTER_SIZE;
+    /**
+     * Error code of a call that was interrupted by a signal before it transferred any data, and can be retried.
+     */
+    private static final int EINTR = 4;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+
+    static
+    {
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            // not available
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+    }
+
+    private LinuxVectoredIO()
+    {
+        // no instances
+    }
+
+    /**
+     * Read data from the file descriptor, at the given offset, into the buffers described by the iovec array.
+     * @param fd file descriptor
+     * @param iov pointer to an array of {@code struct iovec}
+     * @param iovcnt number of entries in the iovec array
+     * @param offset offset in the file
+     * @return number of bytes read, which may be less than requested if the end of the file was reached
+     */
+    private static native long preadv( int fd, long iov, int iovcnt, long offset ) throws LastErrorException;
+
+    /**
+     * Write data from the buffers described by the iovec array, to the file descriptor at the given offset.
+     * @param fd file descriptor
+     * @param iov pointer to an array of {@code struct iovec}
+     * @param iovcnt number of entries in the iovec array
+     * @param offset offset in the file
+     * @return number of bytes written
+     */
+    private static native long pwritev( int fd, long iov, int iovcnt, long offset ) throws LastErrorException;
+
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE && !NativeAccessProvider.isNativeAccessDisabled();
+    }
+
+    /**
+     * Fill the given buffers, each of {@code bufferSize} bytes, with data from the file starting at {@code fileOffset}.
+     * Short reads are retried until either all buffers are filled, or the end of the file is reached.
+     *
+     * @return the total number of bytes read.
+     */
+    public static long read( int fd, long fileOffset, long[] bufferAddresses, int arrayOffset, int length, int bufferSize ) throws IOException
+    {
+        return transfer( fd, fileOffset, bufferAddresses, arrayOffset, length, bufferSize, false );
+    }
+
+    /**
+     * Write the given buffers, each of {@code bufferSize} bytes, to the file starting at {@code fileOffset}.
+     *
+     * @return the total number of bytes written.
+     */
+    public static long write( int fd, long fileOffset, long[] bufferAddresses, int arrayOffset, int length, int bufferSize ) throws IOException
+    {
+        return transfer( fd, fileOffset, bufferAddresses, arrayOffset, length, bufferSize, true );
+    }
+
+    private static long transfer( int fd, long fileOffset, long[] bufferAddresses, int arrayOffset, int length, int bufferSize, boolean write )
+            throws IOException
+    {
+        if ( fd <= 0 )
+        {
+            throw new IOException( "Incorrect file descriptor: " + fd );
+        }
+        long iov = Native.malloc( (long) IOVEC_SIZE * length );
+        if ( iov == 0 )
+        {
+            throw new IOException( "Unable to allocate iovec array of " + length + " entries." );
+        }
+        try
+        {
+            Pointer iovecs = new Pointer( iov );
+            for ( int i = 0; i < length; i++ )
+            {
+                iovecs.setLong( (long) i * IOVEC_SIZE, bufferAddresses[arrayOffset + i] );
+                iovecs.setLong( (long) i * IOVEC_SIZE + Native.POINTER_SIZE, bufferSize );
+            }
+            long expected = (long) bufferSize * length;
+            long total = 0;
+            int first = 0;
+            while ( total < expected )
+            {
+                long transferred = transferOnce( fd, iov + (long) first * IOVEC_SIZE, length - first, fileOffset + total, write );
+                if ( transferred <= 0 )
+                {
+                    if ( write )
+                    {
+                        throw new IOException( "Write to file descriptor " + fd + " made no progress after " + total + " of " + expected + " bytes." );
+                    }
+                    break; // end of file
+                }
+                total += transferred;
+                // Skip the fully transferred buffers, and adjust the first partially transferred one, if any.
+                first = (int) (total / bufferSize);
+                int partial = (int) (total % bufferSize);
+                if ( partial != 0 )
+                {
+                    iovecs.setLong( (long) first * IOVEC_SIZE, bufferAddresses[arrayOffset + first] + partial );
+                    iovecs.setLong( (long) first * IOVEC_SIZE + Native.POINTER_SIZE, bufferSize - partial );
+                }
+            }
+            return total;
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( (write ? "pwritev" : "preadv") + " failed with error code " + e.getErrorCode() + ": " + e.getMessage(), e );
+        }
+        finally
+        {
+            Native.free( iov );
+        }
+    }
+
+    private static long transferOnce( int fd, long iov, int iovcnt, long offset, boolean write )
+    {
+        while ( true )
+        {
+            try
+            {
+                return write ? pwritev( fd, iov, iovcnt, offset ) : preadv( fd, iov, iovcnt, offset );
+            }
+            catch ( LastErrorException e )
+            {
+                if ( e.getErrorCode() != EINTR )
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+}
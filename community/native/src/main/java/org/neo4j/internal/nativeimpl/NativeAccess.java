@@ -69,6 +69,29 @@ public interface NativeAccess
      */
     NativeCallResult tryPreallocateSpace( int fd, long bytes );
 
+    /**
+     * Get the number of NUMA nodes in the system.
+     * @return number of NUMA nodes, or 1 if the system is not a NUMA system or the topology is not known
+     */
+    int getNumaNodeCount();
+
+    /**
+     * Get the NUMA node of the CPU that the calling thread is currently running on.
+     * Threads can migrate between CPUs at any time, so this is only a hint.
+     * @return NUMA node of the calling thread, in the range from 0 to {@link #getNumaNodeCount()} (exclusive)
+     */
+    int getCurrentNumaNode();
+
+    /**
+     * Try to make the memory in the given range be allocated from the given NUMA node, when it is first touched.
+     * The memory may still be allocated elsewhere if the node runs out of memory.
+     * @param address start of the memory range, must be aligned to the operating system page size
+     * @param length length of the memory range in bytes
+     * @param node NUMA node to bind the memory to
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryBindMemoryToNumaNode( long address, long length, int node );
+
     /**
      * Details about native access provider
      * @return details about native access
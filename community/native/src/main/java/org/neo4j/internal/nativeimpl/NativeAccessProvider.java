@@ -37,6 +37,12 @@ public class NativeAccessProvider
     {
         return HOLDER.nativeAccess;
     }
+
+    static boolean isNativeAccessDisabled()
+    {
+        return DISABLE_NATIVE_ACCESS;
+    }
+
     private static class AccessHolder
     {
         private final NativeAccess nativeAccess;
@@ -50,4 +50,12 @@ class AbsentNativeAccessTest
         assertEquals( SUCCESS, absentNativeAccess.tryPreallocateSpace( 1, 2L ) );
         assertEquals( SUCCESS, absentNativeAccess.tryPreallocateSpace( 3, 4L ) );
     }
+
+    @Test
+    void absentNativeAccessHasSingleNumaNode()
+    {
+        assertEquals( 1, absentNativeAccess.getNumaNodeCount() );
+        assertEquals( 0, absentNativeAccess.getCurrentNumaNode() );
+        assertEquals( SUCCESS, absentNativeAccess.tryBindMemoryToNumaNode( 4096, 4096, 1 ) );
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinuxHugePagesTest
+{
+    private static final long HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    @Test
+    @DisabledOnOs( OS.LINUX )
+    void notAvailableOnNonLinux()
+    {
+        assertFalse( LinuxHugePages.isAvailable() );
+        assertEquals( 0, LinuxHugePages.mapAligned( HUGE_PAGE_SIZE, HUGE_PAGE_SIZE ) );
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void mapAlignedMemory()
+    {
+        assertTrue( LinuxHugePages.isAvailable() );
+        long bytes = 3 * HUGE_PAGE_SIZE;
+        long address = LinuxHugePages.mapAligned( bytes, HUGE_PAGE_SIZE );
+        assertNotEquals( 0, address );
+        try
+        {
+            assertEquals( 0, address % HUGE_PAGE_SIZE );
+            Pointer pointer = new Pointer( address );
+            assertEquals( 0, pointer.getLong( 0 ) );
+            pointer.setLong( bytes - Long.BYTES, 42 );
+            assertEquals( 42, pointer.getLong( bytes - Long.BYTES ) );
+        }
+        finally
+        {
+            assertTrue( LinuxHugePages.unmap( address, bytes ) );
+        }
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void explicitHugePagesMustEitherMapOrFailCleanly()
+    {
+        // Whether explicit huge pages can be mapped depends on the size of the huge page pool on the system.
+        long address = LinuxHugePages.mapHugeTlb( HUGE_PAGE_SIZE, HUGE_PAGE_SIZE );
+        if ( address != 0 )
+        {
+            assertEquals( 0, address % HUGE_PAGE_SIZE );
+            assertTrue( LinuxHugePages.unmap( address, HUGE_PAGE_SIZE ) );
+        }
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void explicitHugePageMappingsMustBeWholeHugePages()
+    {
+        assertEquals( 0, LinuxHugePages.mapHugeTlb( HUGE_PAGE_SIZE + 4096, HUGE_PAGE_SIZE ) );
+        assertEquals( 0, LinuxHugePages.mapHugeTlb( HUGE_PAGE_SIZE, HUGE_PAGE_SIZE - 1 ) );
+    }
+}
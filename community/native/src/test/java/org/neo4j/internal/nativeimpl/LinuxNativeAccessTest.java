@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.nativeimpl;
 
+import com.sun.jna.Native;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -36,15 +37,22 @@ import java.nio.file.Files;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.internal.nativeimpl.NativeAccess.ERROR;
 
 class LinuxNativeAccessTest
 {
+    private static final int EPERM = 1;
+    private static final int ENOSYS = 38;
+
     private final LinuxNativeAccess nativeAccess = new LinuxNativeAccess();
 
     @Test
@@ -54,6 +62,14 @@ class LinuxNativeAccessTest
         assertFalse( nativeAccess.isAvailable() );
     }
 
+    @Test
+    void parseSysfsCpuLists()
+    {
+        assertArrayEquals( new int[]{0}, LinuxNativeAccess.parseCpuList( "0\n" ) );
+        assertArrayEquals( new int[]{0, 1, 2, 3, 8, 10, 11}, LinuxNativeAccess.parseCpuList( "0-3,8,10-11\n" ) );
+        assertArrayEquals( new int[0], LinuxNativeAccess.parseCpuList( "\n" ) );
+    }
+
     @Nested
     @EnabledOnOs( OS.LINUX )
     class AccessLinuxMethodsTest
@@ -154,6 +170,45 @@ class LinuxNativeAccessTest
             assertNotEquals( 0, nativeAccess.tryEvictFromCache( descriptor ) );
         }
 
+        @Test
+        void currentNumaNodeIsOneOfTheNumaNodes()
+        {
+            int nodeCount = nativeAccess.getNumaNodeCount();
+            assertThat( nodeCount, greaterThanOrEqualTo( 1 ) );
+            int currentNode = nativeAccess.getCurrentNumaNode();
+            assertThat( currentNode, greaterThanOrEqualTo( 0 ) );
+            assertThat( currentNode, lessThan( nodeCount ) );
+        }
+
+        @Test
+        void bindMemoryToNumaNode()
+        {
+            long pageSize = 4096;
+            long memory = Native.malloc( 4 * pageSize );
+            try
+            {
+                long alignedAddress = (memory + pageSize - 1) & -pageSize;
+                NativeCallResult result = nativeAccess.tryBindMemoryToNumaNode( alignedAddress, pageSize, 0 );
+                // Kernels built without NUMA support, and sandboxes that filter the system call, refuse mbind altogether.
+                assumeTrue( result.getErrorCode() != ENOSYS && result.getErrorCode() != EPERM, result::getErrorMessage );
+                assertEquals( 0, result.getErrorCode() );
+                assertFalse( result.isError() );
+            }
+            finally
+            {
+                Native.free( memory );
+            }
+        }
+
+        @Test
+        void failToBindMemoryToUnsupportedNumaNodeOrLength()
+        {
+            assertEquals( ERROR, nativeAccess.tryBindMemoryToNumaNode( 0, 4096, -1 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryBindMemoryToNumaNode( 0, 4096, Long.SIZE ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryBindMemoryToNumaNode( 0, 0, 0 ).getErrorCode() );
+            assertThat( nativeAccess.tryBindMemoryToNumaNode( 0, 4096, Long.SIZE ).getErrorMessage(), not( emptyString() ) );
+        }
+
         @Test
         void skipCacheOnLinuxForCorrectDescriptor() throws IOException, IllegalAccessException
         {
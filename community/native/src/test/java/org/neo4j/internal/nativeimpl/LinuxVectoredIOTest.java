@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinuxVectoredIOTest
+{
+    private static final int BUFFER_SIZE = 512;
+    private static final int BUFFERS = 4;
+
+    @TempDir
+    File directory;
+
+    private final long[] buffers = new long[BUFFERS];
+
+    @BeforeEach
+    void allocateBuffers()
+    {
+        for ( int i = 0; i < BUFFERS; i++ )
+        {
+            buffers[i] = Native.malloc( BUFFER_SIZE );
+        }
+    }
+
+    @AfterEach
+    void freeBuffers()
+    {
+        for ( long buffer : buffers )
+        {
+            Native.free( buffer );
+        }
+    }
+
+    @Test
+    @DisabledOnOs( OS.LINUX )
+    void notAvailableOnNonLinux()
+    {
+        assertFalse( LinuxVectoredIO.isAvailable() );
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void writeAndReadBackVectors() throws Exception
+    {
+        assertTrue( LinuxVectoredIO.isAvailable() );
+        try ( RandomAccessFile file = new RandomAccessFile( new File( directory, "file" ), "rw" ) )
+        {
+            int fd = getDescriptor( file );
+            for ( int i = 0; i < BUFFERS; i++ )
+            {
+                new Pointer( buffers[i] ).setMemory( 0, BUFFER_SIZE, (byte) (i + 1) );
+            }
+            assertEquals( BUFFER_SIZE * BUFFERS, LinuxVectoredIO.write( fd, BUFFER_SIZE, buffers, 0, BUFFERS, BUFFER_SIZE ) );
+            assertEquals( BUFFER_SIZE * (BUFFERS + 1), file.length() );
+
+            for ( long buffer : buffers )
+            {
+                new Pointer( buffer ).setMemory( 0, BUFFER_SIZE, (byte) 0 );
+            }
+            assertEquals( BUFFER_SIZE * 2, LinuxVectoredIO.read( fd, BUFFER_SIZE * 2, buffers, 1, 2, BUFFER_SIZE ) );
+            assertEquals( 0, new Pointer( buffers[0] ).getByte( 0 ) );
+            assertEquals( 2, new Pointer( buffers[1] ).getByte( 0 ) );
+            assertEquals( 3, new Pointer( buffers[2] ).getByte( BUFFER_SIZE - 1 ) );
+            assertEquals( 0, new Pointer( buffers[3] ).getByte( 0 ) );
+        }
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void shortReadAtEndOfFile() throws Exception
+    {
+        try ( RandomAccessFile file = new RandomAccessFile( new File( directory, "file" ), "rw" ) )
+        {
+            file.setLength( BUFFER_SIZE + 10 );
+            int fd = getDescriptor( file );
+            assertEquals( BUFFER_SIZE + 10, LinuxVectoredIO.read( fd, 0, buffers, 0, BUFFERS, BUFFER_SIZE ) );
+        }
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void failOnIncorrectDescriptor()
+    {
+        assertThrows( IOException.class, () -> LinuxVectoredIO.read( 0, 0, buffers, 0, BUFFERS, BUFFER_SIZE ) );
+        assertThrows( IOException.class, () -> LinuxVectoredIO.write( -1, 0, buffers, 0, BUFFERS, BUFFER_SIZE ) );
+    }
+
+    private static int getDescriptor( RandomAccessFile randomFile ) throws IOException, IllegalAccessException
+    {
+        FileDescriptor fd = randomFile.getFD();
+        return FieldUtils.getDeclaredField( FileDescriptor.class, "fd", true ).getInt( fd );
+    }
+}
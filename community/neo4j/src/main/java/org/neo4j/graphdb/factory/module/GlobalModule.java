@@ -377,6 +377,7 @@ public class GlobalModule
                 tracers.getPageCursorTracerSupplier(), pageCacheLog,
                 GuardVersionContextSupplier.INSTANCE, jobScheduler );
         PageCache pageCache = pageCacheFactory.getOrCreatePageCache();
+        globalDependencies.satisfyDependency( pageCacheFactory.memoryDiagnostics() );
 
         if ( config.get( GraphDatabaseSettings.dump_configuration ) )
         {
@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphdb.factory.module.edition;
 
+import java.time.Duration;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -63,6 +64,7 @@ import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.LocksFactory;
 import org.neo4j.kernel.impl.locking.SimpleStatementLocksFactory;
 import org.neo4j.kernel.impl.locking.StatementLocksFactory;
+import org.neo4j.kernel.impl.pagecache.AdaptiveIOLimiter;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.kernel.lifecycle.LifeSupport;
@@ -122,12 +124,33 @@ public class CommunityEditionModule extends StandaloneEditionModule
 
         constraintSemantics = createSchemaRuleVerifier();
 
-        ioLimiter = IOLimiter.UNLIMITED;
+        ioLimiter = createIOLimiter( globalModule );
 
         connectionTracker = globalDependencies.satisfyDependency( createConnectionTracker() );
         globalAvailabilityGuard = globalModule.getGlobalAvailabilityGuard();
     }
 
+    private static IOLimiter createIOLimiter( GlobalModule globalModule )
+    {
+        Config globalConfig = globalModule.getGlobalConfig();
+        Duration targetFaultLatency = globalConfig.get( GraphDatabaseSettings.check_point_iops_target_fault_latency );
+        if ( targetFaultLatency.isZero() )
+        {
+            return IOLimiter.UNLIMITED;
+        }
+        int iopsLimit = globalConfig.get( GraphDatabaseSettings.check_point_iops_limit );
+        AdaptiveIOLimiter limiter = new AdaptiveIOLimiter( adaptiveIopsLimit( iopsLimit ), targetFaultLatency.toNanos(),
+                globalModule.getTracers().getPageCacheTracer(), globalModule.getGlobalMonitors().newMonitor( AdaptiveIOLimiter.Monitor.class ) );
+        globalConfig.addListener( GraphDatabaseSettings.check_point_iops_limit,
+                ( previousLimit, newLimit ) -> limiter.configuredLimitChanged( adaptiveIopsLimit( newLimit ) ) );
+        return globalModule.getGlobalDependencies().satisfyDependency( limiter );
+    }
+
+    private static int adaptiveIopsLimit( int configuredIopsLimit )
+    {
+        return configuredIopsLimit < 0 ? Integer.MAX_VALUE : configuredIopsLimit;
+    }
+
     protected Function<NamedDatabaseId,TokenHolders> createTokenHolderProvider( GlobalModule platform )
     {
         Config globalConfig = platform.getGlobalConfig();
@@ -37,6 +37,7 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
 import org.neo4j.internal.kernel.api.procs.UserFunctionSignature;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.procedure.SystemProcedure;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.query.FunctionInformation;
@@ -109,6 +110,18 @@ public class BuiltInDbmsProcedures
         return results.stream().sorted( Comparator.comparing( c -> c.name ) );
     }
 
+    @Admin
+    @SystemProcedure
+    @Description( "List the page cache hits, faults, and bytes read and written for each mapped file." )
+    @Procedure( name = "dbms.pagecache.fileStatistics", mode = DBMS )
+    public Stream<PageFileStatisticsResult> pageCacheFileStatistics()
+    {
+        PageCacheTracer pageCacheTracer = graph.getDependencyResolver().resolveDependency( PageCacheTracer.class );
+        return pageCacheTracer.fileCounters().stream()
+                .map( PageFileStatisticsResult::new )
+                .sorted( Comparator.comparing( r -> r.file ) );
+    }
+
     @Description( "Attaches a map of data to the transaction. The data will be printed when listing queries, and " +
             "inserted into the query log." )
     @Procedure( name = "tx.setMetaData", mode = DBMS )
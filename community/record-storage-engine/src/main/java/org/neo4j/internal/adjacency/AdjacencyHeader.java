@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.adjacency;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Both reading and writing of a {@link RelationshipAdjacencyStore} tree header collected into one class.
+ */
+class AdjacencyHeader implements Header.Reader, Consumer<PageCursor>
+{
+    private static final byte NEEDS_REBUILDING = 0;
+    private static final byte BUILT = 1;
+
+    private boolean wasRead;
+    private byte state;
+
+    private AdjacencyHeader( byte state )
+    {
+        this.state = state;
+    }
+
+    static AdjacencyHeader needsRebuilding()
+    {
+        return new AdjacencyHeader( NEEDS_REBUILDING );
+    }
+
+    static AdjacencyHeader built()
+    {
+        return new AdjacencyHeader( BUILT );
+    }
+
+    @Override
+    public void read( ByteBuffer headerBytes )
+    {
+        wasRead = true;
+        state = headerBytes.get();
+    }
+
+    /**
+     * @return whether or not the tree holds the relationships of all nodes, i.e. it was read from an existing tree that has been fully built.
+     */
+    boolean isBuilt()
+    {
+        return wasRead && state == BUILT;
+    }
+
+    @Override
+    public void accept( PageCursor cursor )
+    {
+        cursor.putByte( state );
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.adjacency;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static java.lang.String.format;
+
+/**
+ * Key in a {@link GBPTree} owned by {@link RelationshipAdjacencyStore}. Keys sort by node, then type and direction and lastly relationship,
+ * which places the relationships of a node, and in turn those of each type and direction of that node, next to each other in the tree.
+ * <pre>
+ * node:             8B nodeId
+ * typeAndDirection: 30 bits (msb) relationshipTypeId, 2 bits (lsb) direction
+ * relationship:     8B relationshipId
+ * </pre>
+ */
+public class AdjacencyKey
+{
+    static final int SIZE = Long.BYTES +    // node
+                            Integer.BYTES + // type and direction
+                            Long.BYTES;     // relationship
+
+    long node;
+    int typeAndDirection;
+    long relationship;
+
+    AdjacencyKey()
+    {
+    }
+
+    AdjacencyKey( long node, int typeAndDirection, long relationship )
+    {
+        initialize( node, typeAndDirection, relationship );
+    }
+
+    void initialize( long node, int typeAndDirection, long relationship )
+    {
+        this.node = node;
+        this.typeAndDirection = typeAndDirection;
+        this.relationship = relationship;
+    }
+
+    static int typeAndDirection( int type, RelationshipDirection direction )
+    {
+        return (type << 2) | direction.ordinal();
+    }
+
+    public long node()
+    {
+        return node;
+    }
+
+    public int type()
+    {
+        return typeAndDirection >>> 2;
+    }
+
+    public RelationshipDirection direction()
+    {
+        return RelationshipDirection.values()[typeAndDirection & 0x3];
+    }
+
+    public long relationship()
+    {
+        return relationship;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "[node:%d, type:%d, direction:%s, relationship:%d]", node, type(), direction(), relationship );
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.adjacency;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+public class AdjacencyLayout extends Layout.Adapter<AdjacencyKey,AdjacencyValue>
+{
+    public AdjacencyLayout()
+    {
+        super( true, Layout.namedIdentifier( "AdLa", 1 ), 0, 1 );
+    }
+
+    @Override
+    public AdjacencyKey newKey()
+    {
+        return new AdjacencyKey();
+    }
+
+    @Override
+    public AdjacencyKey copyKey( AdjacencyKey key, AdjacencyKey into )
+    {
+        into.initialize( key.node, key.typeAndDirection, key.relationship );
+        return into;
+    }
+
+    @Override
+    public AdjacencyValue newValue()
+    {
+        return new AdjacencyValue();
+    }
+
+    @Override
+    public int keySize( AdjacencyKey key )
+    {
+        return AdjacencyKey.SIZE;
+    }
+
+    @Override
+    public int valueSize( AdjacencyValue value )
+    {
+        return AdjacencyValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, AdjacencyKey key )
+    {
+        cursor.putLong( key.node );
+        cursor.putInt( key.typeAndDirection );
+        cursor.putLong( key.relationship );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, AdjacencyValue value )
+    {
+        cursor.putLong( value.neighbour );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, AdjacencyKey into, int keySize )
+    {
+        long node = cursor.getLong();
+        int typeAndDirection = cursor.getInt();
+        long relationship = cursor.getLong();
+        into.initialize( node, typeAndDirection, relationship );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, AdjacencyValue into, int valueSize )
+    {
+        into.initialize( cursor.getLong() );
+    }
+
+    @Override
+    public int compare( AdjacencyKey o1, AdjacencyKey o2 )
+    {
+        int nodeCompare = Long.compare( o1.node, o2.node );
+        if ( nodeCompare != 0 )
+        {
+            return nodeCompare;
+        }
+        int typeAndDirectionCompare = Integer.compare( o1.typeAndDirection, o2.typeAndDirection );
+        if ( typeAndDirectionCompare != 0 )
+        {
+            return typeAndDirectionCompare;
+        }
+        return Long.compare( o1.relationship, o2.relationship );
+    }
+
+    @Override
+    public void initializeAsLowest( AdjacencyKey key )
+    {
+        key.initialize( Long.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE );
+    }
+
+    @Override
+    public void initializeAsHighest( AdjacencyKey key )
+    {
+        key.initialize( Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE );
+    }
+}
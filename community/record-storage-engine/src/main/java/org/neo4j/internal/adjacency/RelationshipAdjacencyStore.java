@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.adjacency;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.util.Preconditions;
+
+import static org.neo4j.internal.adjacency.AdjacencyKey.typeAndDirection;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+
+/**
+ * Keeps the relationships of each node next to each other, grouped by type and direction, in a {@link GBPTree}.
+ * A relationship is stored once for each of its nodes, as an {@link RelationshipDirection#OUTGOING} entry for its start node and an
+ * {@link RelationshipDirection#INCOMING} entry for its end node, or as a single {@link RelationshipDirection#LOOP} entry if those are the same node.
+ * Reading the neighbourhood of a node, or the part of it having a certain type and direction, is therefore a seek in the tree which reads
+ * a few consecutive leaves, regardless of how the relationships are spread out in the relationship store. Leaves that fill up due to
+ * later additions are split by the tree, which keeps those relationships in order with the rest.
+ * <p>
+ * The contents of this store is derived from the relationship store. It is built from it in {@link #start()} if it's new or if
+ * a previous build didn't complete. All changes are idempotent, which means that changes can safely be applied again during recovery.
+ */
+public class RelationshipAdjacencyStore implements Closeable
+{
+    private final GBPTree<AdjacencyKey,AdjacencyValue> tree;
+    private final AdjacencyLayout layout = new AdjacencyLayout();
+    private final Builder builder;
+    private final boolean readOnly;
+
+    public RelationshipAdjacencyStore( PageCache pageCache, File file, FileSystemAbstraction fileSystem,
+            RecoveryCleanupWorkCollector recoveryCollector, Builder builder, boolean readOnly ) throws IOException
+    {
+        this.readOnly = readOnly;
+        AdjacencyHeader header = AdjacencyHeader.needsRebuilding();
+        GBPTree<AdjacencyKey,AdjacencyValue> instantiatedTree;
+        try
+        {
+            instantiatedTree = instantiateTree( pageCache, file, recoveryCollector, readOnly, header );
+        }
+        catch ( MetadataMismatchException e )
+        {
+            // Corrupt, delete and rebuild
+            fileSystem.deleteFileOrThrow( file );
+            header = AdjacencyHeader.needsRebuilding();
+            instantiatedTree = instantiateTree( pageCache, file, recoveryCollector, readOnly, header );
+        }
+        this.tree = instantiatedTree;
+        // The actual building will happen in start()
+        this.builder = header.isBuilt() ? null : builder;
+    }
+
+    private GBPTree<AdjacencyKey,AdjacencyValue> instantiateTree( PageCache pageCache, File file, RecoveryCleanupWorkCollector recoveryCollector,
+            boolean readOnly, AdjacencyHeader header )
+    {
+        try
+        {
+            return new GBPTree<>( pageCache, file, layout, 0, GBPTree.NO_MONITOR, header, header, recoveryCollector, readOnly );
+        }
+        catch ( TreeFileNotFoundException e )
+        {
+            throw new IllegalStateException(
+                    "Relationship adjacency store file could not be found, most likely this database needs to be recovered, file:" + file, e );
+        }
+    }
+
+    // === Life cycle ===
+
+    /**
+     * Builds the contents of this store from the relationship store if it was created, or if a previous build didn't complete, when opening it.
+     * This is expected to be called after recovery so that the relationship store is up to date.
+     */
+    public void start() throws IOException
+    {
+        if ( builder != null )
+        {
+            if ( readOnly )
+            {
+                throw new IllegalStateException( "Relationship adjacency store needs rebuilding, most likely this database needs to be recovered." );
+            }
+            try ( Updater updater = updater() )
+            {
+                builder.build( updater );
+            }
+            tree.checkpoint( IOLimiter.UNLIMITED, AdjacencyHeader.built() );
+        }
+    }
+
+    public void checkpoint( IOLimiter ioLimiter ) throws IOException
+    {
+        tree.checkpoint( ioLimiter );
+    }
+
+    @Override
+    public void close()
+    {
+        closeAllUnchecked( tree );
+    }
+
+    // === Writes ===
+
+    /**
+     * @return an {@link Updater} for adding and removing relationships. Only a single updater can be open at any given time.
+     */
+    public Updater updater() throws IOException
+    {
+        Preconditions.checkState( !readOnly, "This relationship adjacency store is read-only" );
+        return new TreeUpdater( tree.writer() );
+    }
+
+    // === Reads ===
+
+    /**
+     * Seeks the relationships of a node, ordered by type, direction and relationship id.
+     *
+     * @param nodeId the node to get relationships for.
+     * @param type relationship type to limit the result to, or {@code -1} for all types.
+     * @param direction direction to limit the result to, or {@code null} for all directions. A {@code type} is required for this to be used.
+     * @return a {@link Seeker} over the matching entries, where {@link AdjacencyKey} and {@link AdjacencyValue} describe each relationship.
+     * @throws IOException on I/O error reading the tree.
+     */
+    public Seeker<AdjacencyKey,AdjacencyValue> relationships( long nodeId, int type, RelationshipDirection direction ) throws IOException
+    {
+        AdjacencyKey from;
+        AdjacencyKey to;
+        if ( type == -1 )
+        {
+            from = new AdjacencyKey( nodeId, Integer.MIN_VALUE, Long.MIN_VALUE );
+            to = new AdjacencyKey( nodeId, Integer.MAX_VALUE, Long.MAX_VALUE );
+        }
+        else if ( direction == null )
+        {
+            from = new AdjacencyKey( nodeId, typeAndDirection( type, OUTGOING ), Long.MIN_VALUE );
+            to = new AdjacencyKey( nodeId, typeAndDirection( type, LOOP ), Long.MAX_VALUE );
+        }
+        else
+        {
+            from = new AdjacencyKey( nodeId, typeAndDirection( type, direction ), Long.MIN_VALUE );
+            to = new AdjacencyKey( nodeId, typeAndDirection( type, direction ), Long.MAX_VALUE );
+        }
+        return tree.seek( from, to );
+    }
+
+    /**
+     * Adds and removes relationships in a {@link RelationshipAdjacencyStore}. Adding a relationship that is already there, or removing
+     * one which isn't, has no effect.
+     */
+    public interface Updater extends AutoCloseable
+    {
+        void addRelationship( long id, int type, long startNode, long endNode );
+
+        void removeRelationship( long id, int type, long startNode, long endNode );
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Builds the initial contents of a {@link RelationshipAdjacencyStore}.
+     */
+    public interface Builder
+    {
+        void build( Updater updater ) throws IOException;
+    }
+
+    private static class TreeUpdater implements Updater
+    {
+        private final Writer<AdjacencyKey,AdjacencyValue> writer;
+        private final AdjacencyKey key = new AdjacencyKey();
+        private final AdjacencyValue value = new AdjacencyValue();
+
+        TreeUpdater( Writer<AdjacencyKey,AdjacencyValue> writer )
+        {
+            this.writer = writer;
+        }
+
+        @Override
+        public void addRelationship( long id, int type, long startNode, long endNode )
+        {
+            if ( startNode == endNode )
+            {
+                put( startNode, typeAndDirection( type, LOOP ), id, endNode );
+            }
+            else
+            {
+                put( startNode, typeAndDirection( type, OUTGOING ), id, endNode );
+                put( endNode, typeAndDirection( type, INCOMING ), id, startNode );
+            }
+        }
+
+        @Override
+        public void removeRelationship( long id, int type, long startNode, long endNode )
+        {
+            if ( startNode == endNode )
+            {
+                remove( startNode, typeAndDirection( type, LOOP ), id );
+            }
+            else
+            {
+                remove( startNode, typeAndDirection( type, OUTGOING ), id );
+                remove( endNode, typeAndDirection( type, INCOMING ), id );
+            }
+        }
+
+        private void put( long node, int typeAndDirection, long relationship, long neighbour )
+        {
+            key.initialize( node, typeAndDirection, relationship );
+            writer.put( key, value.initialize( neighbour ) );
+        }
+
+        private void remove( long node, int typeAndDirection, long relationship )
+        {
+            key.initialize( node, typeAndDirection, relationship );
+            writer.remove( key );
+        }
+
+        @Override
+        public void close()
+        {
+            closeAllUnchecked( writer );
+        }
+    }
+}
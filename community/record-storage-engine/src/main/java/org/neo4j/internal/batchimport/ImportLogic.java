@@ -514,6 +514,9 @@ public class ImportLogic implements Closeable
                         neoStore.getLabelRepository().getHighId(),
                         neoStore.getRelationshipTypeRepository().getHighId(),
                         updater, numberArrayFactory, progressMonitor.startSection( "Relationships" ) ) );
+                // Degrees of dense nodes, per type and direction
+                executeStage( new NodeDegreesStage( config, neoStore.getRelationshipGroupStore(), neoStore.getRelationshipStore(),
+                        updater, progressMonitor.startSection( "Degrees" ) ) );
             }
 
             @Override
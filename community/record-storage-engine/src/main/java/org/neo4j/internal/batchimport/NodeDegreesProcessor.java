@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.neo4j.common.ProgressReporter;
+import org.neo4j.counts.CountsAccessor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+
+/**
+ * Calculates degrees of dense nodes, per relationship type and direction, from their relationship groups.
+ * The first relationship in each chain of a group has the length of that chain in its prev pointer,
+ * so a degree is a single relationship read regardless of how many relationships there are in the chain.
+ */
+public class NodeDegreesProcessor implements RecordProcessor<RelationshipGroupRecord>
+{
+    private final RecordStore<RelationshipRecord> relationshipStore;
+    private final CountsAccessor.Updater counts;
+    private final ProgressReporter progressReporter;
+    private final RelationshipRecord relationship;
+    private final PageCursor relationshipCursor;
+
+    NodeDegreesProcessor( RecordStore<RelationshipRecord> relationshipStore, CountsAccessor.Updater counts, ProgressReporter progressReporter )
+    {
+        this.relationshipStore = relationshipStore;
+        this.counts = counts;
+        this.progressReporter = progressReporter;
+        this.relationship = relationshipStore.newRecord();
+        this.relationshipCursor = relationshipStore.openPageCursorForReading( 0 );
+    }
+
+    @Override
+    public boolean process( RelationshipGroupRecord group )
+    {
+        long node = group.getOwningNode();
+        int type = group.getType();
+        counts.incrementNodeDegree( node, type, RelationshipDirection.OUTGOING, chainLength( node, group.getFirstOut() ) );
+        counts.incrementNodeDegree( node, type, RelationshipDirection.INCOMING, chainLength( node, group.getFirstIn() ) );
+        counts.incrementNodeDegree( node, type, RelationshipDirection.LOOP, chainLength( node, group.getFirstLoop() ) );
+        progressReporter.progress( 1 );
+
+        // No need to update the store, we're just reading things here
+        return false;
+    }
+
+    private long chainLength( long node, long firstRelationship )
+    {
+        if ( Record.NULL_REFERENCE.is( firstRelationship ) )
+        {
+            return 0;
+        }
+        relationshipStore.getRecordByCursor( firstRelationship, relationship, NORMAL, relationshipCursor );
+        return relationship.getFirstNode() == node ? relationship.getFirstPrevRel() : relationship.getSecondPrevRel();
+    }
+
+    @Override
+    public void done()
+    {
+        relationshipCursor.close();
+    }
+
+    @Override
+    public void close()
+    {   // Nothing to do here
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport;
+
+import org.neo4j.common.ProgressReporter;
+import org.neo4j.counts.CountsAccessor;
+import org.neo4j.internal.batchimport.staging.BatchFeedStep;
+import org.neo4j.internal.batchimport.staging.ReadRecordsStep;
+import org.neo4j.internal.batchimport.staging.Stage;
+import org.neo4j.internal.batchimport.staging.Step;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+/**
+ * Reads all records from the relationship group store and puts the degrees of the dense nodes owning them,
+ * per relationship type and direction, into the counts store.
+ */
+public class NodeDegreesStage extends Stage
+{
+    public static final String NAME = "Node degrees";
+
+    public NodeDegreesStage( Configuration config, RecordStore<RelationshipGroupRecord> groupStore, RecordStore<RelationshipRecord> relationshipStore,
+            CountsAccessor.Updater countsUpdater, ProgressReporter progressReporter )
+    {
+        super( NAME, null, config, Step.RECYCLE_BATCHES );
+        add( new BatchFeedStep( control(), config, RecordIdIterator.allIn( groupStore, config ), groupStore.getRecordSize() ) );
+        add( new ReadRecordsStep<>( control(), config, false, groupStore ) );
+        add( new RecordProcessorStep<>( control(), "DEGREES", config,
+                new NodeDegreesProcessor( relationshipStore, countsUpdater, progressReporter ), true ) );
+    }
+}
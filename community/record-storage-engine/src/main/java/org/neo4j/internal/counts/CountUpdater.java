@@ -22,7 +22,9 @@ package org.neo4j.internal.counts;
 import java.util.concurrent.locks.Lock;
 
 import org.neo4j.counts.CountsAccessor;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
+import static org.neo4j.internal.counts.CountsKey.degreeKey;
 import static org.neo4j.internal.counts.CountsKey.nodeKey;
 import static org.neo4j.internal.counts.CountsKey.relationshipKey;
 
@@ -53,6 +55,12 @@ class CountUpdater implements CountsAccessor.Updater
         writer.write( relationshipKey( startLabelId, typeId, endLabelId ), delta );
     }
 
+    @Override
+    public void incrementNodeDegree( long nodeId, int typeId, RelationshipDirection direction, long delta )
+    {
+        writer.write( degreeKey( nodeId, typeId, direction ), delta );
+    }
+
     @Override
     public void close()
     {
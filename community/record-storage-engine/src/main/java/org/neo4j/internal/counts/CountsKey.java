@@ -24,6 +24,7 @@ import java.util.Objects;
 
 import org.neo4j.counts.CountsVisitor;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 import static java.lang.String.format;
 
@@ -63,6 +64,16 @@ public class CountsKey
      */
     private static final byte TYPE_RELATIONSHIP = 2;
 
+    /**
+     * Key data layout for this type:
+     * <pre>
+     * first:  8B nodeId
+     * second: 30 bits (msb) relationshipTypeId, 2 bits (lsb) direction
+     * </pre>
+     * Sorts after the other counts, so that the degrees of all the dense nodes are kept out of the way of them.
+     */
+    private static final byte TYPE_DEGREE = 3;
+
     // Commonly used keys
     static final CountsKey MIN_COUNT = new CountsKey( TYPE_NODE, Long.MIN_VALUE, Integer.MIN_VALUE );
     static final CountsKey MAX_COUNT = new CountsKey( TYPE_RELATIONSHIP, Long.MAX_VALUE, Integer.MAX_VALUE );
@@ -123,6 +134,18 @@ public class CountsKey
         return new CountsKey( TYPE_RELATIONSHIP, (startLabelId << Integer.SIZE) | (typeId & 0xFFFFFFFFL), (int) endLabelId );
     }
 
+    /**
+     * Public utility method for instantiating a {@link CountsKey} for the degree of a dense node.
+     * @param nodeId id of the node.
+     * @param typeId id of the relationship type.
+     * @param direction direction of the relationships, relative to the node.
+     * @return a {@link CountsKey for the node, relationship type and direction. The returned key can be put into {@link Map maps} and similar.
+     */
+    public static CountsKey degreeKey( long nodeId, int typeId, RelationshipDirection direction )
+    {
+        return new CountsKey( TYPE_DEGREE, nodeId, (typeId << 2) | direction.ordinal() );
+    }
+
     static CountsKey strayTxId( long txId )
     {
         return new CountsKey( TYPE_STRAY_TX_ID, txId, 0 );
@@ -156,6 +179,9 @@ public class CountsKey
         case TYPE_RELATIONSHIP:
             visitor.visitRelationshipCount( extractStartLabelId(), (int) first, second, count );
             break;
+        case TYPE_DEGREE:
+            // Degrees are read per node and not visited along with the counts
+            break;
         default:
             throw new IllegalArgumentException( "Unknown key type " + type );
         }
@@ -175,6 +201,8 @@ public class CountsKey
             return format( "Node[label:%d]", first );
         case TYPE_RELATIONSHIP:
             return format( "Relationship[startLabel:%d, type:%d, endLabel:%d]", extractStartLabelId(), (int) first, second );
+        case TYPE_DEGREE:
+            return format( "Degree[node:%d, type:%d, direction:%s]", first, second >>> 2, RelationshipDirection.values()[second & 0x3] );
         case TYPE_STRAY_TX_ID:
             return format( "Stray tx id:%d", first );
         default:
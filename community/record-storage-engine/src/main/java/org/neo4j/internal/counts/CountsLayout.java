@@ -26,7 +26,8 @@ public class CountsLayout extends Layout.Adapter<CountsKey,CountsValue>
 {
     public CountsLayout()
     {
-        super( true, Layout.namedIdentifier( "CoLa", 987 ), 0, 1 );
+        // Minor version 2 added the degrees of dense nodes, stores of earlier versions are rebuilt to get them
+        super( true, Layout.namedIdentifier( "CoLa", 987 ), 0, 2 );
     }
 
     @Override
@@ -53,6 +53,7 @@ import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.util.Preconditions;
 import org.neo4j.util.concurrent.ArrayQueueOutOfOrderSequence;
 import org.neo4j.util.concurrent.OutOfOrderSequence;
@@ -60,6 +61,7 @@ import org.neo4j.util.concurrent.OutOfOrderSequence;
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.internal.counts.CountsKey.MAX_STRAY_TX_ID;
 import static org.neo4j.internal.counts.CountsKey.MIN_STRAY_TX_ID;
+import static org.neo4j.internal.counts.CountsKey.degreeKey;
 import static org.neo4j.internal.counts.CountsKey.nodeKey;
 import static org.neo4j.internal.counts.CountsKey.relationshipKey;
 import static org.neo4j.internal.counts.CountsKey.strayTxId;
@@ -301,6 +303,12 @@ public class GBPTreeCountsStore implements CountsStore
         return read( relationshipKey( startLabelId, typeId, endLabelId ) );
     }
 
+    @Override
+    public long nodeDegree( long nodeId, int typeId, RelationshipDirection direction )
+    {
+        return read( degreeKey( nodeId, typeId, direction ) );
+    }
+
     @Override
     public void accept( CountsVisitor visitor )
     {
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.internal.adjacency.AdjacencyKey;
+import org.neo4j.internal.adjacency.AdjacencyValue;
+import org.neo4j.internal.adjacency.RelationshipAdjacencyStore;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.storageengine.api.StoragePropertyCursor;
+import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
+
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.directionOfStrict;
+
+/**
+ * Traverses the relationships of a node by seeking in the {@link RelationshipAdjacencyStore}, instead of following the relationship chains
+ * from record to record. The relationships of a node, or those of a single type and direction of it, are read from a few consecutive tree leaves.
+ * Relationship records are only read for the relationships which are asked for their properties.
+ */
+class AdjacencyRelationshipTraversalCursor extends RecordRelationshipCursor implements StorageRelationshipTraversalCursor
+{
+    private final RelationshipAdjacencyStore adjacencyStore;
+    private final RelationshipRecord record = new RelationshipRecord( NO_ID );
+    private Seeker<AdjacencyKey,AdjacencyValue> seeker;
+    private PageCursor pageCursor;
+    private long originNodeReference;
+    private long neighbourNodeReference;
+    private boolean recordLoaded;
+    private boolean open;
+
+    AdjacencyRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipAdjacencyStore adjacencyStore )
+    {
+        super( relationshipStore );
+        this.adjacencyStore = adjacencyStore;
+    }
+
+    @Override
+    public void init( long nodeReference, long reference, boolean nodeIsDense )
+    {
+        // The reference is only used to tell whether or not the node has any relationships at all
+        seek( nodeReference, reference, NO_ID, null );
+    }
+
+    @Override
+    public void init( long nodeReference, long reference, int type, RelationshipDirection direction, boolean nodeIsDense )
+    {
+        if ( type == NO_ID && reference != NO_ID )
+        {
+            // The type and direction of the relationship at the given reference is what the traversal should be limited to
+            relationshipFull( record, reference, relationshipPage() );
+            if ( record.inUse() )
+            {
+                type = record.getType();
+                direction = directionOfStrict( nodeReference, record.getFirstNode(), record.getSecondNode() );
+            }
+            else
+            {
+                reference = NO_ID;
+            }
+        }
+        seek( nodeReference, reference, type, direction );
+    }
+
+    private void seek( long nodeReference, long reference, int type, RelationshipDirection direction )
+    {
+        closeSeeker();
+        setId( NO_ID );
+        this.originNodeReference = nodeReference;
+        this.open = true;
+        if ( reference != NO_ID )
+        {
+            try
+            {
+                seeker = adjacencyStore.relationships( nodeReference, type, direction );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    @Override
+    public boolean next()
+    {
+        try
+        {
+            if ( seeker == null || !seeker.next() )
+            {
+                resetState();
+                return false;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        AdjacencyKey key = seeker.key();
+        neighbourNodeReference = seeker.value().neighbour();
+        boolean incoming = key.direction() == INCOMING;
+        setId( key.relationship() );
+        setType( key.type() );
+        setFirstNode( incoming ? neighbourNodeReference : originNodeReference );
+        setSecondNode( incoming ? originNodeReference : neighbourNodeReference );
+        setInUse( true );
+        recordLoaded = false;
+        return true;
+    }
+
+    @Override
+    public long neighbourNodeReference()
+    {
+        return neighbourNodeReference;
+    }
+
+    @Override
+    public long originNodeReference()
+    {
+        return originNodeReference;
+    }
+
+    @Override
+    public boolean hasProperties()
+    {
+        return propertiesReference() != NO_ID;
+    }
+
+    @Override
+    public long propertiesReference()
+    {
+        if ( !recordLoaded )
+        {
+            // The property chain of a relationship isn't kept in the adjacency store, it's read from the relationship record when needed
+            relationshipFull( record, getId(), relationshipPage() );
+            setNextProp( record.getNextProp() );
+            recordLoaded = true;
+        }
+        return getNextProp();
+    }
+
+    @Override
+    public void properties( StoragePropertyCursor propertyCursor )
+    {
+        propertyCursor.initRelationshipProperties( propertiesReference() );
+    }
+
+    private PageCursor relationshipPage()
+    {
+        if ( pageCursor == null )
+        {
+            pageCursor = relationshipPage( 0 );
+        }
+        return pageCursor;
+    }
+
+    @Override
+    public void reset()
+    {
+        if ( open )
+        {
+            open = false;
+            resetState();
+        }
+    }
+
+    private void resetState()
+    {
+        closeSeeker();
+        setId( NO_ID );
+        neighbourNodeReference = NO_ID;
+        recordLoaded = false;
+    }
+
+    private void closeSeeker()
+    {
+        if ( seeker != null )
+        {
+            try
+            {
+                seeker.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            seeker = null;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        closeSeeker();
+        if ( pageCursor != null )
+        {
+            pageCursor.close();
+            pageCursor = null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( !open )
+        {
+            return "AdjacencyRelationshipTraversalCursor[closed state]";
+        }
+        return "AdjacencyRelationshipTraversalCursor[id=" + getId() + ", origin=" + originNodeReference +
+                ", neighbour=" + neighbourNodeReference + "]";
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+/**
+ * Loads the values of a set of property keys from many property chains at once.
+ * <p>
+ * Rather than following one chain to its end before moving on to the next, all chains are advanced one record at a time and the records
+ * of each such step are read in ascending id order. This way each page of the property store is pinned at most once per step, instead of
+ * once per chain. Values that live in the dynamic string and array stores are collected while walking the chains and are then read in
+ * ascending record order as well, using one page cursor per dynamic store.
+ */
+class BatchPropertyLoader
+{
+    private static final Comparator<Chain> BY_RECORD = Comparator.comparingLong( chain -> chain.record );
+    private static final Comparator<DynamicValue> BY_REFERENCE = Comparator.comparingLong( value -> value.reference );
+
+    private final PropertyStore store;
+    private ByteBuffer buffer;
+
+    BatchPropertyLoader( PropertyStore store )
+    {
+        this.store = store;
+    }
+
+    /**
+     * @param references references to the first property record of each chain, {@code NO_ID} for chains without properties.
+     * @param propertyKeys the distinct property keys to read from each chain.
+     * @return for each chain, in the order of {@code references}, the values of {@code propertyKeys} in the order of {@code propertyKeys}.
+     * Properties which a chain doesn't have are {@link Values#NO_VALUE}.
+     */
+    Value[][] load( long[] references, int[] propertyKeys )
+    {
+        Value[][] values = new Value[references.length][propertyKeys.length];
+        List<DynamicValue> strings = new ArrayList<>();
+        List<DynamicValue> arrays = new ArrayList<>();
+
+        Chain[] chains = new Chain[references.length];
+        int count = 0;
+        for ( int entity = 0; entity < references.length; entity++ )
+        {
+            if ( references[entity] != NO_ID && propertyKeys.length > 0 )
+            {
+                chains[count++] = new Chain( entity, references[entity], propertyKeys.length );
+            }
+        }
+
+        PropertyRecord record = store.newRecord();
+        PageCursor page = null;
+        try
+        {
+            while ( count > 0 )
+            {
+                Arrays.sort( chains, 0, count, BY_RECORD );
+                if ( page == null )
+                {
+                    page = store.openPageCursorForReading( chains[0].record );
+                }
+                int remaining = 0;
+                for ( int i = 0; i < count; i++ )
+                {
+                    Chain chain = chains[i];
+                    //We need to load forcefully here since otherwise we can have inconsistent reads
+                    //for properties across blocks, see org.neo4j.graphdb.ConsistentPropertyReadsIT
+                    store.getRecordByCursor( chain.record, record, RecordLoad.FORCE, page );
+                    if ( !record.inUse() )
+                    {
+                        continue;
+                    }
+                    chain.missing -= readBlocks( record, chain.entity, propertyKeys, values[chain.entity], strings, arrays );
+                    chain.record = record.getNextProp();
+                    if ( chain.missing > 0 && chain.record != NO_ID )
+                    {
+                        chains[remaining++] = chain;
+                    }
+                }
+                count = remaining;
+            }
+        }
+        finally
+        {
+            if ( page != null )
+            {
+                page.close();
+            }
+        }
+
+        loadStrings( strings, values );
+        loadArrays( arrays, values );
+        for ( Value[] row : values )
+        {
+            for ( int slot = 0; slot < row.length; slot++ )
+            {
+                if ( row[slot] == null )
+                {
+                    row[slot] = Values.NO_VALUE;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the requested properties of a single property record. Values which are stored inline are decoded right away,
+     * the others are queued up in {@code strings} and {@code arrays}.
+     *
+     * @return the number of requested properties found in this record.
+     */
+    private int readBlocks( PropertyRecord record, int entity, int[] propertyKeys, Value[] row, List<DynamicValue> strings,
+            List<DynamicValue> arrays )
+    {
+        long[] blocks = record.getBlocks();
+        int numberOfBlocks = record.getNumberOfBlocks();
+        int found = 0;
+        int index = 0;
+        while ( index < numberOfBlocks )
+        {
+            long header = blocks[index];
+            PropertyType type = PropertyType.getPropertyTypeOrNull( header );
+            if ( type == null )
+            {
+                break;
+            }
+            int length = type.calculateNumberOfBlocksUsed( header );
+            if ( index + length > numberOfBlocks )
+            {
+                break;
+            }
+            int slot = slotOf( propertyKeys, PropertyBlock.keyIndexId( header ) );
+            if ( slot != -1 && row[slot] == null )
+            {
+                found++;
+                if ( type == PropertyType.STRING )
+                {
+                    strings.add( new DynamicValue( PropertyBlock.fetchLong( header ), entity, slot ) );
+                }
+                else if ( type == PropertyType.ARRAY )
+                {
+                    arrays.add( new DynamicValue( PropertyBlock.fetchLong( header ), entity, slot ) );
+                }
+                else
+                {
+                    PropertyBlock block = new PropertyBlock();
+                    block.setValueBlocks( Arrays.copyOfRange( blocks, index, index + length ) );
+                    row[slot] = type.value( block, store );
+                }
+            }
+            index += length;
+        }
+        return found;
+    }
+
+    private void loadStrings( List<DynamicValue> strings, Value[][] values )
+    {
+        if ( strings.isEmpty() )
+        {
+            return;
+        }
+        strings.sort( BY_REFERENCE );
+        try ( PageCursor page = store.openStringPageCursor( strings.get( 0 ).reference ) )
+        {
+            for ( DynamicValue string : strings )
+            {
+                buffer = store.loadString( string.reference, buffer, page );
+                buffer.flip();
+                byte[] bytes = new byte[buffer.limit()];
+                buffer.get( bytes );
+                values[string.entity][string.slot] = Values.utf8Value( bytes );
+            }
+        }
+    }
+
+    private void loadArrays( List<DynamicValue> arrays, Value[][] values )
+    {
+        if ( arrays.isEmpty() )
+        {
+            return;
+        }
+        arrays.sort( BY_REFERENCE );
+        try ( PageCursor page = store.openArrayPageCursor( arrays.get( 0 ).reference ) )
+        {
+            for ( DynamicValue array : arrays )
+            {
+                buffer = store.loadArray( array.reference, buffer, page );
+                buffer.flip();
+                values[array.entity][array.slot] = PropertyStore.readArrayFromBuffer( buffer );
+            }
+        }
+    }
+
+    private static int slotOf( int[] propertyKeys, int propertyKey )
+    {
+        for ( int slot = 0; slot < propertyKeys.length; slot++ )
+        {
+            if ( propertyKeys[slot] == propertyKey )
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Position of one entity in its property chain.
+     */
+    private static class Chain
+    {
+        private final int entity;
+        private long record;
+        private int missing;
+
+        Chain( int entity, long record, int missing )
+        {
+            this.entity = entity;
+            this.record = record;
+            this.missing = missing;
+        }
+    }
+
+    /**
+     * A property value which is stored in a dynamic store, waiting to be loaded.
+     */
+    private static class DynamicValue
+    {
+        private final long reference;
+        private final int entity;
+        private final int slot;
+
+        DynamicValue( long reference, int entity, int slot )
+        {
+            this.reference = reference;
+            this.entity = entity;
+            this.slot = slot;
+        }
+    }
+}
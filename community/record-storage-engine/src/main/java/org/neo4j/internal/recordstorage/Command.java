@@ -27,10 +27,12 @@ import java.time.OffsetTime;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.LongConsumer;
 
 import org.neo4j.internal.schema.SchemaRule;
 import org.neo4j.io.fs.ReadableChannel;
 import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.SchemaStore;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
@@ -46,6 +48,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.store.record.TokenRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -65,6 +68,16 @@ import static org.neo4j.util.Bits.bitFlags;
  */
 public abstract class Command implements StorageCommand
 {
+    // The key spaces of the keys visited by visitKeys, one for each store that has records changed by commands.
+    private static final int NODE_KEYS = 1;
+    private static final int RELATIONSHIP_KEYS = 2;
+    private static final int RELATIONSHIP_GROUP_KEYS = 3;
+    private static final int PROPERTY_KEYS = 4;
+    private static final int STRING_KEYS = 5;
+    private static final int ARRAY_KEYS = 6;
+    private static final int DYNAMIC_LABEL_KEYS = 7;
+    private static final int KEY_SPACE_SHIFT = 56;
+
     private int keyHash;
     private long key;
     private Mode mode;
@@ -101,6 +114,19 @@ public abstract class Command implements StorageCommand
         }
     }
 
+    static long key( int keySpace, long id )
+    {
+        return ((long) keySpace << KEY_SPACE_SHIFT) | id;
+    }
+
+    static void visitDynamicRecordKeys( int keySpace, Collection<DynamicRecord> records, LongConsumer keys )
+    {
+        for ( DynamicRecord record : records )
+        {
+            keys.accept( key( keySpace, record.getId() ) );
+        }
+    }
+
     protected final void setup( long key, Mode mode )
     {
         this.mode = mode;
@@ -214,6 +240,22 @@ public abstract class Command implements StorageCommand
         {
             return after;
         }
+
+        /**
+         * Visits the keys of the record in the given key space, including its secondary unit.
+         */
+        void visitRecordKeys( int keySpace, LongConsumer keys )
+        {
+            keys.accept( key( keySpace, after.getId() ) );
+            if ( before.hasSecondaryUnitId() )
+            {
+                keys.accept( key( keySpace, before.getSecondaryUnitId() ) );
+            }
+            if ( after.hasSecondaryUnitId() )
+            {
+                keys.accept( key( keySpace, after.getSecondaryUnitId() ) );
+            }
+        }
     }
 
     public static class NodeCommand extends BaseCommand<NodeRecord>
@@ -229,6 +271,15 @@ public abstract class Command implements StorageCommand
             return handler.visitNodeCommand( this );
         }
 
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            visitRecordKeys( NODE_KEYS, keys );
+            visitDynamicRecordKeys( DYNAMIC_LABEL_KEYS, before.getDynamicLabelRecords(), keys );
+            visitDynamicRecordKeys( DYNAMIC_LABEL_KEYS, after.getDynamicLabelRecords(), keys );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -275,6 +326,13 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipCommand( this );
         }
 
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            visitRecordKeys( RELATIONSHIP_KEYS, keys );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -324,6 +382,13 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipGroupCommand( this );
         }
 
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            visitRecordKeys( RELATIONSHIP_GROUP_KEYS, keys );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -397,6 +462,59 @@ public abstract class Command implements StorageCommand
             return handler.visitPropertyCommand( this );
         }
 
+        /**
+         * The property record is keyed together with the entity that owns it, so that the index updates of an entity
+         * are applied in order. Properties of schema rules are applied in order with everything else.
+         */
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            if ( before.isSchemaSet() || after.isSchemaSet() )
+            {
+                return false;
+            }
+            visitRecordKeys( PROPERTY_KEYS, keys );
+            visitEntityKeys( before, keys );
+            visitEntityKeys( after, keys );
+            visitValueRecordKeys( before, keys );
+            visitValueRecordKeys( after, keys );
+            return true;
+        }
+
+        private static void visitEntityKeys( PropertyRecord record, LongConsumer keys )
+        {
+            if ( record.isNodeSet() )
+            {
+                keys.accept( key( NODE_KEYS, record.getNodeId() ) );
+            }
+            else if ( record.isRelSet() )
+            {
+                keys.accept( key( RELATIONSHIP_KEYS, record.getRelId() ) );
+            }
+        }
+
+        private static void visitValueRecordKeys( PropertyRecord record, LongConsumer keys )
+        {
+            for ( PropertyBlock block : record )
+            {
+                PropertyType type = block.getType();
+                if ( type == PropertyType.STRING )
+                {
+                    visitDynamicRecordKeys( STRING_KEYS, block.getValueRecords(), keys );
+                }
+                else if ( type == PropertyType.ARRAY )
+                {
+                    visitDynamicRecordKeys( ARRAY_KEYS, block.getValueRecords(), keys );
+                }
+            }
+            for ( DynamicRecord deleted : record.getDeletedRecords() )
+            {
+                // The type of a deleted value record is not necessarily known.
+                keys.accept( key( STRING_KEYS, deleted.getId() ) );
+                keys.accept( key( ARRAY_KEYS, deleted.getId() ) );
+            }
+        }
+
         public long getEntityId()
         {
             return after.isNodeSet() ? after.getNodeId() : after.getRelId();
@@ -997,6 +1115,15 @@ public abstract class Command implements StorageCommand
             return handler.visitNodeCountsCommand( this );
         }
 
+        /**
+         * Count changes are deltas that can be applied in any order.
+         */
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            return true;
+        }
+
         public int labelId()
         {
             return labelId;
@@ -1048,6 +1175,15 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipCountsCommand( this );
         }
 
+        /**
+         * Count changes are deltas that can be applied in any order.
+         */
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            return true;
+        }
+
         public int startLabelId()
         {
             return startLabelId;
@@ -1078,4 +1214,74 @@ public abstract class Command implements StorageCommand
                    .putLong( delta() );
         }
     }
+
+    public static class NodeDegreeCountsCommand extends Command
+    {
+        private final long nodeId;
+        private final int typeId;
+        private final RelationshipDirection direction;
+        private final long delta;
+
+        public NodeDegreeCountsCommand( long nodeId, int typeId, RelationshipDirection direction, long delta )
+        {
+            setup( nodeId, Mode.UPDATE );
+            assert delta != 0 : "Tried to create a NodeDegreeCountsCommand for something that didn't change any count";
+            this.nodeId = nodeId;
+            this.typeId = typeId;
+            this.direction = direction;
+            this.delta = delta;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format( "UpdateDegree[(%d) %s %s %s %d]",
+                    nodeId, relationshipType( typeId ), direction, delta < 0 ? "-" : "+", Math.abs( delta ) );
+        }
+
+        @Override
+        public boolean handle( CommandVisitor handler ) throws IOException
+        {
+            return handler.visitNodeDegreeCountsCommand( this );
+        }
+
+        /**
+         * Count changes are deltas that can be applied in any order.
+         */
+        @Override
+        public boolean visitKeys( LongConsumer keys )
+        {
+            return true;
+        }
+
+        public long nodeId()
+        {
+            return nodeId;
+        }
+
+        public int typeId()
+        {
+            return typeId;
+        }
+
+        public RelationshipDirection direction()
+        {
+            return direction;
+        }
+
+        public long delta()
+        {
+            return delta;
+        }
+
+        @Override
+        public void serialize( WritableChannel channel ) throws IOException
+        {
+            channel.put( NeoCommandType.UPDATE_NODE_DEGREE_COUNTS_COMMAND );
+            channel.putLong( nodeId() )
+                   .putInt( typeId() )
+                   .put( (byte) direction().ordinal() )
+                   .putLong( delta() );
+        }
+    }
 }
@@ -24,6 +24,7 @@ import java.io.IOException;
 import org.neo4j.internal.recordstorage.Command.LabelTokenCommand;
 import org.neo4j.internal.recordstorage.Command.NodeCommand;
 import org.neo4j.internal.recordstorage.Command.NodeCountsCommand;
+import org.neo4j.internal.recordstorage.Command.NodeDegreeCountsCommand;
 import org.neo4j.internal.recordstorage.Command.PropertyCommand;
 import org.neo4j.internal.recordstorage.Command.PropertyKeyTokenCommand;
 import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
@@ -59,6 +60,8 @@ public interface CommandVisitor
 
     boolean visitRelationshipCountsCommand( RelationshipCountsCommand command ) throws IOException;
 
+    boolean visitNodeDegreeCountsCommand( NodeDegreeCountsCommand command ) throws IOException;
+
     /**
      * An empty implementation of a {@link CommandVisitor}. Allows you to implement only the methods you are
      * interested in. See also {@link TransactionApplier.Adapter} if need handle commands inside of a transaction, or
@@ -125,5 +128,11 @@ public interface CommandVisitor
         {
             return false;
         }
+
+        @Override
+        public boolean visitNodeDegreeCountsCommand( NodeDegreeCountsCommand command )
+        {
+            return false;
+        }
     }
 }
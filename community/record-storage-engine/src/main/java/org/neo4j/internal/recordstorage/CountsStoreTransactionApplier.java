@@ -67,6 +67,14 @@ class CountsStoreTransactionApplier extends TransactionApplier.Adapter
         return false;
     }
 
+    @Override
+    public boolean visitNodeDegreeCountsCommand( Command.NodeDegreeCountsCommand command )
+    {
+        haveUpdates = true;
+        countsUpdater.incrementNodeDegree( command.nodeId(), command.typeId(), command.direction(), command.delta() );
+        return false;
+    }
+
     @Override
     public boolean visitSchemaRuleCommand( SchemaRuleCommand command )
     {
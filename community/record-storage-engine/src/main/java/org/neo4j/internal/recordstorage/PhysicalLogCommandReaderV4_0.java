@@ -45,6 +45,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
@@ -90,6 +91,8 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
             return visitNodeCountsCommand( channel );
         case NeoCommandType.SCHEMA_RULE_COMMAND:
             return visitSchemaRuleCommand( channel );
+        case NeoCommandType.UPDATE_NODE_DEGREE_COUNTS_COMMAND:
+            return visitNodeDegreeCountsCommand( channel );
         default:
             throw unknownCommandType( commandType, channel );
         }
@@ -821,6 +824,15 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return new Command.RelationshipCountsCommand( startLabelId, typeId, endLabelId, delta );
     }
 
+    private Command visitNodeDegreeCountsCommand( ReadableChannel channel ) throws IOException
+    {
+        long nodeId = channel.getLong();
+        int typeId = channel.getInt();
+        RelationshipDirection direction = RelationshipDirection.values()[channel.get()];
+        long delta = channel.getLong();
+        return new Command.NodeDegreeCountsCommand( nodeId, typeId, direction, delta );
+    }
+
     static void markAfterRecordAsCreatedIfCommandLooksCreated( AbstractBaseRecord before, AbstractBaseRecord after )
     {
         if ( !before.inUse() && after.inUse() )
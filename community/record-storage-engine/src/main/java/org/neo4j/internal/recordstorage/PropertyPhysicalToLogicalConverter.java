@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.values.storable.Value;
@@ -32,20 +33,60 @@ public class PropertyPhysicalToLogicalConverter
     private static final Comparator<PropertyBlock> BLOCK_COMPARATOR = ( o1, o2 ) -> Integer.compare( o1.getKeyIndexId(), o2.getKeyIndexId() );
 
     private final PropertyStore propertyStore;
+    private final boolean loadDynamicValues;
     private PropertyBlock[] beforeBlocks = new PropertyBlock[8];
     private int beforeBlocksCursor;
     private PropertyBlock[] afterBlocks = new PropertyBlock[8];
     private int afterBlocksCursor;
 
     public PropertyPhysicalToLogicalConverter( PropertyStore propertyStore )
+    {
+        this( propertyStore, true );
+    }
+
+    /**
+     * @param propertyStore store to read values from.
+     * @param loadDynamicValues whether or not to read string and array values that are not carried by the commands from the store.
+     * If {@code false} such values are converted to {@code null}, which is useful when the store may have moved on from the state
+     * that the commands were written against.
+     */
+    public PropertyPhysicalToLogicalConverter( PropertyStore propertyStore, boolean loadDynamicValues )
     {
         this.propertyStore = propertyStore;
+        this.loadDynamicValues = loadDynamicValues;
     }
 
     /**
      * Converts physical changes to PropertyRecords for a entity into logical updates
      */
     public void convertPropertyRecord( EntityCommandGrouper<?>.Cursor changes, EntityUpdates.Builder properties )
+    {
+        convertPropertyRecord( changes, new PropertyChangeVisitor()
+        {
+            @Override
+            public void added( int propertyKeyId, Value value )
+            {
+                properties.added( propertyKeyId, value );
+            }
+
+            @Override
+            public void removed( int propertyKeyId, Value value )
+            {
+                properties.removed( propertyKeyId, value );
+            }
+
+            @Override
+            public void changed( int propertyKeyId, Value before, Value after )
+            {
+                properties.changed( propertyKeyId, before, after );
+            }
+        } );
+    }
+
+    /**
+     * Converts physical changes to PropertyRecords for a entity into logical changes, in property key id order.
+     */
+    public void convertPropertyRecord( EntityCommandGrouper<?>.Cursor changes, PropertyChangeVisitor properties )
     {
         mapBlocks( changes );
 
@@ -154,6 +195,23 @@ public class PropertyPhysicalToLogicalConverter
         {
             return null;
         }
-        return block.getType().value( block, propertyStore );
+        PropertyType type = block.getType();
+        if ( !loadDynamicValues && block.isLight() && (type == PropertyType.STRING || type == PropertyType.ARRAY) )
+        {
+            return null;
+        }
+        return type.value( block, propertyStore );
+    }
+
+    /**
+     * Receives the logical property changes of one entity.
+     */
+    public interface PropertyChangeVisitor
+    {
+        void added( int propertyKeyId, Value value );
+
+        void removed( int propertyKeyId, Value value );
+
+        void changed( int propertyKeyId, Value before, Value after );
     }
 }
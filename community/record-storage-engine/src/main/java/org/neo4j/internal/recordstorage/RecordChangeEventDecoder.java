@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.ChangeEvent;
+import org.neo4j.storageengine.api.ChangeEventDecoder;
+import org.neo4j.storageengine.api.CommandStream;
+import org.neo4j.storageengine.api.UpdateMode;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+/**
+ * Derives logical {@link ChangeEvent change events} from {@link NodeCommand node commands},
+ * {@link RelationshipCommand relationship commands} and {@link Command.PropertyCommand property commands}.
+ * <p>
+ * Unlike {@link OnlineIndexUpdates}, which sees the commands before they are applied, this decoder sees commands read back from
+ * the log, possibly long after the store has moved on. It therefore never reads records from the store: dynamic label and
+ * property value records that the commands don't carry, typically the before state of a large string or array or of a long
+ * list of labels, are decoded as {@code null}, i.e. unknown.
+ */
+class RecordChangeEventDecoder implements ChangeEventDecoder
+{
+    private static final long[] NO_LABELS = new long[0];
+
+    private final PropertyPhysicalToLogicalConverter converter;
+    private final PropertyCommandsExtractor extractor = new PropertyCommandsExtractor();
+    private final PropertyChanges properties = new PropertyChanges();
+
+    RecordChangeEventDecoder( PropertyStore propertyStore )
+    {
+        this.converter = new PropertyPhysicalToLogicalConverter( propertyStore, false );
+    }
+
+    @Override
+    public void decode( long txId, CommandStream commands, Collection<ChangeEvent> target ) throws IOException
+    {
+        try
+        {
+            commands.accept( extractor );
+            EntityCommandGrouper<NodeCommand>.Cursor nodeCommands = extractor.getNodeCommands();
+            while ( nodeCommands.nextEntity() )
+            {
+                target.add( nodeChange( txId, nodeCommands ) );
+            }
+            EntityCommandGrouper<RelationshipCommand>.Cursor relationshipCommands = extractor.getRelationshipCommands();
+            while ( relationshipCommands.nextEntity() )
+            {
+                target.add( relationshipChange( txId, relationshipCommands ) );
+            }
+        }
+        finally
+        {
+            extractor.close();
+        }
+    }
+
+    private ChangeEvent nodeChange( long txId, EntityCommandGrouper<NodeCommand>.Cursor commands )
+    {
+        NodeCommand command = commands.currentEntityCommand();
+        long[] labelsBefore = null;
+        long[] labelsAfter = null;
+        if ( command != null )
+        {
+            labelsBefore = labels( command.getBefore() );
+            labelsAfter = labels( command.getAfter() );
+        }
+        properties.clear();
+        converter.convertPropertyRecord( commands, properties );
+        return ChangeEvent.nodeChange( txId, commands.currentEntityId(), mode( command ), labelsBefore, labelsAfter,
+                properties.keys(), properties.valuesBefore(), properties.valuesAfter() );
+    }
+
+    private ChangeEvent relationshipChange( long txId, EntityCommandGrouper<RelationshipCommand>.Cursor commands )
+    {
+        RelationshipCommand command = commands.currentEntityCommand();
+        int type = -1;
+        long startNode = -1;
+        long endNode = -1;
+        if ( command != null )
+        {
+            // A deleted relationship only has its id in the log, so take the rest from before the deletion
+            RelationshipRecord record = command.getAfter().inUse() ? command.getAfter() : command.getBefore();
+            type = record.getType();
+            startNode = record.getFirstNode();
+            endNode = record.getSecondNode();
+        }
+        properties.clear();
+        converter.convertPropertyRecord( commands, properties );
+        return ChangeEvent.relationshipChange( txId, commands.currentEntityId(), mode( command ), type, startNode, endNode,
+                properties.keys(), properties.valuesBefore(), properties.valuesAfter() );
+    }
+
+    private static long[] labels( NodeRecord node )
+    {
+        return node.inUse() ? parseLabelsField( node ).getIfLoaded() : NO_LABELS;
+    }
+
+    private static UpdateMode mode( Command command )
+    {
+        if ( command == null )
+        {
+            return UpdateMode.CHANGED;
+        }
+        switch ( command.getMode() )
+        {
+        case CREATE:
+            return UpdateMode.ADDED;
+        case DELETE:
+            return UpdateMode.REMOVED;
+        default:
+            return UpdateMode.CHANGED;
+        }
+    }
+
+    /**
+     * Collects the property changes of one entity, in the order the converter visits them, which is property key id order.
+     */
+    private static class PropertyChanges implements PropertyPhysicalToLogicalConverter.PropertyChangeVisitor
+    {
+        private int[] keys = new int[8];
+        private Value[] before = new Value[8];
+        private Value[] after = new Value[8];
+        private int size;
+
+        @Override
+        public void added( int propertyKeyId, Value value )
+        {
+            add( propertyKeyId, NO_VALUE, value );
+        }
+
+        @Override
+        public void removed( int propertyKeyId, Value value )
+        {
+            add( propertyKeyId, value, NO_VALUE );
+        }
+
+        @Override
+        public void changed( int propertyKeyId, Value before, Value after )
+        {
+            add( propertyKeyId, before, after );
+        }
+
+        private void add( int propertyKeyId, Value valueBefore, Value valueAfter )
+        {
+            if ( size == keys.length )
+            {
+                keys = Arrays.copyOf( keys, size * 2 );
+                before = Arrays.copyOf( before, size * 2 );
+                after = Arrays.copyOf( after, size * 2 );
+            }
+            keys[size] = propertyKeyId;
+            before[size] = valueBefore;
+            after[size] = valueAfter;
+            size++;
+        }
+
+        void clear()
+        {
+            Arrays.fill( before, 0, size, null );
+            Arrays.fill( after, 0, size, null );
+            size = 0;
+        }
+
+        int[] keys()
+        {
+            return Arrays.copyOf( keys, size );
+        }
+
+        Value[] valuesBefore()
+        {
+            return Arrays.copyOf( before, size );
+        }
+
+        Value[] valuesAfter()
+        {
+            return Arrays.copyOf( after, size );
+        }
+    }
+}
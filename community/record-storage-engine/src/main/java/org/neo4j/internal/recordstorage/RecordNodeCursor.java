@@ -57,7 +57,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         if ( pageCursor == null )
         {
-            pageCursor = nodePage( 0 );
+            pageCursor = sequentialNodePage( 0 );
         }
         this.next = 0;
         this.highMark = nodeHighMark();
@@ -114,7 +114,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         if ( pageCursor == null )
         {
-            pageCursor = nodePage( start );
+            pageCursor = sequentialNodePage( start );
         }
         next = start;
         highMark = min( stop, max );
@@ -287,6 +287,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         return read.openPageCursorForReading( reference );
     }
 
+    private PageCursor sequentialNodePage( long reference )
+    {
+        return read.openPageCursorForSequentialReading( reference );
+    }
+
     private long nodeHighMark()
     {
         return read.getHighestPossibleIdInUse();
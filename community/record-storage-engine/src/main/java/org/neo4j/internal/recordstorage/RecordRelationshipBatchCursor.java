@@ -0,0 +1,565 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.storageengine.api.StorageRelationshipBatchCursor;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Traverses the relationships of many nodes at once.
+ * <p>
+ * Rather than following one relationship chain to its end before starting on the next, this cursor advances all the chains of all the
+ * nodes together, one link per round. The records of a round are read in id order, which is page order, after asking the page cache to
+ * {@link CommonAbstractStore#prefetchRecords(long[], int) prefetch} their pages. That way the page faults of a round are served in
+ * parallel, and records that share a page share a pin, where otherwise every link of every chain would be a page fault that could not
+ * start until the previous one was done. The node records, and the relationship group records of dense nodes, are read the same way,
+ * before the relationship chains.
+ * <p>
+ * The relationships are buffered as they are read, and then handed out grouped by the node they were traversed from. The buffer is
+ * bounded: once it is full, no more rounds are read, and the chains that are left are instead followed one link at a time as the
+ * relationships of their node are handed out.
+ */
+class RecordRelationshipBatchCursor extends RecordRelationshipCursor implements StorageRelationshipBatchCursor
+{
+    private static final int MAX_BUFFERED_RELATIONSHIPS =
+            FeatureToggles.getInteger( RecordRelationshipBatchCursor.class, "maxBufferedRelationships", 8192 );
+
+    private final NodeStore nodeStore;
+    private final RelationshipGroupStore groupStore;
+    private final int maxBufferedRelationships;
+    private final NodeRecord node = new NodeRecord( NO_ID );
+    private final RelationshipGroupRecord group = new RelationshipGroupRecord( NO_ID );
+    private PageCursor nodePage;
+    private PageCursor groupPage;
+    private PageCursor relationshipPage;
+
+    private Links links = new Links();
+    private Links nextLinks = new Links();
+    private final Links relationshipLinks = new Links();
+    // The chains that were left unfinished when the buffer filled up.
+    private final Links unfinishedChains = new Links();
+
+    private long[] nodeReferences;
+    private int[] types;
+
+    // The relationships that have been read, in the order they were read in.
+    private int[] origins = new int[16];
+    private long[] ids = new long[16];
+    private int[] relationshipTypes = new int[16];
+    private long[] firstNodes = new long[16];
+    private long[] secondNodes = new long[16];
+    private long[] nextProps = new long[16];
+    private int count;
+    // The order to hand the relationships out in, grouped by origin, and where the relationships of each origin start in that order.
+    private int[] order = new int[16];
+    private int[] originStarts = new int[16];
+    // Same for the unfinished chains.
+    private int[] chainOrder = new int[16];
+    private int[] chainStarts = new int[16];
+    private int position;
+    private int chainPosition;
+    private long chainReference;
+    private int originIndex;
+    private boolean open;
+
+    RecordRelationshipBatchCursor( NodeStore nodeStore, RelationshipStore relationshipStore, RelationshipGroupStore groupStore )
+    {
+        this( nodeStore, relationshipStore, groupStore, MAX_BUFFERED_RELATIONSHIPS );
+    }
+
+    RecordRelationshipBatchCursor( NodeStore nodeStore, RelationshipStore relationshipStore, RelationshipGroupStore groupStore,
+            int maxBufferedRelationships )
+    {
+        super( relationshipStore );
+        this.nodeStore = nodeStore;
+        this.groupStore = groupStore;
+        this.maxBufferedRelationships = maxBufferedRelationships;
+    }
+
+    @Override
+    public void init( long[] nodeReferences, int[] types )
+    {
+        if ( open )
+        {
+            reset();
+        }
+        this.nodeReferences = nodeReferences;
+        this.types = null;
+        if ( types != null )
+        {
+            this.types = types.clone();
+            Arrays.sort( this.types );
+        }
+        open = true;
+
+        count = 0;
+        unfinishedChains.clear();
+        if ( this.types == null || this.types.length > 0 )
+        {
+            readNodes();
+            readGroups();
+            readRelationships();
+        }
+        groupByOrigin();
+    }
+
+    private void readNodes()
+    {
+        links.clear();
+        for ( int i = 0; i < nodeReferences.length; i++ )
+        {
+            if ( nodeReferences[i] >= 0 )
+            {
+                links.add( nodeReferences[i], i );
+            }
+        }
+        if ( links.count == 0 )
+        {
+            return;
+        }
+        links.sort();
+        nodeStore.prefetchRecords( links.ids, links.count );
+        if ( nodePage == null )
+        {
+            nodePage = nodeStore.openPageCursorForReading( links.ids[0] );
+        }
+        for ( int i = 0; i < links.count; i++ )
+        {
+            nodeStore.getRecordByCursor( links.ids[i], node, RecordLoad.CHECK, nodePage );
+            if ( node.inUse() && node.getNextRel() != NO_ID )
+            {
+                // The links of dense nodes start out pointing at relationship groups, and are moved over to the relationship links once the
+                // groups have been read.
+                (node.isDense() ? nextLinks : relationshipLinks).add( node.getNextRel(), links.origins[i] );
+            }
+        }
+        swapLinks();
+    }
+
+    private void readGroups()
+    {
+        while ( links.count > 0 )
+        {
+            links.sort();
+            groupStore.prefetchRecords( links.ids, links.count );
+            if ( groupPage == null )
+            {
+                groupPage = groupStore.openPageCursorForReading( links.ids[0] );
+            }
+            for ( int i = 0; i < links.count; i++ )
+            {
+                int origin = links.origins[i];
+                groupStore.getRecordByCursor( links.ids[i], group, RecordLoad.FORCE, groupPage );
+                if ( group.inUse() && includesType( group.getType() ) )
+                {
+                    addRelationshipLink( group.getFirstOut(), origin );
+                    addRelationshipLink( group.getFirstIn(), origin );
+                    addRelationshipLink( group.getFirstLoop(), origin );
+                }
+                // The groups of a node are ordered by type, so there is no need to look further than the highest type we are looking for.
+                if ( group.getNext() != NO_ID && (types == null || group.getType() < types[types.length - 1]) )
+                {
+                    nextLinks.add( group.getNext(), origin );
+                }
+            }
+            swapLinks();
+        }
+    }
+
+    private void addRelationshipLink( long reference, int origin )
+    {
+        if ( reference != NO_ID )
+        {
+            relationshipLinks.add( reference, origin );
+        }
+    }
+
+    private void readRelationships()
+    {
+        links.clear();
+        links.addAll( relationshipLinks );
+        relationshipLinks.clear();
+        while ( links.count > 0 )
+        {
+            if ( count >= maxBufferedRelationships )
+            {
+                unfinishedChains.addAll( links );
+                links.clear();
+                return;
+            }
+            links.sort();
+            relationshipStore.prefetchRecords( links.ids, links.count );
+            if ( relationshipPage == null )
+            {
+                relationshipPage = relationshipPage( links.ids[0] );
+            }
+            for ( int i = 0; i < links.count; i++ )
+            {
+                int origin = links.origins[i];
+                relationshipFull( this, links.ids[i], relationshipPage );
+                if ( inUse() && includesType( getType() ) )
+                {
+                    buffer( origin );
+                }
+                long next = nextInChain( origin );
+                if ( next != NO_ID )
+                {
+                    nextLinks.add( next, origin );
+                }
+            }
+            swapLinks();
+        }
+    }
+
+    private long nextInChain( int origin )
+    {
+        long originNode = nodeReferences[origin];
+        if ( getFirstNode() == originNode )
+        {
+            return getFirstNextRel();
+        }
+        else if ( getSecondNode() == originNode )
+        {
+            return getSecondNextRel();
+        }
+        throw new IllegalStateException( "NOT PART OF CHAIN! " + this );
+    }
+
+    private boolean includesType( int type )
+    {
+        return types == null || Arrays.binarySearch( types, type ) >= 0;
+    }
+
+    private void buffer( int origin )
+    {
+        if ( count == ids.length )
+        {
+            int capacity = count * 2;
+            origins = Arrays.copyOf( origins, capacity );
+            ids = Arrays.copyOf( ids, capacity );
+            relationshipTypes = Arrays.copyOf( relationshipTypes, capacity );
+            firstNodes = Arrays.copyOf( firstNodes, capacity );
+            secondNodes = Arrays.copyOf( secondNodes, capacity );
+            nextProps = Arrays.copyOf( nextProps, capacity );
+        }
+        origins[count] = origin;
+        ids[count] = getId();
+        relationshipTypes[count] = getType();
+        firstNodes[count] = getFirstNode();
+        secondNodes[count] = getSecondNode();
+        nextProps[count] = getNextProp();
+        count++;
+    }
+
+    private void groupByOrigin()
+    {
+        if ( originStarts.length < nodeReferences.length + 1 )
+        {
+            originStarts = new int[nodeReferences.length + 1];
+            chainStarts = new int[nodeReferences.length + 1];
+        }
+        if ( order.length < count )
+        {
+            order = new int[ids.length];
+        }
+        if ( chainOrder.length < unfinishedChains.count )
+        {
+            chainOrder = new int[unfinishedChains.ids.length];
+        }
+        sortByOrigin( origins, count, originStarts, order );
+        sortByOrigin( unfinishedChains.origins, unfinishedChains.count, chainStarts, chainOrder );
+        position = 0;
+        chainPosition = 0;
+        chainReference = NO_ID;
+        originIndex = 0;
+        setId( NO_ID );
+    }
+
+    /**
+     * Counting sort by origin index, which keeps the entries of each origin in the order they were added. Afterwards {@code starts[o]} is
+     * where the entries of origin {@code o} start in {@code order}, and {@code starts[o + 1]} where they end.
+     */
+    private void sortByOrigin( int[] origins, int count, int[] starts, int[] order )
+    {
+        int originCount = nodeReferences.length;
+        Arrays.fill( starts, 0, originCount + 1, 0 );
+        for ( int i = 0; i < count; i++ )
+        {
+            starts[origins[i] + 1]++;
+        }
+        for ( int i = 1; i <= originCount; i++ )
+        {
+            starts[i] += starts[i - 1];
+        }
+        for ( int i = 0; i < count; i++ )
+        {
+            order[starts[origins[i]]++] = i;
+        }
+        // Placing the entries moved every start along to the end of its origin, which is where the next origin starts.
+        System.arraycopy( starts, 0, starts, 1, originCount );
+        starts[0] = 0;
+    }
+
+    private void swapLinks()
+    {
+        Links swap = links;
+        links = nextLinks;
+        nextLinks = swap;
+        nextLinks.clear();
+    }
+
+    @Override
+    public boolean next()
+    {
+        if ( nodeReferences == null )
+        {
+            return false;
+        }
+        for ( ; originIndex < nodeReferences.length; originIndex++ )
+        {
+            if ( position < originStarts[originIndex + 1] )
+            {
+                int i = order[position++];
+                setId( ids[i] );
+                setInUse( true );
+                setType( relationshipTypes[i] );
+                setFirstNode( firstNodes[i] );
+                setSecondNode( secondNodes[i] );
+                setNextProp( nextProps[i] );
+                return true;
+            }
+            if ( nextInUnfinishedChains() )
+            {
+                return true;
+            }
+        }
+        setId( NO_ID );
+        return false;
+    }
+
+    /**
+     * Follow the unfinished chains of the current origin, one link at a time, to the next relationship to hand out.
+     */
+    private boolean nextInUnfinishedChains()
+    {
+        while ( true )
+        {
+            if ( chainReference == NO_ID )
+            {
+                if ( chainPosition >= chainStarts[originIndex + 1] )
+                {
+                    return false;
+                }
+                chainReference = unfinishedChains.ids[chainOrder[chainPosition++]];
+            }
+            relationshipFull( this, chainReference, relationshipPage );
+            chainReference = nextInChain( originIndex );
+            if ( inUse() && includesType( getType() ) )
+            {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int originIndex()
+    {
+        return originIndex;
+    }
+
+    @Override
+    public long originNodeReference()
+    {
+        return nodeReferences[originIndex];
+    }
+
+    @Override
+    public long neighbourNodeReference()
+    {
+        final long source = sourceNodeReference(), target = targetNodeReference();
+        long origin = originNodeReference();
+        if ( source == origin )
+        {
+            return target;
+        }
+        else if ( target == origin )
+        {
+            return source;
+        }
+        else
+        {
+            throw new IllegalStateException( "NOT PART OF CHAIN" );
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        if ( open )
+        {
+            open = false;
+            setId( NO_ID );
+            nodeReferences = null;
+            types = null;
+            count = 0;
+            position = 0;
+            chainPosition = 0;
+            chainReference = NO_ID;
+            links.clear();
+            nextLinks.clear();
+            relationshipLinks.clear();
+            unfinishedChains.clear();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if ( nodePage != null )
+        {
+            nodePage.close();
+            nodePage = null;
+        }
+        if ( groupPage != null )
+        {
+            groupPage.close();
+            groupPage = null;
+        }
+        if ( relationshipPage != null )
+        {
+            relationshipPage.close();
+            relationshipPage = null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( !open )
+        {
+            return "RelationshipBatchCursor[closed state]";
+        }
+        return "RelationshipBatchCursor[id=" + getId() + ", originIndex=" + originIndex + ", position=" + position + " of " + count +
+                ", unfinishedChains=" + unfinishedChains.count + ", underlying record=" + super.toString() + "]";
+    }
+
+    /**
+     * Record ids to read, each paired with the index of the origin node it is read for.
+     */
+    static class Links
+    {
+        long[] ids = new long[16];
+        int[] origins = new int[16];
+        int count;
+
+        void add( long id, int origin )
+        {
+            if ( count == ids.length )
+            {
+                ids = Arrays.copyOf( ids, count * 2 );
+                origins = Arrays.copyOf( origins, count * 2 );
+            }
+            ids[count] = id;
+            origins[count] = origin;
+            count++;
+        }
+
+        void addAll( Links other )
+        {
+            for ( int i = 0; i < other.count; i++ )
+            {
+                add( other.ids[i], other.origins[i] );
+            }
+        }
+
+        void clear()
+        {
+            count = 0;
+        }
+
+        void sort()
+        {
+            sort( 0, count - 1 );
+        }
+
+        private void sort( int low, int high )
+        {
+            while ( high - low > 16 )
+            {
+                long pivot = ids[(low + high) >>> 1];
+                int i = low;
+                int j = high;
+                while ( i <= j )
+                {
+                    while ( ids[i] < pivot )
+                    {
+                        i++;
+                    }
+                    while ( ids[j] > pivot )
+                    {
+                        j--;
+                    }
+                    if ( i <= j )
+                    {
+                        swap( i++, j-- );
+                    }
+                }
+                // Recurse into the smaller half, and loop on the larger one, to bound the stack depth.
+                if ( j - low < high - i )
+                {
+                    sort( low, j );
+                    low = i;
+                }
+                else
+                {
+                    sort( i, high );
+                    high = j;
+                }
+            }
+            for ( int i = low + 1; i <= high; i++ )
+            {
+                for ( int j = i; j > low && ids[j - 1] > ids[j]; j-- )
+                {
+                    swap( j - 1, j );
+                }
+            }
+        }
+
+        private void swap( int a, int b )
+        {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            int origin = origins[a];
+            origins[a] = origins[b];
+            origins[b] = origin;
+        }
+    }
+}
@@ -94,6 +94,11 @@ abstract class RecordRelationshipCursor extends RelationshipRecord implements Re
         return relationshipStore.openPageCursorForReading( reference );
     }
 
+    PageCursor sequentialRelationshipPage( long reference )
+    {
+        return relationshipStore.openPageCursorForSequentialReading( reference );
+    }
+
     void relationship( RelationshipRecord record, long reference, PageCursor pageCursor )
     {
         // When scanning, we inspect RelationshipRecord.inUse(), so using RecordLoad.CHECK is fine
@@ -58,7 +58,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
         if ( pageCursor == null )
         {
-            pageCursor = relationshipPage( 0 );
+            pageCursor = sequentialRelationshipPage( 0 );
         }
         this.next = 0;
         this.filterType = type;
@@ -115,7 +115,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
         if ( pageCursor == null )
         {
-            pageCursor = relationshipPage( start );
+            pageCursor = sequentialRelationshipPage( start );
         }
         next = start;
         highMark = min( stop, max );
@@ -32,6 +32,7 @@ import org.neo4j.counts.CountsAccessor;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.internal.adjacency.RelationshipAdjacencyStore;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.GBPTreeCountsStore;
 import org.neo4j.internal.diagnostics.DiagnosticsManager;
@@ -51,15 +52,20 @@ import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.store.CountsComputer;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.format.RecordFormat;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.lock.LockGroup;
@@ -68,12 +74,14 @@ import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.monitoring.Health;
+import org.neo4j.storageengine.api.ChangeEventDecoder;
 import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
 import org.neo4j.storageengine.api.IndexUpdateListener;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.NodeLabelUpdateListener;
+import org.neo4j.storageengine.api.RelationshipTypeUpdateListener;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.StorageReader;
@@ -109,15 +117,19 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final LockService lockService;
     private final boolean consistencyCheckApply;
     private WorkSync<NodeLabelUpdateListener,LabelUpdateWork> labelScanStoreSync;
+    private WorkSync<RelationshipTypeUpdateListener,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
     private WorkSync<IndexUpdateListener,IndexUpdatesWork> indexUpdatesSync;
     private final IdController idController;
     private final GBPTreeCountsStore countsStore;
+    private final RelationshipAdjacencyStore adjacencyStore;
+    private final WorkSync<RelationshipAdjacencyStore,RelationshipAdjacencyUpdateWork> adjacencyStoreSync;
     private final int denseNodeThreshold;
     private final Map<IdType,WorkSync<IdGenerator,IdGeneratorUpdateWork>> idGeneratorWorkSyncs = new EnumMap<>( IdType.class );
 
     // installed later
     private IndexUpdateListener indexUpdateListener;
     private NodeLabelUpdateListener nodeLabelUpdateListener;
+    private RelationshipTypeUpdateListener relationshipTypeUpdateListener;
 
     public RecordStorageEngine( DatabaseLayout databaseLayout,
             Config config,
@@ -162,6 +174,17 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
             countsStore = openCountsStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector );
 
+            if ( neoStores.getRecordFormats().hasCapability( RecordStorageCapability.RELATIONSHIP_ADJACENCY_STORE ) )
+            {
+                adjacencyStore = openAdjacencyStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector );
+                adjacencyStoreSync = new WorkSync<>( adjacencyStore );
+            }
+            else
+            {
+                adjacencyStore = null;
+                adjacencyStoreSync = null;
+            }
+
             consistencyCheckApply = config.get( GraphDatabaseSettings.consistency_check_on_apply );
         }
         catch ( Throwable failure )
@@ -202,10 +225,49 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    private RelationshipAdjacencyStore openAdjacencyStore( PageCache pageCache, FileSystemAbstraction fs, DatabaseLayout layout, Config config,
+            LogProvider logProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        boolean readOnly = config.get( GraphDatabaseSettings.read_only );
+        try
+        {
+            return new RelationshipAdjacencyStore( pageCache, layout.relationshipAdjacencyStore(), fs, recoveryCleanupWorkCollector, updater ->
+            {
+                Log log = logProvider.getLog( RelationshipAdjacencyStore.class );
+                log.warn( "Missing relationship adjacency store, rebuilding it." );
+                RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+                RelationshipRecord record = relationshipStore.newRecord();
+                long highId = relationshipStore.getHighId();
+                try ( PageCursor cursor = relationshipStore.openPageCursorForSequentialReading( 0 ) )
+                {
+                    for ( long id = 0; id < highId; id++ )
+                    {
+                        relationshipStore.getRecordByCursor( id, record, RecordLoad.CHECK, cursor );
+                        if ( record.inUse() )
+                        {
+                            updater.addRelationship( id, record.getType(), record.getFirstNode(), record.getSecondNode() );
+                        }
+                    }
+                }
+                log.warn( "Relationship adjacency store rebuild completed." );
+            }, readOnly );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     @Override
     public RecordStorageReader newReader()
     {
-        return new RecordStorageReader( tokenHolders, neoStores, countsStore, schemaCache );
+        return new RecordStorageReader( tokenHolders, neoStores, countsStore, schemaCache, adjacencyStore );
+    }
+
+    @Override
+    public ChangeEventDecoder newChangeEventDecoder()
+    {
+        return new RecordChangeEventDecoder( neoStores.getPropertyStore() );
     }
 
     @Override
@@ -233,6 +295,16 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         this.labelScanStoreSync = new WorkSync<>( listener );
     }
 
+    @Override
+    public void addRelationshipTypeUpdateListener( RelationshipTypeUpdateListener listener )
+    {
+        Preconditions.checkState( this.relationshipTypeUpdateListener == null,
+                "Only supports a single listener. Tried to add " + listener + ", but " + this.relationshipTypeUpdateListener +
+                " has already been added" );
+        this.relationshipTypeUpdateListener = listener;
+        this.relationshipTypeScanStoreSync = new WorkSync<>( listener );
+    }
+
     /**
      * @throws TransactionFailureException if command generation fails or some prerequisite of some command didn't validate,
      * for example if trying to delete a node that still has relationships.
@@ -337,6 +409,18 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             // Schema index application
             appliers.add( new IndexBatchTransactionApplier( indexUpdateListener, labelScanStoreSync, indexUpdatesSync,
                     neoStores.getNodeStore(), neoStores.getPropertyStore(), this, schemaCache, indexActivator ) );
+
+            // Relationship type scan store application
+            if ( relationshipTypeScanStoreSync != null )
+            {
+                appliers.add( new RelationshipTypeScanStoreBatchTransactionApplier( relationshipTypeScanStoreSync ) );
+            }
+
+            // Relationship adjacency store application
+            if ( adjacencyStoreSync != null )
+            {
+                appliers.add( new RelationshipAdjacencyBatchTransactionApplier( adjacencyStoreSync ) );
+            }
         }
 
         // Perform the application
@@ -359,6 +443,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         neoStores.start();
         countsStore.start();
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.start();
+        }
         idController.start();
     }
 
@@ -377,13 +465,25 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void shutdown() throws Exception
     {
-        executeAll( countsStore::close, neoStores::close );
+        executeAll( countsStore::close, this::closeAdjacencyStore, neoStores::close );
+    }
+
+    private void closeAdjacencyStore()
+    {
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.close();
+        }
     }
 
     @Override
     public void flushAndForce( IOLimiter limiter ) throws IOException
     {
         countsStore.checkpoint( limiter);
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.checkpoint( limiter );
+        }
         neoStores.flush( limiter );
     }
 
@@ -413,6 +513,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         List<StoreFileMetadata> files = new ArrayList<>();
         files.add( new StoreFileMetadata( databaseLayout.countStore(), RecordFormat.NO_RECORD_SIZE ) );
+        if ( adjacencyStore != null )
+        {
+            files.add( new StoreFileMetadata( databaseLayout.relationshipAdjacencyStore(), RecordFormat.NO_RECORD_SIZE ) );
+        }
         for ( StoreType type : StoreType.values() )
         {
             final RecordStore<AbstractBaseRecord> recordStore = neoStores.getRecordStore( type );
@@ -27,6 +27,7 @@ import java.util.function.Function;
 import org.neo4j.collection.PrimitiveLongCollections;
 import org.neo4j.common.EntityType;
 import org.neo4j.counts.CountsAccessor;
+import org.neo4j.internal.adjacency.RelationshipAdjacencyStore;
 import org.neo4j.internal.schema.ConstraintDescriptor;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
@@ -37,16 +38,23 @@ import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.AllRelationshipsScan;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.StorageRelationshipBatchCursor;
 import org.neo4j.storageengine.api.StorageRelationshipGroupCursor;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 import org.neo4j.storageengine.api.StorageSchemaReader;
 import org.neo4j.token.TokenHolders;
+import org.neo4j.values.storable.Value;
 
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
 
 /**
@@ -63,10 +71,12 @@ public class RecordStorageReader implements StorageReader
     private final CountsAccessor counts;
     private final MetaDataStore metaDataStore;
     private final SchemaCache schemaCache;
+    private final RelationshipAdjacencyStore adjacencyStore;
 
     private boolean closed;
 
-    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, SchemaCache schemaCache )
+    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, SchemaCache schemaCache,
+            RelationshipAdjacencyStore adjacencyStore )
     {
         this.tokenHolders = tokenHolders;
         this.nodeStore = neoStores.getNodeStore();
@@ -76,6 +86,7 @@ public class RecordStorageReader implements StorageReader
         this.counts = counts;
         this.metaDataStore = neoStores.getMetaDataStore();
         this.schemaCache = schemaCache;
+        this.adjacencyStore = adjacencyStore;
     }
 
     /**
@@ -84,7 +95,7 @@ public class RecordStorageReader implements StorageReader
      */
     public RecordStorageReader( NeoStores stores )
     {
-        this( null, stores, null, null );
+        this( null, stores, null, null, null );
     }
 
     @Override
@@ -230,6 +241,42 @@ public class RecordStorageReader implements StorageReader
         return counts.relationshipCount( startLabelId, typeId, endLabelId );
     }
 
+    @Override
+    public long nodeDegree( long nodeReference, int typeId, RelationshipDirection direction )
+    {
+        NodeRecord node = nodeStore.getRecord( nodeReference, nodeStore.newRecord(), CHECK );
+        if ( !node.inUse() )
+        {
+            return 0;
+        }
+        if ( node.isDense() )
+        {
+            return counts.nodeDegree( nodeReference, typeId, direction );
+        }
+
+        // Sparse nodes have short chains and no stored degrees, so count them by walking the chain
+        long degree = 0;
+        RelationshipRecord relationship = relationshipStore.newRecord();
+        long next = node.getNextRel();
+        while ( !Record.NULL_REFERENCE.is( next ) )
+        {
+            relationshipStore.getRecord( next, relationship, CHECK );
+            RelationshipDirection relationshipDirection =
+                    RelationshipDirection.directionOf( nodeReference, relationship.getFirstNode(), relationship.getSecondNode() );
+            if ( !relationship.inUse() || relationshipDirection == RelationshipDirection.ERROR )
+            {
+                // The chain changed under our feet
+                break;
+            }
+            if ( relationship.getType() == typeId && relationshipDirection == direction )
+            {
+                degree++;
+            }
+            next = relationship.getFirstNode() == nodeReference ? relationship.getFirstNextRel() : relationship.getSecondNextRel();
+        }
+        return degree;
+    }
+
     @Override
     public long nodesGetCount()
     {
@@ -327,9 +374,19 @@ public class RecordStorageReader implements StorageReader
     @Override
     public StorageRelationshipTraversalCursor allocateRelationshipTraversalCursor()
     {
+        if ( adjacencyStore != null )
+        {
+            return new AdjacencyRelationshipTraversalCursor( relationshipStore, adjacencyStore );
+        }
         return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore );
     }
 
+    @Override
+    public StorageRelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        return new RecordRelationshipBatchCursor( nodeStore, relationshipStore, relationshipGroupStore );
+    }
+
     @Override
     public RecordRelationshipScanCursor allocateRelationshipScanCursor()
     {
@@ -347,4 +404,11 @@ public class RecordStorageReader implements StorageReader
     {
         return new RecordPropertyCursor( propertyStore );
     }
+
+    @Override
+    public Value[][] propertyValues( long[] propertyReferences, int[] propertyKeys, EntityType entityType )
+    {
+        // Property records are shared between nodes and relationships, so they are read the same way
+        return new BatchPropertyLoader( propertyStore ).load( propertyReferences, propertyKeys );
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.internal.adjacency.RelationshipAdjacencyStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.util.concurrent.WorkSync;
+
+/**
+ * Gather relationship creations and deletions, converting them into adjacency updates. {@link #close()} will actually
+ * apply them to the {@link RelationshipAdjacencyStore}.
+ */
+public class RelationshipAdjacencyBatchTransactionApplier extends BatchTransactionApplier.Adapter
+{
+    private final WorkSync<RelationshipAdjacencyStore,RelationshipAdjacencyUpdateWork> adjacencyStoreSync;
+    private final SingleTransactionApplier transactionApplier = new SingleTransactionApplier();
+
+    private List<RelationshipAdjacencyUpdateWork.Update> updates;
+
+    public RelationshipAdjacencyBatchTransactionApplier( WorkSync<RelationshipAdjacencyStore,RelationshipAdjacencyUpdateWork> adjacencyStoreSync )
+    {
+        this.adjacencyStoreSync = adjacencyStoreSync;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction )
+    {
+        return transactionApplier;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        if ( updates != null )
+        {
+            try
+            {
+                adjacencyStoreSync.apply( new RelationshipAdjacencyUpdateWork( updates ) );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to flush relationship adjacency updates", e );
+            }
+            updates = null;
+        }
+    }
+
+    private class SingleTransactionApplier extends TransactionApplier.Adapter
+    {
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            // The type and nodes of a relationship never change, so only creations and deletions need to be tracked
+            RelationshipRecord before = command.getBefore();
+            RelationshipRecord after = command.getAfter();
+            if ( before.inUse() != after.inUse() )
+            {
+                RelationshipRecord record = after.inUse() ? after : before;
+                if ( updates == null )
+                {
+                    updates = new ArrayList<>();
+                }
+                updates.add( new RelationshipAdjacencyUpdateWork.Update(
+                        command.getKey(), record.getType(), record.getFirstNode(), record.getSecondNode(), after.inUse() ) );
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.neo4j.internal.adjacency.RelationshipAdjacencyStore;
+import org.neo4j.util.concurrent.Work;
+
+public class RelationshipAdjacencyUpdateWork implements Work<RelationshipAdjacencyStore,RelationshipAdjacencyUpdateWork>
+{
+    private final List<Update> updates;
+
+    RelationshipAdjacencyUpdateWork( List<Update> updates )
+    {
+        this.updates = updates;
+    }
+
+    @Override
+    public RelationshipAdjacencyUpdateWork combine( RelationshipAdjacencyUpdateWork work )
+    {
+        updates.addAll( work.updates );
+        return this;
+    }
+
+    @Override
+    public void apply( RelationshipAdjacencyStore store )
+    {
+        // Updates are applied in the order they were gathered since a batch, e.g. during recovery,
+        // can both create and delete a relationship with the same id
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            for ( Update update : updates )
+            {
+                if ( update.created )
+                {
+                    updater.addRelationship( update.id, update.type, update.startNode, update.endNode );
+                }
+                else
+                {
+                    updater.removeRelationship( update.id, update.type, update.startNode, update.endNode );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    static class Update
+    {
+        final long id;
+        final int type;
+        final long startNode;
+        final long endNode;
+        final boolean created;
+
+        Update( long id, int type, long startNode, long endNode, boolean created )
+        {
+            this.id = id;
+            this.type = type;
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.NodeLabelUpdate;
+import org.neo4j.storageengine.api.RelationshipTypeUpdateListener;
+import org.neo4j.util.concurrent.WorkSync;
+
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
+/**
+ * Gather relationship creations and deletions, converting them into relationship type updates. {@link #close()} will actually
+ * apply them to the {@link RelationshipTypeUpdateListener}.
+ */
+public class RelationshipTypeScanStoreBatchTransactionApplier extends BatchTransactionApplier.Adapter
+{
+    private final WorkSync<RelationshipTypeUpdateListener,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
+    private final SingleTransactionApplier transactionApplier = new SingleTransactionApplier();
+
+    private List<NodeLabelUpdate> typeUpdates;
+    private long txId;
+
+    public RelationshipTypeScanStoreBatchTransactionApplier(
+            WorkSync<RelationshipTypeUpdateListener,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync )
+    {
+        this.relationshipTypeScanStoreSync = relationshipTypeScanStoreSync;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction )
+    {
+        txId = transaction.transactionId();
+        return transactionApplier;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        if ( typeUpdates != null )
+        {
+            try
+            {
+                relationshipTypeScanStoreSync.apply( new RelationshipTypeUpdateWork( typeUpdates ) );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to flush relationship type updates", e );
+            }
+            typeUpdates = null;
+        }
+    }
+
+    private class SingleTransactionApplier extends TransactionApplier.Adapter
+    {
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            // The type of a relationship never changes, so only creations and deletions need to be tracked
+            RelationshipRecord before = command.getBefore();
+            RelationshipRecord after = command.getAfter();
+            if ( before.inUse() != after.inUse() )
+            {
+                long[] type = new long[]{after.inUse() ? after.getType() : before.getType()};
+                if ( typeUpdates == null )
+                {
+                    typeUpdates = new ArrayList<>();
+                }
+                typeUpdates.add( after.inUse()
+                                 ? NodeLabelUpdate.labelChanges( command.getKey(), EMPTY_LONG_ARRAY, type, txId )
+                                 : NodeLabelUpdate.labelChanges( command.getKey(), type, EMPTY_LONG_ARRAY, txId ) );
+            }
+            return false;
+        }
+    }
+}
@@ -19,6 +19,13 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -54,6 +61,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.store.record.TokenRecord;
 import org.neo4j.lock.ResourceLocker;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.values.storable.Value;
@@ -264,9 +272,116 @@ public class TransactionRecordState implements RecordState
         assert commands.size() == noOfCommands - skippedCommands : format( "Expected %d final commands, got %d " +
                 "instead, with %d skipped", noOfCommands, commands.size(), skippedCommands );
 
+        extractDegreeCommands( commands );
+
         prepared = true;
     }
 
+    /**
+     * Dense nodes have their degrees, per relationship type and direction, kept in the counts store. Relationships created or deleted
+     * on a node which was dense already are applied as deltas, whereas a node which became dense in this transaction gets its
+     * full degrees, read from the chain lengths kept in the first relationship of each of its chains.
+     */
+    private void extractDegreeCommands( Collection<StorageCommand> commands )
+    {
+        MutableLongObjectMap<MutableIntObjectMap<long[]>> degrees = new LongObjectHashMap<>();
+        MutableLongSet ignoredNodes = new LongHashSet();
+        for ( RecordProxy<RelationshipRecord,Void> change : recordChangeSet.getRelRecords().changes() )
+        {
+            RelationshipRecord before = change.getBefore();
+            RelationshipRecord after = change.forReadingLinkage();
+            boolean created = !before.inUse() && after.inUse();
+            boolean deleted = before.inUse() && !after.inUse();
+            if ( created || deleted )
+            {
+                RelationshipRecord relationship = created ? after : before;
+                long delta = created ? 1 : -1;
+                long firstNode = relationship.getFirstNode();
+                long secondNode = relationship.getSecondNode();
+                if ( firstNode == secondNode )
+                {
+                    addDegree( degrees, ignoredNodes, firstNode, relationship.getType(), RelationshipDirection.LOOP, delta );
+                }
+                else
+                {
+                    addDegree( degrees, ignoredNodes, firstNode, relationship.getType(), RelationshipDirection.OUTGOING, delta );
+                    addDegree( degrees, ignoredNodes, secondNode, relationship.getType(), RelationshipDirection.INCOMING, delta );
+                }
+            }
+        }
+
+        degrees.forEachKeyValue( ( nodeId, nodeDegrees ) -> nodeDegrees.forEachKeyValue( ( typeId, typeDegrees ) ->
+        {
+            for ( RelationshipDirection direction : RelationshipDirection.values() )
+            {
+                long delta = typeDegrees[direction.ordinal()];
+                if ( delta != 0 )
+                {
+                    commands.add( new Command.NodeDegreeCountsCommand( nodeId, typeId, direction, delta ) );
+                }
+            }
+        } ) );
+    }
+
+    private void addDegree( MutableLongObjectMap<MutableIntObjectMap<long[]>> degrees, MutableLongSet ignoredNodes, long nodeId, int typeId,
+            RelationshipDirection direction, long delta )
+    {
+        if ( ignoredNodes.contains( nodeId ) )
+        {
+            return;
+        }
+        MutableIntObjectMap<long[]> nodeDegrees = degrees.get( nodeId );
+        if ( nodeDegrees == null )
+        {
+            RecordProxy<NodeRecord,Void> node = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null );
+            NodeRecord before = node.getBefore();
+            NodeRecord after = node.forReadingLinkage();
+            boolean denseBefore = before.inUse() && before.isDense();
+            boolean denseAfter = after.inUse() && after.isDense();
+            nodeDegrees = new IntObjectHashMap<>();
+            degrees.put( nodeId, nodeDegrees );
+            if ( !denseBefore )
+            {
+                // Either sparse, which has no degrees stored, or turned dense in this transaction, which gets its full degrees right away
+                ignoredNodes.add( nodeId );
+                if ( denseAfter )
+                {
+                    addFullDegrees( nodeId, after.getNextRel(), nodeDegrees );
+                }
+                return;
+            }
+        }
+        nodeDegrees.getIfAbsentPut( typeId, () -> new long[RelationshipDirection.values().length] )[direction.ordinal()] += delta;
+    }
+
+    private void addFullDegrees( long nodeId, long firstGroupId, MutableIntObjectMap<long[]> nodeDegrees )
+    {
+        long groupId = firstGroupId;
+        while ( !Record.NULL_REFERENCE.is( groupId ) )
+        {
+            RelationshipGroupRecord group = recordChangeSet.getRelGroupRecords().getOrLoad( groupId, null ).forReadingLinkage();
+            if ( group.inUse() )
+            {
+                long[] typeDegrees = nodeDegrees.getIfAbsentPut( group.getType(), () -> new long[RelationshipDirection.values().length] );
+                typeDegrees[RelationshipDirection.OUTGOING.ordinal()] += chainLength( nodeId, group.getFirstOut() );
+                typeDegrees[RelationshipDirection.INCOMING.ordinal()] += chainLength( nodeId, group.getFirstIn() );
+                typeDegrees[RelationshipDirection.LOOP.ordinal()] += chainLength( nodeId, group.getFirstLoop() );
+            }
+            groupId = group.getNext();
+        }
+    }
+
+    private long chainLength( long nodeId, long firstRelationshipId )
+    {
+        if ( Record.NULL_REFERENCE.is( firstRelationshipId ) )
+        {
+            return 0;
+        }
+        RelationshipRecord first = recordChangeSet.getRelRecords().getOrLoad( firstRelationshipId, null ).forReadingLinkage();
+        // The first relationship in a chain keeps the length of that chain in its prev pointer
+        return first.getFirstNode() == nodeId ? first.getFirstPrevRel() : first.getSecondPrevRel();
+    }
+
     private <RECORD extends AbstractBaseRecord> RECORD prepared(
             RecordProxy<RECORD,?> proxy, RecordStore<RECORD> store )
     {
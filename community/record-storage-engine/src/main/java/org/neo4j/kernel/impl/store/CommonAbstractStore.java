@@ -55,6 +55,7 @@ import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.Logger;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.util.concurrent.Runnables;
 
 import static java.lang.Math.max;
@@ -76,6 +77,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         implements RecordStore<RECORD>, AutoCloseable
 {
     static final String UNKNOWN_VERSION = "Unknown";
+    private static final int MIN_PREFETCH_PAGES = FeatureToggles.getInteger( CommonAbstractStore.class, "minPrefetchPages", 4 );
 
     protected final Config configuration;
     protected final PageCache pageCache;
@@ -328,6 +330,37 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         return pagedFile.pageSize() / recordSize;
     }
 
+    /**
+     * Hint that the records with the given ids are about to be read, so that the pages they live on can be
+     * {@link PagedFile#prefetch(long[], int) prefetched} in the background. Nothing is prefetched if the records are
+     * on only a few pages, since reading those pages one after the other is then about as fast as handing them to a
+     * background read-ahead.
+     *
+     * @param ids record ids in ascending order.
+     * @param count the number of ids to use from the start of the {@code ids} array.
+     */
+    public void prefetchRecords( long[] ids, int count )
+    {
+        long[] pageIds = new long[count];
+        int pageCount = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            if ( ids[i] < 0 )
+            {
+                continue;
+            }
+            long pageId = pageIdForRecord( ids[i] );
+            if ( pageCount == 0 || pageIds[pageCount - 1] != pageId )
+            {
+                pageIds[pageCount++] = pageId;
+            }
+        }
+        if ( pageCount >= MIN_PREFETCH_PAGES )
+        {
+            pagedFile.prefetch( pageIds, pageCount );
+        }
+    }
+
     public long getLastPageId() throws IOException
     {
         return pagedFile.getLastPageId();
@@ -412,11 +445,25 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
      */
     @Override
     public PageCursor openPageCursorForReading( long id )
+    {
+        return openPageCursorForReading( id, PF_SHARED_READ_LOCK );
+    }
+
+    /**
+     * DANGER: make sure to always close this cursor.
+     */
+    @Override
+    public PageCursor openPageCursorForSequentialReading( long id )
+    {
+        return openPageCursorForReading( id, PF_SHARED_READ_LOCK | PF_READ_AHEAD );
+    }
+
+    private PageCursor openPageCursorForReading( long id, int pf_flags )
     {
         try
         {
             long pageId = pageIdForRecord( id );
-            return pagedFile.io( pageId, PF_SHARED_READ_LOCK );
+            return pagedFile.io( pageId, pf_flags );
         }
         catch ( IOException e )
         {
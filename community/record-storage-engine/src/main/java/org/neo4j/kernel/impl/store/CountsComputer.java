@@ -23,6 +23,7 @@ import org.neo4j.common.ProgressReporter;
 import org.neo4j.counts.CountsAccessor;
 import org.neo4j.internal.batchimport.Configuration;
 import org.neo4j.internal.batchimport.NodeCountsStage;
+import org.neo4j.internal.batchimport.NodeDegreesStage;
 import org.neo4j.internal.batchimport.RelationshipCountsStage;
 import org.neo4j.internal.batchimport.cache.NodeLabelsCache;
 import org.neo4j.internal.batchimport.cache.NumberArrayFactory;
@@ -36,6 +37,7 @@ public class CountsComputer implements CountsBuilder
 {
     private final NodeStore nodes;
     private final RelationshipStore relationships;
+    private final RelationshipGroupStore groups;
     private final int highLabelId;
     private final int highRelationshipTypeId;
     private final long lastCommittedTransactionId;
@@ -45,25 +47,26 @@ public class CountsComputer implements CountsBuilder
     public CountsComputer( NeoStores stores, PageCache pageCache, DatabaseLayout databaseLayout )
     {
         this( stores.getMetaDataStore().getLastCommittedTransactionId(),
-                stores.getNodeStore(), stores.getRelationshipStore(),
+                stores.getNodeStore(), stores.getRelationshipStore(), stores.getRelationshipGroupStore(),
                 (int) stores.getLabelTokenStore().getHighId(),
                 (int) stores.getRelationshipTypeTokenStore().getHighId(),
                 NumberArrayFactory.auto( pageCache, databaseLayout.databaseDirectory(), true, NumberArrayFactory.NO_MONITOR ) );
     }
 
-    private CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, int highLabelId, int highRelationshipTypeId,
-            NumberArrayFactory numberArrayFactory )
+    private CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, RelationshipGroupStore groups,
+            int highLabelId, int highRelationshipTypeId, NumberArrayFactory numberArrayFactory )
     {
-        this( lastCommittedTransactionId, nodes, relationships, highLabelId, highRelationshipTypeId,
+        this( lastCommittedTransactionId, nodes, relationships, groups, highLabelId, highRelationshipTypeId,
                 numberArrayFactory, ProgressReporter.SILENT );
     }
 
-    public CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships,
+    public CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, RelationshipGroupStore groups,
             int highLabelId, int highRelationshipTypeId, NumberArrayFactory numberArrayFactory, ProgressReporter progressMonitor )
     {
         this.lastCommittedTransactionId = lastCommittedTransactionId;
         this.nodes = nodes;
         this.relationships = relationships;
+        this.groups = groups;
         this.highLabelId = highLabelId;
         this.highRelationshipTypeId = highRelationshipTypeId;
         this.numberArrayFactory = numberArrayFactory;
@@ -75,7 +78,8 @@ public class CountsComputer implements CountsBuilder
     {
         if ( hasNotEmptyNodesOrRelationshipsStores() )
         {
-            progressMonitor.start( nodes.getHighestPossibleIdInUse() + relationships.getHighestPossibleIdInUse() );
+            progressMonitor.start( nodes.getHighestPossibleIdInUse() + relationships.getHighestPossibleIdInUse() +
+                    Math.max( groups.getHighestPossibleIdInUse(), 0 ) );
             populateCountStore( countsUpdater );
         }
         progressMonitor.completed();
@@ -96,6 +100,8 @@ public class CountsComputer implements CountsBuilder
             superviseDynamicExecution(
                     new RelationshipCountsStage( Configuration.DEFAULT, cache, relationships, highLabelId, highRelationshipTypeId, countsUpdater,
                             numberArrayFactory, progressMonitor ) );
+            // Count degrees of dense nodes
+            superviseDynamicExecution( new NodeDegreesStage( Configuration.DEFAULT, groups, relationships, countsUpdater, progressMonitor ) );
         }
     }
 
@@ -125,6 +125,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     PageCursor openPageCursorForReading( long id );
 
+    /**
+     * Opens a {@link PageCursor} on this store just like {@link #openPageCursorForReading(long)}, but for reading
+     * records sequentially forward from the given id. Pages ahead of the cursor may be read ahead in the background.
+     * The caller is responsible for closing it when done with it.
+     *
+     * @param id cursor will initially be placed at the page containing this record id.
+     * @return PageCursor for reading records.
+     */
+    default PageCursor openPageCursorForSequentialReading( long id )
+    {
+        return openPageCursorForReading( id );
+    }
+
     /**
      * Reads a record from the store into {@code target}, see
      * {@link RecordStore#getRecord(long, AbstractBaseRecord, RecordLoad)}.
@@ -315,6 +328,12 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
             return actual.openPageCursorForReading( id );
         }
 
+        @Override
+        public PageCursor openPageCursorForSequentialReading( long id )
+        {
+            return actual.openPageCursorForSequentialReading( id );
+        }
+
         @Override
         public void getRecordByCursor( long id, R target, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException
         {
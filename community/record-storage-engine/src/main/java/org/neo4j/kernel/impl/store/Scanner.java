@@ -69,7 +69,7 @@ public class Scanner
             this.filters = filters;
             this.ids = new StoreIdIterator( store, forward );
             this.store = store;
-            this.cursor = store.openPageCursorForReading( 0 );
+            this.cursor = forward ? store.openPageCursorForSequentialReading( 0 ) : store.openPageCursorForReading( 0 );
             this.record = store.newRecord();
         }
 
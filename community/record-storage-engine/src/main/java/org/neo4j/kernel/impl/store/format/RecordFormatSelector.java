@@ -36,6 +36,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.store.MetaDataStore;
+import org.neo4j.kernel.impl.store.format.adjacency.AdjacencyV4_0;
 import org.neo4j.kernel.impl.store.format.standard.MetaDataRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV3_4;
@@ -64,7 +65,8 @@ public class RecordFormatSelector
 
     private static final List<RecordFormats> KNOWN_FORMATS = asList(
             StandardV3_4.RECORD_FORMATS,
-            StandardV4_0.RECORD_FORMATS
+            StandardV4_0.RECORD_FORMATS,
+            AdjacencyV4_0.RECORD_FORMATS
     );
 
     private RecordFormatSelector()
@@ -77,7 +77,13 @@ public enum RecordStorageCapability implements Capability
      * ID files (neostore.xyz.id) are backed by {@link GBPTree}, transactional and recoverable.
      */
     GBPTREE_ID_FILES( false, CapabilityType.STORE ),
-    GBPTREE_COUNTS_STORE( CapabilityType.STORE );
+    GBPTREE_COUNTS_STORE( CapabilityType.STORE ),
+
+    /**
+     * The relationships of each node are also kept in a {@link GBPTree}, sorted by node, type and direction, so that traversing
+     * the relationships of a node reads a few adjacent pages instead of following the relationship chain record by record.
+     */
+    RELATIONSHIP_ADJACENCY_STORE( CapabilityType.STORE );
 
     private final CapabilityType[] types;
     private boolean additive;
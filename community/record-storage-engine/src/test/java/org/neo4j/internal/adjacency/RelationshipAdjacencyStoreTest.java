@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.adjacency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+
+@PageCacheExtension
+class RelationshipAdjacencyStoreTest
+{
+    private static final int TYPE_1 = 1;
+    private static final int TYPE_2 = 2;
+    private static final RelationshipAdjacencyStore.Builder EMPTY = updater -> {};
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private RelationshipAdjacencyStore store;
+
+    @BeforeEach
+    void openStore() throws IOException
+    {
+        openStore( EMPTY );
+    }
+
+    @AfterEach
+    void closeStore()
+    {
+        store.close();
+    }
+
+    @Test
+    void shouldSeekRelationshipsOfNodeOrderedByTypeDirectionAndId() throws IOException
+    {
+        // given
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            updater.addRelationship( 5, TYPE_2, 10, 11 );
+            updater.addRelationship( 3, TYPE_1, 12, 10 );
+            updater.addRelationship( 4, TYPE_1, 10, 13 );
+            updater.addRelationship( 1, TYPE_1, 10, 14 );
+            updater.addRelationship( 2, TYPE_2, 11, 12 );
+        }
+
+        // when/then
+        assertEquals( asList( rel( 1, TYPE_1, OUTGOING, 14 ), rel( 4, TYPE_1, OUTGOING, 13 ), rel( 3, TYPE_1, INCOMING, 12 ),
+                rel( 5, TYPE_2, OUTGOING, 11 ) ), relationships( 10, -1, null ) );
+        assertEquals( asList( rel( 1, TYPE_1, OUTGOING, 14 ), rel( 4, TYPE_1, OUTGOING, 13 ), rel( 3, TYPE_1, INCOMING, 12 ) ),
+                relationships( 10, TYPE_1, null ) );
+        assertEquals( singletonList( rel( 3, TYPE_1, INCOMING, 12 ) ), relationships( 10, TYPE_1, INCOMING ) );
+        assertEquals( asList( rel( 2, TYPE_2, OUTGOING, 12 ), rel( 5, TYPE_2, INCOMING, 10 ) ), relationships( 11, -1, null ) );
+        assertEquals( emptyList(), relationships( 13, TYPE_2, null ) );
+    }
+
+    @Test
+    void shouldStoreLoopOnce() throws IOException
+    {
+        // given
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            updater.addRelationship( 7, TYPE_1, 10, 10 );
+        }
+
+        // when/then
+        assertEquals( singletonList( rel( 7, TYPE_1, LOOP, 10 ) ), relationships( 10, -1, null ) );
+    }
+
+    @Test
+    void shouldRemoveRelationshipFromBothNodes() throws IOException
+    {
+        // given
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            updater.addRelationship( 1, TYPE_1, 10, 11 );
+            updater.addRelationship( 2, TYPE_1, 10, 11 );
+        }
+
+        // when
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            updater.removeRelationship( 1, TYPE_1, 10, 11 );
+        }
+
+        // then
+        assertEquals( singletonList( rel( 2, TYPE_1, OUTGOING, 11 ) ), relationships( 10, -1, null ) );
+        assertEquals( singletonList( rel( 2, TYPE_1, INCOMING, 10 ) ), relationships( 11, -1, null ) );
+    }
+
+    @Test
+    void shouldApplyChangesIdempotently() throws IOException
+    {
+        // given
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            updater.addRelationship( 1, TYPE_1, 10, 11 );
+            updater.addRelationship( 1, TYPE_1, 10, 11 );
+            updater.removeRelationship( 2, TYPE_1, 10, 11 );
+        }
+
+        // when/then
+        assertEquals( singletonList( rel( 1, TYPE_1, OUTGOING, 11 ) ), relationships( 10, -1, null ) );
+    }
+
+    @Test
+    void shouldBuildWhenCreatedAndNotAfterThat() throws IOException
+    {
+        // given
+        closeStore();
+        fs.deleteFile( storeFile() );
+        AtomicInteger builds = new AtomicInteger();
+        RelationshipAdjacencyStore.Builder builder = updater ->
+        {
+            builds.incrementAndGet();
+            updater.addRelationship( 1, TYPE_1, 10, 11 );
+        };
+
+        // when
+        openStore( builder );
+        closeStore();
+        openStore( builder );
+
+        // then
+        assertEquals( 1, builds.get() );
+        assertEquals( singletonList( rel( 1, TYPE_1, OUTGOING, 11 ) ), relationships( 10, -1, null ) );
+    }
+
+    @Test
+    void shouldKeepChangesOverRestart() throws IOException
+    {
+        // given
+        try ( RelationshipAdjacencyStore.Updater updater = store.updater() )
+        {
+            for ( long id = 0; id < 1_000; id++ )
+            {
+                updater.addRelationship( id, TYPE_1, id % 10, 100 + id );
+            }
+        }
+
+        // when
+        store.checkpoint( UNLIMITED );
+        closeStore();
+        openStore( EMPTY );
+
+        // then
+        List<String> relationships = relationships( 3, TYPE_1, OUTGOING );
+        assertEquals( 100, relationships.size() );
+        assertEquals( rel( 3, TYPE_1, OUTGOING, 103 ), relationships.get( 0 ) );
+    }
+
+    private List<String> relationships( long nodeId, int type, RelationshipDirection direction ) throws IOException
+    {
+        List<String> result = new ArrayList<>();
+        try ( Seeker<AdjacencyKey,AdjacencyValue> seeker = store.relationships( nodeId, type, direction ) )
+        {
+            while ( seeker.next() )
+            {
+                AdjacencyKey key = seeker.key();
+                result.add( rel( key.relationship(), key.type(), key.direction(), seeker.value().neighbour() ) );
+            }
+        }
+        return result;
+    }
+
+    private static String rel( long id, int type, RelationshipDirection direction, long neighbour )
+    {
+        return id + ":" + type + ":" + direction + ":" + neighbour;
+    }
+
+    private void openStore( RelationshipAdjacencyStore.Builder builder ) throws IOException
+    {
+        store = new RelationshipAdjacencyStore( pageCache, storeFile(), fs, immediate(), builder, false );
+        store.start();
+    }
+
+    private File storeFile()
+    {
+        return directory.file( "adjacency.db" );
+    }
+}
@@ -45,6 +45,7 @@ import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.test.OtherThreadExecutor;
 import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
@@ -149,6 +150,37 @@ class GBPTreeCountsStoreTest
         assertEquals( 5, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_2, LABEL_ID_2 ) );
     }
 
+    @Test
+    void shouldUpdateAndReadNodeDegrees() throws IOException
+    {
+        // given
+        long node = 123;
+        long txId = BASE_TX_ID;
+        try ( CountsAccessor.Updater updater = countsStore.apply( ++txId ) )
+        {
+            updater.incrementNodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.OUTGOING, 10 );
+            updater.incrementNodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.INCOMING, 3 );
+            updater.incrementNodeDegree( node, RELATIONSHIP_TYPE_ID_2, RelationshipDirection.LOOP, 1 );
+            updater.incrementNodeCount( LABEL_ID_1, 1 );
+        }
+        try ( CountsAccessor.Updater updater = countsStore.apply( ++txId ) )
+        {
+            updater.incrementNodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.OUTGOING, -4 ); // now at 6
+        }
+
+        countsStore.checkpoint( UNLIMITED );
+
+        // when/then
+        assertEquals( 6, countsStore.nodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.OUTGOING ) );
+        assertEquals( 3, countsStore.nodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.INCOMING ) );
+        assertEquals( 0, countsStore.nodeDegree( node, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.LOOP ) );
+        assertEquals( 1, countsStore.nodeDegree( node, RELATIONSHIP_TYPE_ID_2, RelationshipDirection.LOOP ) );
+        assertEquals( 0, countsStore.nodeDegree( node + 1, RELATIONSHIP_TYPE_ID_1, RelationshipDirection.OUTGOING ) );
+        // degrees don't interfere with the other counts
+        assertEquals( 1, countsStore.nodeCount( LABEL_ID_1 ) );
+        assertEquals( 0, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_1, LABEL_ID_2 ) );
+    }
+
     @Test
     void shouldCheckpointAndRecoverConsistentlyUnderStressfulLoad() throws Throwable
     {
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.format.adjacency.AdjacencyV4_0;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.rule.RecordStorageEngineRule;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class AdjacencyRelationshipTraversalCursorTest
+{
+    private static final long NODE = 1;
+    private static final long OTHER_NODE = 2;
+    private static final long THIRD_NODE = 3;
+    private static final int TYPE_1 = 0;
+    private static final int TYPE_2 = 1;
+    private static final long NO_ID = NO_NEXT_RELATIONSHIP.longValue();
+
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private final RecordStorageEngineRule storageEngineRule = new RecordStorageEngineRule();
+    private RecordStorageEngine storageEngine;
+    private RecordStorageReader storageReader;
+    private long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+
+    @BeforeEach
+    void before() throws Throwable
+    {
+        storageEngineRule.before();
+        storageEngine = storageEngineRule.getWith( fs, pageCache, databaseLayout )
+                .setting( GraphDatabaseSettings.record_format, AdjacencyV4_0.NAME )
+                .build();
+        // NODE -[0:TYPE_1]-> OTHER_NODE, NODE <-[1:TYPE_1]- THIRD_NODE, NODE -[2:TYPE_2]-> THIRD_NODE, NODE -[3:TYPE_1]-> NODE,
+        // OTHER_NODE -[4:TYPE_2]-> THIRD_NODE
+        apply( created( 0, TYPE_1, NODE, OTHER_NODE, 10 ),
+                created( 1, TYPE_1, THIRD_NODE, NODE, NO_NEXT_PROPERTY.longValue() ),
+                created( 2, TYPE_2, NODE, THIRD_NODE, NO_NEXT_PROPERTY.longValue() ),
+                created( 3, TYPE_1, NODE, NODE, 11 ),
+                created( 4, TYPE_2, OTHER_NODE, THIRD_NODE, NO_NEXT_PROPERTY.longValue() ) );
+        storageReader = storageEngine.newReader();
+    }
+
+    @AfterEach
+    void after() throws Throwable
+    {
+        storageReader.close();
+        storageEngineRule.after( true );
+    }
+
+    @Test
+    void shouldAllocateAdjacencyCursorForAdjacencyFormat()
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            assertTrue( cursor instanceof AdjacencyRelationshipTraversalCursor );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {false, true} )
+    void shouldTraverseAllRelationshipsOfNode( boolean dense )
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            // The reference is the first relationship of a sparse node and the first group of a dense one, neither of which is followed
+            cursor.init( NODE, dense ? 7 : 0, dense );
+            assertEquals( asList( 0L, 1L, 3L, 2L ), relationships( cursor ) );
+
+            cursor.init( OTHER_NODE, dense ? 7 : 0, dense );
+            assertEquals( asList( 0L, 4L ), relationships( cursor ) );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {false, true} )
+    void shouldNotFindRelationshipsWithoutReference( boolean dense )
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( NODE, NO_ID, dense );
+            assertFalse( cursor.next() );
+
+            cursor.init( NODE, NO_ID, TYPE_1, OUTGOING, dense );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {false, true} )
+    void shouldTraverseRelationshipsOfTypeAndDirection( boolean dense )
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( NODE, 0, TYPE_1, OUTGOING, dense );
+            assertEquals( singletonList( 0L ), relationships( cursor ) );
+
+            cursor.init( NODE, 1, TYPE_1, INCOMING, dense );
+            assertEquals( singletonList( 1L ), relationships( cursor ) );
+
+            cursor.init( NODE, 3, TYPE_1, LOOP, dense );
+            assertEquals( singletonList( 3L ), relationships( cursor ) );
+
+            cursor.init( NODE, 2, TYPE_2, OUTGOING, dense );
+            assertEquals( singletonList( 2L ), relationships( cursor ) );
+
+            cursor.init( NODE, 2, TYPE_2, INCOMING, dense );
+            assertEquals( emptyList(), relationships( cursor ) );
+        }
+    }
+
+    @Test
+    void shouldLimitTraversalToTypeAndDirectionOfReferencedRelationship()
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            // A typed traversal of unknown type continues from a relationship, limited to the type and direction of that relationship
+            cursor.init( NODE, 1, (int) NO_ID, null, false );
+            assertEquals( singletonList( 1L ), relationships( cursor ) );
+
+            cursor.init( THIRD_NODE, 1, (int) NO_ID, null, false );
+            assertEquals( singletonList( 1L ), relationships( cursor ) );
+
+            cursor.init( NODE, 3, (int) NO_ID, null, false );
+            assertEquals( singletonList( 3L ), relationships( cursor ) );
+        }
+    }
+
+    @Test
+    void shouldNotFindRelationshipsFromDeletedReference() throws Exception
+    {
+        // given
+        apply( deleted( 1, TYPE_1, THIRD_NODE, NODE ) );
+
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            // when
+            cursor.init( NODE, 1, (int) NO_ID, null, false );
+
+            // then
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    void shouldExposeNodesOfRelationshipsFromBothSides()
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( NODE, 1, TYPE_1, INCOMING, false );
+            assertTrue( cursor.next() );
+            assertEquals( THIRD_NODE, cursor.sourceNodeReference() );
+            assertEquals( NODE, cursor.targetNodeReference() );
+            assertEquals( NODE, cursor.originNodeReference() );
+            assertEquals( THIRD_NODE, cursor.neighbourNodeReference() );
+            assertEquals( TYPE_1, cursor.type() );
+
+            cursor.init( THIRD_NODE, 1, TYPE_1, OUTGOING, false );
+            assertTrue( cursor.next() );
+            assertEquals( THIRD_NODE, cursor.sourceNodeReference() );
+            assertEquals( NODE, cursor.targetNodeReference() );
+            assertEquals( THIRD_NODE, cursor.originNodeReference() );
+            assertEquals( NODE, cursor.neighbourNodeReference() );
+        }
+    }
+
+    @Test
+    void shouldSeeLoopOnce()
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( NODE, 3, TYPE_1, null, false );
+            List<Long> relationships = new ArrayList<>();
+            while ( cursor.next() )
+            {
+                relationships.add( cursor.entityReference() );
+                if ( cursor.entityReference() == 3 )
+                {
+                    assertEquals( NODE, cursor.sourceNodeReference() );
+                    assertEquals( NODE, cursor.targetNodeReference() );
+                    assertEquals( NODE, cursor.neighbourNodeReference() );
+                }
+            }
+            assertEquals( asList( 0L, 1L, 3L ), relationships );
+        }
+    }
+
+    @Test
+    void shouldReadPropertiesReferenceFromRelationshipRecord()
+    {
+        try ( StorageRelationshipTraversalCursor cursor = storageReader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( NODE, 0, false );
+            assertTrue( cursor.next() );
+            assertEquals( 0, cursor.entityReference() );
+            assertTrue( cursor.hasProperties() );
+            assertEquals( 10, cursor.propertiesReference() );
+
+            assertTrue( cursor.next() );
+            assertEquals( 1, cursor.entityReference() );
+            assertFalse( cursor.hasProperties() );
+            assertEquals( NO_NEXT_PROPERTY.longValue(), cursor.propertiesReference() );
+
+            assertTrue( cursor.next() );
+            assertEquals( 3, cursor.entityReference() );
+            assertEquals( 11, cursor.propertiesReference() );
+        }
+    }
+
+    private void apply( Command.RelationshipCommand... commands ) throws Exception
+    {
+        storageEngine.apply( new GroupOfCommands( ++lastTransactionId, commands ), TransactionApplicationMode.EXTERNAL );
+    }
+
+    private static Command.RelationshipCommand created( long id, int type, long startNode, long endNode, long nextProp )
+    {
+        return new Command.RelationshipCommand( new RelationshipRecord( id ), relationship( id, type, startNode, endNode, nextProp ) );
+    }
+
+    private static Command.RelationshipCommand deleted( long id, int type, long startNode, long endNode )
+    {
+        RelationshipRecord before = relationship( id, type, startNode, endNode, NO_NEXT_PROPERTY.longValue() );
+        return new Command.RelationshipCommand( before, new RelationshipRecord( id ) );
+    }
+
+    private static RelationshipRecord relationship( long id, int type, long startNode, long endNode, long nextProp )
+    {
+        return new RelationshipRecord( id ).initialize( true, nextProp, startNode, endNode, type, 1, NO_ID, 1, NO_ID, true, true );
+    }
+
+    private static List<Long> relationships( StorageRelationshipTraversalCursor cursor )
+    {
+        List<Long> relationships = new ArrayList<>();
+        while ( cursor.next() )
+        {
+            relationships.add( cursor.entityReference() );
+        }
+        return relationships;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Iterator;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.helpers.collection.IteratorWrapper;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.helpers.collection.Iterators.iterator;
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+@ExtendWith( RandomExtension.class )
+class BatchPropertyLoaderTest
+{
+    private static final int MAX_PROPERTIES = 20;
+
+    @Inject
+    private RandomRule random;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private PropertyCreator creator;
+    private NodeRecord owner;
+    private DefaultIdGeneratorFactory idGeneratorFactory;
+
+    @BeforeEach
+    void setup()
+    {
+        idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory,
+                pageCache, fs, NullLogProvider.getInstance() ).openAllNeoStores( true );
+        creator = new PropertyCreator( neoStores.getPropertyStore(), new PropertyTraverser() );
+        owner = neoStores.getNodeStore().newRecord();
+    }
+
+    @AfterEach
+    void closeStore()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldLoadPropertiesOfManyChainsInGivenOrder()
+    {
+        // given
+        int numberOfChains = random.nextInt( 1, 100 );
+        Value[][] chains = new Value[numberOfChains][];
+        long[] references = new long[numberOfChains];
+        for ( int i = 0; i < numberOfChains; i++ )
+        {
+            chains[i] = createValues();
+            references[i] = storeValuesAsPropertyChain( chains[i] );
+        }
+        int[] propertyKeys = {random.nextInt( MAX_PROPERTIES ), MAX_PROPERTIES, random.nextInt( MAX_PROPERTIES ) + MAX_PROPERTIES + 1};
+
+        // when
+        Value[][] loaded = new BatchPropertyLoader( neoStores.getPropertyStore() ).load( references, propertyKeys );
+
+        // then
+        assertEquals( numberOfChains, loaded.length );
+        for ( int i = 0; i < numberOfChains; i++ )
+        {
+            Value[] expected = new Value[propertyKeys.length];
+            for ( int slot = 0; slot < propertyKeys.length; slot++ )
+            {
+                int key = propertyKeys[slot];
+                expected[slot] = key < chains[i].length ? chains[i][key] : Values.NO_VALUE;
+            }
+            assertArrayEquals( expected, loaded[i] );
+        }
+    }
+
+    @Test
+    void shouldLoadNoValuesForChainsWithoutProperties()
+    {
+        // given
+        Value[] values = createValues();
+        long[] references = {NO_ID, storeValuesAsPropertyChain( values ), NO_ID};
+
+        // when
+        Value[][] loaded = new BatchPropertyLoader( neoStores.getPropertyStore() ).load( references, new int[]{0} );
+
+        // then
+        assertArrayEquals( new Value[]{Values.NO_VALUE}, loaded[0] );
+        assertArrayEquals( new Value[]{values[0]}, loaded[1] );
+        assertArrayEquals( new Value[]{Values.NO_VALUE}, loaded[2] );
+    }
+
+    private Value[] createValues()
+    {
+        int numberOfProperties = random.nextInt( 1, MAX_PROPERTIES );
+        Value[] values = new Value[numberOfProperties];
+        for ( int key = 0; key < numberOfProperties; key++ )
+        {
+            values[key] = random.nextValue();
+        }
+        return values;
+    }
+
+    private long storeValuesAsPropertyChain( Value[] values )
+    {
+        DirectRecordAccessSet access = new DirectRecordAccessSet( neoStores, idGeneratorFactory );
+        long firstPropertyId = creator.createPropertyChain( owner, blocksOf( creator, values ), access.getPropertyRecords() );
+        access.close();
+        return firstPropertyId;
+    }
+
+    private static Iterator<PropertyBlock> blocksOf( PropertyCreator creator, Value[] values )
+    {
+        return new IteratorWrapper<>( iterator( values ) )
+        {
+            int key;
+
+            @Override
+            protected PropertyBlock underlyingObjectToObject( Value value )
+            {
+                return creator.encodePropertyValue( key++, value );
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static java.util.Collections.disjoint;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandKeysTest
+{
+    @Test
+    void propertyCommandsMustShareKeysWithTheirEntity()
+    {
+        Set<Long> nodeKeys = keys( new Command.NodeCommand( new NodeRecord( 5 ), new NodeRecord( 5 ) ) );
+        Set<Long> nodePropertyKeys = keys( new Command.PropertyCommand( new PropertyRecord( 7 ), nodeProperty( 7, 5 ) ) );
+        Set<Long> relationshipKeys = keys( new Command.RelationshipCommand( new RelationshipRecord( 5 ), new RelationshipRecord( 5 ) ) );
+
+        assertFalse( disjoint( nodeKeys, nodePropertyKeys ) );
+        assertTrue( disjoint( nodeKeys, relationshipKeys ) );
+        assertTrue( disjoint( relationshipKeys, nodePropertyKeys ) );
+    }
+
+    @Test
+    void commandsOnDifferentRecordsMustNotShareKeys()
+    {
+        Set<Long> first = keys( new Command.PropertyCommand( new PropertyRecord( 7 ), nodeProperty( 7, 5 ) ) );
+        Set<Long> second = keys( new Command.PropertyCommand( new PropertyRecord( 8 ), nodeProperty( 8, 6 ) ) );
+        Set<Long> sameRecord = keys( new Command.PropertyCommand( new PropertyRecord( 7 ), nodeProperty( 7, 6 ) ) );
+
+        assertTrue( disjoint( first, second ) );
+        assertFalse( disjoint( first, sameRecord ) );
+    }
+
+    @Test
+    void countsCommandsMustBeKeyedWithoutKeys()
+    {
+        Set<Long> keys = new HashSet<>();
+        assertTrue( new Command.NodeCountsCommand( 1, 1 ).visitKeys( keys::add ) );
+        assertTrue( new Command.RelationshipCountsCommand( 1, 2, 3, 1 ).visitKeys( keys::add ) );
+        assertTrue( keys.isEmpty() );
+    }
+
+    @Test
+    void tokenAndSchemaPropertyCommandsMustNotBeKeyed()
+    {
+        PropertyRecord schemaProperty = new PropertyRecord( 7 );
+        schemaProperty.setSchemaRuleId( 3 );
+
+        assertFalse( new Command.LabelTokenCommand( new LabelTokenRecord( 1 ), new LabelTokenRecord( 1 ) ).visitKeys( key -> {} ) );
+        assertFalse( new Command.PropertyCommand( new PropertyRecord( 7 ), schemaProperty ).visitKeys( key -> {} ) );
+    }
+
+    private static PropertyRecord nodeProperty( long id, long nodeId )
+    {
+        PropertyRecord record = new PropertyRecord( id );
+        record.setNodeId( nodeId );
+        return record;
+    }
+
+    private static Set<Long> keys( StorageCommand command )
+    {
+        Set<Long> keys = new HashSet<>();
+        assertTrue( command.visitKeys( keys::add ) );
+        return keys;
+    }
+}
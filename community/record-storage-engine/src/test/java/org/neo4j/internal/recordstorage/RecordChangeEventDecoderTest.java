@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.ChangeEvent;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.UpdateMode;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class RecordChangeEventDecoderTest
+{
+    private static final long TX_ID = 42;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private PropertyStore store;
+    private RecordChangeEventDecoder decoder;
+    private final Value longString = Values.of( "my super looooooooooooooooooooooooooooooooooooooong striiiiiiiiiiiiiiiiiiiiiiing" );
+    private final Value longerString = Values.of( "my super looooooooooooooooooooooooooooooooooooooong striiiiiiiiiiiiiiiiiiiiiiingdd" );
+
+    @BeforeEach
+    void before()
+    {
+        StoreFactory storeFactory =
+                new StoreFactory( databaseLayout, Config.defaults(), new DefaultIdGeneratorFactory( fs, immediate() ), pageCache, fs,
+                        NullLogProvider.getInstance() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        store = neoStores.getPropertyStore();
+        decoder = new RecordChangeEventDecoder( store );
+    }
+
+    @AfterEach
+    void after()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldDecodeCreatedNode() throws IOException
+    {
+        // given
+        NodeRecord before = new NodeRecord( 5 );
+        NodeRecord after = new NodeRecord( 5 ).initialize( true, 0, false, -1, 0 );
+        new InlineNodeLabels( after ).put( new long[]{3, 1}, null, null );
+        Value value = Values.of( 12345 );
+
+        // when
+        List<ChangeEvent> events = decode( new Command.NodeCommand( before, after ),
+                new Command.PropertyCommand( propertyRecord( 5 ), propertyRecord( 5, property( 10, value ) ) ) );
+
+        // then
+        assertEquals( 1, events.size() );
+        ChangeEvent event = events.get( 0 );
+        assertEquals( TX_ID, event.getTxId() );
+        assertEquals( EntityType.NODE, event.getEntityType() );
+        assertEquals( 5, event.getEntityId() );
+        assertEquals( UpdateMode.ADDED, event.getMode() );
+        assertArrayEquals( new long[0], event.getLabelsBefore() );
+        assertArrayEquals( new long[]{1, 3}, event.getLabelsAfter() );
+        assertArrayEquals( new int[]{10}, event.getPropertyKeyIds() );
+        assertArrayEquals( new Value[]{NO_VALUE}, event.getValuesBefore() );
+        assertArrayEquals( new Value[]{value}, event.getValuesAfter() );
+    }
+
+    @Test
+    void shouldDecodePropertyChangesWithoutEntityCommand() throws IOException
+    {
+        // given
+        Value removed = Values.of( "removed" );
+        Value before = Values.of( 1 );
+        Value after = Values.of( 2 );
+
+        // when
+        List<ChangeEvent> events = decode( new Command.PropertyCommand(
+                propertyRecord( 7, property( 1, removed ), property( 2, before ) ),
+                propertyRecord( 7, property( 2, after ) ) ) );
+
+        // then
+        assertEquals( 1, events.size() );
+        ChangeEvent event = events.get( 0 );
+        assertEquals( UpdateMode.CHANGED, event.getMode() );
+        assertNull( event.getLabelsBefore() );
+        assertNull( event.getLabelsAfter() );
+        assertArrayEquals( new int[]{1, 2}, event.getPropertyKeyIds() );
+        assertArrayEquals( new Value[]{removed, before}, event.getValuesBefore() );
+        assertArrayEquals( new Value[]{NO_VALUE, after}, event.getValuesAfter() );
+    }
+
+    @Test
+    void shouldDecodeDeletedRelationship() throws IOException
+    {
+        // given
+        RelationshipRecord before = new RelationshipRecord( 9 ).initialize( true, -1, 1, 2, 4, -1, -1, -1, -1, true, true );
+        RelationshipRecord after = new RelationshipRecord( 9 );
+
+        // when
+        List<ChangeEvent> events = decode( new Command.RelationshipCommand( before, after ) );
+
+        // then
+        assertEquals( 1, events.size() );
+        ChangeEvent event = events.get( 0 );
+        assertEquals( EntityType.RELATIONSHIP, event.getEntityType() );
+        assertEquals( 9, event.getEntityId() );
+        assertEquals( UpdateMode.REMOVED, event.getMode() );
+        assertEquals( 4, event.getType() );
+        assertEquals( 1, event.getStartNode() );
+        assertEquals( 2, event.getEndNode() );
+    }
+
+    @Test
+    void shouldNotReadDynamicValuesMissingFromCommandsFromStore() throws IOException
+    {
+        // given a change of a long string where only the new value is carried by the command, as in the log
+        PropertyBlock heavyBefore = property( 10, longString );
+        PropertyBlock lightBefore = new PropertyBlock();
+        lightBefore.setValueBlocks( heavyBefore.getValueBlocks() );
+
+        // when
+        List<ChangeEvent> events = decode(
+                new Command.PropertyCommand( propertyRecord( 3, lightBefore ), propertyRecord( 3, property( 10, longerString ) ) ) );
+
+        // then
+        ChangeEvent event = events.get( 0 );
+        assertArrayEquals( new Value[]{null}, event.getValuesBefore() );
+        assertArrayEquals( new Value[]{longerString}, event.getValuesAfter() );
+    }
+
+    @Test
+    void shouldDecodeNodesBeforeRelationshipsInIdOrder() throws IOException
+    {
+        // given
+        RelationshipRecord relationship = new RelationshipRecord( 1 ).initialize( true, -1, 2, 3, 0, -1, -1, -1, -1, true, true );
+
+        // when
+        List<ChangeEvent> events = decode(
+                new Command.RelationshipCommand( new RelationshipRecord( 1 ), relationship ),
+                new Command.NodeCommand( new NodeRecord( 8 ), new NodeRecord( 8 ).initialize( true, -1, false, -1, 0 ) ),
+                new Command.NodeCommand( new NodeRecord( 2 ), new NodeRecord( 2 ).initialize( true, -1, false, -1, 0 ) ) );
+
+        // then
+        assertEquals( 3, events.size() );
+        assertEquals( 2, events.get( 0 ).getEntityId() );
+        assertEquals( 8, events.get( 1 ).getEntityId() );
+        assertEquals( EntityType.RELATIONSHIP, events.get( 2 ).getEntityType() );
+    }
+
+    private List<ChangeEvent> decode( StorageCommand... commands ) throws IOException
+    {
+        List<ChangeEvent> events = new ArrayList<>();
+        decoder.decode( TX_ID, new GroupOfCommands( TX_ID, commands ), events );
+        return events;
+    }
+
+    private static PropertyRecord propertyRecord( long nodeId, PropertyBlock... propertyBlocks )
+    {
+        PropertyRecord record = new PropertyRecord( 0 );
+        if ( propertyBlocks.length > 0 )
+        {
+            record.setInUse( true );
+            for ( PropertyBlock propertyBlock : propertyBlocks )
+            {
+                record.addPropertyBlock( propertyBlock );
+            }
+        }
+        record.setNodeId( nodeId );
+        return record;
+    }
+
+    private PropertyBlock property( long key, Value value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        store.encodeValue( block, (int) key, value );
+        return block;
+    }
+}
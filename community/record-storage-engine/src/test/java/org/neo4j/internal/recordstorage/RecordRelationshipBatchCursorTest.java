@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class RecordRelationshipBatchCursorTest
+{
+    private static final long NO_REL = NO_NEXT_RELATIONSHIP.intValue();
+    private static final long DENSE_NODE = 4;
+    private static final long MISSING_NODE = 99;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+
+    @BeforeEach
+    void setupStores()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate() );
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+            NullLogProvider.getInstance() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        createGraph();
+    }
+
+    @AfterEach
+    void shutDownStores()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldGroupRelationshipsByOriginInTheGivenOrder()
+    {
+        long[] nodes = {2, 0, MISSING_NODE, DENSE_NODE, 3, 1, 2};
+
+        List<Set<Long>> groups = traverse( nodes, null );
+
+        assertEquals( Set.of( 1L, 2L, 6L ), groups.get( 0 ) );
+        assertEquals( Set.of( 0L, 2L, 3L ), groups.get( 1 ) );
+        assertEquals( Set.of(), groups.get( 2 ) );
+        assertEquals( Set.of( 3L, 4L, 5L, 6L ), groups.get( 3 ) );
+        assertEquals( Set.of(), groups.get( 4 ) );
+        assertEquals( Set.of( 0L, 1L, 4L ), groups.get( 5 ) );
+        assertEquals( Set.of( 1L, 2L, 6L ), groups.get( 6 ) );
+    }
+
+    @Test
+    void shouldOnlyTraverseRelationshipsOfTheGivenTypes()
+    {
+        long[] nodes = {0, 1, 2, DENSE_NODE};
+
+        List<Set<Long>> groups = traverse( nodes, new int[]{1} );
+
+        assertEquals( Set.of(), groups.get( 0 ) );
+        assertEquals( Set.of( 1L, 4L ), groups.get( 1 ) );
+        assertEquals( Set.of( 1L ), groups.get( 2 ) );
+        assertEquals( Set.of( 4L ), groups.get( 3 ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource( ints = {1, 2, 3, 5} )
+    void shouldFollowTheChainsLeftWhenTheBufferIsFull( int maxBufferedRelationships )
+    {
+        long[] nodes = {2, 0, MISSING_NODE, DENSE_NODE, 3, 1, 2};
+
+        assertEquals( traverse( nodes, null ), traverse( nodes, null, maxBufferedRelationships ) );
+        assertEquals( traverse( nodes, new int[]{1} ), traverse( nodes, new int[]{1}, maxBufferedRelationships ) );
+        assertEquals( traverse( nodes, new int[]{0} ), traverse( nodes, new int[]{0}, maxBufferedRelationships ) );
+    }
+
+    @Test
+    void shouldTraverseNothingForOnlyMissingAndEmptyNodes()
+    {
+        try ( RecordRelationshipBatchCursor cursor = getBatchCursor() )
+        {
+            cursor.init( new long[]{MISSING_NODE, 3, -1}, null );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    void shouldTraverseNothingForNoTypes()
+    {
+        try ( RecordRelationshipBatchCursor cursor = getBatchCursor() )
+        {
+            cursor.init( new long[]{0, 1, DENSE_NODE}, new int[0] );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    void shouldBeReusableAfterFillingTheBuffer()
+    {
+        try ( RecordRelationshipBatchCursor cursor = getBatchCursor( 1 ) )
+        {
+            cursor.init( new long[]{DENSE_NODE, 1}, null );
+            assertTrue( cursor.next() );
+
+            cursor.init( new long[]{0}, null );
+            Set<Long> relationships = new HashSet<>();
+            while ( cursor.next() )
+            {
+                assertEquals( 0, cursor.originIndex() );
+                relationships.add( cursor.entityReference() );
+            }
+            assertEquals( Set.of( 0L, 2L, 3L ), relationships );
+        }
+    }
+
+    @Test
+    void shouldBeReusable()
+    {
+        try ( RecordRelationshipBatchCursor cursor = getBatchCursor() )
+        {
+            cursor.init( new long[]{0}, new int[]{1} );
+            assertFalse( cursor.next() );
+
+            cursor.init( new long[]{0}, null );
+            Set<Long> relationships = new HashSet<>();
+            while ( cursor.next() )
+            {
+                assertEquals( 0, cursor.originIndex() );
+                relationships.add( cursor.entityReference() );
+            }
+            assertEquals( Set.of( 0L, 2L, 3L ), relationships );
+        }
+    }
+
+    private List<Set<Long>> traverse( long[] nodes, int[] types )
+    {
+        return traverse( nodes, types, Integer.MAX_VALUE );
+    }
+
+    private List<Set<Long>> traverse( long[] nodes, int[] types, int maxBufferedRelationships )
+    {
+        List<Set<Long>> groups = new ArrayList<>();
+        for ( int i = 0; i < nodes.length; i++ )
+        {
+            groups.add( new HashSet<>() );
+        }
+        try ( RecordRelationshipBatchCursor cursor = getBatchCursor( maxBufferedRelationships ) )
+        {
+            cursor.init( nodes, types );
+            int previousOrigin = 0;
+            while ( cursor.next() )
+            {
+                int origin = cursor.originIndex();
+                assertTrue( origin >= previousOrigin, "Relationships should be grouped by origin" );
+                assertEquals( nodes[origin], cursor.originNodeReference() );
+                long neighbour = cursor.neighbourNodeReference();
+                assertTrue( cursor.sourceNodeReference() == neighbour || cursor.targetNodeReference() == neighbour );
+                groups.get( origin ).add( cursor.entityReference() );
+                previousOrigin = origin;
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Nodes 0 to 3 are sparse and node 4 is dense:
+     * <pre>
+     * (0)-[0:T0]->(1), (1)-[1:T1]->(2), (2)-[2:T0]->(0), (4)-[3:T0]->(0), (1)-[4:T1]->(4), (4)-[5:T0]->(4), (4)-[6:T0]->(2)
+     * </pre>
+     */
+    private void createGraph()
+    {
+        RelationshipRecord[] relationships = {
+                relationship( 0, 0, 1, 0 ),
+                relationship( 1, 1, 2, 1 ),
+                relationship( 2, 2, 0, 0 ),
+                relationship( 3, 4, 0, 0 ),
+                relationship( 4, 1, 4, 1 ),
+                relationship( 5, 4, 4, 0 ),
+                relationship( 6, 4, 2, 0 )};
+        // The chains of the sparse nodes
+        link( relationships, 0, 0, 2, 3 );
+        link( relationships, 1, 0, 1, 4 );
+        link( relationships, 2, 1, 2, 6 );
+        // The chains of the dense node, per type and direction
+        link( relationships, DENSE_NODE, 3, 6 );
+        link( relationships, DENSE_NODE, 5 );
+        link( relationships, DENSE_NODE, 4 );
+        for ( RelationshipRecord relationship : relationships )
+        {
+            neoStores.getRelationshipStore().updateRecord( relationship );
+        }
+
+        neoStores.getRelationshipGroupStore().updateRecord( new RelationshipGroupRecord( 0, 0, 3, NO_REL, 5, DENSE_NODE, 1, true ) );
+        neoStores.getRelationshipGroupStore().updateRecord( new RelationshipGroupRecord( 1, 1, NO_REL, 4, NO_REL, DENSE_NODE, NO_REL, true ) );
+
+        neoStores.getNodeStore().updateRecord( node( 0, false, 0 ) );
+        neoStores.getNodeStore().updateRecord( node( 1, false, 0 ) );
+        neoStores.getNodeStore().updateRecord( node( 2, false, 1 ) );
+        neoStores.getNodeStore().updateRecord( node( 3, false, NO_REL ) );
+        neoStores.getNodeStore().updateRecord( node( DENSE_NODE, true, 0 ) );
+    }
+
+    private static void link( RelationshipRecord[] relationships, long node, int... chain )
+    {
+        for ( int i = 0; i < chain.length; i++ )
+        {
+            RelationshipRecord relationship = relationships[chain[i]];
+            long next = i + 1 < chain.length ? chain[i + 1] : NO_REL;
+            if ( relationship.getFirstNode() == node )
+            {
+                relationship.setFirstNextRel( next );
+            }
+            if ( relationship.getSecondNode() == node )
+            {
+                relationship.setSecondNextRel( next );
+            }
+        }
+    }
+
+    private static RelationshipRecord relationship( long id, long firstNode, long secondNode, int type )
+    {
+        return new RelationshipRecord( id, true, firstNode, secondNode, type, NO_REL, NO_REL, NO_REL, NO_REL, false, false );
+    }
+
+    private static NodeRecord node( long id, boolean dense, long nextRel )
+    {
+        return new NodeRecord( id ).initialize( true, NO_NEXT_PROPERTY.intValue(), dense, nextRel, NO_LABELS_FIELD.intValue() );
+    }
+
+    private RecordRelationshipBatchCursor getBatchCursor()
+    {
+        return new RecordRelationshipBatchCursor( neoStores.getNodeStore(), neoStores.getRelationshipStore(),
+                neoStores.getRelationshipGroupStore() );
+    }
+
+    private RecordRelationshipBatchCursor getBatchCursor( int maxBufferedRelationships )
+    {
+        return new RecordRelationshipBatchCursor( neoStores.getNodeStore(), neoStores.getRelationshipStore(),
+                neoStores.getRelationshipGroupStore(), maxBufferedRelationships );
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
+import org.neo4j.kernel.impl.store.format.adjacency.AdjacencyV4_0;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
+import org.neo4j.storageengine.api.StoreFileMetadata;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.rule.RecordStorageEngineRule;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class RelationshipAdjacencyBatchTransactionApplierTest
+{
+    private static final int TYPE = 0;
+    private static final long NO_ID = NO_NEXT_RELATIONSHIP.longValue();
+
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private RecordStorageEngineRule storageEngineRule;
+    private RecordStorageEngine storageEngine;
+    private long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+
+    @BeforeEach
+    void before() throws Throwable
+    {
+        startStorageEngine();
+    }
+
+    @AfterEach
+    void after() throws Throwable
+    {
+        storageEngineRule.after( true );
+    }
+
+    @Test
+    void shouldSelectAdjacencyFormatFromConfigAndStoreVersion()
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.record_format, AdjacencyV4_0.NAME );
+        RecordFormats formats = RecordFormatSelector.selectForConfig( config, NullLogProvider.getInstance() );
+
+        assertSame( AdjacencyV4_0.RECORD_FORMATS, formats );
+        assertSame( AdjacencyV4_0.RECORD_FORMATS, RecordFormatSelector.selectForVersion( AdjacencyV4_0.STORE_VERSION ) );
+        assertSame( AdjacencyV4_0.RECORD_FORMATS, storageEngine.testAccessNeoStores().getRecordFormats() );
+        assertTrue( formats.hasCapability( RecordStorageCapability.RELATIONSHIP_ADJACENCY_STORE ) );
+        assertFalse( Standard.LATEST_RECORD_FORMATS.hasCapability( RecordStorageCapability.RELATIONSHIP_ADJACENCY_STORE ) );
+    }
+
+    @Test
+    void shouldListAdjacencyStoreFile()
+    {
+        Set<File> files = storageEngine.listStorageFiles().stream().map( StoreFileMetadata::file ).collect( Collectors.toSet() );
+
+        assertTrue( files.contains( databaseLayout.relationshipAdjacencyStore() ) );
+    }
+
+    @Test
+    void shouldAddAndRemoveRelationshipsOfAppliedTransactions() throws Exception
+    {
+        // when
+        apply( TransactionApplicationMode.EXTERNAL, transaction( created( 0, 1, 2 ), created( 1, 2, 1 ), created( 2, 1, 1 ) ) );
+
+        // then
+        assertEquals( asList( "0->2", "1<-2", "2--1" ), relationships( 1 ) );
+        assertEquals( asList( "1->1", "0<-1" ), relationships( 2 ) );
+
+        // when
+        apply( TransactionApplicationMode.EXTERNAL, transaction( deleted( 0, 1, 2 ), deleted( 2, 1, 1 ) ) );
+
+        // then
+        assertEquals( singletonList( "1<-2" ), relationships( 1 ) );
+        assertEquals( singletonList( "1->1" ), relationships( 2 ) );
+    }
+
+    @Test
+    void shouldIgnoreRelationshipChangesOtherThanCreationAndDeletion() throws Exception
+    {
+        // given
+        apply( TransactionApplicationMode.EXTERNAL, transaction( created( 0, 1, 2 ) ) );
+
+        // when
+        RelationshipRecord before = relationship( 0, 1, 2 );
+        RelationshipRecord after = relationship( 0, 1, 2 );
+        after.setNextProp( 5 );
+        apply( TransactionApplicationMode.EXTERNAL, transaction( new Command.RelationshipCommand( before, after ) ) );
+
+        // then
+        assertEquals( singletonList( "0->2" ), relationships( 1 ) );
+        assertEquals( singletonList( "0<-1" ), relationships( 2 ) );
+    }
+
+    @Test
+    void shouldEndUpInSameStateWhenRecoveryReplaysAppliedTransactions() throws Exception
+    {
+        // given a relationship id which is created, deleted and then reused
+        GroupOfCommands create = transaction( created( 0, 1, 2 ) );
+        GroupOfCommands delete = transaction( deleted( 0, 1, 2 ) );
+        GroupOfCommands reuse = transaction( created( 0, 1, 3 ) );
+        apply( TransactionApplicationMode.EXTERNAL, create );
+        apply( TransactionApplicationMode.EXTERNAL, delete );
+        apply( TransactionApplicationMode.EXTERNAL, reuse );
+
+        // when all of them are replayed in a single batch
+        create.next = delete;
+        delete.next = reuse;
+        apply( TransactionApplicationMode.RECOVERY, create );
+
+        // then
+        assertEquals( singletonList( "0->3" ), relationships( 1 ) );
+        assertEquals( emptyList(), relationships( 2 ) );
+        assertEquals( singletonList( "0<-1" ), relationships( 3 ) );
+    }
+
+    @Test
+    void shouldRebuildAdjacencyStoreFromRelationshipStoreIfMissing() throws Throwable
+    {
+        // given
+        apply( TransactionApplicationMode.EXTERNAL, transaction( created( 0, 1, 2 ), created( 1, 2, 3 ), created( 2, 3, 3 ) ) );
+        apply( TransactionApplicationMode.EXTERNAL, transaction( deleted( 1, 2, 3 ) ) );
+        storageEngine.flushAndForce( IOLimiter.UNLIMITED );
+        storageEngineRule.after( true );
+
+        // when
+        fs.deleteFileOrThrow( databaseLayout.relationshipAdjacencyStore() );
+        startStorageEngine();
+
+        // then
+        assertTrue( fs.fileExists( databaseLayout.relationshipAdjacencyStore() ) );
+        assertEquals( singletonList( "0->2" ), relationships( 1 ) );
+        assertEquals( singletonList( "0<-1" ), relationships( 2 ) );
+        assertEquals( singletonList( "2--3" ), relationships( 3 ) );
+    }
+
+    private void startStorageEngine() throws Throwable
+    {
+        storageEngineRule = new RecordStorageEngineRule();
+        storageEngineRule.before();
+        storageEngine = storageEngineRule.getWith( fs, pageCache, databaseLayout )
+                .setting( GraphDatabaseSettings.record_format, AdjacencyV4_0.NAME )
+                .build();
+    }
+
+    private void apply( TransactionApplicationMode mode, GroupOfCommands transaction ) throws Exception
+    {
+        storageEngine.apply( transaction, mode );
+    }
+
+    private GroupOfCommands transaction( Command.RelationshipCommand... commands )
+    {
+        return new GroupOfCommands( ++lastTransactionId, commands );
+    }
+
+    /**
+     * @return the relationships of the node as seen by a traversal, as "id" followed by "->", "<-" or "--" for outgoing, incoming and loops
+     * and then the id of the neighbour node.
+     */
+    private List<String> relationships( long nodeId )
+    {
+        List<String> relationships = new ArrayList<>();
+        try ( RecordStorageReader reader = storageEngine.newReader();
+              StorageRelationshipTraversalCursor cursor = reader.allocateRelationshipTraversalCursor() )
+        {
+            cursor.init( nodeId, 0, false );
+            while ( cursor.next() )
+            {
+                String direction = cursor.sourceNodeReference() == cursor.targetNodeReference() ? "--"
+                                   : cursor.sourceNodeReference() == nodeId ? "->" : "<-";
+                relationships.add( cursor.entityReference() + direction + cursor.neighbourNodeReference() );
+            }
+        }
+        return relationships;
+    }
+
+    private static Command.RelationshipCommand created( long id, long startNode, long endNode )
+    {
+        return new Command.RelationshipCommand( new RelationshipRecord( id ), relationship( id, startNode, endNode ) );
+    }
+
+    private static Command.RelationshipCommand deleted( long id, long startNode, long endNode )
+    {
+        return new Command.RelationshipCommand( relationship( id, startNode, endNode ), new RelationshipRecord( id ) );
+    }
+
+    private static RelationshipRecord relationship( long id, long startNode, long endNode )
+    {
+        return new RelationshipRecord( id ).initialize( true, NO_NEXT_PROPERTY.longValue(), startNode, endNode, TYPE,
+                1, NO_ID, 1, NO_ID, true, true );
+    }
+}
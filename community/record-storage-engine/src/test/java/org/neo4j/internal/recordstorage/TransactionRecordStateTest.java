@@ -46,6 +46,7 @@ import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.NodeDegreeCountsCommand;
 import org.neo4j.internal.recordstorage.Command.PropertyCommand;
 import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
 import org.neo4j.internal.recordstorage.Command.RelationshipGroupCommand;
@@ -83,7 +84,9 @@ import org.neo4j.lock.LockService;
 import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.CountsDelta;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StandardConstraintRuleAccessor;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageReader;
@@ -1214,6 +1217,48 @@ class TransactionRecordStateTest
         assertEquals( 1, groups );
     }
 
+    @Test
+    void shouldExtractDegreesOfDenseNodes() throws Exception
+    {
+        neoStores = createStores( Config.defaults( dense_node_threshold, 1 ) );
+        int type = 0;
+        int loopType = 1;
+
+        // WHEN both nodes become dense in the same transaction they're created in
+        TransactionRecordState state = newTransactionRecordState();
+        state.nodeCreate( 0 );
+        state.nodeCreate( 1 );
+        state.relCreate( 0, type, 0, 1 );
+        state.relCreate( 1, type, 0, 1 );
+        state.relCreate( 2, loopType, 0, 0 );
+        List<StorageCommand> commands = new ArrayList<>();
+        state.extractCommands( commands );
+        CountsDelta degrees = degreesOf( commands );
+
+        // THEN their full degrees are extracted
+        assertEquals( 2, degrees.nodeDegree( 0, type, RelationshipDirection.OUTGOING ) );
+        assertEquals( 0, degrees.nodeDegree( 0, type, RelationshipDirection.INCOMING ) );
+        assertEquals( 1, degrees.nodeDegree( 0, loopType, RelationshipDirection.LOOP ) );
+        assertEquals( 2, degrees.nodeDegree( 1, type, RelationshipDirection.INCOMING ) );
+        apply( transaction( commands ) );
+
+        // WHEN changing relationships of nodes which are already dense
+        state = newTransactionRecordState();
+        state.relCreate( 3, type, 1, 0 );
+        state.relDelete( 0 );
+        state.relDelete( 2 );
+        commands = new ArrayList<>();
+        state.extractCommands( commands );
+        degrees = degreesOf( commands );
+
+        // THEN only the changes are extracted
+        assertEquals( -1, degrees.nodeDegree( 0, type, RelationshipDirection.OUTGOING ) );
+        assertEquals( 1, degrees.nodeDegree( 0, type, RelationshipDirection.INCOMING ) );
+        assertEquals( -1, degrees.nodeDegree( 0, loopType, RelationshipDirection.LOOP ) );
+        assertEquals( 1, degrees.nodeDegree( 1, type, RelationshipDirection.OUTGOING ) );
+        assertEquals( -1, degrees.nodeDegree( 1, type, RelationshipDirection.INCOMING ) );
+    }
+
     @Test
     void preparingIndexRulesMustMarkSchemaRecordAsChanged() throws Exception
     {
@@ -1494,6 +1539,20 @@ class TransactionRecordStateTest
         return new GroupOfCommands( commands.toArray( new StorageCommand[0] ) );
     }
 
+    private static CountsDelta degreesOf( List<StorageCommand> commands )
+    {
+        CountsDelta degrees = new CountsDelta();
+        for ( StorageCommand command : commands )
+        {
+            if ( command instanceof NodeDegreeCountsCommand )
+            {
+                NodeDegreeCountsCommand degreeCommand = (NodeDegreeCountsCommand) command;
+                degrees.incrementNodeDegree( degreeCommand.nodeId(), degreeCommand.typeId(), degreeCommand.direction(), degreeCommand.delta() );
+            }
+        }
+        return degrees;
+    }
+
     private static void assertCommand( StorageCommand next, Class<?> klass )
     {
         assertTrue( klass.isInstance( next ), "Expected " + klass + ". was: " + next );
@@ -19,6 +19,8 @@
  */
 package org.neo4j.counts;
 
+import org.neo4j.storageengine.api.RelationshipDirection;
+
 /**
  * Interface for reading counts. Basically the read-parts of a {@link CountsStore}.
  */
@@ -38,6 +40,17 @@ public interface CountsAccessor extends CountsVisitor.Visitable
      */
     long relationshipCount( int startLabelId, int typeId, int endLabelId );
 
+    /**
+     * Degrees are only kept for dense nodes, i.e. nodes which have their relationships divided up into relationship groups.
+     * They are not part of what is {@link #accept(CountsVisitor) visited}.
+     *
+     * @param nodeId id of the node.
+     * @param typeId relationship type token id.
+     * @param direction direction of the relationships, relative to the node.
+     * @return the number of relationships of the given type and direction that the node has.
+     */
+    long nodeDegree( long nodeId, int typeId, RelationshipDirection direction );
+
     /**
      * Updater of counts. Matches {@link CountsAccessor} and has the writing equivalence of those methods.
      */
@@ -59,6 +72,15 @@ public interface CountsAccessor extends CountsVisitor.Visitable
          */
         void incrementRelationshipCount( long startLabelId, int typeId, long endLabelId, long delta );
 
+        /**
+         * Increments (or decrements if delta is negative) the degree of a dense node, for the given relationship type and direction.
+         * @param nodeId id of the node.
+         * @param typeId relationship type token id.
+         * @param direction direction of the relationships, relative to the node.
+         * @param delta delta (positive or negative) to apply for the degree.
+         */
+        void incrementNodeDegree( long nodeId, int typeId, RelationshipDirection direction, long delta );
+
         /**
          * Closes this updater and ensures that counts are applied as well as no more deltas can be applied after closed.
          */
@@ -78,6 +100,11 @@ public interface CountsAccessor extends CountsVisitor.Visitable
         {   // no-op
         }
 
+        @Override
+        public void incrementNodeDegree( long nodeId, int typeId, RelationshipDirection direction, long delta )
+        {   // no-op
+        }
+
         @Override
         public void close()
         {   // no-op
@@ -23,6 +23,7 @@ import java.io.IOException;
 
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 /**
  * Store and accessor of entity counts. Counts changes revolves around one or a combination of multiple tokens and are applied as deltas.
@@ -82,6 +83,12 @@ public interface CountsStore extends CountsAccessor, AutoCloseable, ConsistencyC
             return 0;
         }
 
+        @Override
+        public long nodeDegree( long nodeId, int typeId, RelationshipDirection direction )
+        {
+            return 0;
+        }
+
         @Override
         public void accept( CountsVisitor visitor )
         {   // no-op
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import java.util.Arrays;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.values.storable.Value;
+
+/**
+ * A logical change to one node or relationship, made by one committed transaction, as decoded from the transaction log
+ * by a {@link ChangeEventDecoder}.
+ * <p>
+ * Tokens are referred to by id. Property values that the transaction did not change are not included,
+ * and a property that didn't exist on one side of the change has {@link org.neo4j.values.storable.Values#NO_VALUE} as value on that side.
+ * A value can be {@code null} if the storage engine could not tell what it was from the log alone, which can happen for the
+ * value before a change of a large string or array.
+ */
+public class ChangeEvent
+{
+    private final long txId;
+    private final EntityType entityType;
+    private final long entityId;
+    private final UpdateMode mode;
+    private final long[] labelsBefore;
+    private final long[] labelsAfter;
+    private final int type;
+    private final long startNode;
+    private final long endNode;
+    private final int[] propertyKeyIds;
+    private final Value[] valuesBefore;
+    private final Value[] valuesAfter;
+
+    private ChangeEvent( long txId, EntityType entityType, long entityId, UpdateMode mode, long[] labelsBefore, long[] labelsAfter,
+            int type, long startNode, long endNode, int[] propertyKeyIds, Value[] valuesBefore, Value[] valuesAfter )
+    {
+        this.txId = txId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.mode = mode;
+        this.labelsBefore = labelsBefore;
+        this.labelsAfter = labelsAfter;
+        this.type = type;
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.propertyKeyIds = propertyKeyIds;
+        this.valuesBefore = valuesBefore;
+        this.valuesAfter = valuesAfter;
+    }
+
+    /**
+     * @param labelsBefore sorted label ids of the node before the change, or {@code null} if not known, for example because
+     * the transaction didn't change the node record itself.
+     * @param labelsAfter sorted label ids of the node after the change, or {@code null} if not known, for example because
+     * the transaction didn't change the node record itself.
+     */
+    public static ChangeEvent nodeChange( long txId, long nodeId, UpdateMode mode, long[] labelsBefore, long[] labelsAfter,
+            int[] propertyKeyIds, Value[] valuesBefore, Value[] valuesAfter )
+    {
+        return new ChangeEvent( txId, EntityType.NODE, nodeId, mode, labelsBefore, labelsAfter, -1, -1, -1,
+                propertyKeyIds, valuesBefore, valuesAfter );
+    }
+
+    /**
+     * @param type relationship type id, or {@code -1} if the transaction didn't change the relationship record itself.
+     * @param startNode id of the start node, or {@code -1} if the transaction didn't change the relationship record itself.
+     * @param endNode id of the end node, or {@code -1} if the transaction didn't change the relationship record itself.
+     */
+    public static ChangeEvent relationshipChange( long txId, long relationshipId, UpdateMode mode, int type, long startNode, long endNode,
+            int[] propertyKeyIds, Value[] valuesBefore, Value[] valuesAfter )
+    {
+        return new ChangeEvent( txId, EntityType.RELATIONSHIP, relationshipId, mode, null, null, type, startNode, endNode,
+                propertyKeyIds, valuesBefore, valuesAfter );
+    }
+
+    public long getTxId()
+    {
+        return txId;
+    }
+
+    public EntityType getEntityType()
+    {
+        return entityType;
+    }
+
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    /**
+     * @return {@link UpdateMode#ADDED} if the entity was created, {@link UpdateMode#REMOVED} if it was deleted,
+     * otherwise {@link UpdateMode#CHANGED}.
+     */
+    public UpdateMode getMode()
+    {
+        return mode;
+    }
+
+    public long[] getLabelsBefore()
+    {
+        return labelsBefore;
+    }
+
+    public long[] getLabelsAfter()
+    {
+        return labelsAfter;
+    }
+
+    public int getType()
+    {
+        return type;
+    }
+
+    public long getStartNode()
+    {
+        return startNode;
+    }
+
+    public long getEndNode()
+    {
+        return endNode;
+    }
+
+    /**
+     * @return ids of the changed properties, in ascending order. The values of property {@code getPropertyKeyIds()[i]}
+     * are {@code getValuesBefore()[i]} and {@code getValuesAfter()[i]}.
+     */
+    public int[] getPropertyKeyIds()
+    {
+        return propertyKeyIds;
+    }
+
+    public Value[] getValuesBefore()
+    {
+        return valuesBefore;
+    }
+
+    public Value[] getValuesAfter()
+    {
+        return valuesAfter;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( getClass().getSimpleName() ).append( "[tx:" ).append( txId ).append( ", " )
+                .append( entityType ).append( ':' ).append( entityId ).append( ", " ).append( mode );
+        if ( entityType == EntityType.NODE )
+        {
+            builder.append( ", labelsBefore:" ).append( Arrays.toString( labelsBefore ) )
+                    .append( ", labelsAfter:" ).append( Arrays.toString( labelsAfter ) );
+        }
+        else
+        {
+            builder.append( ", type:" ).append( type ).append( ", start:" ).append( startNode ).append( ", end:" ).append( endNode );
+        }
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            builder.append( ", " ).append( propertyKeyIds[i] ).append( ':' ).append( valuesBefore[i] ).append( "->" ).append( valuesAfter[i] );
+        }
+        return builder.append( ']' ).toString();
+    }
+}
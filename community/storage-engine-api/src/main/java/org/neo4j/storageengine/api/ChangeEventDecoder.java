@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Decodes the {@link StorageCommand commands} of committed transactions, as read back from the transaction log,
+ * into logical {@link ChangeEvent change events}. An instance keeps state between calls and must only be used by one thread at a time.
+ */
+public interface ChangeEventDecoder
+{
+    /**
+     * @param txId id of the transaction that the commands belong to.
+     * @param commands the commands of one transaction.
+     * @param target {@link Collection} to put one {@link ChangeEvent} per changed node or relationship into,
+     * nodes before relationships and each in ascending id order.
+     * @throws IOException on error reading the commands.
+     */
+    void decode( long txId, CommandStream commands, Collection<ChangeEvent> target ) throws IOException;
+}
@@ -43,6 +43,8 @@ public class CountsDelta implements CountsAccessor, CountsAccessor.Updater
 {
     private static final long DEFAULT_COUNT = 0;
     private final Map<Key,MutableLong> counts = new HashMap<>();
+    // Degrees are not visited, like in any other CountsAccessor, so they are kept apart from the counts
+    private final Map<Key,MutableLong> degrees = new HashMap<>();
 
     @Override
     public long nodeCount( int labelId )
@@ -71,6 +73,22 @@ public class CountsDelta implements CountsAccessor, CountsAccessor.Updater
         }
     }
 
+    @Override
+    public long nodeDegree( long nodeId, int typeId, RelationshipDirection direction )
+    {
+        MutableLong degree = degrees.get( degreeKey( nodeId, typeId, direction ) );
+        return degree != null ? degree.longValue() : DEFAULT_COUNT;
+    }
+
+    @Override
+    public void incrementNodeDegree( long nodeId, int typeId, RelationshipDirection direction, long delta )
+    {
+        if ( delta != 0 )
+        {
+            degrees.computeIfAbsent( degreeKey( nodeId, typeId, direction ), k -> new MutableLong( DEFAULT_COUNT ) ).add( delta );
+        }
+    }
+
     @Override
     public void close()
     {
@@ -270,6 +288,18 @@ public class CountsDelta implements CountsAccessor, CountsAccessor.Updater
         };
     }
 
+    private static Key degreeKey( long nodeId, int typeId, RelationshipDirection direction )
+    {
+        return new Key( nodeId, typeId, direction.ordinal() )
+        {
+            @Override
+            void accept( CountsVisitor visitor, long count )
+            {
+                throw new UnsupportedOperationException( "Degrees are not visited" );
+            }
+        };
+    }
+
     @VisibleForTesting
     public static Key relationshipKey( long startLabelId, long relationshipTypeId, long endLabelId )
     {
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+/**
+ * Receives relationship type updates from changes in underlying storage. Updates are expressed as {@link NodeLabelUpdate}s
+ * where the entity id is the relationship id and the single "label" is the relationship type, so that relationship type
+ * mappings can be kept in the same kind of store as node label mappings.
+ */
+public interface RelationshipTypeUpdateListener
+{
+    /**
+     * Applies relationship type updates from changes in underlying storage.
+     * @param typeUpdates stream of updates to apply.
+     */
+    void applyRelationshipTypeUpdates( Iterable<NodeLabelUpdate> typeUpdates );
+
+    class Adapter implements RelationshipTypeUpdateListener
+    {
+        @Override
+        public void applyRelationshipTypeUpdates( Iterable<NodeLabelUpdate> typeUpdates )
+        {
+        }
+    }
+}
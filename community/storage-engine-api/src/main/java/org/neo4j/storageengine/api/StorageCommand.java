@@ -21,6 +21,7 @@ package org.neo4j.storageengine.api;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.function.LongConsumer;
 
 import org.neo4j.io.fs.WritableChannel;
 import org.neo4j.lock.ResourceLocker;
@@ -46,6 +47,23 @@ public interface StorageCommand
      */
     void serialize( WritableChannel channel ) throws IOException;
 
+    /**
+     * Visits keys that identify the parts of the storage that this command changes. Commands from different transactions
+     * that visit no keys in common can be applied concurrently, and in any order, which is what parallel recovery relies on.
+     * Commands that visit the same key are applied in transaction order.
+     * <p>
+     * The keys are opaque to everyone but the storage engine that created the command, and only need to be comparable
+     * with the keys of other commands from the same storage engine.
+     *
+     * @param keys {@link LongConsumer} that receives the keys.
+     * @return {@code true} if the command was described by its keys, or {@code false} if the command must be applied in
+     * transaction order with respect to all other commands. This is the default.
+     */
+    default boolean visitKeys( LongConsumer keys )
+    {
+        return false;
+    }
+
     interface TokenCommand extends StorageCommand
     {
         /**
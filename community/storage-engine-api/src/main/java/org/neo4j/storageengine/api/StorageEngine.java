@@ -59,6 +59,13 @@ public interface StorageEngine extends Lifecycle
      */
     void addNodeLabelUpdateListener( NodeLabelUpdateListener nodeLabelUpdateListener );
 
+    /**
+     * Adds an {@link RelationshipTypeUpdateListener} which will receive streams of relationship type updates from changes that gets
+     * {@link #apply(CommandsToApply, TransactionApplicationMode) applied} to this storage engine.
+     * @param relationshipTypeUpdateListener {@link RelationshipTypeUpdateListener} to add.
+     */
+    void addRelationshipTypeUpdateListener( RelationshipTypeUpdateListener relationshipTypeUpdateListener );
+
     /**
      * Generates a list of {@link StorageCommand commands} representing the changes in the given transaction state
      * ({@code state}.
@@ -158,4 +165,12 @@ public interface StorageEngine extends Lifecycle
      * @return an interface for accessing data in the storage.
      */
     StorageReader newReader();
+
+    /**
+     * Creates a new {@link ChangeEventDecoder} for turning the commands of committed transactions, as read from the transaction log,
+     * into logical changes. The returned instance is intended to be used by one thread at a time.
+     *
+     * @return a decoder of the commands created by this storage engine.
+     */
+    ChangeEventDecoder newChangeEventDecoder();
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.storageengine.api;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.function.Function;
@@ -29,6 +30,8 @@ import org.neo4j.internal.schema.ConstraintDescriptor;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.constraints.IndexBackedConstraintDescriptor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 /**
  * Abstraction for accessing data from a {@link StorageEngine}.
@@ -98,6 +101,17 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     long countsForRelationship( int startLabelId, int typeId, int endLabelId );
 
+    /**
+     * Returns the number of stored relationships of a certain {@code typeId} and {@code direction} that the node has,
+     * where loops are only counted in {@link RelationshipDirection#LOOP}.
+     *
+     * @param nodeReference node to count relationships of.
+     * @param typeId relationship type id to match.
+     * @param direction direction, from the node's point of view, to match.
+     * @return number of stored relationships matching these criteria, or {@code 0} if the node doesn't exist.
+     */
+    long nodeDegree( long nodeReference, int typeId, RelationshipDirection direction );
+
     long nodesGetCount();
 
     long relationshipsGetCount();
@@ -136,6 +150,49 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     StoragePropertyCursor allocatePropertyCursor();
 
+    /**
+     * Reads the values of some properties of many entities at once. Implementations are free to read the underlying data in any order,
+     * e.g. in the order it's laid out in the store, but the result is always in the order of the given references.
+     *
+     * @param propertyReferences property references, as given by {@link StorageEntityCursor#propertiesReference()}, of the entities to read.
+     * @param propertyKeys the distinct property keys to read for each entity.
+     * @param entityType whether the references point to node or relationship properties.
+     * @return for each reference, the values of the {@code propertyKeys} in the order of {@code propertyKeys}.
+     * Properties which an entity doesn't have are {@link Values#NO_VALUE}.
+     */
+    default Value[][] propertyValues( long[] propertyReferences, int[] propertyKeys, EntityType entityType )
+    {
+        Value[][] values = new Value[propertyReferences.length][propertyKeys.length];
+        try ( StoragePropertyCursor cursor = allocatePropertyCursor() )
+        {
+            for ( int i = 0; i < propertyReferences.length; i++ )
+            {
+                Value[] row = values[i];
+                Arrays.fill( row, Values.NO_VALUE );
+                if ( entityType == EntityType.NODE )
+                {
+                    cursor.initNodeProperties( propertyReferences[i] );
+                }
+                else
+                {
+                    cursor.initRelationshipProperties( propertyReferences[i] );
+                }
+                while ( cursor.next() )
+                {
+                    int propertyKey = cursor.propertyKey();
+                    for ( int slot = 0; slot < propertyKeys.length; slot++ )
+                    {
+                        if ( propertyKeys[slot] == propertyKey )
+                        {
+                            row[slot] = cursor.propertyValue();
+                        }
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
     /**
      * @return a new {@link StorageRelationshipGroupCursor} capable of reading relationship group data from the underlying storage.
      */
@@ -146,6 +203,11 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     StorageRelationshipTraversalCursor allocateRelationshipTraversalCursor();
 
+    /**
+     * @return a new {@link StorageRelationshipBatchCursor} capable of traversing the relationships of many nodes at once from the underlying storage.
+     */
+    StorageRelationshipBatchCursor allocateRelationshipBatchCursor();
+
     /**
      * @return a new {@link StorageRelationshipScanCursor} capable of reading relationship data from the underlying storage.
      */
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+/**
+ * Cursor for traversing the relationships of many nodes in one go. Knowing all the nodes up front lets the storage read the data in
+ * whatever order suits it, rather than chasing the relationships of one node at a time.
+ * <p>
+ * The relationships are grouped by the node they were traversed from, and the groups come in the order the nodes were given in. There is
+ * no group for a node that does not exist, or has no relationships of the requested types. The order of the relationships within a group
+ * is unspecified.
+ */
+public interface StorageRelationshipBatchCursor extends StorageRelationshipCursor
+{
+    /**
+     * Initializes this cursor to traverse the relationships of the given nodes.
+     *
+     * @param nodeReferences the nodes to traverse the relationships of. A node that occurs more than once gets a group for each occurrence.
+     * @param types the relationship types to traverse, or {@code null} to traverse relationships of all types.
+     */
+    void init( long[] nodeReferences, int[] types );
+
+    /**
+     * @return the index into the {@code nodeReferences} given to {@link #init(long[], int[])} of the node the current relationship was
+     * traversed from.
+     */
+    int originIndex();
+
+    long originNodeReference();
+
+    long neighbourNodeReference();
+}
@@ -104,6 +104,12 @@ public class AdversarialPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        return delegate.snapshotDirtyPages( limiter );
+    }
+
     @Override
     public void close()
     {
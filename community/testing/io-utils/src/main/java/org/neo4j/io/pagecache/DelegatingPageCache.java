@@ -90,6 +90,12 @@ public class DelegatingPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public IOLimiter snapshotDirtyPages( IOLimiter limiter )
+    {
+        return delegate.snapshotDirtyPages( limiter );
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
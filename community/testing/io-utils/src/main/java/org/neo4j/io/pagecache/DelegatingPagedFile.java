@@ -37,6 +37,12 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.io( pageId, pf_flags );
     }
 
+    @Override
+    public void prefetch( long[] filePageIds, int count )
+    {
+        delegate.prefetch( filePageIds, count );
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
@@ -41,6 +42,7 @@ public class StubCursorFactory implements CursorFactory
     private Queue<RelationshipScanCursor> relationshipScanCursors = new LinkedList<>();
     private Queue<RelationshipScanCursor> fullRelationshipScanCursors = new LinkedList<>();
     private Queue<RelationshipTraversalCursor> relationshiTraversalCursors = new LinkedList<>();
+    private Queue<RelationshipBatchCursor> relationshipBatchCursors = new LinkedList<>();
     private Queue<PropertyCursor> propertyCursors = new LinkedList<>();
     private Queue<PropertyCursor> fullPropertyCursors = new LinkedList<>();
     private Queue<RelationshipGroupCursor> groupCursors = new LinkedList<>();
@@ -88,6 +90,12 @@ public class StubCursorFactory implements CursorFactory
         return poll( relationshiTraversalCursors );
     }
 
+    @Override
+    public RelationshipBatchCursor allocateRelationshipBatchCursor()
+    {
+        return poll( relationshipBatchCursors );
+    }
+
     @Override
     public PropertyCursor allocatePropertyCursor()
     {
@@ -136,6 +144,12 @@ public class StubCursorFactory implements CursorFactory
         return this;
     }
 
+    public StubCursorFactory withRelationshipBatchCursors( RelationshipBatchCursor...cursors )
+    {
+        relationshipBatchCursors.addAll( Arrays.asList( cursors ) );
+        return this;
+    }
+
     private <T> T poll( Queue<T> queue )
     {
         T poll = queue.poll();
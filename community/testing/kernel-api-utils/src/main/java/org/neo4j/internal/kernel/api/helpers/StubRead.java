@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.kernel.api.helpers;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexReadSession;
 import org.neo4j.internal.kernel.api.NodeCursor;
@@ -26,6 +27,7 @@ import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipBatchCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
@@ -116,6 +118,12 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int nodeDegree( long reference, int typeId, Direction direction )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public long countsForNode( int labelId )
     {
@@ -188,6 +196,12 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void nodesRelationships( long[] nodeReferences, int[] types, RelationshipBatchCursor cursor )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void nodeProperties( long nodeReference, long reference, PropertyCursor cursor )
     {
@@ -206,6 +220,18 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Value[][] nodesProperties( long[] nodeReferences, int[] propertyKeyIds )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Value[][] relationshipsProperties( long[] relationshipReferences, int[] propertyKeyIds )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean nodeDeletedInTransaction( long node )
     {
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+/**
+ * Monitors the compressed command blocks, see {@link CompressedCommandBlocks}, that are written to and read from transaction logs.
+ * Byte counts are of the commands in a block, before compression and after.
+ */
+public interface CommandCompressionMonitor
+{
+    CommandCompressionMonitor NO_MONITOR = new CommandCompressionMonitor()
+    {
+    };
+
+    /**
+     * The commands of a transaction were compressed into a block, that was written to the log.
+     */
+    default void compressed( int uncompressedBytes, int compressedBytes, long nanos )
+    {
+    }
+
+    /**
+     * A block of commands was read from the log and decompressed.
+     */
+    default void decompressed( int uncompressedBytes, int compressedBytes, long nanos )
+    {
+    }
+}
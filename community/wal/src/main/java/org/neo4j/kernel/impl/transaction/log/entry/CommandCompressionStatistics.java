@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CommandCompressionMonitor} that sums up the compressed command blocks, see {@link CompressedCommandBlocks}, that are written to
+ * and read from the transaction logs of a database. Byte counts are of the commands in the blocks, before compression and after.
+ */
+public class CommandCompressionStatistics implements CommandCompressionMonitor
+{
+    private final LongAdder blocksWritten = new LongAdder();
+    private final LongAdder uncompressedBytesWritten = new LongAdder();
+    private final LongAdder compressedBytesWritten = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder blocksRead = new LongAdder();
+    private final LongAdder uncompressedBytesRead = new LongAdder();
+    private final LongAdder compressedBytesRead = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    @Override
+    public void compressed( int uncompressedBytes, int compressedBytes, long nanos )
+    {
+        blocksWritten.increment();
+        uncompressedBytesWritten.add( uncompressedBytes );
+        compressedBytesWritten.add( compressedBytes );
+        compressionNanos.add( nanos );
+    }
+
+    @Override
+    public void decompressed( int uncompressedBytes, int compressedBytes, long nanos )
+    {
+        blocksRead.increment();
+        uncompressedBytesRead.add( uncompressedBytes );
+        compressedBytesRead.add( compressedBytes );
+        decompressionNanos.add( nanos );
+    }
+
+    public long blocksWritten()
+    {
+        return blocksWritten.sum();
+    }
+
+    public long uncompressedBytesWritten()
+    {
+        return uncompressedBytesWritten.sum();
+    }
+
+    public long compressedBytesWritten()
+    {
+        return compressedBytesWritten.sum();
+    }
+
+    public long blocksRead()
+    {
+        return blocksRead.sum();
+    }
+
+    public long uncompressedBytesRead()
+    {
+        return uncompressedBytesRead.sum();
+    }
+
+    public long compressedBytesRead()
+    {
+        return compressedBytesRead.sum();
+    }
+
+    /**
+     * @return how many times smaller the written command blocks got from compression, or {@code 1} if nothing has been compressed.
+     */
+    public double writeCompressionRatio()
+    {
+        return ratio( uncompressedBytesWritten.sum(), compressedBytesWritten.sum() );
+    }
+
+    /**
+     * @return how many times smaller the read command blocks were than their commands, or {@code 1} if nothing has been decompressed.
+     */
+    public double readCompressionRatio()
+    {
+        return ratio( uncompressedBytesRead.sum(), compressedBytesRead.sum() );
+    }
+
+    /**
+     * @return uncompressed bytes compressed per second spent compressing.
+     */
+    public long compressionBytesPerSecond()
+    {
+        return perSecond( uncompressedBytesWritten.sum(), compressionNanos.sum() );
+    }
+
+    /**
+     * @return uncompressed bytes produced per second spent decompressing.
+     */
+    public long decompressionBytesPerSecond()
+    {
+        return perSecond( uncompressedBytesRead.sum(), decompressionNanos.sum() );
+    }
+
+    private static double ratio( long uncompressed, long compressed )
+    {
+        return compressed == 0 ? 1 : (double) uncompressed / compressed;
+    }
+
+    private static long perSecond( long bytes, long nanos )
+    {
+        return nanos == 0 ? 0 : (long) (bytes * (double) TimeUnit.SECONDS.toNanos( 1 ) / nanos);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.io.fs.ReadableChannel;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMMAND;
+
+/**
+ * A {@link LogEntryByteCodes#COMPRESSED_COMMANDS} entry holds all the {@link LogEntryByteCodes#COMMAND} entries of a transaction,
+ * compressed with zstd as one block, after the entry header:
+ * <pre>
+ *     int    length of the command entries
+ *     int    length of the compressed block
+ *     byte[] compressed block
+ * </pre>
+ * Transactions are written with a compressed block only when that was enabled, and only when the block came out smaller than
+ * the command entries, so logs can have a mix of compressed and plain transactions. Readers expand the block back into the
+ * individual command entries.
+ * <p>
+ * The lengths are checked against the bytes that are actually there before anything is allocated for them: the compressed block
+ * is read in chunks, so that it can be no larger than what is left of the log, and the length of the command entries has to match
+ * the content size in the header of the zstd frame.
+ */
+public final class CompressedCommandBlocks
+{
+    /**
+     * Size of the lengths between the entry header and the compressed block.
+     */
+    public static final int BLOCK_HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+    private CompressedCommandBlocks()
+    {
+        throw new AssertionError( "No instances" );
+    }
+
+    /**
+     * @param length length of the command entries.
+     * @return how large a buffer {@link #compress(byte[], int, byte[], int)} may need, to compress them.
+     */
+    public static int maxCompressedLength( int length )
+    {
+        return (int) Zstd.compressBound( length );
+    }
+
+    /**
+     * Compress serialized command entries.
+     *
+     * @param commands buffer with the serialized command entries.
+     * @param length length of the command entries in the buffer.
+     * @param target buffer to compress into, of at least {@link #maxCompressedLength(int)} bytes.
+     * @param level zstd compression level.
+     * @return length of the compressed block.
+     * @throws IOException if the commands could not be compressed.
+     */
+    public static int compress( byte[] commands, int length, byte[] target, int level ) throws IOException
+    {
+        long compressedLength = Zstd.compressByteArray( target, 0, target.length, commands, 0, length, level );
+        if ( Zstd.isError( compressedLength ) )
+        {
+            throw new IOException( "Failed to compress transaction commands: " + Zstd.getErrorName( compressedLength ) );
+        }
+        return (int) compressedLength;
+    }
+
+    /**
+     * Read a compressed block, after the entry header, and parse the command entries in it.
+     */
+    static LogEntryCompressedCommands read( LogEntryVersion version, ReadableChannel channel, CommandReaderFactory commandReaderFactory )
+            throws IOException
+    {
+        int length = channel.getInt();
+        int compressedLength = channel.getInt();
+        if ( length < 0 || compressedLength < 0 || compressedLength > Zstd.compressBound( length ) )
+        {
+            throw new IOException( format( "Invalid compressed command block lengths %d and %d", length, compressedLength ) );
+        }
+        byte[] compressed = readCompressed( channel, compressedLength );
+        long contentSize = Zstd.decompressedSize( compressed );
+        if ( contentSize != length )
+        {
+            throw new IOException( format( "Compressed command block of %d bytes holds %d bytes of commands, not %d", compressedLength,
+                    contentSize, length ) );
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] commands = new byte[length];
+        long decompressedLength = Zstd.decompressByteArray( commands, 0, length, compressed, 0, compressedLength );
+        if ( Zstd.isError( decompressedLength ) || decompressedLength != length )
+        {
+            throw new IOException( "Failed to decompress transaction commands: " +
+                    (Zstd.isError( decompressedLength ) ? Zstd.getErrorName( decompressedLength ) : decompressedLength + " bytes instead of " + length) );
+        }
+        long decompressionNanos = System.nanoTime() - startNanos;
+
+        BlockChannel block = new BlockChannel( ByteBuffer.wrap( commands ) );
+        List<LogEntryCommand> entries = new ArrayList<>();
+        while ( block.buffer.hasRemaining() )
+        {
+            LogEntryVersion commandVersion = LogEntryVersion.byVersion( block.get() );
+            byte type = block.get();
+            if ( type != COMMAND )
+            {
+                throw new IOException( "Unexpected entry type " + type + " in compressed command block" );
+            }
+            StorageCommand command = commandReaderFactory.get( commandVersion.version() ).read( block );
+            if ( command == null )
+            {
+                throw new IOException( "Incomplete command in compressed command block" );
+            }
+            entries.add( new LogEntryCommand( commandVersion, command ) );
+        }
+        return new LogEntryCompressedCommands( version, entries, length, compressedLength, decompressionNanos );
+    }
+
+    /**
+     * Read the compressed block in chunks, growing the buffer only as far as bytes are actually read. A corrupt length then ends up
+     * reading past the end of the log, instead of allocating a buffer of that length.
+     */
+    private static byte[] readCompressed( ReadableChannel channel, int compressedLength ) throws IOException
+    {
+        byte[] compressed = new byte[min( compressedLength, READ_CHUNK_SIZE )];
+        byte[] chunk = compressedLength > READ_CHUNK_SIZE ? new byte[READ_CHUNK_SIZE] : compressed;
+        int read = 0;
+        while ( read < compressedLength )
+        {
+            int chunkLength = min( compressedLength - read, READ_CHUNK_SIZE );
+            channel.get( chunk, chunkLength );
+            if ( chunk != compressed )
+            {
+                if ( compressed.length < read + chunkLength )
+                {
+                    compressed = Arrays.copyOf( compressed, (int) min( compressedLength, compressed.length * 2L ) );
+                }
+                System.arraycopy( chunk, 0, compressed, read, chunkLength );
+            }
+            read += chunkLength;
+        }
+        return compressed;
+    }
+
+    private static class BlockChannel implements ReadableChannel
+    {
+        private final ByteBuffer buffer;
+
+        BlockChannel( ByteBuffer buffer )
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public byte get() throws IOException
+        {
+            try
+            {
+                return buffer.get();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public short getShort() throws IOException
+        {
+            try
+            {
+                return buffer.getShort();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public int getInt() throws IOException
+        {
+            try
+            {
+                return buffer.getInt();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public long getLong() throws IOException
+        {
+            try
+            {
+                return buffer.getLong();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public float getFloat() throws IOException
+        {
+            try
+            {
+                return buffer.getFloat();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public double getDouble() throws IOException
+        {
+            try
+            {
+                return buffer.getDouble();
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public void get( byte[] bytes, int length ) throws IOException
+        {
+            try
+            {
+                buffer.get( bytes, 0, length );
+            }
+            catch ( BufferUnderflowException e )
+            {
+                throw endOfBlock();
+            }
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        private static IOException endOfBlock()
+        {
+            // Not a ReadPastEndException, since the block was read in full, so this is not the end of the log but a broken block
+            return new IOException( "Compressed command block ended in the middle of a command" );
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.util.List;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMPRESSED_COMMANDS;
+
+/**
+ * The command entries of a {@link CompressedCommandBlocks compressed command block}. Cursors over log entries hand out the command
+ * entries in it one by one, as if they had been written uncompressed.
+ */
+public class LogEntryCompressedCommands extends AbstractLogEntry
+{
+    private final List<LogEntryCommand> commands;
+    private final int length;
+    private final int compressedLength;
+    private final long decompressionNanos;
+
+    LogEntryCompressedCommands( LogEntryVersion version, List<LogEntryCommand> commands, int length, int compressedLength,
+            long decompressionNanos )
+    {
+        super( version, COMPRESSED_COMMANDS );
+        this.commands = commands;
+        this.length = length;
+        this.compressedLength = compressedLength;
+        this.decompressionNanos = decompressionNanos;
+    }
+
+    public List<LogEntryCommand> getCommands()
+    {
+        return commands;
+    }
+
+    /**
+     * @return length of the command entries in the block.
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return length of the compressed block.
+     */
+    public int getCompressedLength()
+    {
+        return compressedLength;
+    }
+
+    /**
+     * @return how long it took to decompress the block.
+     */
+    public long getDecompressionNanos()
+    {
+        return decompressionNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CompressedCommands[" + commands.size() + "]";
+    }
+}
@@ -36,6 +36,9 @@ import org.neo4j.storageengine.api.StorageCommand;
  * Neo4j supports writing the latest/current log entry and reading log entries for all currently supported versions.
  * Current versioning scheme uses one-byte log version field in every single log entry.
  * <p/>
+ * Versions that are only written by optional features, like {@link #V4_1}, are newer than {@link #LATEST_VERSION}. They can
+ * always be read, but are only written for the entries of those features, when they are enabled.
+ * <p/>
  * As of 2.2.4 the log-global format version is gone, although still just a token value written to adhere to
  * the 16 bytes header size of a log for backwards compatibility. The log entry version controls everything
  * about versioning of log entries and commands, such that if either log entry format (such as log entry types,
@@ -61,10 +64,18 @@ public enum LogEntryVersion
     // * New schema store format, where the schema store payload is stored in the property store.
     // * Removed master and author id from transactions
     // * Added checksum to transactions
-    V4_0( (byte) 1, LogEntryParsersV4_0.class );
+    V4_0( (byte) 1, LogEntryParsersV4_0.class ),
+    // Version 4.1
+    // * Added compressed command blocks, that hold all the commands of a transaction
+    // Only the compressed command blocks are written with this version, and only when transaction log compression is enabled.
+    V4_1( (byte) 2, LogEntryParsersV4_1.class );
 
-    public static final LogEntryVersion LATEST_VERSION;
+    /**
+     * The version that all log entries are written with, except for the entries of optional features.
+     */
+    public static final LogEntryVersion LATEST_VERSION = V4_0;
     private static final byte LOWEST_VERSION;
+    private static final byte HIGHEST_VERSION;
     private static final LogEntryVersion[] ALL = values();
     private static final ByteObjectHashMap<LogEntryVersion> LOOKUP_BY_VERSION;
 
@@ -77,7 +88,7 @@ public enum LogEntryVersion
         }
         MutableByteSet keys = LOOKUP_BY_VERSION.keySet();
         LOWEST_VERSION = keys.min();
-        LATEST_VERSION = LOOKUP_BY_VERSION.get( keys.max() );
+        HIGHEST_VERSION = keys.max();
     }
 
     private final byte version;
@@ -140,13 +151,12 @@ public enum LogEntryVersion
         {
             return logEntryVersion;
         }
-        byte latestVersion = LATEST_VERSION.version();
-        if ( version > latestVersion )
+        if ( version > HIGHEST_VERSION )
         {
             throw new UnsupportedLogVersionException( String.format(
                     "Transaction logs contains entries with prefix %d, and the highest supported prefix is %d. This " +
                             "indicates that the log files originates from a newer version of neo4j.",
-                    version, latestVersion ) );
+                    version, HIGHEST_VERSION ) );
         }
         throw new UnsupportedLogVersionException( String.format(
                 "Transaction logs contains entries with prefix %d, and the lowest supported prefix is %d. This " +
@@ -48,6 +48,7 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     private final CommandReaderFactory commandReaderFactory;
     private final LogPositionMarker positionMarker;
     private final boolean verifyChecksumChain;
+    private final CommandCompressionMonitor compressionMonitor;
     private LogEntryVersion version = LogEntryVersion.LATEST_VERSION;
     private int lastTxChecksum = BASE_TX_CHECKSUM;
 
@@ -67,10 +68,17 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     }
 
     public VersionAwareLogEntryReader( CommandReaderFactory commandReaderFactory, boolean verifyChecksumChain )
+    {
+        this( commandReaderFactory, verifyChecksumChain, CommandCompressionMonitor.NO_MONITOR );
+    }
+
+    public VersionAwareLogEntryReader( CommandReaderFactory commandReaderFactory, boolean verifyChecksumChain,
+            CommandCompressionMonitor compressionMonitor )
     {
         this.commandReaderFactory = commandReaderFactory;
         this.positionMarker = new LogPositionMarker();
         this.verifyChecksumChain = verifyChecksumChain;
+        this.compressionMonitor = compressionMonitor;
     }
 
     @Override
@@ -129,6 +137,13 @@ public class VersionAwareLogEntryReader implements LogEntryReader
                     throw new IOException( e );
                 }
 
+                if ( entry instanceof LogEntryCompressedCommands )
+                {
+                    LogEntryCompressedCommands compressedCommands = (LogEntryCompressedCommands) entry;
+                    compressionMonitor.decompressed( compressedCommands.getLength(), compressedCommands.getCompressedLength(),
+                            compressedCommands.getDecompressionNanos() );
+                }
+
                 verifyChecksumChain( entry );
                 return entry;
             }
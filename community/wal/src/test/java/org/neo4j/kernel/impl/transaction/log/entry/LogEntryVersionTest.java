@@ -61,5 +61,13 @@ class LogEntryVersionTest
     {
         assertTrue( LogEntryVersion.moreRecentVersionExists( LogEntryVersion.V3_0_10 ) );
         assertFalse( LogEntryVersion.moreRecentVersionExists( LogEntryVersion.V4_0 ) );
+        assertFalse( LogEntryVersion.moreRecentVersionExists( LogEntryVersion.V4_1 ) );
+    }
+
+    @Test
+    void shouldWriteOptionalVersionOnlyForOptionalFeatures()
+    {
+        assertEquals( LogEntryVersion.V4_0, LogEntryVersion.LATEST_VERSION );
+        assertEquals( LogEntryVersion.V4_1, LogEntryVersion.byVersion( LogEntryVersion.V4_1.version() ) );
     }
 }